@@ -39,6 +39,12 @@ import org.eclipse.core.runtime.IStatus;
 public abstract class AbstractOperation implements IUndoableOperation {
 	List<IUndoContext> contexts = new ArrayList<>();
 
+	/*
+	 * the history list indexing this operation by its contexts, to be told
+	 * about changes of the contexts
+	 */
+	volatile OperationList operationList;
+
 	private String label = ""; //$NON-NLS-1$
 
 	/**
@@ -57,6 +63,7 @@ public abstract class AbstractOperation implements IUndoableOperation {
 	public void addContext(IUndoContext context) {
 		if (!contexts.contains(context)) {
 			contexts.add(context);
+			contextsChanged();
 		}
 	}
 
@@ -124,7 +131,20 @@ public abstract class AbstractOperation implements IUndoableOperation {
 
 	@Override
 	public void removeContext(IUndoContext context) {
-		contexts.remove(context);
+		if (contexts.remove(context)) {
+			contextsChanged();
+		}
+	}
+
+	/*
+	 * Tell the history list containing this operation that the contexts have
+	 * changed.
+	 */
+	void contextsChanged() {
+		OperationList list = operationList;
+		if (list != null) {
+			list.contextsChanged(this);
+		}
 	}
 
 	@Override
@@ -19,8 +19,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -135,20 +133,20 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	ListenerList<IOperationHistoryListener> listeners = new ListenerList<>(ListenerList.IDENTITY);
 
 	/**
-	 * the list of operations available for redo, LIFO
+	 * a lock that is used to synchronize access between the undo and redo
+	 * history
 	 */
-	private final List<IUndoableOperation> redoList = Collections.synchronizedList(new ArrayList<>());
+	final Object undoRedoHistoryLock = new Object();
 
 	/**
-	 * the list of operations available for undo, LIFO
+	 * the list of operations available for redo, LIFO
 	 */
-	private final List<IUndoableOperation> undoList = Collections.synchronizedList(new ArrayList<>());
+	private final OperationList redoList = new OperationList(undoRedoHistoryLock);
 
 	/**
-	 * a lock that is used to synchronize access between the undo and redo
-	 * history
+	 * the list of operations available for undo, LIFO
 	 */
-	final Object undoRedoHistoryLock = new Object();
+	private final OperationList undoList = new OperationList(undoRedoHistoryLock);
 
 	/**
 	 * An operation that is "absorbing" all other operations while it is open.
@@ -517,27 +515,16 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	/*
 	 * Filter the specified list to include only the specified undo context.
 	 */
-	private IUndoableOperation[] filter(List<IUndoableOperation> list, IUndoContext context) {
+	private IUndoableOperation[] filter(OperationList list, IUndoContext context) {
 		/*
 		 * This method is used whenever there is a need to filter the undo or
-		 * redo history on a particular context. Currently there are no caches
-		 * kept to optimize repeated requests for the same filter. If benchmarks
-		 * show this to be a common pattern that causes performances problems,
-		 * we could implement a filtered cache here that is nullified whenever
-		 * the global history changes.
+		 * redo history on a particular context. The lists index the operations
+		 * by their contexts, so this doesn't scan the whole history unless
+		 * several of the indexed contexts match the given one.
 		 */
-
-		List<IUndoableOperation> filtered = new ArrayList<>();
 		synchronized (undoRedoHistoryLock) {
-			Iterator<IUndoableOperation> iterator = list.iterator();
-			while (iterator.hasNext()) {
-				IUndoableOperation operation = iterator.next();
-				if (operation.hasContext(context)) {
-					filtered.add(operation);
-				}
-			}
+			return list.filter(context);
 		}
-		return filtered.toArray(new IUndoableOperation[filtered.size()]);
 	}
 
 	/*
@@ -747,14 +734,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getRedoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = redoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = redoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return redoList.getLatest(context);
 		}
-		return null;
 	}
 
 	/*
@@ -788,14 +769,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getUndoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = undoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = undoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return undoList.getLatest(context);
 		}
-		return null;
 	}
 
 	/*
@@ -1042,16 +1017,13 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// check the undo history first.
 		boolean inUndo = false;
 		synchronized (undoRedoHistoryLock) {
-			int index = undoList.indexOf(operation);
-			if (index > -1) {
+			if (undoList.replace(operation, replacements)) {
 				inUndo = true;
-				undoList.remove(operation);
 				// notify listeners after the lock on undoList is released
 				ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
 				for (IUndoableOperation replacement : replacements) {
 					IUndoContext[] opContexts = replacement.getContexts();
 					allContexts.addAll(Arrays.asList(opContexts));
-					undoList.add(index, replacement);
 					// notify listeners after the lock on the history is
 					// released
 				}
@@ -1074,17 +1046,14 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// operation was not in the undo history. Check the redo history.
 
 		synchronized (undoRedoHistoryLock) {
-			int index = redoList.indexOf(operation);
-			if (index == -1) {
+			if (!redoList.replace(operation, replacements)) {
 				return;
 			}
 			ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
-			redoList.remove(operation);
 			// notify listeners after we release the lock on redoList
 			for (IUndoableOperation replacement : replacements) {
 				IUndoContext[] opContexts = replacement.getContexts();
 				allContexts.addAll(Arrays.asList(opContexts));
-				redoList.add(index, replacement);
 				// notify listeners after we release the lock on redoList
 			}
 			// recheck all the limits. We do this at the end so the index
@@ -1220,7 +1189,11 @@ public final class DefaultOperationHistory implements IOperationHistory {
 
 	@Override
 	public void operationChanged(IUndoableOperation operation) {
-		if (undoList.contains(operation) || redoList.contains(operation)) {
+		boolean inHistory;
+		synchronized (undoRedoHistoryLock) {
+			inHistory = undoList.contains(operation) || redoList.contains(operation);
+		}
+		if (inHistory) {
 			notifyChanged(operation);
 		}
 	}
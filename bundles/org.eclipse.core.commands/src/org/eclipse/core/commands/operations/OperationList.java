@@ -0,0 +1,465 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.commands.operations;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * The undo or the redo history of a {@link DefaultOperationHistory}: the
+ * operations in the order in which they were added, indexed by their undo
+ * contexts.
+ * </p>
+ * <p>
+ * Every operation gets an order stamp and is linked into one chain per undo
+ * context it has. An operation has a context if one of its contexts matches the
+ * context or is matched by it, so the operations having a context are found by
+ * checking the context against the contexts of the chains rather than against
+ * every operation in the history. If only one chain matches, the chain is the
+ * answer; otherwise the whole list is scanned.
+ * </p>
+ * <p>
+ * Like the list it replaces, the list may contain an operation more than
+ * once; {@link #remove(IUndoableOperation)} and
+ * {@link #replace(IUndoableOperation, IUndoableOperation[])} act on its
+ * earliest occurrence.
+ * </p>
+ * <p>
+ * The index relies on {@link AbstractOperation} telling the list when its
+ * contexts change. Other operations can't be indexed; while the list contains
+ * any of them, all queries scan the whole list.
+ * </p>
+ * <p>
+ * The list is not synchronized. All methods except
+ * {@link #contextsChanged(AbstractOperation)} must be called while holding the
+ * lock passed to the constructor.
+ * </p>
+ */
+final class OperationList {
+
+	private static final IUndoableOperation[] NO_OPERATIONS = new IUndoableOperation[0];
+
+	/*
+	 * An operation in the list.
+	 */
+	private static final class Node {
+		final IUndoableOperation operation;
+
+		long stamp;
+
+		Node previous;
+
+		Node next;
+
+		/*
+		 * the links of the operation in the chains of its contexts, null if the
+		 * operation is not indexed
+		 */
+		List<Link> links;
+
+		Node(IUndoableOperation operation) {
+			this.operation = operation;
+		}
+	}
+
+	/*
+	 * The membership of an operation in the chain of one of its contexts.
+	 */
+	private static final class Link {
+		final Node node;
+
+		final Chain chain;
+
+		Link previous;
+
+		Link next;
+
+		Link(Node node, Chain chain) {
+			this.node = node;
+			this.chain = chain;
+		}
+	}
+
+	/*
+	 * The operations having an undo context, ordered by their stamps. Chains
+	 * are never empty.
+	 */
+	private static final class Chain {
+		final IUndoContext context;
+
+		Link first;
+
+		Link last;
+
+		int size;
+
+		Chain(IUndoContext context) {
+			this.context = context;
+		}
+	}
+
+	private final Object lock;
+
+	/*
+	 * the nodes of every operation, more than one if it was added several times
+	 */
+	private final Map<IUndoableOperation, List<Node>> nodes = new IdentityHashMap<>();
+
+	private final Map<IUndoContext, Chain> chains = new IdentityHashMap<>();
+
+	private Node first;
+
+	private Node last;
+
+	private long nextStamp;
+
+	/*
+	 * the number of operations that can't be indexed
+	 */
+	private int unindexed;
+
+	/**
+	 * Creates an empty list.
+	 *
+	 * @param lock the lock guarding the list
+	 */
+	OperationList(Object lock) {
+		this.lock = lock;
+	}
+
+	/**
+	 * Appends an operation to the list.
+	 *
+	 * @param operation the operation
+	 */
+	void add(IUndoableOperation operation) {
+		Node node = new Node(operation);
+		node.stamp = nextStamp++;
+		node.previous = last;
+		if (last == null) {
+			first = node;
+		} else {
+			last.next = node;
+		}
+		last = node;
+		nodes.computeIfAbsent(operation, key -> new ArrayList<>(1)).add(node);
+		index(node);
+	}
+
+	/**
+	 * Removes the earliest occurrence of an operation from the list.
+	 *
+	 * @param operation the operation
+	 * @return <code>true</code> if the list contained the operation
+	 */
+	boolean remove(IUndoableOperation operation) {
+		Node node = removeEarliest(operation);
+		if (node == null) {
+			return false;
+		}
+		detach(node);
+		unindex(node);
+		return true;
+	}
+
+	/*
+	 * Removes the earliest node of an operation from the map of nodes.
+	 */
+	private Node removeEarliest(IUndoableOperation operation) {
+		List<Node> operationNodes = nodes.get(operation);
+		if (operationNodes == null) {
+			return null;
+		}
+		Node earliest = operationNodes.get(0);
+		for (Node node : operationNodes) {
+			if (node.stamp < earliest.stamp) {
+				earliest = node;
+			}
+		}
+		if (operationNodes.size() == 1) {
+			nodes.remove(operation);
+		} else {
+			operationNodes.remove(earliest);
+		}
+		return earliest;
+	}
+
+	private void detach(Node node) {
+		if (node.previous == null) {
+			first = node.next;
+		} else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			last = node.previous;
+		} else {
+			node.next.previous = node.previous;
+		}
+	}
+
+	/**
+	 * Returns whether the list contains an operation.
+	 *
+	 * @param operation the operation
+	 * @return <code>true</code> if the list contains the operation
+	 */
+	boolean contains(IUndoableOperation operation) {
+		return nodes.containsKey(operation);
+	}
+
+	/**
+	 * Replaces the earliest occurrence of an operation by other operations,
+	 * which take its place in the order of the list. Like repeatedly inserting at the index of the replaced
+	 * operation, the last replacement comes first.
+	 *
+	 * @param operation    the operation to replace
+	 * @param replacements the operations replacing it
+	 * @return <code>true</code> if the list contained the operation
+	 */
+	boolean replace(IUndoableOperation operation, IUndoableOperation[] replacements) {
+		Node node = removeEarliest(operation);
+		if (node == null) {
+			return false;
+		}
+		Node next = node.next;
+		detach(node);
+		unindex(node);
+		List<Node> insertedNodes = new ArrayList<>(replacements.length);
+		for (IUndoableOperation replacement : replacements) {
+			Node inserted = new Node(replacement);
+			inserted.next = next;
+			inserted.previous = next == null ? last : next.previous;
+			if (inserted.previous == null) {
+				first = inserted;
+			} else {
+				inserted.previous.next = inserted;
+			}
+			if (next == null) {
+				last = inserted;
+			} else {
+				next.previous = inserted;
+			}
+			nodes.computeIfAbsent(replacement, key -> new ArrayList<>(1)).add(inserted);
+			insertedNodes.add(inserted);
+			next = inserted;
+		}
+		// renumber so that the stamps reflect the new order, then index the
+		// replacements in their place
+		nextStamp = 0;
+		for (Node current = first; current != null; current = current.next) {
+			current.stamp = nextStamp++;
+		}
+		for (Node inserted : insertedNodes) {
+			index(inserted);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the most recently added operation that has the given context.
+	 *
+	 * @param context the context
+	 * @return the operation, or <code>null</code> if none
+	 */
+	IUndoableOperation getLatest(IUndoContext context) {
+		if (unindexed == 0) {
+			Link latest = null;
+			for (Chain chain : chains.values()) {
+				if (matches(chain.context, context) && (latest == null || chain.last.node.stamp > latest.node.stamp)) {
+					latest = chain.last;
+				}
+			}
+			return latest == null ? null : latest.node.operation;
+		}
+		for (Node node = last; node != null; node = node.previous) {
+			if (node.operation.hasContext(context)) {
+				return node.operation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the operations that have the given context, in the order of the
+	 * list.
+	 *
+	 * @param context the context
+	 * @return the operations
+	 */
+	IUndoableOperation[] filter(IUndoContext context) {
+		if (unindexed == 0) {
+			Chain matching = null;
+			boolean several = false;
+			for (Chain chain : chains.values()) {
+				if (matches(chain.context, context)) {
+					if (matching != null) {
+						several = true;
+						break;
+					}
+					matching = chain;
+				}
+			}
+			if (matching == null) {
+				return NO_OPERATIONS;
+			}
+			if (!several) {
+				IUndoableOperation[] filtered = new IUndoableOperation[matching.size];
+				int i = 0;
+				for (Link link = matching.first; link != null; link = link.next) {
+					filtered[i++] = link.node.operation;
+				}
+				return filtered;
+			}
+		}
+		List<IUndoableOperation> filtered = new ArrayList<>();
+		for (Node node = first; node != null; node = node.next) {
+			if (node.operation.hasContext(context)) {
+				filtered.add(node.operation);
+			}
+		}
+		return filtered.toArray(new IUndoableOperation[filtered.size()]);
+	}
+
+	/**
+	 * Updates the index after the contexts of an operation have changed. May be
+	 * called from any thread.
+	 *
+	 * @param operation the operation
+	 */
+	void contextsChanged(AbstractOperation operation) {
+		synchronized (lock) {
+			List<Node> operationNodes = nodes.get(operation);
+			if (operationNodes != null) {
+				for (Node node : operationNodes) {
+					if (node.links != null) {
+						reindex(node);
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * Whether an operation with the given context has the queried context, see
+	 * AbstractOperation#hasContext(IUndoContext).
+	 */
+	private static boolean matches(IUndoContext operationContext, IUndoContext context) {
+		return context.matches(operationContext) || operationContext.matches(context);
+	}
+
+	private void index(Node node) {
+		if (!(node.operation instanceof AbstractOperation operation) || (operation.operationList != null && operation.operationList != this)) {
+			// not an operation we are told about context changes, or it is in
+			// another list already
+			unindexed++;
+			return;
+		}
+		operation.operationList = this;
+		IUndoContext[] contexts = operation.getContexts();
+		node.links = new ArrayList<>(contexts.length);
+		for (IUndoContext context : contexts) {
+			link(node, context);
+		}
+	}
+
+	private void unindex(Node node) {
+		if (node.links == null) {
+			unindexed--;
+			return;
+		}
+		for (Link link : node.links) {
+			unlink(link);
+		}
+		node.links = null;
+		if (!nodes.containsKey(node.operation)) {
+			((AbstractOperation) node.operation).operationList = null;
+		}
+	}
+
+	private void reindex(Node node) {
+		IUndoContext[] contexts = node.operation.getContexts();
+		List<Link> links = new ArrayList<>(contexts.length);
+		for (Link link : node.links) {
+			if (contains(contexts, link.chain.context)) {
+				links.add(link);
+			} else {
+				unlink(link);
+			}
+		}
+		node.links = links;
+		for (IUndoContext context : contexts) {
+			link(node, context);
+		}
+	}
+
+	private static boolean contains(IUndoContext[] contexts, IUndoContext context) {
+		for (IUndoContext each : contexts) {
+			if (each == context) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Links the node into the chain of the context, in the order of the stamps.
+	 */
+	private void link(Node node, IUndoContext context) {
+		for (Link link : node.links) {
+			if (link.chain.context == context) {
+				return;
+			}
+		}
+		Chain chain = chains.computeIfAbsent(context, Chain::new);
+		Link link = new Link(node, chain);
+		Link previous = chain.last;
+		while (previous != null && previous.node.stamp > node.stamp) {
+			previous = previous.previous;
+		}
+		link.previous = previous;
+		link.next = previous == null ? chain.first : previous.next;
+		if (previous == null) {
+			chain.first = link;
+		} else {
+			previous.next = link;
+		}
+		if (link.next == null) {
+			chain.last = link;
+		} else {
+			link.next.previous = link;
+		}
+		chain.size++;
+		node.links.add(link);
+	}
+
+	private void unlink(Link link) {
+		Chain chain = link.chain;
+		if (link.previous == null) {
+			chain.first = link.next;
+		} else {
+			link.previous.next = link.next;
+		}
+		if (link.next == null) {
+			chain.last = link.previous;
+		} else {
+			link.next.previous = link.previous;
+		}
+		if (--chain.size == 0) {
+			chains.remove(chain.context);
+		}
+	}
+}
@@ -280,6 +280,7 @@ public final class TriggeredOperations extends AbstractOperation implements
 			}
 		}
 		contexts = allContexts;
+		contextsChanged();
 
 	}
 
@@ -32,6 +32,24 @@ import org.eclipse.core.runtime.ListenerList;
 	Object listenerTypes[] = null;
 	private final Realm realm;
 
+	/**
+	 * The version of the last {@link ObservableTracker#runAndTrack} that read
+	 * this observable, to collect it once. Only updated atomically by
+	 * {@link ObservableTracker}, and never decreased, as runnables of different
+	 * threads may read the same observable if its realm is current in several
+	 * threads.
+	 */
+	int trackingVersion;
+
+	/**
+	 * 0 for observables that are not computed by
+	 * {@link ObservableTracker#runAndTrack}, otherwise 1 more than the height of
+	 * their dependencies. Events of lower observables are fired first within a
+	 * realm transaction. If the observable is computed concurrently by several
+	 * threads, the last one wins, which only affects the order of the events.
+	 */
+	volatile int height;
+
 	/**
 	 * @param realm the realm to use; not <code>null</code>
 	 */
@@ -115,6 +133,19 @@ import org.eclipse.core.runtime.ListenerList;
 	}
 
 	protected void fireEvent(ObservableEvent event) {
+		if (RealmTransaction.isDeferrable(event)) {
+			realm.transaction.fireEvent(this, event);
+		} else {
+			dispatchEvent(event);
+		}
+	}
+
+	/**
+	 * Notifies the listeners of the event, regardless of transactions.
+	 *
+	 * @param event the event
+	 */
+	void dispatchEvent(ObservableEvent event) {
 		Object listenerType = event.getListenerType();
 		int listenerTypeIndex = findListenerTypeIndex(listenerType);
 		if (listenerTypeIndex != -1) {
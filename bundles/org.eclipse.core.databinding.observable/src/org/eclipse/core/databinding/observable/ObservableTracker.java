@@ -15,7 +15,11 @@
  *******************************************************************************/
 package org.eclipse.core.databinding.observable;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.databinding.util.Policy;
 import org.eclipse.core.internal.databinding.identity.IdentitySet;
@@ -64,20 +68,155 @@ import org.eclipse.core.runtime.Status;
 public class ObservableTracker {
 
 	/**
-	 * Threadlocal storage pointing to the current Set of IObservables, or null
-	 * if none. Note that this is actually the top of a stack. Whenever a method
-	 * changes the current value, it remembers the old value as a local variable
-	 * and restores the old value when the method exits.
+	 * The tracking state of a thread. Note that each field is actually the top
+	 * of a stack. Whenever a method changes the current value, it remembers the
+	 * old value as a local variable and restores the old value when the method
+	 * exits.
 	 */
-	private static ThreadLocal<IChangeListener> currentChangeListener = new ThreadLocal<>();
+	private static final class State {
+		Set<IObservable> getterCalledSet;
 
-	private static ThreadLocal<IStaleListener> currentStaleListener = new ThreadLocal<>();
+		IChangeListener changeListener;
 
-	private static ThreadLocal<Set<IObservable>> currentGetterCalledSet = new ThreadLocal<>();
+		IStaleListener staleListener;
 
-	private static ThreadLocal<Set<IObservable>> currentObservableCreatedSet = new ThreadLocal<>();
+		Set<IObservable> observableCreatedSet;
 
-	private static ThreadLocal<Integer> currentIgnoreCount = new ThreadLocal<>();
+		int ignoreCount;
+
+		/** The dependencies collected by runAndTrack, or <code>null</code>. */
+		Dependencies dependencies;
+
+		/** Unused dependency buffers, to be reused. */
+		Dependencies spareDependencies;
+	}
+
+	/**
+	 * The observables read by a runnable given to
+	 * {@link ObservableTracker#runAndTrack}.
+	 */
+	private static final class Dependencies {
+		IObservable[] observables = new IObservable[8];
+
+		int size;
+
+		/** The version that marks the observables collected. */
+		int version;
+
+		Dependencies next;
+
+		void add(IObservable observable) {
+			if (observable instanceof ChangeManager manager) {
+				// If a later runnable marked the observable, a nested one or one
+				// of another thread, it may have been collected already
+				if (!mark(manager, version) && ((int) TRACKING_VERSION.getVolatile(manager) == version
+						|| indexOf(observables, size, observable) != -1)) {
+					return;
+				}
+			} else if (indexOf(observables, size, observable) != -1) {
+				return;
+			}
+			if (size == observables.length) {
+				observables = Arrays.copyOf(observables, size * 2);
+			}
+			observables[size++] = observable;
+		}
+
+		/**
+		 * Marks the observables collected with a new version, if a later runnable
+		 * marked some of them meanwhile.
+		 *
+		 * @return <code>false</code> if the observables could not be marked
+		 *         because a later runnable marked them again, in which case they
+		 *         must be compared by identity
+		 */
+		boolean remark() {
+			if (isMarked(observables, size, version)) {
+				return true;
+			}
+			version = nextVersion();
+			for (int i = 0; i < size; i++) {
+				if (observables[i] instanceof ChangeManager manager && !mark(manager, version)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static ThreadLocal<State> currentState = new ThreadLocal<>();
+
+	/**
+	 * The last version used to mark the observables read by a runnable. It is
+	 * shared by all threads, because the observables of a realm may be read
+	 * from different threads.
+	 */
+	private static final AtomicInteger lastVersion = new AtomicInteger();
+
+	private static final VarHandle TRACKING_VERSION;
+
+	static {
+		try {
+			TRACKING_VERSION = MethodHandles.lookup().findVarHandle(ChangeManager.class, "trackingVersion", //$NON-NLS-1$
+					int.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static int nextVersion() {
+		return lastVersion.incrementAndGet();
+	}
+
+	/**
+	 * Marks an observable with the given version, unless it is marked with the
+	 * same or a later version already. The marks of an observable only increase,
+	 * so a runnable that finds its own mark knows that no later runnable, nested
+	 * or of another thread, marked the observable in between.
+	 *
+	 * @return <code>true</code> if the observable was marked
+	 */
+	private static boolean mark(ChangeManager manager, int version) {
+		int mark;
+		while ((mark = (int) TRACKING_VERSION.getVolatile(manager)) - version < 0) {
+			if (TRACKING_VERSION.compareAndSet(manager, mark, version)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether all change managers among the given observables are
+	 *         marked with the given version
+	 */
+	private static boolean isMarked(IObservable[] observables, int size, int version) {
+		for (int i = 0; i < size; i++) {
+			if (observables[i] instanceof ChangeManager manager
+					&& (int) TRACKING_VERSION.getVolatile(manager) != version) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static State getState() {
+		State state = currentState.get();
+		if (state == null) {
+			state = new State();
+			currentState.set(state);
+		}
+		return state;
+	}
+
+	private static int indexOf(IObservable[] observables, int size, IObservable observable) {
+		for (int i = 0; i < size; i++) {
+			if (observables[i] == observable) {
+				return i;
+			}
+		}
+		return -1;
+	}
 
 	/**
 	 * Invokes the given runnable, and returns the set of IObservables that were
@@ -97,33 +236,235 @@ public class ObservableTracker {
 	 */
 	public static IObservable[] runAndMonitor(Runnable runnable,
 			IChangeListener changeListener, IStaleListener staleListener) {
+		State state = getState();
 		// Remember the previous value in the listener stack
-		Set<IObservable> lastObservableSet = currentGetterCalledSet.get();
-		IChangeListener lastChangeListener = currentChangeListener.get();
-		IStaleListener lastStaleListener = currentStaleListener.get();
-		Integer lastIgnore = currentIgnoreCount.get();
+		Set<IObservable> lastObservableSet = state.getterCalledSet;
+		IChangeListener lastChangeListener = state.changeListener;
+		IStaleListener lastStaleListener = state.staleListener;
+		Dependencies lastDependencies = state.dependencies;
+		int lastIgnore = state.ignoreCount;
 
 		Set<IObservable> observableSet = new IdentitySet<>();
 		// Push the new listeners to the top of the stack
-		currentGetterCalledSet.set(observableSet);
-		currentChangeListener.set(changeListener);
-		currentStaleListener.set(staleListener);
-		currentIgnoreCount.remove();
+		state.getterCalledSet = observableSet;
+		state.changeListener = changeListener;
+		state.staleListener = staleListener;
+		state.dependencies = null;
+		state.ignoreCount = 0;
 		try {
 			runnable.run();
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentGetterCalledSet.set(lastObservableSet);
-			currentChangeListener.set(lastChangeListener);
-			currentStaleListener.set(lastStaleListener);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			state.getterCalledSet = lastObservableSet;
+			state.changeListener = lastChangeListener;
+			state.staleListener = lastStaleListener;
+			state.dependencies = lastDependencies;
+			checkUnmatchedIgnore(state, runnable);
+			state.ignoreCount = lastIgnore;
 		}
 
 		return observableSet.toArray(new IObservable[observableSet.size()]);
 	}
 
+	/**
+	 * Invokes the given runnable, and returns the IObservables that were read
+	 * by the runnable, updating the listeners registered with the dependencies
+	 * of a previous invocation. If the runnable calls this method or
+	 * {@link #runAndMonitor(Runnable, IChangeListener, IStaleListener)}
+	 * recursively, the result will not contain IObservables that were used
+	 * within the inner runnable.
+	 * <p>
+	 * Unlike {@link #runAndMonitor(Runnable, IChangeListener, IStaleListener)},
+	 * the listeners are registered after the runnable has run, and only with the
+	 * observables that were not dependencies before. They are removed from the
+	 * previous dependencies that were not read anymore. If the dependencies
+	 * didn't change, which is the common case, the given array is returned and
+	 * no listeners are added or removed. The observables read are collected
+	 * without allocating a set.
+	 * </p>
+	 * <p>
+	 * If the given dependent observable extends {@link AbstractObservable}, it
+	 * is placed after its dependencies in the order in which the events of a
+	 * realm transaction are fired, so that it recomputes once and only after
+	 * all its changed dependencies notified it. See
+	 * {@link Realm#beginTransaction()}.
+	 * </p>
+	 *
+	 * @param dependent
+	 *            the observable computed by the runnable, or <code>null</code>
+	 * @param runnable
+	 *            runnable to execute
+	 * @param dependencies
+	 *            the observables returned by the previous invocation, with the
+	 *            listeners registered, or <code>null</code>
+	 * @param changeListener
+	 *            listener to register with all accessed observables, or
+	 *            <code>null</code> if no change listener is to be registered
+	 * @param staleListener
+	 *            listener to register with all accessed observables, or
+	 *            <code>null</code> if no stale listener is to be registered
+	 * @return an array of unique observable objects, the given
+	 *         <code>dependencies</code> if they are the same
+	 * @since 1.14
+	 */
+	public static IObservable[] runAndTrack(IObservable dependent, Runnable runnable, IObservable[] dependencies,
+			IChangeListener changeListener, IStaleListener staleListener) {
+		State state = getState();
+		Set<IObservable> lastObservableSet = state.getterCalledSet;
+		Dependencies lastDependencies = state.dependencies;
+		int lastIgnore = state.ignoreCount;
+
+		Dependencies collected = state.spareDependencies;
+		if (collected == null) {
+			collected = new Dependencies();
+		} else {
+			state.spareDependencies = collected.next;
+			collected.next = null;
+		}
+		collected.version = nextVersion();
+		state.getterCalledSet = null;
+		state.dependencies = collected;
+		state.ignoreCount = 0;
+		try {
+			runnable.run();
+		} finally {
+			state.getterCalledSet = lastObservableSet;
+			state.dependencies = lastDependencies;
+			checkUnmatchedIgnore(state, runnable);
+			state.ignoreCount = lastIgnore;
+		}
+
+		try {
+			return updateDependencies(dependent, collected, dependencies, changeListener, staleListener);
+		} finally {
+			Arrays.fill(collected.observables, 0, collected.size, null);
+			collected.size = 0;
+			collected.next = state.spareDependencies;
+			state.spareDependencies = collected;
+		}
+	}
+
+	private static IObservable[] updateDependencies(IObservable dependent, Dependencies collected,
+			IObservable[] dependencies, IChangeListener changeListener, IStaleListener staleListener) {
+		IObservable[] observables = collected.observables;
+		int size = collected.size;
+		int height = 1;
+		for (int i = 0; i < size; i++) {
+			if (observables[i] instanceof ChangeManager manager) {
+				height = Math.max(height, manager.height + 1);
+			}
+		}
+		if (dependent instanceof ChangeManager manager) {
+			manager.height = height;
+		}
+
+		if (dependencies != null && isSame(dependencies, observables, size)) {
+			return dependencies;
+		}
+		IObservable[] result = Arrays.copyOf(observables, size);
+		if (dependencies == null) {
+			for (IObservable observable : result) {
+				addListeners(observable, changeListener, staleListener);
+			}
+			return result;
+		}
+		// Compare before adding or removing listeners, which may read other
+		// observables
+		boolean[] removed = new boolean[dependencies.length];
+		boolean[] added = new boolean[size];
+		if (!compareMarks(collected, result, dependencies, removed, added)) {
+			for (int i = 0; i < dependencies.length; i++) {
+				removed[i] = indexOf(result, size, dependencies[i]) == -1;
+			}
+			for (int i = 0; i < size; i++) {
+				added[i] = indexOf(dependencies, dependencies.length, result[i]) == -1;
+			}
+		}
+		for (int i = 0; i < dependencies.length; i++) {
+			if (removed[i]) {
+				removeListeners(dependencies[i], changeListener, staleListener);
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			if (added[i]) {
+				addListeners(result[i], changeListener, staleListener);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compares the collected observables with the previous dependencies using
+	 * the version marks, without looking up each observable in the other array.
+	 *
+	 * @return <code>false</code> if a later runnable marked the observables
+	 *         meanwhile, in which case they must be compared by identity
+	 */
+	private static boolean compareMarks(Dependencies collected, IObservable[] result, IObservable[] dependencies,
+			boolean[] removed, boolean[] added) {
+		if (!collected.remark()) {
+			return false;
+		}
+		int size = result.length;
+		for (int i = 0; i < dependencies.length; i++) {
+			IObservable observable = dependencies[i];
+			removed[i] = observable instanceof ChangeManager manager
+					? (int) TRACKING_VERSION.getVolatile(manager) != collected.version
+					: indexOf(result, size, observable) == -1;
+		}
+		// The marks only increase, so if they are unchanged, they were read
+		// consistently
+		if (!isMarked(result, size, collected.version)) {
+			return false;
+		}
+		int previousVersion = nextVersion();
+		for (IObservable observable : dependencies) {
+			if (observable instanceof ChangeManager manager && !mark(manager, previousVersion)) {
+				return false;
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			IObservable observable = result[i];
+			added[i] = observable instanceof ChangeManager manager
+					? (int) TRACKING_VERSION.getVolatile(manager) != previousVersion
+					: indexOf(dependencies, dependencies.length, observable) == -1;
+		}
+		return isMarked(dependencies, dependencies.length, previousVersion);
+	}
+
+	private static boolean isSame(IObservable[] dependencies, IObservable[] observables, int size) {
+		if (dependencies.length != size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (dependencies[i] != observables[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void addListeners(IObservable observable, IChangeListener changeListener,
+			IStaleListener staleListener) {
+		if (changeListener != null) {
+			observable.addChangeListener(changeListener);
+		}
+		if (staleListener != null) {
+			observable.addStaleListener(staleListener);
+		}
+	}
+
+	private static void removeListeners(IObservable observable, IChangeListener changeListener,
+			IStaleListener staleListener) {
+		if (changeListener != null) {
+			observable.removeChangeListener(changeListener);
+		}
+		if (staleListener != null) {
+			observable.removeStaleListener(staleListener);
+		}
+	}
+
 	/**
 	 * Invokes the given runnable, and returns the set of IObservables that were
 	 * created by the runnable. If the runnable calls this method recursively,
@@ -141,34 +482,35 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static IObservable[] runAndCollect(Runnable runnable) {
-		Set<IObservable> lastObservableCreatedSet = currentObservableCreatedSet.get();
-		Integer lastIgnore = currentIgnoreCount.get();
+		State state = getState();
+		Set<IObservable> lastObservableCreatedSet = state.observableCreatedSet;
+		int lastIgnore = state.ignoreCount;
 
 		Set<IObservable> observableSet = new IdentitySet<>();
 		// Push the new listeners to the top of the stack
-		currentObservableCreatedSet.set(observableSet);
-		currentIgnoreCount.remove();
+		state.observableCreatedSet = observableSet;
+		state.ignoreCount = 0;
 		try {
 			runnable.run();
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentObservableCreatedSet.set(lastObservableCreatedSet);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			state.observableCreatedSet = lastObservableCreatedSet;
+			checkUnmatchedIgnore(state, runnable);
+			state.ignoreCount = lastIgnore;
 		}
 
 		return observableSet.toArray(new IObservable[observableSet.size()]);
 	}
 
-	private static void checkUnmatchedIgnore(Runnable runnable) {
-		if (isIgnore()) {
+	private static void checkUnmatchedIgnore(State state, Runnable runnable) {
+		if (state.ignoreCount > 0) {
 			Policy.getLog()
 					.log(new Status(
 							IStatus.ERROR,
 							Policy.JFACE_DATABINDING,
 							"There were " //$NON-NLS-1$
-									+ currentIgnoreCount.get()
+									+ state.ignoreCount
 									+ " unmatched setIgnore(true) invocations in runnable " //$NON-NLS-1$
 									+ runnable));
 		}
@@ -193,20 +535,14 @@ public class ObservableTracker {
 	 * @since 1.3
 	 */
 	public static void setIgnore(boolean ignore) {
-		Integer lastCount = currentIgnoreCount.get();
-
-		int newCount = (lastCount == null ? 0 : lastCount.intValue())
-				+ (ignore ? 1 : -1);
+		State state = getState();
+		int newCount = state.ignoreCount + (ignore ? 1 : -1);
 
 		if (newCount < 0) {
 			throw new IllegalStateException("Ignore count is already zero"); //$NON-NLS-1$
 		}
 
-		if (newCount == 0) {
-			currentIgnoreCount.remove();
-		} else {
-			currentIgnoreCount.set(Integer.valueOf(newCount));
-		}
+		state.ignoreCount = newCount;
 	}
 
 	/**
@@ -236,10 +572,6 @@ public class ObservableTracker {
 				+ Integer.toHexString(System.identityHashCode(observable));
 	}
 
-	private static boolean isIgnore() {
-		return currentIgnoreCount.get() != null;
-	}
-
 	/**
 	 * Notifies the ObservableTracker that an observable was read from. The
 	 * JavaDoc for methods that invoke this method should include the following
@@ -261,18 +593,23 @@ public class ObservableTracker {
 					+ toString(observable));
 		}
 
-		if (isIgnore()) {
+		State state = currentState.get();
+		if (state == null || state.ignoreCount > 0) {
 			return;
 		}
 
-		Set<IObservable> getterCalledSet = currentGetterCalledSet.get();
+		if (state.dependencies != null) {
+			state.dependencies.add(observable);
+			return;
+		}
+		Set<IObservable> getterCalledSet = state.getterCalledSet;
 		if (getterCalledSet != null && getterCalledSet.add(observable)) {
 			// If anyone is listening for observable usage...
-			IChangeListener changeListener = currentChangeListener.get();
+			IChangeListener changeListener = state.changeListener;
 			if (changeListener != null) {
 				observable.addChangeListener(changeListener);
 			}
-			IStaleListener staleListener = currentStaleListener.get();
+			IStaleListener staleListener = state.staleListener;
 			if (staleListener != null) {
 				observable.addStaleListener(staleListener);
 			}
@@ -287,10 +624,11 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static void observableCreated(IObservable observable) {
-		if (isIgnore()) {
+		State state = currentState.get();
+		if (state == null || state.ignoreCount > 0) {
 			return;
 		}
-		Set<IObservable> observableCreatedSet = currentObservableCreatedSet.get();
+		Set<IObservable> observableCreatedSet = state.observableCreatedSet;
 		if (observableCreatedSet != null) {
 			observableCreatedSet.add(observable);
 		}
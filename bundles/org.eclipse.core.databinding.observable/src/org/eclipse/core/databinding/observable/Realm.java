@@ -128,6 +128,11 @@ public abstract class Realm {
 
 	Queue workQueue = new Queue();
 
+	/**
+	 * The events deferred by transactions.
+	 */
+	final RealmTransaction transaction = new RealmTransaction();
+
 	/**
 	 * Runs the given runnable. If an exception occurs within the runnable, it is
 	 * logged and not re-thrown. If the runnable implements {@link ISafeRunnable},
@@ -324,6 +329,95 @@ public abstract class Realm {
 		}
 	}
 
+	/**
+	 * Begins a transaction in this realm. Until the transaction is committed,
+	 * the change, stale, value, list, set and map change events of the
+	 * observables in this realm are not fired, but collected. The events of the
+	 * same type fired by the same observable are merged into one event, whose
+	 * diff describes all the changes of the transaction. When the transaction is
+	 * committed, each listener is notified once per observable and event type,
+	 * so that an observable computed from several observables, like a
+	 * <code>ComputedValue</code>, is recomputed at most once.
+	 * <p>
+	 * Transactions can be nested, the events are fired when the outermost
+	 * transaction is committed. This method must be called from within this
+	 * realm, and must be followed by a call to {@link #commitTransaction()}:
+	 * </p>
+	 * <p>
+	 * As the change events are deferred, computed observables, like a
+	 * <code>ComputedValue</code>, are not made dirty before the commit either.
+	 * Within the transaction, they return the value computed before it, even if
+	 * the observables they are computed from have changed. Code that needs the
+	 * new values, like validation, should run after the commit.
+	 * </p>
+	 *
+	 * <pre>
+	 * realm.beginTransaction();
+	 * try {
+	 * 	// update the observables
+	 * } finally {
+	 * 	realm.commitTransaction();
+	 * }
+	 * </pre>
+	 *
+	 * @since 1.14
+	 */
+	public void beginTransaction() {
+		transaction.depth++;
+	}
+
+	/**
+	 * Sets whether the events of observables computed by
+	 * {@link ObservableTracker#runAndTrack}, like a <code>ComputedValue</code>,
+	 * are also ordered outside of transactions. If <code>true</code>, the events
+	 * that computed observables fire while an event is dispatched are deferred
+	 * as in a transaction, and fired by the height of the observables once the
+	 * outermost dispatch returns. A computed observable depending on several
+	 * observables that change because of the same event is then recomputed once,
+	 * and never from a mix of old and new values, but its listeners are
+	 * notified after the listeners of the event that changed it have returned.
+	 * <p>
+	 * This is <code>false</code> by default, in which case the events are only
+	 * ordered within transactions. This method must be called from within this
+	 * realm.
+	 * </p>
+	 *
+	 * @param glitchFree whether the events of computed observables are ordered
+	 *                   outside of transactions
+	 * @since 1.14
+	 */
+	public void setGlitchFree(boolean glitchFree) {
+		transaction.glitchFree = glitchFree;
+	}
+
+	/**
+	 * @return whether the events of computed observables are ordered outside of
+	 *         transactions
+	 * @see #setGlitchFree(boolean)
+	 * @since 1.14
+	 */
+	public boolean isGlitchFree() {
+		return transaction.glitchFree;
+	}
+
+	/**
+	 * Commits the transaction begun by the matching call to
+	 * {@link #beginTransaction()}. If it is the outermost transaction, the
+	 * collected events are fired, as well as the events fired by the listeners
+	 * in turn.
+	 *
+	 * @throws IllegalStateException if there is no transaction
+	 * @since 1.14
+	 */
+	public void commitTransaction() {
+		if (transaction.depth == 0) {
+			throw new IllegalStateException("No transaction to commit"); //$NON-NLS-1$
+		}
+		if (--transaction.depth == 0 && !transaction.isFiring()) {
+			transaction.commit();
+		}
+	}
+
 	/**
 	 * Sets the provided <code>realm</code> as the default for the duration of
 	 * {@link Runnable#run()} and resets the previous realm after completion.
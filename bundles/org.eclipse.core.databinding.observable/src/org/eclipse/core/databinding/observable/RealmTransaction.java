@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.map.MapChangeEvent;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.set.SetChangeEvent;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+
+/**
+ * The events deferred by the transactions of a {@link Realm}, see
+ * {@link Realm#beginTransaction()}.
+ * <p>
+ * Change, stale, value, list, set and map change events are collected instead
+ * of being fired. The events of the same type fired by the same observable are
+ * merged into one, so that each listener is notified once per observable and
+ * event type when the transaction is committed. Other events, such as dispose
+ * events and vetoable value changing events, are fired immediately. Merged
+ * value change events whose old and new values are equal, because the value
+ * was changed back, are dropped.
+ * </p>
+ * <p>
+ * The events fired by listeners while the collected events are fired are
+ * collected as well and fired afterwards. The events of observables computed by
+ * {@link ObservableTracker#runAndTrack} are fired after the events of their
+ * dependencies. This way, an observable that is computed from several changed
+ * observables, like a
+ * {@link org.eclipse.core.databinding.observable.value.ComputedValue
+ * ComputedValue}, is only recomputed once, and never from a mix of old and new
+ * values.
+ * </p>
+ * <p>
+ * If the realm is glitch free, see {@link Realm#setGlitchFree(boolean)}, the
+ * events of computed observables fired while an event is dispatched outside of
+ * transactions are collected the same way, and fired before the outermost
+ * dispatch returns.
+ * </p>
+ * <p>
+ * As change events are deferred, a computed observable is only made dirty
+ * when the transaction is committed. Until then, it still returns the value
+ * computed before the transaction.
+ * </p>
+ * <p>
+ * If a listener throws an exception, the remaining collected events are still
+ * fired, and the first exception is rethrown afterwards.
+ * </p>
+ */
+/* package */final class RealmTransaction {
+
+	/**
+	 * The event type fired by an observable. Observables are compared by
+	 * identity, as observable collections are equal to their contents.
+	 */
+	private record Key(ChangeManager manager, Object listenerType) {
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key other && manager == other.manager && listenerType == other.listenerType;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(manager) * 31 + System.identityHashCode(listenerType);
+		}
+	}
+
+	/** The nesting depth of the transaction. */
+	int depth;
+
+	/** Whether the collected events of a transaction are being fired. */
+	private boolean firing;
+
+	/** Whether an event is dispatched outside of a transaction. */
+	private boolean dispatching;
+
+	/** Whether the events of computed observables are deferred outside of transactions. */
+	boolean glitchFree;
+
+	/**
+	 * The collected events, by the height of their observable, in the order they
+	 * were first fired.
+	 */
+	private final TreeMap<Integer, Map<Key, ObservableEvent>> events = new TreeMap<>();
+
+	/**
+	 * Returns whether the given event is collected by transactions.
+	 *
+	 * @param event the event
+	 * @return <code>true</code> if the event can be deferred
+	 */
+	static boolean isDeferrable(ObservableEvent event) {
+		Class<?> type = event.getClass();
+		return type == ChangeEvent.class || type == StaleEvent.class || type == ValueChangeEvent.class
+				|| type == ListChangeEvent.class || type == SetChangeEvent.class || type == MapChangeEvent.class;
+	}
+
+	/**
+	 * Fires an event, or collects it if it must be deferred.
+	 *
+	 * @param manager the change manager firing the event
+	 * @param event   the event, see {@link #isDeferrable(ObservableEvent)}
+	 */
+	void fireEvent(ChangeManager manager, ObservableEvent event) {
+		if (depth > 0 || firing || (dispatching && manager.height > 0)) {
+			events.computeIfAbsent(Integer.valueOf(manager.height), height -> new LinkedHashMap<>())
+					.merge(new Key(manager, event.getListenerType()), event, RealmTransaction::merge);
+		} else if (dispatching || !glitchFree) {
+			manager.dispatchEvent(event);
+		} else {
+			dispatching = true;
+			try {
+				Throwable failure = null;
+				try {
+					manager.dispatchEvent(event);
+				} catch (RuntimeException | Error e) {
+					failure = e;
+				}
+				fireCollectedEvents(failure);
+			} finally {
+				dispatching = false;
+			}
+		}
+	}
+
+	/**
+	 * Fires the events collected by a transaction, and the events collected
+	 * while firing them.
+	 */
+	void commit() {
+		firing = true;
+		try {
+			fireCollectedEvents(null);
+		} finally {
+			firing = false;
+		}
+	}
+
+	/**
+	 * Fires the collected events, lowest observables first, until there are no
+	 * more events. The events are fired even if listeners throw exceptions, so
+	 * that none of them is left to a later, unrelated dispatch.
+	 *
+	 * @param failure the exception thrown by a listener before, or
+	 *                <code>null</code>
+	 */
+	private void fireCollectedEvents(Throwable failure) {
+		Map.Entry<Integer, Map<Key, ObservableEvent>> entry;
+		while ((entry = events.pollFirstEntry()) != null) {
+			for (Map.Entry<Key, ObservableEvent> event : entry.getValue().entrySet()) {
+				try {
+					if (!isNoop(event.getValue())) {
+						event.getKey().manager().dispatchEvent(event.getValue());
+					}
+				} catch (RuntimeException | Error e) {
+					if (failure == null) {
+						failure = e;
+					} else {
+						failure.addSuppressed(e);
+					}
+				}
+			}
+		}
+		if (failure instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (failure != null) {
+			throw (Error) failure;
+		}
+	}
+
+	/**
+	 * @return whether the collected events are being fired
+	 */
+	boolean isFiring() {
+		return firing || dispatching;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ObservableEvent merge(ObservableEvent first, ObservableEvent second) {
+		if (first instanceof ValueChangeEvent valueEvent) {
+			return mergeValueEvents(valueEvent, (ValueChangeEvent) second);
+		}
+		if (first instanceof ListChangeEvent listEvent) {
+			return mergeListEvents(listEvent, (ListChangeEvent) second);
+		}
+		if (first instanceof SetChangeEvent setEvent) {
+			return mergeSetEvents(setEvent, (SetChangeEvent) second);
+		}
+		if (first instanceof MapChangeEvent mapEvent) {
+			return mergeMapEvents(mapEvent, (MapChangeEvent) second);
+		}
+		// Change and stale events carry no information but their source
+		return first;
+	}
+
+	private static <T> ValueChangeEvent<T> mergeValueEvents(ValueChangeEvent<T> first,
+			ValueChangeEvent<T> second) {
+		return new ValueChangeEvent<>(first.getObservableValue(), new MergedValueDiff<>(first.diff, second.diff));
+	}
+
+	/**
+	 * The diff of merged value change events, from the old value of the first
+	 * to the new value of the last event. Evaluated lazily, like the diffs of
+	 * computed values.
+	 */
+	private static final class MergedValueDiff<T> extends ValueDiff<T> {
+		private final ValueDiff<T> firstDiff;
+		private final ValueDiff<T> secondDiff;
+
+		MergedValueDiff(ValueDiff<T> firstDiff, ValueDiff<T> secondDiff) {
+			this.firstDiff = firstDiff;
+			this.secondDiff = secondDiff;
+		}
+
+		@Override
+		public T getOldValue() {
+			return firstDiff.getOldValue();
+		}
+
+		@Override
+		public T getNewValue() {
+			return secondDiff.getNewValue();
+		}
+	}
+
+	/**
+	 * Returns whether the given event is the result of merging value change
+	 * events that changed the value back to the old value, and must not be
+	 * fired.
+	 *
+	 * @param event the collected event
+	 * @return <code>true</code> if the event is a no-op
+	 */
+	private static boolean isNoop(ObservableEvent event) {
+		return event instanceof ValueChangeEvent<?> valueEvent && valueEvent.diff instanceof MergedValueDiff<?> diff
+				&& Objects.equals(diff.getOldValue(), diff.getNewValue());
+	}
+
+	private static <E> ListChangeEvent<E> mergeListEvents(ListChangeEvent<E> first, ListChangeEvent<E> second) {
+		ListDiffEntry<E>[] firstEntries = first.diff.getDifferences();
+		ListDiffEntry<E>[] secondEntries = second.diff.getDifferences();
+		List<ListDiffEntry<E>> entries = new ArrayList<>(firstEntries.length + secondEntries.length);
+		entries.addAll(List.of(firstEntries));
+		entries.addAll(List.of(secondEntries));
+		return new ListChangeEvent<>(first.getObservableList(), Diffs.createListDiff(entries));
+	}
+
+	private static <E> SetChangeEvent<E> mergeSetEvents(SetChangeEvent<E> first, SetChangeEvent<E> second) {
+		SetDiff<E> firstDiff = first.diff;
+		SetDiff<E> secondDiff = second.diff;
+		Set<E> additions = new LinkedHashSet<>();
+		Set<E> removals = new LinkedHashSet<>();
+		for (E element : firstDiff.getAdditions()) {
+			if (!secondDiff.getRemovals().contains(element)) {
+				additions.add(element);
+			}
+		}
+		for (E element : secondDiff.getAdditions()) {
+			if (!firstDiff.getRemovals().contains(element)) {
+				additions.add(element);
+			}
+		}
+		for (E element : firstDiff.getRemovals()) {
+			if (!secondDiff.getAdditions().contains(element)) {
+				removals.add(element);
+			}
+		}
+		for (E element : secondDiff.getRemovals()) {
+			if (!firstDiff.getAdditions().contains(element)) {
+				removals.add(element);
+			}
+		}
+		return new SetChangeEvent<>(first.getObservableSet(), Diffs.createSetDiff(additions, removals));
+	}
+
+	private static <K, V> MapChangeEvent<K, V> mergeMapEvents(MapChangeEvent<K, V> first,
+			MapChangeEvent<K, V> second) {
+		MapDiff<K, V> firstDiff = first.diff;
+		MapDiff<K, V> secondDiff = second.diff;
+		Set<K> keys = new LinkedHashSet<>();
+		addKeys(keys, firstDiff);
+		addKeys(keys, secondDiff);
+
+		Set<K> addedKeys = new LinkedHashSet<>();
+		Set<K> removedKeys = new LinkedHashSet<>();
+		Set<K> changedKeys = new LinkedHashSet<>();
+		Map<K, V> oldValues = new HashMap<>();
+		Map<K, V> newValues = new HashMap<>();
+		for (K key : keys) {
+			// The diff describing the key before and after the transaction
+			MapDiff<K, V> before = containsKey(firstDiff, key) ? firstDiff : secondDiff;
+			MapDiff<K, V> after = containsKey(secondDiff, key) ? secondDiff : firstDiff;
+			boolean existedBefore = !before.getAddedKeys().contains(key);
+			boolean existsAfter = !after.getRemovedKeys().contains(key);
+			if (existedBefore && existsAfter) {
+				V oldValue = before.getOldValue(key);
+				V newValue = after.getNewValue(key);
+				if (!Objects.equals(oldValue, newValue)) {
+					changedKeys.add(key);
+					oldValues.put(key, oldValue);
+					newValues.put(key, newValue);
+				}
+			} else if (existedBefore) {
+				removedKeys.add(key);
+				oldValues.put(key, before.getOldValue(key));
+			} else if (existsAfter) {
+				addedKeys.add(key);
+				newValues.put(key, after.getNewValue(key));
+			}
+		}
+		return new MapChangeEvent<>(first.getObservableMap(),
+				Diffs.createMapDiff(addedKeys, removedKeys, changedKeys, oldValues, newValues));
+	}
+
+	private static <K> void addKeys(Set<K> keys, MapDiff<K, ?> diff) {
+		keys.addAll(diff.getAddedKeys());
+		keys.addAll(diff.getRemovedKeys());
+		keys.addAll(diff.getChangedKeys());
+	}
+
+	private static boolean containsKey(MapDiff<?, ?> diff, Object key) {
+		return diff.getAddedKeys().contains(key) || diff.getRemovedKeys().contains(key)
+				|| diff.getChangedKeys().contains(key);
+	}
+}
@@ -88,7 +88,10 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 	private boolean dirty = true;
 	private boolean stale = false;
 
-	private IObservable[] dependencies = new IObservable[0];
+	/** The dependencies before the list is computed for the first time. */
+	private static final IObservable[] NOT_COMPUTED = new IObservable[0];
+
+	private IObservable[] dependencies = NOT_COMPUTED;
 
 	/**
 	 * Factory method to create {@link ComputedList} objects in an easy manner.
@@ -227,28 +230,22 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+			// - Keep listening to the previous dependencies that are still
+			// used
+			dependencies = ObservableTracker.runAndTrack(this, privateInterface,
+					dependencies == NOT_COMPUTED ? null : dependencies, privateInterface, privateInterface);
 
 			// If any dependencies are stale, a stale event will be fired here
 			// even if we were already stale before recomputing. This is in case
 			// clients assume that a list change is indicative of non-staleness.
 			stale = false;
-			for (IObservable newDependency : newDependencies) {
-				if (newDependency.isStale()) {
+			for (IObservable dependency : dependencies) {
+				if (dependency.isStale()) {
 					makeStale();
 					break;
 				}
 			}
 
-			if (!stale) {
-				for (IObservable newDependency : newDependencies) {
-					newDependency.addStaleListener(privateInterface);
-				}
-			}
-
-			dependencies = newDependencies;
-
 			dirty = false;
 		}
 
@@ -275,7 +272,12 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 
 			makeStale();
 
-			stopListening();
+			if (!hasListeners()) {
+				// Nobody is notified until the list is read again, so don't stay
+				// reachable from the dependencies. Otherwise keep listening,
+				// most of them are used again when recomputing.
+				stopListening();
+			}
 
 			// copy the old list
 			final List<E> oldList = new ArrayList<>(cachedList);
@@ -350,8 +352,8 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 		// been executed. It is their job to figure out what to do with those
 		// notifications.
 		getRealm().exec(() -> {
-			if (dependencies == null) {
-				// We are not currently listening.
+			if (dirty && dependencies != NOT_COMPUTED) {
+				// We are not currently notifying changes.
 				// But someone is listening for changes. Call getValue()
 				// to make sure we start listening to the observables we
 				// depend on.
@@ -193,21 +193,19 @@ public abstract class ComputedValue<T> extends AbstractObservableValue<T> {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+			// - Keep listening to the previous dependencies that are still
+			// used
+			dependencies = ObservableTracker.runAndTrack(this, privateInterface, dependencies, privateInterface,
+					privateInterface);
 
 			stale = false;
-			for (IObservable observable : newDependencies) {
-				// Add a change listener to the new dependency.
+			for (IObservable observable : dependencies) {
 				if (observable.isStale()) {
 					stale = true;
-				} else {
-					observable.addStaleListener(privateInterface);
+					break;
 				}
 			}
 
-			dependencies = newDependencies;
-
 			dirty = false;
 		}
 
@@ -228,7 +226,12 @@ public abstract class ComputedValue<T> extends AbstractObservableValue<T> {
 		if (!dirty) {
 			dirty = true;
 
-			stopListening();
+			if (!hasListeners()) {
+				// Nobody is notified until the value is read again, so don't stay
+				// reachable from the dependencies. Otherwise keep listening,
+				// most of them are used again when recomputing.
+				stopListening();
+			}
 
 			// copy the old value
 			final T oldValue = cachedValue;
@@ -300,8 +303,8 @@ public abstract class ComputedValue<T> extends AbstractObservableValue<T> {
 	 */
 	private void computeValueForListeners() {
 		getRealm().exec(() -> {
-			if (dependencies == null) {
-				// We are not currently listening.
+			if (dirty) {
+				// We are not currently notifying changes.
 				if (hasListeners()) {
 					// But someone is listening for changes. Call getValue()
 					// to make sure we start listening to the observables we
@@ -88,6 +88,8 @@ public final class SideEffect implements ISideEffect {
 	 * realm.asyncExec
 	 */
 	private boolean asyncScheduled;
+	/** Whether the runnable is running, and changes must be ignored. */
+	private boolean updating;
 	private int pauseDepth;
 	private Runnable runnable;
 	/**
@@ -184,30 +186,35 @@ public final class SideEffect implements ISideEffect {
 	private void update() {
 		if (dirty && pauseDepth <= 0) {
 			dirty = false;
-			// Hold a reference to the old dependencies to prevent them from
-			// being garbage collected until we've computed the new set. In the
-			// event that a dependency is lazily created, this prevents it from
-			// being destroyed and immediately recreated.
-
-			// Stop listening for dependency changes.
-			stopListening();
+			// Keep listening to the old dependencies until we've computed the
+			// new set, so that only the listeners of the dependencies that
+			// changed are added or removed. This also prevents them from being
+			// garbage collected. In the event that a dependency is lazily
+			// created, this prevents it from being destroyed and immediately
+			// recreated.
 
 			// This line will do the following:
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(runnable, null, null);
+			// - Ignore the changes the runnable makes to its own dependencies
+			updating = true;
+			IObservable[] newDependencies;
+			try {
+				newDependencies = ObservableTracker.runAndTrack(null, runnable, dependencies, privateInterface,
+						null);
+			} finally {
+				updating = false;
+			}
 
-			// If the side-effect disposed itself, exit without attaching any
-			// listeners.
+			// If the side-effect disposed itself, stop listening.
 			if (isDisposed()) {
+				for (IObservable next : newDependencies) {
+					next.removeChangeListener(privateInterface);
+				}
 				return;
 			}
 
-			for (IObservable next : newDependencies) {
-				next.addChangeListener(privateInterface);
-			}
-
 			dependencies = newDependencies;
 		}
 	}
@@ -337,7 +344,9 @@ public final class SideEffect implements ISideEffect {
 	private class PrivateInterface implements IChangeListener, Runnable {
 		@Override
 		public void handleChange(ChangeEvent event) {
-			markDirtyInternal();
+			if (!updating) {
+				markDirtyInternal();
+			}
 		}
 
 		@Override
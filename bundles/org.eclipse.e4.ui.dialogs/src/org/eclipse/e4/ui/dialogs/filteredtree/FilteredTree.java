@@ -58,6 +58,20 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 	 */
 	private Job refreshJob;
 
+	/**
+	 * The job matching the filter text against the index of the pattern
+	 * filter, or <code>null</code>.
+	 *
+	 * @see PatternFilter#setUseIndex(boolean)
+	 */
+	private Job matchJob;
+
+	/**
+	 * Whether the refresh job is refreshing the tree, which doesn't change its
+	 * content.
+	 */
+	private boolean refreshingFilter;
+
 	private Composite treeComposite;
 
 	/**
@@ -150,7 +164,10 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 		treeViewer.setUseHashlookup(true);
 		GridData data = new GridData(SWT.FILL, SWT.FILL, true, true);
 		treeViewer.getControl().setLayoutData(data);
-		treeViewer.getControl().addDisposeListener(e -> refreshJob.cancel());
+		treeViewer.getControl().addDisposeListener(e -> {
+			refreshJob.cancel();
+			cancelMatchJob();
+		});
 		if (treeViewer instanceof NotifyingTreeViewer) {
 			getPatternFilter().setUseCache(true);
 		}
@@ -222,6 +239,14 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 				}
 
 				boolean initial = initialText != null && initialText.equals(text);
+				if (!initial && getPatternFilter().needsIndexedMatch(text)) {
+					matchJob = getPatternFilter().createMatchJob(treeViewer, text, () -> schedule());
+					if (matchJob != null) {
+						// refresh the tree once the matches are known
+						matchJob.schedule();
+						return Status.OK_STATUS;
+					}
+				}
 				if (initial) {
 					getPatternFilter().setPattern(null);
 				} else if (text != null) {
@@ -244,7 +269,12 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 							}
 						}
 					}
-					treeViewer.refresh(true);
+					refreshingFilter = true;
+					try {
+						treeViewer.refresh(true);
+					} finally {
+						refreshingFilter = false;
+					}
 
 					if (text.length() > 0 && !initial) {
 						/*
@@ -431,9 +461,17 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 		previousFilterText = getFilterString();
 		// cancel currently running job first, to prevent unnecessary redraw
 		refreshJob.cancel();
+		cancelMatchJob();
 		refreshJob.schedule(getRefreshJobDelay());
 	}
 
+	private void cancelMatchJob() {
+		if (matchJob != null) {
+			matchJob.cancel();
+			matchJob = null;
+		}
+	}
+
 	/**
 	 * Set the background for the widgets that support the filter text area.
 	 *
@@ -559,7 +597,9 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 
 		@Override
 		public void refresh(boolean updateLabels) {
-			getPatternFilter().clearCaches();
+			if (!refreshingFilter) {
+				getPatternFilter().clearCaches();
+			}
 			super.refresh(updateLabels);
 		}
 
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.dialogs.filteredtree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.viewers.ContentViewer;
+import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+
+/**
+ * The texts of all elements of a viewer, collected once so that they can be
+ * matched against the filter pattern outside of the UI thread.
+ * <p>
+ * Based on org.eclipse.ui.dialogs.PatternFilterIndex.
+ * </p>
+ *
+ * @see PatternFilter#setUseIndex(boolean)
+ */
+final class PatternFilterIndex {
+
+	/**
+	 * The elements matching a pattern, and the elements shown for them.
+	 *
+	 * @param index   the index that was matched
+	 * @param pattern the pattern string
+	 * @param matched the indices of the elements whose texts match
+	 * @param visible the elements that match or have a matching descendant
+	 */
+	record Matches(PatternFilterIndex index, String pattern, BitSet matched, Set<Object> visible) {
+
+		/**
+		 * Returns the elements that are visible.
+		 *
+		 * @param elements the elements to filter
+		 * @return the visible elements, in the same order
+		 */
+		Object[] filter(Object[] elements) {
+			List<Object> result = new ArrayList<>(Math.min(elements.length, visible.size()));
+			for (Object element : elements) {
+				if (visible.contains(element)) {
+					result.add(element);
+				}
+			}
+			return result.toArray();
+		}
+	}
+
+	/** The elements, parents before their children. */
+	private final Object[] elements;
+
+	/** The index of the parent of each element, <code>-1</code> for roots. */
+	private final int[] parents;
+
+	/** The texts of each element. */
+	private final String[][] texts;
+
+	private PatternFilterIndex(Object[] elements, int[] parents, String[][] texts) {
+		this.elements = elements;
+		this.parents = parents;
+		this.texts = texts;
+	}
+
+	/**
+	 * Collects the texts of all elements of the given viewer. Must be called in
+	 * the UI thread.
+	 *
+	 * @param filter the filter providing the texts
+	 * @param viewer the viewer
+	 * @return the index, or <code>null</code> if the content of the viewer can't
+	 *         be walked
+	 */
+	static PatternFilterIndex create(PatternFilter filter, ContentViewer viewer) {
+		if (!(viewer.getContentProvider() instanceof IStructuredContentProvider contentProvider)) {
+			return null;
+		}
+		ITreeContentProvider treeContentProvider = contentProvider instanceof ITreeContentProvider tree ? tree
+				: null;
+		List<Object> elements = new ArrayList<>();
+		List<String[]> texts = new ArrayList<>();
+		int[] parents = new int[16];
+		// Pairs of parent index and element, walked depth first
+		Deque<Object[]> pending = new ArrayDeque<>();
+		push(pending, -1, contentProvider.getElements(viewer.getInput()));
+		while (!pending.isEmpty()) {
+			Object[] entry = pending.pop();
+			int parent = ((Integer) entry[0]).intValue();
+			Object element = entry[1];
+			String[] elementTexts = filter.getSearchTexts(viewer, element);
+			if (elementTexts == null) {
+				// Neither the element nor its children are shown
+				continue;
+			}
+			int index = elements.size();
+			if (index == parents.length) {
+				parents = Arrays.copyOf(parents, index * 2);
+			}
+			parents[index] = parent;
+			elements.add(element);
+			texts.add(elementTexts);
+			if (treeContentProvider != null && treeContentProvider.hasChildren(element)) {
+				push(pending, index, treeContentProvider.getChildren(element));
+			}
+		}
+		return new PatternFilterIndex(elements.toArray(), Arrays.copyOf(parents, elements.size()),
+				texts.toArray(new String[elements.size()][]));
+	}
+
+	private static void push(Deque<Object[]> pending, int parent, Object[] children) {
+		if (children == null) {
+			return;
+		}
+		Integer parentIndex = Integer.valueOf(parent);
+		for (int i = children.length - 1; i >= 0; i--) {
+			pending.push(new Object[] { parentIndex, children[i] });
+		}
+	}
+
+	/**
+	 * Matches the texts of the elements. May be called in any thread.
+	 *
+	 * @param pattern  the pattern string
+	 * @param matcher  tests whether a text matches the pattern
+	 * @param previous the matches of a pattern that matches all texts the given
+	 *                 pattern matches, or <code>null</code> to test all
+	 *                 elements
+	 * @param monitor  the monitor to check for cancellation
+	 * @return the matches, or <code>null</code> if canceled
+	 */
+	Matches match(String pattern, Predicate<String> matcher, Matches previous, IProgressMonitor monitor) {
+		BitSet candidates = previous != null && previous.index() == this ? previous.matched() : null;
+		BitSet matched = new BitSet(elements.length);
+		int i = candidates != null ? candidates.nextSetBit(0) : 0;
+		for (int tested = 0; i >= 0 && i < elements.length; tested++) {
+			if ((tested & 0xff) == 0 && monitor.isCanceled()) {
+				return null;
+			}
+			for (String text : texts[i]) {
+				if (matcher.test(text)) {
+					matched.set(i);
+					break;
+				}
+			}
+			i = candidates != null ? candidates.nextSetBit(i + 1) : i + 1;
+		}
+
+		// Show the ancestors of the matching elements
+		BitSet shown = new BitSet(elements.length);
+		Set<Object> visible = new HashSet<>();
+		for (int m = matched.nextSetBit(0); m >= 0; m = matched.nextSetBit(m + 1)) {
+			for (int e = m; e >= 0 && !shown.get(e); e = parents[e]) {
+				shown.set(e);
+				visible.add(elements[e]);
+			}
+		}
+		return new Matches(this, pattern, matched, visible);
+	}
+}
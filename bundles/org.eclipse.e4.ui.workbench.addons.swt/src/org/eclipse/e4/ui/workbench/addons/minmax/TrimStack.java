@@ -26,6 +26,7 @@ import java.util.Map.Entry;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.di.UIEventTopic;
+import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
 import org.eclipse.e4.ui.internal.workbench.swt.ShellActivationListener;
 import org.eclipse.e4.ui.model.application.ui.MElementContainer;
 import org.eclipse.e4.ui.model.application.ui.MGenericStack;
@@ -139,6 +140,9 @@ public class TrimStack {
 	@Inject
 	EPartService partService;
 
+	@Inject
+	IPresentationEngine presentationEngine;
+
 	@Inject
 	MWindow window;
 
@@ -224,7 +228,7 @@ public class TrimStack {
 	private void handleTransientDataEvents(
 			@UIEventTopic(UIEvents.ApplicationElement.TOPIC_TRANSIENTDATA) org.osgi.service.event.Event event) {
 		// Prevent exceptions on shutdown
-		if (trimStackTB == null || trimStackTB.isDisposed() || minimizedElement.getWidget() == null) {
+		if (trimStackTB == null || trimStackTB.isDisposed() || !isStackRendered()) {
 			return;
 		}
 
@@ -259,7 +263,7 @@ public class TrimStack {
 	@Optional
 	private void subscribeTopicIconUriChanged(@UIEventTopic(UIEvents.UILabel.TOPIC_ICONURI) Event event) {
 		// Prevent exceptions on shutdown
-		if (trimStackTB == null || trimStackTB.isDisposed() || minimizedElement.getWidget() == null) {
+		if (trimStackTB == null || trimStackTB.isDisposed() || !isStackRendered()) {
 			return;
 		}
 
@@ -828,9 +832,17 @@ public class TrimStack {
 		return (MUILabel) (element instanceof MUILabel ? element : null);
 	}
 
+	/**
+	 * @return whether the minimized element has been rendered or will be
+	 *         rendered on its first reveal
+	 */
+	private boolean isStackRendered() {
+		return minimizedElement.getWidget() != null || PartRenderingEngine.isRenderingDeferred(minimizedElement);
+	}
+
 	private void updateTrimStackItems() {
 		// Prevent exceptions on shutdown
-		if (trimStackTB == null || trimStackTB.isDisposed() || minimizedElement.getWidget() == null) {
+		if (trimStackTB == null || trimStackTB.isDisposed() || !isStackRendered()) {
 			return;
 		}
 
@@ -927,6 +939,10 @@ public class TrimStack {
 	 */
 	public void showStack(boolean show) {
 		Control ctrl = (Control) minimizedElement.getWidget();
+		if (ctrl == null && show && PartRenderingEngine.isRenderingDeferred(minimizedElement)) {
+			// the stack is rendered lazily on its first reveal
+			ctrl = (Control) presentationEngine.createGui(minimizedElement);
+		}
 		if (ctrl == null) {
 			return;
 		}
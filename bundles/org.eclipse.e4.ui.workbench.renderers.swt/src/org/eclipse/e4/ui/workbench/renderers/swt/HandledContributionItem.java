@@ -45,6 +45,7 @@ import org.eclipse.e4.ui.bindings.EBindingService;
 import org.eclipse.e4.ui.internal.workbench.ContributionsAnalyzer;
 import org.eclipse.e4.ui.internal.workbench.renderers.swt.IUpdateService;
 import org.eclipse.e4.ui.internal.workbench.swt.Policy;
+import org.eclipse.e4.ui.internal.workbench.swt.RenderingMetrics;
 import org.eclipse.e4.ui.internal.workbench.swt.WorkbenchSWTActivator;
 import org.eclipse.e4.ui.model.application.commands.MCommand;
 import org.eclipse.e4.ui.model.application.commands.MParameter;
@@ -464,7 +465,12 @@ public class HandledContributionItem extends AbstractContributionItem {
 			return false;
 		}
 		final IEclipseContext staticContext = getStaticContext(trigger);
-		return service.canExecute(cmd, staticContext);
+		long start = RenderingMetrics.start();
+		try {
+			return service.canExecute(cmd, staticContext);
+		} finally {
+			RenderingMetrics.record(RenderingMetrics.CAN_EXECUTE, cmd.getId(), start);
+		}
 	}
 
 	@Override
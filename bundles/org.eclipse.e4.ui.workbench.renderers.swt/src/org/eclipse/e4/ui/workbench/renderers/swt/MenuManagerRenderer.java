@@ -52,6 +52,7 @@ import org.eclipse.e4.ui.internal.workbench.ContributionsAnalyzer;
 import org.eclipse.e4.ui.internal.workbench.OpaqueElementUtil;
 import org.eclipse.e4.ui.internal.workbench.RenderedElementUtil;
 import org.eclipse.e4.ui.internal.workbench.swt.Policy;
+import org.eclipse.e4.ui.internal.workbench.swt.RenderingMetrics;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.ui.MElementContainer;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
@@ -478,7 +479,12 @@ public class MenuManagerRenderer extends SWTPartRenderer {
 		final ArrayList<MMenuContribution> toContribute = new ArrayList<>();
 		ContributionsAnalyzer.XXXgatherMenuContributions(menuModel, application.getMenuContributions(), elementId,
 				toContribute, isPopup);
-		generateContributions(menuModel, toContribute, isMenuBar);
+		long start = RenderingMetrics.start();
+		try {
+			generateContributions(menuModel, toContribute, isMenuBar);
+		} finally {
+			RenderingMetrics.record(RenderingMetrics.PROCESS_CONTRIBUTIONS, elementId, start);
+		}
 		for (MMenuElement element : menuModel.getChildren()) {
 			if (element instanceof MMenu) {
 				processContributions((MMenu) element, element.getElementId(), false, isPopup);
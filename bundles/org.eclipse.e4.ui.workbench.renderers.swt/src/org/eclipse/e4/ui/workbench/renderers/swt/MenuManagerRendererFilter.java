@@ -35,6 +35,7 @@ import org.eclipse.e4.ui.internal.workbench.OpaqueElementUtil;
 import org.eclipse.e4.ui.internal.workbench.swt.AbstractPartRenderer;
 import org.eclipse.e4.ui.internal.workbench.swt.MenuService;
 import org.eclipse.e4.ui.internal.workbench.swt.Policy;
+import org.eclipse.e4.ui.internal.workbench.swt.RenderingMetrics;
 import org.eclipse.e4.ui.internal.workbench.swt.WorkbenchSWTActivator;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.model.application.ui.basic.MPart;
@@ -191,10 +192,12 @@ public class MenuManagerRendererFilter implements Listener {
 							.create(MMRF_STATIC_CONTEXT);
 					ContributionsAnalyzer.populateModelInterfaces(item,
 							staticContext, item.getClass().getInterfaces());
+					long start = RenderingMetrics.start();
 					try {
 						((MHandledMenuItem) element).setEnabled(handlerService
 								.canExecute(cmd, staticContext));
 					} finally {
+						RenderingMetrics.record(RenderingMetrics.CAN_EXECUTE, cmd.getId(), start);
 						staticContext.dispose();
 					}
 				}
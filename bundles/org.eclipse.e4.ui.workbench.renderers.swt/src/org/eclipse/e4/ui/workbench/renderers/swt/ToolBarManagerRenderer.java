@@ -50,6 +50,7 @@ import org.eclipse.e4.ui.internal.workbench.OpaqueElementUtil;
 import org.eclipse.e4.ui.internal.workbench.swt.AbstractPartRenderer;
 import org.eclipse.e4.ui.internal.workbench.swt.CSSRenderingUtils;
 import org.eclipse.e4.ui.internal.workbench.swt.Policy;
+import org.eclipse.e4.ui.internal.workbench.swt.RenderingMetrics;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.ui.MElementContainer;
@@ -452,7 +453,12 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 		final ArrayList<MToolBarContribution> toContribute = new ArrayList<>();
 		ContributionsAnalyzer.XXXgatherToolBarContributions(application.getToolBarContributions(), elementId,
 				toContribute);
-		generateContributions(toolbarModel, toContribute);
+		long start = RenderingMetrics.start();
+		try {
+			generateContributions(toolbarModel, toContribute);
+		} finally {
+			RenderingMetrics.record(RenderingMetrics.PROCESS_CONTRIBUTIONS, elementId, start);
+		}
 	}
 
 	private void addCleanupDisposeListener(final MToolBar toolbarModel, ToolBar control) {
@@ -27,10 +27,13 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -75,6 +78,7 @@ import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
 import org.eclipse.e4.ui.model.application.ui.basic.MPart;
 import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
@@ -122,12 +126,52 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	public static final String ENABLED_THEME_KEY = "themeEnabled";
 
+	/**
+	 * System property and context key telling whether hidden elements
+	 * (minimized stacks and invisible trim) are only rendered when they are
+	 * revealed for the first time or when the display is idle. The context
+	 * value, a {@link Boolean}, overrides the system property.
+	 */
+	public static final String LAZY_RENDERING_KEY = "org.eclipse.e4.ui.workbench.swt.lazyRendering"; //$NON-NLS-1$
+
+	/**
+	 * System property and context key of the time in milliseconds without user
+	 * input after which a deferred element is rendered in the background, a
+	 * negative value disables the prefetching. The context value, an
+	 * {@link Integer}, overrides the system property.
+	 */
+	public static final String PREFETCH_DELAY_KEY = "org.eclipse.e4.ui.workbench.swt.lazyRendering.prefetchDelay"; //$NON-NLS-1$
+
+	/**
+	 * The input events which postpone the prefetching of deferred elements.
+	 */
+	private static final int[] INPUT_EVENTS = { SWT.KeyDown, SWT.KeyUp, SWT.MouseDown, SWT.MouseUp, SWT.MouseMove,
+			SWT.MouseWheel };
+
+	/**
+	 * Transient data key marking elements whose rendering has been deferred.
+	 */
+	public static final String DEFERRED_RENDERING_KEY = "deferredRendering"; //$NON-NLS-1$
+
 	private final String factoryUrl;
 
 	IRendererFactory curFactory = null;
 
 	private final Map<String, AbstractPartRenderer> customRendererMap = new HashMap<>();
 
+	private final Set<MUIElement> deferredElements = new LinkedHashSet<>();
+
+	private boolean lazyRendering = Boolean.getBoolean(LAZY_RENDERING_KEY);
+
+	private int prefetchDelay = Integer.getInteger(PREFETCH_DELAY_KEY, 1000).intValue();
+
+	private boolean prefetchScheduled;
+
+	/** Notes the time of the last user input while elements are deferred. */
+	private org.eclipse.swt.widgets.Listener inputListener;
+
+	private long lastInputNanos;
+
 	org.eclipse.swt.widgets.Listener keyListener;
 
 	@Inject
@@ -206,7 +250,13 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 		// Re-parent the control based on the visible state
 		if (changedElement.isVisible()) {
-			if (changedElement.isToBeRendered()) {
+			if (changedElement.isToBeRendered() && isRenderingDeferred(changedElement)) {
+				// First reveal of an element that was never rendered
+				Object w = createGui(changedElement);
+				if (w instanceof Control && !(w instanceof Shell)) {
+					fixZOrder(changedElement);
+				}
+			} else if (changedElement.isToBeRendered()) {
 				if (changedElement.getWidget() instanceof Control && //
 						renderer.getUIContainer(changedElement) instanceof Composite) {
 					// Ensure that the control is under its 'real' parent if
@@ -409,6 +459,18 @@ public class PartRenderingEngine implements IPresentationEngine {
 		this.factoryUrl = factoryUrl;
 	}
 
+	@Inject
+	@Optional
+	void setLazyRendering(@Named(LAZY_RENDERING_KEY) Boolean lazyRendering) {
+		this.lazyRendering = lazyRendering.booleanValue();
+	}
+
+	@Inject
+	@Optional
+	void setPrefetchDelay(@Named(PREFETCH_DELAY_KEY) Integer prefetchDelay) {
+		this.prefetchDelay = prefetchDelay.intValue();
+	}
+
 	protected void fixZOrder(MUIElement element) {
 		MElementContainer<MUIElement> parent = element.getParent();
 		if (parent == null) {
@@ -538,7 +600,12 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 			@Override
 			public void run() throws Exception {
-				gui[0] = safeCreateGui(element, parentWidget, parentContext);
+				long start = RenderingMetrics.start();
+				try {
+					gui[0] = safeCreateGui(element, parentWidget, parentContext);
+				} finally {
+					RenderingMetrics.record(RenderingMetrics.CREATE_GUI, element, start);
+				}
 			}
 		});
 		return gui[0];
@@ -655,7 +722,13 @@ public class PartRenderingEngine implements IPresentationEngine {
 		}
 
 		// Create a control appropriate to the part
-		Object newWidget = createWidget(element, parentWidget);
+		Object newWidget;
+		long start = RenderingMetrics.start();
+		try {
+			newWidget = createWidget(element, parentWidget);
+		} finally {
+			RenderingMetrics.record(RenderingMetrics.CREATE_WIDGET, element, start);
+		}
 
 		// Remember that we've created the control
 		if (newWidget != null) {
@@ -669,7 +742,12 @@ public class PartRenderingEngine implements IPresentationEngine {
 			if (element instanceof MElementContainer) {
 				@SuppressWarnings("unchecked")
 				MElementContainer<MUIElement> container = (MElementContainer<MUIElement>) element;
-				renderer.processContents(container);
+				start = RenderingMetrics.start();
+				try {
+					renderer.processContents(container);
+				} finally {
+					RenderingMetrics.record(RenderingMetrics.PROCESS_CONTENTS, renderer, start);
+				}
 			}
 
 			// Allow a final chance to set up
@@ -723,7 +801,12 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 			@Override
 			public void run() throws Exception {
-				gui[0] = safeCreateGui(element);
+				long start = RenderingMetrics.start();
+				try {
+					gui[0] = safeCreateGui(element);
+				} finally {
+					RenderingMetrics.record(RenderingMetrics.CREATE_GUI, element, start);
+				}
 			}
 		});
 		return gui[0];
@@ -736,6 +819,15 @@ public class PartRenderingEngine implements IPresentationEngine {
 		if (parentME == null) {
 			parentME = (MUIElement) ((EObject) element).eContainer();
 		}
+		if (lazyRendering && element.getWidget() == null) {
+			if (isRenderingDeferred(element)) {
+				// explicitly requested, render it now
+				undefer(element);
+			} else if (isDeferrable(element, parentME)) {
+				defer(element);
+				return null;
+			}
+		}
 		if (parentME != null) {
 			AbstractPartRenderer renderer = getRendererFor(parentME);
 			if (renderer != null) {
@@ -762,6 +854,115 @@ public class PartRenderingEngine implements IPresentationEngine {
 		return safeCreateGui(element, parent, parentContext);
 	}
 
+	/**
+	 * Returns whether the rendering of the element has been deferred until it
+	 * gets revealed. Deferred elements have no widget but the next
+	 * {@link #createGui(MUIElement)} for them renders them.
+	 *
+	 * @param element the element
+	 * @return <code>true</code> if the element has not been rendered yet
+	 *         because it was hidden
+	 */
+	public static boolean isRenderingDeferred(MUIElement element) {
+		return element.getTransientData().containsKey(DEFERRED_RENDERING_KEY);
+	}
+
+	/**
+	 * Hidden elements which are only shown on request are deferred: minimized
+	 * elements (shown by their trim stack) and invisible trim contributions.
+	 */
+	private boolean isDeferrable(MUIElement element, MUIElement parentME) {
+		if (element.isVisible() || !element.isToBeRendered() || parentME == null
+				|| getRendererFor(parentME) == null) {
+			return false;
+		}
+		return element.getTags().contains(MINIMIZED) || parentME instanceof MTrimBar;
+	}
+
+	private void defer(MUIElement element) {
+		if (Policy.DEBUG_RENDERER) {
+			WorkbenchSWTActivator.trace(Policy.DEBUG_RENDERER_FLAG, "deferring rendering of " + element, null); //$NON-NLS-1$
+		}
+		element.getTransientData().put(DEFERRED_RENDERING_KEY, Boolean.TRUE);
+		deferredElements.add(element);
+		schedulePrefetch();
+	}
+
+	private void undefer(MUIElement element) {
+		if (deferredElements.remove(element)) {
+			element.getTransientData().remove(DEFERRED_RENDERING_KEY);
+		}
+	}
+
+	private void schedulePrefetch() {
+		if (prefetchScheduled || prefetchDelay < 0 || deferredElements.isEmpty()) {
+			return;
+		}
+		Display display = Display.getCurrent();
+		if (display == null || display.isDisposed()) {
+			return;
+		}
+		if (inputListener == null) {
+			inputListener = event -> lastInputNanos = System.nanoTime();
+			for (int type : INPUT_EVENTS) {
+				display.addFilter(type, inputListener);
+			}
+			lastInputNanos = System.nanoTime();
+		}
+		prefetchScheduled = true;
+		display.timerExec(prefetchDelay, this::prefetch);
+	}
+
+	private void removeInputListener(Display display) {
+		if (inputListener != null && !display.isDisposed()) {
+			for (int type : INPUT_EVENTS) {
+				display.removeFilter(type, inputListener);
+			}
+		}
+		inputListener = null;
+	}
+
+	/**
+	 * Renders one deferred element in the background so it is ready when it is
+	 * revealed. The elements are rendered one per timer tick once there was no
+	 * user input for the prefetch delay, to keep the UI responsive.
+	 */
+	private void prefetch() {
+		prefetchScheduled = false;
+		Display display = Display.getCurrent();
+		if (display == null || display.isDisposed()) {
+			return;
+		}
+		long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastInputNanos);
+		if (idleMillis < prefetchDelay && !deferredElements.isEmpty()) {
+			// the user is busy, wait until the input has been idle long enough
+			prefetchScheduled = true;
+			display.timerExec((int) (prefetchDelay - idleMillis), this::prefetch);
+			return;
+		}
+		Iterator<MUIElement> iterator = deferredElements.iterator();
+		while (iterator.hasNext()) {
+			MUIElement element = iterator.next();
+			MUIElement parentME = element.getParent();
+			if (element.getWidget() != null || !element.isToBeRendered() || parentME == null
+					|| parentME.getWidget() == null) {
+				// rendered in the meantime or no longer part of the UI
+				iterator.remove();
+				element.getTransientData().remove(DEFERRED_RENDERING_KEY);
+				continue;
+			}
+			if (removeRoot == null) {
+				createGui(element);
+			}
+			break;
+		}
+		if (deferredElements.isEmpty()) {
+			removeInputListener(display);
+		} else {
+			schedulePrefetch();
+		}
+	}
+
 	@Override
 	public void focusGui(MUIElement element) {
 		AbstractPartRenderer renderer = (AbstractPartRenderer) element
@@ -860,6 +1061,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 	}
 
 	private void safeRemoveGui(MUIElement element) {
+		undefer(element);
 		if (removeRoot == null) {
 			removeRoot = element;
 		}
@@ -1232,6 +1434,9 @@ public class PartRenderingEngine implements IPresentationEngine {
 				keyListener = null;
 			}
 		}
+		if (inputListener != null) {
+			removeInputListener(Display.getDefault());
+		}
 	}
 
 	public static void initializeStyling(Display display,
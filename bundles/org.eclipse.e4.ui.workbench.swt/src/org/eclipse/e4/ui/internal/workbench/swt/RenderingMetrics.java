@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench.swt;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.e4.ui.model.application.MContribution;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+
+/**
+ * Collects timings of the hot paths of the rendering engine: widget creation,
+ * processing of container contents and handler enablement checks, per renderer
+ * and per contribution URI.
+ * <p>
+ * The metrics are only collected if the system property
+ * <code>org.eclipse.e4.ui.workbench.swt.metrics</code> is set to
+ * <code>true</code>. Otherwise {@link #start()} and
+ * {@link #record(String, Object, long)} return immediately, so the
+ * instrumentation costs a static field read per call site. When enabled the
+ * registry is registered as an OSGi service and as the platform MBean
+ * <code>org.eclipse.e4.ui.workbench.swt:type=RenderingMetrics</code>. If the
+ * system property <code>org.eclipse.e4.ui.workbench.swt.metrics.file</code> is
+ * set, the metrics are written to that file when the bundle is stopped.
+ * </p>
+ * <p>
+ * Typical instrumentation:
+ * </p>
+ *
+ * <pre>
+ * long start = RenderingMetrics.start();
+ * try {
+ * 	renderer.processContents(container);
+ * } finally {
+ * 	RenderingMetrics.record(RenderingMetrics.PROCESS_CONTENTS, renderer, start);
+ * }
+ * </pre>
+ */
+public final class RenderingMetrics implements RenderingMetricsMXBean {
+
+	/**
+	 * Whether the metrics are collected.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("org.eclipse.e4.ui.workbench.swt.metrics"); //$NON-NLS-1$
+
+	/**
+	 * The file the metrics are written to when the bundle is stopped, may be
+	 * <code>null</code>.
+	 */
+	static final String DUMP_FILE = System.getProperty("org.eclipse.e4.ui.workbench.swt.metrics.file"); //$NON-NLS-1$
+
+	/** The name of the MBean exposing the metrics. */
+	static final String OBJECT_NAME = "org.eclipse.e4.ui.workbench.swt:type=RenderingMetrics"; //$NON-NLS-1$
+
+	/** Rendering of a model element including its children. */
+	public static final String CREATE_GUI = "createGui"; //$NON-NLS-1$
+
+	/** Creation of the widget of a model element by its renderer. */
+	public static final String CREATE_WIDGET = "createWidget"; //$NON-NLS-1$
+
+	/** Processing of the children of a container by its renderer. */
+	public static final String PROCESS_CONTENTS = "processContents"; //$NON-NLS-1$
+
+	/** Generation of the menu or tool bar contributions for an element id. */
+	public static final String PROCESS_CONTRIBUTIONS = "processContributions"; //$NON-NLS-1$
+
+	/** Evaluation of a handler's <code>canExecute</code>. */
+	public static final String CAN_EXECUTE = "canExecute"; //$NON-NLS-1$
+
+	private static final RenderingMetrics INSTANCE = new RenderingMetrics();
+
+	/**
+	 * Number of buckets of the histograms. Bucket <code>i</code> counts the
+	 * samples taking less than <code>2^i</code> microseconds, the last bucket
+	 * counts everything above.
+	 */
+	private static final int BUCKETS = 24;
+
+	/**
+	 * The timings of one operation for one renderer or contribution.
+	 */
+	public static final class Timer {
+		private final String name;
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder totalNanos = new LongAdder();
+
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		Timer(String name) {
+			this.name = name;
+		}
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+			long micros = nanos / 1000;
+			int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+			histogram.incrementAndGet(bucket);
+		}
+
+		/**
+		 * @return the name of the timer, consisting of the operation and the
+		 *         renderer or contribution
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/** @return the number of recorded samples */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/** @return the sum of all samples in nanoseconds */
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+		/** @return the longest sample in nanoseconds */
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+
+		/**
+		 * Returns an upper bound of the given percentile, derived from the
+		 * histogram.
+		 *
+		 * @param percentile the percentile, between 0 and 100
+		 * @return the upper bound of the bucket containing the percentile in
+		 *         microseconds
+		 */
+		public long getPercentileMicros(double percentile) {
+			long total = 0;
+			long[] buckets = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] = histogram.get(i);
+				total += buckets[i];
+			}
+			long threshold = (long) Math.ceil(total * percentile / 100);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += buckets[i];
+				if (seen >= threshold && seen > 0) {
+					return 1L << i;
+				}
+			}
+			return 0;
+		}
+	}
+
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an empty registry. Only the {@link #getDefault() default
+	 * registry} is fed by the instrumentation, other instances are for use by
+	 * test cases.
+	 */
+	public RenderingMetrics() {
+	}
+
+	/**
+	 * @return the metrics registry
+	 */
+	public static RenderingMetrics getDefault() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts the measurement of an operation.
+	 *
+	 * @return the start time to pass to {@link #record(String, Object, long)},
+	 *         meaningless if the metrics are disabled
+	 */
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the time elapsed since the start of an operation.
+	 *
+	 * @param operation one of the operation constants of this class
+	 * @param key       the renderer, model element or contribution URI the
+	 *                  operation is attributed to
+	 * @param start     the value returned by {@link #start()}
+	 */
+	public static void record(String operation, Object key, long start) {
+		if (ENABLED) {
+			INSTANCE.add(operation, key, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Adds a sample to the timer of an operation.
+	 *
+	 * @param operation one of the operation constants of this class
+	 * @param key       the renderer, model element or contribution URI the
+	 *                  operation is attributed to
+	 * @param nanos     the time the operation took in nanoseconds
+	 */
+	public void add(String operation, Object key, long nanos) {
+		timers.computeIfAbsent(operation + ' ' + keyName(key), Timer::new).record(nanos);
+	}
+
+	/**
+	 * Returns the name a sample is attributed to: the contribution URI for
+	 * contributions, the class name of the renderer for other model elements.
+	 */
+	private static String keyName(Object key) {
+		if (key instanceof MContribution contribution && contribution.getContributionURI() != null) {
+			return contribution.getContributionURI();
+		}
+		if (key instanceof MUIElement element) {
+			Object renderer = element.getRenderer();
+			return renderer != null ? renderer.getClass().getName() : element.getClass().getSimpleName();
+		}
+		if (key instanceof String) {
+			return (String) key;
+		}
+		return key == null ? "null" : key.getClass().getName(); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return a snapshot of the timers, sorted by descending total time
+	 */
+	public List<Timer> getTimers() {
+		List<Timer> result = new ArrayList<>(timers.values());
+		result.sort(Comparator.comparingLong(Timer::getTotalNanos).reversed());
+		return result;
+	}
+
+	@Override
+	public int getTimerCount() {
+		return timers.size();
+	}
+
+	@Override
+	public void reset() {
+		timers.clear();
+	}
+
+	/**
+	 * Writes the metrics as a table to the writer.
+	 *
+	 * @param writer the writer
+	 */
+	public void dump(Writer writer) {
+		PrintWriter out = new PrintWriter(writer);
+		out.printf("%10s %12s %10s %10s %10s  %s%n", "count", "total ms", "max ms", "p50 us", "p99 us", "operation"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+		for (Timer timer : getTimers()) {
+			out.printf("%10d %12.3f %10.3f %10d %10d  %s%n", timer.getCount(), timer.getTotalNanos() / 1e6, //$NON-NLS-1$
+					timer.getMaxNanos() / 1e6, timer.getPercentileMicros(50), timer.getPercentileMicros(99),
+					timer.getName());
+		}
+		out.flush();
+	}
+
+	@Override
+	public String getReport() {
+		StringWriter writer = new StringWriter();
+		dump(writer);
+		return writer.toString();
+	}
+
+	@Override
+	public void dumpToFile(String file) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8)) {
+			dump(writer);
+		}
+	}
+}
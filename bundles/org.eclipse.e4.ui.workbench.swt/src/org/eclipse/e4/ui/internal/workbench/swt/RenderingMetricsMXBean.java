@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench.swt;
+
+import java.io.IOException;
+
+/**
+ * The management interface of the {@link RenderingMetrics}.
+ */
+public interface RenderingMetricsMXBean {
+
+	/**
+	 * @return the number of renderer and contribution timers
+	 */
+	int getTimerCount();
+
+	/**
+	 * @return the metrics as a table, sorted by descending total time
+	 */
+	String getReport();
+
+	/**
+	 * Writes the metrics to a file.
+	 *
+	 * @param file the path of the file
+	 * @throws IOException if the file can't be written
+	 */
+	void dumpToFile(String file) throws IOException;
+
+	/**
+	 * Discards all collected metrics.
+	 */
+	void reset();
+}
@@ -35,10 +35,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Hashtable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.ILog;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.jface.dialogs.DialogSettings;
@@ -52,6 +57,7 @@ import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.util.tracker.ServiceTracker;
 
 /**
@@ -64,6 +70,7 @@ public class WorkbenchSWTActivator implements BundleActivator, DebugOptionsListe
 	private ServiceTracker<?, Location> locationTracker;
 	private static WorkbenchSWTActivator activator;
 	private DebugTrace trace;
+	private ServiceRegistration<RenderingMetrics> metricsRegistration;
 
 
 	/**
@@ -89,13 +96,47 @@ public class WorkbenchSWTActivator implements BundleActivator, DebugOptionsListe
 		Hashtable<String, String> props = new Hashtable<>(2);
 		props.put(DebugOptions.LISTENER_SYMBOLICNAME, PI_RENDERERS);
 		context.registerService(DebugOptionsListener.class, this, props);
+		if (RenderingMetrics.ENABLED) {
+			registerMetrics();
+		}
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		if (metricsRegistration != null) {
+			unregisterMetrics();
+		}
 		saveDialogSettings();
 	}
 
+	private void registerMetrics() {
+		RenderingMetrics metrics = RenderingMetrics.getDefault();
+		metricsRegistration = context.registerService(RenderingMetrics.class, metrics, null);
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(metrics, new ObjectName(RenderingMetrics.OBJECT_NAME));
+		} catch (JMException e) {
+			ILog.of(getClass()).error("Could not register the rendering metrics MBean", e); //$NON-NLS-1$
+		}
+	}
+
+	private void unregisterMetrics() {
+		metricsRegistration.unregister();
+		metricsRegistration = null;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(RenderingMetrics.OBJECT_NAME));
+		} catch (JMException e) {
+			// not registered
+		}
+		if (RenderingMetrics.DUMP_FILE != null) {
+			try {
+				RenderingMetrics.getDefault().dumpToFile(RenderingMetrics.DUMP_FILE);
+			} catch (IOException e) {
+				ILog.of(getClass()).error("Could not write the rendering metrics to " + RenderingMetrics.DUMP_FILE, e); //$NON-NLS-1$
+			}
+		}
+	}
+
 	public Bundle getBundle() {
 		if (context == null) {
 			return null;
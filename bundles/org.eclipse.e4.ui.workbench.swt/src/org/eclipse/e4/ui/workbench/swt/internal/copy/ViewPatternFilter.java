@@ -34,6 +34,7 @@ public class ViewPatternFilter extends PatternFilter {
 	public ViewPatternFilter(IEclipseContext context) {
 		super();
 		this.context = context;
+		setUseIndex(true);
 	}
 
 	@Override
@@ -43,8 +44,16 @@ public class ViewPatternFilter extends PatternFilter {
 
 	@Override
 	protected boolean isLeafMatch(Viewer viewer, Object element) {
-		return element instanceof MPartDescriptor desc && Stream.of(desc.getLabel(), desc.getCategory()) //
-				.map(text -> LocalizationHelper.getLocalized(text, desc, context)) //
-				.anyMatch(this::wordMatches);
+		return Stream.of(getSearchTexts(viewer, element)).anyMatch(this::wordMatches);
+	}
+
+	@Override
+	protected String[] getSearchTexts(Viewer viewer, Object element) {
+		if (element instanceof MPartDescriptor desc) {
+			return Stream.of(desc.getLabel(), desc.getCategory()) //
+					.map(text -> LocalizationHelper.getLocalized(text, desc, context)) //
+					.toArray(String[]::new);
+		}
+		return new String[0];
 	}
 }
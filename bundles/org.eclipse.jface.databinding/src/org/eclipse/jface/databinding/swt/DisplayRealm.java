@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.jface.internal.databinding.swt.DisplayRealmQueue;
 import org.eclipse.swt.widgets.Display;
 
 /**
@@ -27,6 +28,13 @@ import org.eclipse.swt.widgets.Display;
  */
 public class DisplayRealm extends Realm {
 
+	/**
+	 * Whether {@link #asyncExec(Runnable)} runs the runnables in batches instead
+	 * of posting each one to the display.
+	 */
+	private static final boolean COALESCE_ASYNC_EXEC = !"false" //$NON-NLS-1$
+			.equalsIgnoreCase(System.getProperty("org.eclipse.jface.databinding.swt.coalesceAsyncExec")); //$NON-NLS-1$
+
 	private static List<DisplayRealm> realms = new ArrayList<>();
 
 	/**
@@ -50,8 +58,11 @@ public class DisplayRealm extends Realm {
 
 	private final Display display;
 
+	private final DisplayRealmQueue queue;
+
 	private DisplayRealm(Display display) {
 		this.display = display;
+		this.queue = COALESCE_ASYNC_EXEC ? new DisplayRealmQueue(display, DisplayRealm::safeRun) : null;
 	}
 
 	@Override
@@ -61,6 +72,10 @@ public class DisplayRealm extends Realm {
 
 	@Override
 	public void asyncExec(final Runnable runnable) {
+		if (queue != null) {
+			queue.add(runnable);
+			return;
+		}
 		Runnable safeRunnable = () -> safeRun(runnable);
 		if (!display.isDisposed()) {
 			display.asyncExec(safeRunnable);
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.internal.databinding.swt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Runs the runnables given to
+ * {@link org.eclipse.jface.databinding.swt.DisplayRealm#asyncExec(Runnable)}
+ * in batches on the UI thread.
+ * <p>
+ * The runnables are added to a lock-free queue, and only one message at a time
+ * is posted with {@link Display#asyncExec(Runnable)} to drain it. Draining
+ * stops when the time slice is used up, so that user input and painting can be
+ * processed before the remaining runnables are run. The runnables are run in
+ * the order they were given.
+ * </p>
+ *
+ * @since 1.16
+ */
+public final class DisplayRealmQueue {
+
+	/**
+	 * The time in milliseconds a batch of runnables may take before the rest of
+	 * the queue is left for the next turn of the event loop.
+	 */
+	private static final long TIME_SLICE = TimeUnit.MILLISECONDS
+			.toNanos(Integer.getInteger("org.eclipse.jface.databinding.swt.realmTimeSlice", 20).intValue()); //$NON-NLS-1$
+
+	private static final Map<Display, DisplayRealmQueue> queues = new ConcurrentHashMap<>();
+
+	private record Task(Runnable runnable, long enqueueTime) {
+	}
+
+	private final Display display;
+
+	private final Consumer<Runnable> runner;
+
+	private final ConcurrentLinkedQueue<Task> queue = new ConcurrentLinkedQueue<>();
+
+	/** The number of runnables in the queue. */
+	private final AtomicInteger depth = new AtomicInteger();
+
+	/** Whether a message is posted that hasn't started draining the queue. */
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private final Runnable drain = this::drain;
+
+	private final AtomicInteger maxDepth = new AtomicInteger();
+
+	private volatile long maxLatency;
+
+	private volatile long runCount;
+
+	private volatile long batchCount;
+
+	/**
+	 * @param display the display whose UI thread runs the runnables
+	 * @param runner  runs a runnable, handling its exceptions
+	 */
+	public DisplayRealmQueue(Display display, Consumer<Runnable> runner) {
+		this.display = display;
+		this.runner = runner;
+		queues.put(display, this);
+	}
+
+	/**
+	 * Returns the queue of the realm of the given display, to read its metrics.
+	 *
+	 * @param display the display
+	 * @return the queue, or <code>null</code> if the realm of the display
+	 *         doesn't use one
+	 */
+	public static DisplayRealmQueue getQueue(Display display) {
+		return queues.get(display);
+	}
+
+	/**
+	 * Adds a runnable to the queue. It is dropped if the display is disposed.
+	 *
+	 * @param runnable the runnable to run on the UI thread
+	 */
+	public void add(Runnable runnable) {
+		if (display.isDisposed()) {
+			return;
+		}
+		queue.add(new Task(runnable, System.nanoTime()));
+		maxDepth.accumulateAndGet(depth.incrementAndGet(), Math::max);
+		schedule();
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				if (!display.isDisposed()) {
+					display.asyncExec(drain);
+				}
+			} catch (SWTException e) {
+				// The display was disposed meanwhile
+			}
+		}
+	}
+
+	private void drain() {
+		scheduled.set(false);
+		batchCount++;
+		long start = System.nanoTime();
+		Task task;
+		while ((task = queue.poll()) != null) {
+			depth.decrementAndGet();
+			if (!queue.isEmpty()) {
+				// Keep running the queue if the runnable spins a nested event
+				// loop, like a modal dialog
+				schedule();
+			}
+			long now = System.nanoTime();
+			if (now - task.enqueueTime() > maxLatency) {
+				maxLatency = now - task.enqueueTime();
+			}
+			runCount++;
+			runner.accept(task.runnable());
+			if (System.nanoTime() - start > TIME_SLICE) {
+				// The posted message runs the rest after pending events
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of runnables waiting to be run
+	 */
+	public int getQueueDepth() {
+		return depth.get();
+	}
+
+	/**
+	 * @return the largest number of runnables that were waiting at once
+	 */
+	public int getMaxQueueDepth() {
+		return maxDepth.get();
+	}
+
+	/**
+	 * @return the longest time in nanoseconds a runnable waited before it was
+	 *         run
+	 */
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * @return the number of runnables run
+	 */
+	public long getRunCount() {
+		return runCount;
+	}
+
+	/**
+	 * @return the number of messages posted to the display to run the queue
+	 */
+	public long getBatchCount() {
+		return batchCount;
+	}
+}
@@ -2027,4 +2027,46 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 
 		return -1;
 	}
+
+	@Override
+	protected IRegion[] findAllInRange(String findString, boolean caseSensitive, boolean wholeWord, int rangeOffset, int rangeLength, boolean regExSearch) {
+
+		if (!isProjectionMode()) {
+			return super.findAllInRange(findString, caseSensitive, wholeWord, rangeOffset, rangeLength, regExSearch);
+		}
+
+		if (getTextWidget() == null) {
+			return new IRegion[0];
+		}
+
+		try {
+			IRegion[] matches= getFindReplaceDocumentAdapter().findAll(rangeOffset, rangeLength, findString, caseSensitive, wholeWord, regExSearch);
+			for (IRegion match : matches) {
+				exposeModelRange(match);
+			}
+			return matches;
+		} catch (BadLocationException x) {
+		}
+
+		return new IRegion[0];
+	}
+
+	@Override
+	protected IRegion[] replaceAllInRange(String findString, String replaceString, boolean caseSensitive, boolean wholeWord, int rangeOffset, int rangeLength, boolean regExSearch) {
+
+		if (!isProjectionMode()) {
+			return super.replaceAllInRange(findString, replaceString, caseSensitive, wholeWord, rangeOffset, rangeLength, regExSearch);
+		}
+
+		if (getTextWidget() == null) {
+			return new IRegion[0];
+		}
+
+		try {
+			return getFindReplaceDocumentAdapter().replaceAll(rangeOffset, rangeLength, findString, replaceString, caseSensitive, wholeWord, regExSearch);
+		} catch (BadLocationException x) {
+		}
+
+		return new IRegion[0];
+	}
 }
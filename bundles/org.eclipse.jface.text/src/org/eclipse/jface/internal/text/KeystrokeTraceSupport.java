@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.internal.text;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Listener;
+
+import org.eclipse.text.internal.KeystrokeTrace;
+
+
+/**
+ * Delimits the keystrokes of text widgets for the {@link KeystrokeTrace}.
+ * <p>
+ * A keystroke starts with the key down event of a traced widget, before any key
+ * or verify key listener is called, and ends once the widget has painted the
+ * result and the events that were pending at that time, like the painting of
+ * the rulers, have been dispatched.
+ * </p>
+ * <p>
+ * A single key down filter is added to each display, the first time a widget of
+ * that display is traced. It looks up the support of the focus widget, so
+ * tracing many widgets adds no filter per widget.
+ * </p>
+ */
+public final class KeystrokeTraceSupport {
+
+	/** The key of the support in the data of a traced widget. */
+	private static final String DATA_KEY= KeystrokeTraceSupport.class.getName();
+
+	/** The key of the filter in the data of a display. */
+	private static final String FILTER_KEY= DATA_KEY + ".filter"; //$NON-NLS-1$
+
+	private static final Listener KEY_DOWN_FILTER= event -> {
+		if (event.widget instanceof StyledText && event.widget.getData(DATA_KEY) instanceof KeystrokeTraceSupport support) {
+			KeystrokeTrace.beginKeystroke(event.keyCode, event.character);
+			support.fEndScheduled= false;
+		}
+	};
+
+	/** Whether the end of the current keystroke has been scheduled. */
+	private boolean fEndScheduled;
+
+	private final Listener fPaintListener= event -> {
+		if (!fEndScheduled) {
+			fEndScheduled= true;
+			event.display.asyncExec(KeystrokeTrace::endKeystroke);
+		}
+	};
+
+	private KeystrokeTraceSupport() {
+	}
+
+	/**
+	 * Traces the keystrokes of the given text widget until it is disposed. Does
+	 * nothing unless {@link KeystrokeTrace#ENABLED}.
+	 *
+	 * @param textWidget the text widget
+	 */
+	public static void install(StyledText textWidget) {
+		if (!KeystrokeTrace.ENABLED) {
+			return;
+		}
+		Display display= textWidget.getDisplay();
+		if (display.getData(FILTER_KEY) == null) {
+			display.addFilter(SWT.KeyDown, KEY_DOWN_FILTER);
+			display.setData(FILTER_KEY, KEY_DOWN_FILTER);
+		}
+		KeystrokeTraceSupport support= new KeystrokeTraceSupport();
+		textWidget.setData(DATA_KEY, support);
+		textWidget.addListener(SWT.Paint, support.fPaintListener);
+	}
+}
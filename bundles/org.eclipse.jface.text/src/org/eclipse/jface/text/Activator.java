@@ -1,5 +1,6 @@
 package org.eclipse.jface.text;
 
+import java.lang.management.ManagementFactory;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
@@ -7,9 +8,16 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 
+import org.eclipse.core.runtime.ILog;
+
+import org.eclipse.text.internal.KeystrokeTrace;
+
 /**
  * @since 3.29
  */
@@ -26,11 +34,25 @@ public class Activator implements BundleActivator {
 	@Override
 	public void start(BundleContext context) {
 		activator= this;
+		if (KeystrokeTrace.ENABLED) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(KeystrokeTrace.getDefault(), new ObjectName(KeystrokeTrace.OBJECT_NAME));
+			} catch (JMException e) {
+				ILog.of(getClass()).error("Could not register the keystroke trace MBean", e); //$NON-NLS-1$
+			}
+		}
 	}
 
 	@Override
 	public void stop(BundleContext context) {
 		activator= null;
+		if (KeystrokeTrace.ENABLED) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(KeystrokeTrace.OBJECT_NAME));
+			} catch (JMException e) {
+				// not registered
+			}
+		}
 		if (executor != null) {
 			executor.shutdownNow();
 			executor= null;
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+/**
+ * Extension interface for {@link org.eclipse.jface.text.IFindReplaceTarget} providing methods to
+ * select or replace all matches of a search in one operation.
+ * <p>
+ * Implementers collect the matches in a single scan of the document instead of searching again
+ * after each selected or replaced match. Both methods respect the scope set with
+ * {@link IFindReplaceTargetExtension#setScope(IRegion)}.
+ * </p>
+ *
+ * @since 3.30
+ */
+public interface IFindReplaceTargetExtension5 {
+
+	/**
+	 * Selects all matches of the given search.
+	 *
+	 * @param findString the string to find
+	 * @param caseSensitive <code>true</code> if the search is case sensitive
+	 * @param wholeWord <code>true</code> if only whole words should be matched. Must not be used in
+	 *            combination with <code>regExSearch</code>.
+	 * @param regExSearch <code>true</code> if <code>findString</code> is a regular expression
+	 * @return the number of selected matches, or <code>-1</code> if this target is not able to
+	 *         select all matches at once, in which case clients have to select the matches one by
+	 *         one
+	 * @throws java.util.regex.PatternSyntaxException if <code>findString</code> is an invalid
+	 *             regular expression
+	 */
+	int selectAll(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch);
+
+	/**
+	 * Replaces all matches of the given search. The replacements form a single change with
+	 * respect to undo.
+	 *
+	 * @param findString the string to find
+	 * @param replaceString the replacement string, which may contain escapes and group references
+	 *            if <code>regExSearch</code> is <code>true</code>
+	 * @param caseSensitive <code>true</code> if the search is case sensitive
+	 * @param wholeWord <code>true</code> if only whole words should be matched. Must not be used in
+	 *            combination with <code>regExSearch</code>.
+	 * @param regExSearch <code>true</code> if <code>findString</code> is a regular expression
+	 * @return the number of replaced matches, or <code>-1</code> if this target is not able to
+	 *         replace all matches at once, in which case clients have to replace the matches one
+	 *         by one
+	 * @throws java.util.regex.PatternSyntaxException if <code>findString</code> or
+	 *             <code>replaceString</code> is invalid
+	 */
+	int replaceAll(String findString, String replaceString, boolean caseSensitive, boolean wholeWord, boolean regExSearch);
+}
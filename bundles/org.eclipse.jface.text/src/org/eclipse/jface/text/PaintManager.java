@@ -24,6 +24,9 @@ import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.MouseListener;
 import org.eclipse.swt.widgets.Control;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.ISelectionProvider;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
@@ -308,7 +311,12 @@ public final class PaintManager implements KeyListener, MouseListener, ISelectio
 	 */
 	private void paint(int reason) {
 		for (IPainter iPainter : fPainters) {
-			iPainter.paint(reason);
+			long start= KeystrokeTrace.start();
+			try {
+				iPainter.paint(reason);
+			} finally {
+				KeystrokeTrace.record(Phase.PAINTERS, iPainter, start);
+			}
 		}
 	}
 
@@ -48,15 +48,12 @@ public class TextPresentation {
 	 */
 	public static void applyTextPresentation(TextPresentation presentation, StyledText text) {
 
-		StyleRange[] ranges= new StyleRange[presentation.getDenumerableRanges()];
+		int size= presentation.getDenumerableRanges();
+		int[] ranges= new int[2 * size];
+		StyleRange[] styles= new StyleRange[size];
+		presentation.getCompactStyleRanges(false, ranges, styles);
 
-		int i= 0;
-		Iterator<StyleRange> e= presentation.getAllStyleRangeIterator();
-		while (e.hasNext()) {
-			ranges[i++]= e.next();
-		}
-
-		text.setStyleRanges(ranges);
+		text.setStyleRanges(ranges, styles);
 	}
 
 
@@ -139,6 +136,12 @@ public class TextPresentation {
 	private StyleRange fDefaultRange;
 	/** The member ranges of the presentation */
 	private ArrayList<StyleRange> fRanges;
+	/**
+	 * An empty list reused by {@link #applyStyleRanges(StyleRange[], boolean)}, or
+	 * <code>null</code>.
+	 * @since 3.30
+	 */
+	private ArrayList<StyleRange> fSpareRanges;
 	/** A clipping region against which the presentation can be clipped when asked for results */
 	private IRegion fResultWindow;
 	/**
@@ -282,8 +285,7 @@ public class TextPresentation {
 			applyStyle(range, defaultRange, merge);
 			fRanges.add(defaultRange);
 		} else {
-			IRegion rangeRegion= new Region(start, length);
-			int first= getFirstIndexInWindow(rangeRegion);
+			int first= getFirstIndexInWindow(start);
 
 			if (first == fRanges.size()) {
 				StyleRange defaultRange= getDefaultStyleRange();
@@ -297,7 +299,7 @@ public class TextPresentation {
 				return;
 			}
 
-			int last= getFirstIndexAfterWindow(rangeRegion);
+			int last= getFirstIndexAfterWindow(end);
 			for (int i= first; i < last && length > 0; i++) {
 
 				StyleRange current= fRanges.get(i);
@@ -412,10 +414,13 @@ public class TextPresentation {
 	private void applyStyleRanges(StyleRange[] ranges, boolean merge) {
 		int j= 0;
 		ArrayList<StyleRange> oldRanges= fRanges;
-		ArrayList<StyleRange> newRanges= new ArrayList<>(2*ranges.length + oldRanges.size());
+		// presentations are merged over and over again by presentation listeners, so reuse the list
+		ArrayList<StyleRange> newRanges= fSpareRanges != null ? fSpareRanges : new ArrayList<>(2*ranges.length + oldRanges.size());
+		fSpareRanges= null;
+		newRanges.ensureCapacity(2*ranges.length + oldRanges.size());
 		for (StyleRange range : ranges) {
 			fRanges= oldRanges; // for getFirstIndexAfterWindow(...)
-			for (int m= getFirstIndexAfterWindow(new Region(range.start, range.length)); j < m; j++) {
+			for (int m= getFirstIndexAfterWindow(range.start + range.length); j < m; j++) {
 				newRanges.add(oldRanges.get(j));
 			}
 			fRanges= newRanges; // for mergeStyleRange(...)
@@ -425,6 +430,8 @@ public class TextPresentation {
 			newRanges.add(oldRanges.get(j));
 		}
 		fRanges= newRanges;
+		oldRanges.clear();
+		fSpareRanges= oldRanges;
 	}
 
 	/**
@@ -526,22 +533,32 @@ public class TextPresentation {
 	 */
 	private int getFirstIndexInWindow(IRegion window) {
 		if (window != null) {
-			int start= window.getOffset();
-			int i= -1, j= fRanges.size();
-			while (j - i > 1) {
-				int k= (i + j) >> 1;
-				StyleRange r= fRanges.get(k);
-				if (r.start + r.length > start) {
-					j= k;
-				} else {
-					i= k;
-				}
-			}
-			return j;
+			return getFirstIndexInWindow(window.getOffset());
 		}
 		return 0;
 	}
 
+	/**
+	 * Returns the index of the first range which ends after the specified offset.
+	 *
+	 * @param start the start offset of the window
+	 * @return the index of the first range overlapping with the window
+	 * @since 3.30
+	 */
+	private int getFirstIndexInWindow(int start) {
+		int i= -1, j= fRanges.size();
+		while (j - i > 1) {
+			int k= (i + j) >> 1;
+			StyleRange r= fRanges.get(k);
+			if (r.start + r.length > start) {
+				j= k;
+			} else {
+				i= k;
+			}
+		}
+		return j;
+	}
+
 	/**
 	 * Returns the index of the first range which comes after the specified window and does
 	 * not overlap with this window.
@@ -551,22 +568,32 @@ public class TextPresentation {
 	 */
 	private int getFirstIndexAfterWindow(IRegion window) {
 		if (window != null) {
-			int end= window.getOffset() + window.getLength();
-			int i= -1, j= fRanges.size();
-			while (j - i > 1) {
-				int k= (i + j) >> 1;
-				StyleRange r= fRanges.get(k);
-				if (r.start < end) {
-					i= k;
-				} else {
-					j= k;
-				}
-			}
-			return j;
+			return getFirstIndexAfterWindow(window.getOffset() + window.getLength());
 		}
 		return fRanges.size();
 	}
 
+	/**
+	 * Returns the index of the first range which starts at or after the specified offset.
+	 *
+	 * @param end the end offset of the window
+	 * @return the index of the first range behind the window and not overlapping with the window
+	 * @since 3.30
+	 */
+	private int getFirstIndexAfterWindow(int end) {
+		int i= -1, j= fRanges.size();
+		while (j - i > 1) {
+			int k= (i + j) >> 1;
+			StyleRange r= fRanges.get(k);
+			if (r.start < end) {
+				i= k;
+			} else {
+				j= k;
+			}
+		}
+		return j;
+	}
+
 	/**
 	 * Returns a style range which is relative to the specified window and
 	 * appropriately clipped if necessary. The original style range is not
@@ -645,6 +672,55 @@ public class TextPresentation {
 		return new FilterIterator(false);
 	}
 
+	/**
+	 * Fills in the style ranges of this presentation in the compact form taken by
+	 * {@link StyledText#setStyleRanges(int[], StyleRange[])}: the start and the length of
+	 * every range in <code>ranges</code> and its style in <code>styles</code>. The ranges
+	 * are relative to the start of the result window, and ranges with the same style share a
+	 * copy of the style, so that a large presentation can be applied without copying a style
+	 * range for every range.
+	 *
+	 * @param skipDefaults <code>true</code> to leave out the ranges with the default style
+	 * @param ranges the array to fill in, must have room for twice the number of
+	 *            {@link #getDenumerableRanges() ranges}
+	 * @param styles the array to fill in, must have room for the number of ranges
+	 * @return the number of ranges filled in
+	 * @since 3.30
+	 */
+	int getCompactStyleRanges(boolean skipDefaults, int[] ranges, StyleRange[] styles) {
+		int windowStart= fResultWindow == null ? 0 : fResultWindow.getOffset();
+		int windowEnd= fResultWindow == null ? Integer.MAX_VALUE : windowStart + fResultWindow.getLength();
+		// the styles are few, compare with the most recently used ones
+		StyleRange[] shared= new StyleRange[8];
+		int count= 0;
+		for (int i= getFirstIndexInWindow(fResultWindow), last= getFirstIndexAfterWindow(fResultWindow); i < last; i++) {
+			StyleRange range= fRanges.get(i);
+			if (skipDefaults && fDefaultRange != null && range.similarTo(fDefaultRange)) {
+				continue;
+			}
+			int start= Math.max(range.start, windowStart);
+			int end= Math.min(range.start + range.length, windowEnd);
+			ranges[2 * count]= start - windowStart;
+			ranges[2 * count + 1]= end - start;
+
+			StyleRange style= null;
+			for (int k= 0; k < shared.length && shared[k] != null; k++) {
+				if (shared[k].similarTo(range)) {
+					style= shared[k];
+					System.arraycopy(shared, 0, shared, 1, k);
+					break;
+				}
+			}
+			if (style == null) {
+				style= (StyleRange) range.clone();
+				System.arraycopy(shared, 0, shared, 1, shared.length - 1);
+			}
+			shared[0]= style;
+			styles[count++]= style;
+		}
+		return count;
+	}
+
 	/**
 	 * Returns whether this collection contains any style range including
 	 * the default style range.
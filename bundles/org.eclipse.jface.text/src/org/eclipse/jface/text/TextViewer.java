@@ -68,7 +68,11 @@ import org.eclipse.swt.widgets.Shell;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.internal.text.KeystrokeTraceSupport;
 import org.eclipse.jface.internal.text.NonDeletingPositionUpdater;
 import org.eclipse.jface.internal.text.SelectionProcessor;
 import org.eclipse.jface.internal.text.StickyHoverManager;
@@ -138,6 +142,28 @@ public class TextViewer extends Viewer implements
 	 */
 	private static final int TEXT_HOVER_HEIGHT_CHARS= 12; //used to be 10 (text font)
 
+	/**
+	 * Tells by viewer class whether it overrides
+	 * {@link #modelStyleRange2WidgetStyleRange(StyleRange)}. Such viewers translate style ranges
+	 * on their own and do not get presentations in compact form by default.
+	 *
+	 * @since 3.30
+	 */
+	private static final ClassValue<Boolean> TRANSLATES_STYLE_RANGES= new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c= type; c != null && c != TextViewer.class; c= c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("modelStyleRange2WidgetStyleRange", StyleRange.class); //$NON-NLS-1$
+					return Boolean.TRUE;
+				} catch (NoSuchMethodException e) {
+					// not overridden by this class
+				}
+			}
+			return Boolean.FALSE;
+		}
+	};
+
 	/**
 	 * Represents a replace command that brings the text viewer's text widget
 	 * back in synchronization with text viewer's document after the document
@@ -495,7 +521,12 @@ public class TextViewer extends Viewer implements
 				Iterator<VerifyKeyListener> iterator= fListeners.iterator();
 				while (iterator.hasNext() && event.doit) {
 					VerifyKeyListener listener= iterator.next();
-					listener.verifyKey(event); // we might trigger reentrant calls on GTK
+					long start= KeystrokeTrace.start();
+					try {
+						listener.verifyKey(event); // we might trigger reentrant calls on GTK
+					} finally {
+						KeystrokeTrace.record(Phase.VERIFY_KEY, listener, start);
+					}
 				}
 			} finally {
 				fReentranceCount--;
@@ -796,7 +827,7 @@ public class TextViewer extends Viewer implements
 	/**
 	 * This viewer's find/replace target.
 	 */
-	class FindReplaceTarget implements IFindReplaceTarget, IFindReplaceTargetExtension, IFindReplaceTargetExtension3, IFindReplaceTargetExtension4 {
+	class FindReplaceTarget implements IFindReplaceTarget, IFindReplaceTargetExtension, IFindReplaceTargetExtension3, IFindReplaceTargetExtension4, IFindReplaceTargetExtension5 {
 
 		/** The range for this target. */
 		private FindReplaceRange fRange;
@@ -956,6 +987,71 @@ public class TextViewer extends Viewer implements
 			TextViewer.this.setSelectedRanges(Arrays.stream(widgetRegions).map(TextViewer.this::widgetRange2ModelRange).toArray(IRegion[]::new));
 		}
 
+		@Override
+		public int selectAll(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+			IRegion range= getSearchRange();
+			if (range == null) {
+				return 0;
+			}
+
+			IRegion[] matches= TextViewer.this.findAllInRange(findString, caseSensitive, wholeWord, range.getOffset(), range.getLength(), regExSearch);
+			if (matches.length > 0) {
+				TextViewer.this.setSelectedRanges(matches);
+			}
+			return matches.length;
+		}
+
+		@Override
+		public int replaceAll(String findString, String replaceString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+			IRegion range= getSearchRange();
+			if (range == null) {
+				return 0;
+			}
+
+			// Outside of the replace all mode, group the replacements into one undoable change
+			IDocument document= TextViewer.this.getDocument();
+			DocumentRewriteSession rewriteSession= null;
+			boolean compoundChange= false;
+			if (document instanceof IDocumentExtension4 extension) {
+				if (extension.getActiveRewriteSession() == null) {
+					rewriteSession= extension.startRewriteSession(DocumentRewriteSessionType.SEQUENTIAL);
+				}
+			} else if (fUndoManager != null && fRememberedPartitioners == null) {
+				fUndoManager.beginCompoundChange();
+				compoundChange= true;
+			}
+
+			IRegion[] replaced;
+			try {
+				replaced= TextViewer.this.replaceAllInRange(findString, replaceString, caseSensitive, wholeWord, range.getOffset(), range.getLength(), regExSearch);
+			} finally {
+				if (rewriteSession != null) {
+					((IDocumentExtension4) document).stopRewriteSession(rewriteSession);
+				} else if (compoundChange) {
+					fUndoManager.endCompoundChange();
+				}
+			}
+			if (replaced.length > 0) {
+				IRegion last= replaced[replaced.length - 1];
+				TextViewer.this.setSelectedRange(last.getOffset(), last.getLength());
+			}
+			return replaced.length;
+		}
+
+		/**
+		 * Returns the model range searched by "Select All" and "Replace All", which is the scope if
+		 * one is set and the whole document otherwise.
+		 *
+		 * @return the model range or <code>null</code> if there is no document
+		 */
+		private IRegion getSearchRange() {
+			if (fRange != null) {
+				return fRange.getRange();
+			}
+			IDocument document= TextViewer.this.getDocument();
+			return document == null ? null : new Region(0, document.getLength());
+		}
+
 		@Override
 		public void setScope(IRegion scope) {
 			if (fRange != null) {
@@ -1016,6 +1112,7 @@ public class TextViewer extends Viewer implements
 
 					if (fRememberedPartitioners != null) {
 						TextUtilities.addDocumentPartitioners(document, fRememberedPartitioners);
+						fRememberedPartitioners= null;
 					}
 				}
 			}
@@ -1771,6 +1868,7 @@ public class TextViewer extends Viewer implements
 	protected void createControl(Composite parent, int styles) {
 		throttledPostSelection= new Throttler(parent.getDisplay(), Duration.ofMillis(getEmptySelectionChangedEventDelay()), this::postSelectionChanged);
 		fTextWidget= createTextWidget(parent, styles);
+		KeystrokeTraceSupport.install(fTextWidget);
 
 		// Support scroll page upon MOD1+MouseWheel
 		fTextWidget.addListener(SWT.MouseVerticalWheel, event -> {
@@ -3808,7 +3906,7 @@ public class TextViewer extends Viewer implements
 		IDocument document= getDocument();
 
 		if (fTabsToSpacesConverter != null) {
-			fTabsToSpacesConverter.customizeDocumentCommand(document, command);
+			customizeDocumentCommand(fTabsToSpacesConverter, document, command);
 		}
 
 		@SuppressWarnings("unchecked")
@@ -3823,20 +3921,37 @@ public class TextViewer extends Viewer implements
 			break;
 
 		case 1:
-			strategies.iterator().next().customizeDocumentCommand(document, command);
+			customizeDocumentCommand(strategies.iterator().next(), document, command);
 			break;
 
 		// make iterator robust against adding/removing strategies from within strategies
 		default:
 			strategies= new ArrayList<>(strategies);
 				for (IAutoEditStrategy iAutoEditStrategy : strategies) {
-					iAutoEditStrategy.customizeDocumentCommand(document, command);
+					customizeDocumentCommand(iAutoEditStrategy, document, command);
 				}
 
 			break;
 		}
 	}
 
+	/**
+	 * Lets the given auto edit strategy customize the document command, tracing
+	 * the time it takes.
+	 *
+	 * @param strategy the auto edit strategy
+	 * @param document the document
+	 * @param command the document command
+	 */
+	private static void customizeDocumentCommand(IAutoEditStrategy strategy, IDocument document, DocumentCommand command) {
+		long start= KeystrokeTrace.start();
+		try {
+			strategy.customizeDocumentCommand(document, command);
+		} finally {
+			KeystrokeTrace.record(Phase.AUTO_EDIT, strategy, start);
+		}
+	}
+
 	/**
 	 * Handles the verify event issued by the viewer's text widget.
 	 *
@@ -4865,6 +4980,102 @@ public class TextViewer extends Viewer implements
 		return -1;
 	}
 
+	/**
+	 * Adheres to the contract of
+	 * {@link org.eclipse.jface.text.IFindReplaceTargetExtension5#selectAll(String, boolean, boolean, boolean)}
+	 * for the given range: returns all matches inside the range without changing the selection.
+	 *
+	 * @param findString the find string specification
+	 * @param caseSensitive <code>true</code> if case sensitive, <code>false</code> otherwise
+	 * @param wholeWord <code>true</code> if matches must be whole words, <code>false</code> otherwise
+	 * @param rangeOffset the search scope offset
+	 * @param rangeLength the search scope length
+	 * @param regExSearch <code>true</code> if <code>findString</code> is a regular expression, <code>false</code> otherwise
+	 * @return the model regions of the matches in ascending order
+	 * @since 3.30
+	 */
+	protected IRegion[] findAllInRange(String findString, boolean caseSensitive, boolean wholeWord, int rangeOffset, int rangeLength, boolean regExSearch) {
+		if (fTextWidget == null) {
+			return new IRegion[0];
+		}
+
+		try {
+
+			IRegion widgetRange= modelRange2WidgetRange(new Region(rangeOffset, rangeLength));
+			if (widgetRange == null) {
+				return new IRegion[0];
+			}
+
+			IRegion[] matches= getFindReplaceDocumentAdapter().findAll(widgetRange.getOffset(), widgetRange.getLength(), findString, caseSensitive, wholeWord, regExSearch);
+			return widgetRanges2ModelRanges(matches);
+
+		} catch (BadLocationException x) {
+			if (TRACE_ERRORS) {
+				System.out.println(JFaceTextMessages.getString("TextViewer.error.bad_location.findAndSelect")); //$NON-NLS-1$
+			}
+		}
+
+		return new IRegion[0];
+	}
+
+	/**
+	 * Adheres to the contract of
+	 * {@link org.eclipse.jface.text.IFindReplaceTargetExtension5#replaceAll(String, String, boolean, boolean, boolean)}
+	 * for the given range: replaces all matches inside the range in ascending order without
+	 * changing the selection. Callers are responsible for grouping the replacements into one
+	 * undoable change.
+	 *
+	 * @param findString the find string specification
+	 * @param replaceString the replace string
+	 * @param caseSensitive <code>true</code> if case sensitive, <code>false</code> otherwise
+	 * @param wholeWord <code>true</code> if matches must be whole words, <code>false</code> otherwise
+	 * @param rangeOffset the search scope offset
+	 * @param rangeLength the search scope length
+	 * @param regExSearch <code>true</code> if <code>findString</code> is a regular expression, <code>false</code> otherwise
+	 * @return the model regions of the replacements in ascending order
+	 * @since 3.30
+	 */
+	protected IRegion[] replaceAllInRange(String findString, String replaceString, boolean caseSensitive, boolean wholeWord, int rangeOffset, int rangeLength, boolean regExSearch) {
+		if (fTextWidget == null) {
+			return new IRegion[0];
+		}
+
+		try {
+
+			IRegion widgetRange= modelRange2WidgetRange(new Region(rangeOffset, rangeLength));
+			if (widgetRange == null) {
+				return new IRegion[0];
+			}
+
+			IRegion[] replaced= getFindReplaceDocumentAdapter().replaceAll(widgetRange.getOffset(), widgetRange.getLength(), findString, replaceString, caseSensitive, wholeWord, regExSearch);
+			return widgetRanges2ModelRanges(replaced);
+
+		} catch (BadLocationException x) {
+			if (TRACE_ERRORS) {
+				System.out.println(JFaceTextMessages.getString("TextViewer.error.bad_location.findAndSelect")); //$NON-NLS-1$
+			}
+		}
+
+		return new IRegion[0];
+	}
+
+	/**
+	 * Translates the given widget ranges into model ranges, dropping ranges that can't be mapped.
+	 *
+	 * @param widgetRanges the widget ranges
+	 * @return the model ranges
+	 */
+	private IRegion[] widgetRanges2ModelRanges(IRegion[] widgetRanges) {
+		List<IRegion> modelRanges= new ArrayList<>(widgetRanges.length);
+		for (IRegion widgetRange : widgetRanges) {
+			IRegion modelRange= widgetRange2ModelRange(widgetRange);
+			if (modelRange != null) {
+				modelRanges.add(modelRange);
+			}
+		}
+		return modelRanges.toArray(new IRegion[modelRanges.size()]);
+	}
+
 	//---------- text presentation support
 
 	@Override
@@ -4906,6 +5117,11 @@ public class TextViewer extends Viewer implements
 	 */
 	private void addPresentation(TextPresentation presentation) {
 
+		if (canApplyCompactPresentation()) {
+			addCompactPresentation(presentation);
+			return;
+		}
+
 		StyleRange range= presentation.getDefaultStyleRange();
 		if (range != null) {
 
@@ -4960,6 +5176,18 @@ public class TextViewer extends Viewer implements
 	 */
 	private void applyTextPresentation(TextPresentation presentation) {
 
+		if (canApplyCompactPresentation()) {
+			int size= presentation.getDenumerableRanges();
+			int[] ranges= new int[2 * size];
+			StyleRange[] styles= new StyleRange[size];
+			int count= presentation.getCompactStyleRanges(false, ranges, styles);
+			count= modelRanges2WidgetRanges(ranges, styles, count);
+			if (count > 0) {
+				setCompactStyleRanges(ranges, styles, count, 0, 0, true);
+			}
+			return;
+		}
+
 		List<StyleRange> list= new ArrayList<>(presentation.getDenumerableRanges());
 		Iterator<StyleRange> e= presentation.getAllStyleRangeIterator();
 		while (e.hasNext()) {
@@ -4977,6 +5205,111 @@ public class TextViewer extends Viewer implements
 		}
 	}
 
+	/**
+	 * Returns whether presentations can be applied in compact form, without a style range per
+	 * range, see {@link TextPresentation#getCompactStyleRanges(boolean, int[], StyleRange[])}.
+	 * The ranges of a compact presentation are translated by
+	 * {@link #modelRange2WidgetRange(IRegion)}, {@link #modelStyleRange2WidgetStyleRange(StyleRange)}
+	 * is not called for them.
+	 * <p>
+	 * The default implementation returns <code>true</code> unless the class of this viewer
+	 * overrides {@link #modelStyleRange2WidgetStyleRange(StyleRange)}, so that the style ranges of
+	 * such viewers keep being translated by their override. Subclasses may override this method,
+	 * for example to return <code>true</code> if their override only translates the range like
+	 * the default implementation does.
+	 * </p>
+	 *
+	 * @return <code>true</code> if presentations can be applied in compact form
+	 * @since 3.30
+	 */
+	protected boolean canApplyCompactPresentation() {
+		return !TRANSLATES_STYLE_RANGES.get(getClass()).booleanValue();
+	}
+
+	/**
+	 * Translates the ranges of a presentation in compact form into widget ranges. Ranges that
+	 * are not visible in the widget are removed.
+	 *
+	 * @param ranges the start and length of every range
+	 * @param styles the style of every range
+	 * @param count the number of ranges
+	 * @return the number of remaining ranges
+	 * @since 3.30
+	 */
+	private int modelRanges2WidgetRanges(int[] ranges, StyleRange[] styles, int count) {
+		int remaining= 0;
+		for (int i= 0; i < count; i++) {
+			IRegion region= modelRange2WidgetRange(new Region(ranges[2 * i], ranges[2 * i + 1]));
+			if (region != null) {
+				ranges[2 * remaining]= region.getOffset();
+				ranges[2 * remaining + 1]= region.getLength();
+				styles[remaining++]= styles[i];
+			}
+		}
+		return remaining;
+	}
+
+	/**
+	 * Sets the styles of the given ranges in compact form to the widget.
+	 *
+	 * @param ranges the start and length of every range
+	 * @param styles the style of every range
+	 * @param count the number of ranges
+	 * @param start the start of the widget range whose styles to replace
+	 * @param length the length of the widget range whose styles to replace
+	 * @param reset <code>true</code> to replace all styles of the widget
+	 * @since 3.30
+	 */
+	private void setCompactStyleRanges(int[] ranges, StyleRange[] styles, int count, int start, int length, boolean reset) {
+		if (count < styles.length) {
+			ranges= Arrays.copyOf(ranges, 2 * count);
+			styles= Arrays.copyOf(styles, count);
+		}
+		if (reset) {
+			fTextWidget.setStyleRanges(ranges, styles);
+		} else {
+			fTextWidget.setStyleRanges(start, length, ranges, styles);
+		}
+	}
+
+	/**
+	 * Adds the given presentation to the viewer's style information in compact form. Same as
+	 * {@link #addPresentation(TextPresentation)}, but does not copy a style range for every
+	 * range of the presentation.
+	 *
+	 * @param presentation the presentation to be added
+	 * @since 3.30
+	 */
+	private void addCompactPresentation(TextPresentation presentation) {
+
+		StyleRange defaultRange= presentation.getDefaultStyleRange();
+		boolean hasDefaultRange= defaultRange != null;
+		int start= 0;
+		int length= 0;
+		if (hasDefaultRange) {
+			defaultRange= modelStyleRange2WidgetStyleRange(defaultRange);
+			if (defaultRange != null) {
+				fTextWidget.setStyleRange(defaultRange);
+			}
+		} else {
+			IRegion region= modelRange2WidgetRange(presentation.getCoverage());
+			if (region == null) {
+				return;
+			}
+			start= region.getOffset();
+			length= region.getLength();
+		}
+
+		int size= presentation.getDenumerableRanges();
+		int[] ranges= new int[2 * size];
+		StyleRange[] styles= new StyleRange[size];
+		int count= presentation.getCompactStyleRanges(hasDefaultRange, ranges, styles);
+		count= modelRanges2WidgetRanges(ranges, styles, count);
+		if (count > 0) {
+			setCompactStyleRanges(ranges, styles, count, start, length, false);
+		}
+	}
+
 	/**
 	 * Returns the visible region if it is not equal to the whole document.
 	 * Otherwise returns <code>null</code>.
@@ -5616,6 +5949,7 @@ public class TextViewer extends Viewer implements
 	 *
 	 * @param range the style range in the coordinates of the viewer's document
 	 * @return the style range in the coordinates of the viewer's widget or <code>null</code>
+	 * @see #canApplyCompactPresentation()
 	 * @since 2.1
 	 */
 	protected StyleRange modelStyleRange2WidgetStyleRange(StyleRange range) {
@@ -25,7 +25,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.eclipse.osgi.util.TextProcessor;
 
@@ -88,7 +93,9 @@ import org.eclipse.jface.viewers.StyledString;
 
 import org.eclipse.jface.text.AbstractInformationControlManager;
 import org.eclipse.jface.text.AbstractInformationControlManager.Anchor;
+import org.eclipse.jface.text.Activator;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
@@ -288,6 +295,22 @@ class CompletionProposalPopup implements IContentAssistListener {
 	}
 
 
+	/**
+	 * Minimum number of proposals which are filtered in the background if they are all
+	 * {@link ICompletionProposalExtension8#isThreadSafe() thread safe}.
+	 *
+	 * @since 3.30
+	 */
+	private static final int BACKGROUND_FILTER_THRESHOLD= Integer.getInteger("org.eclipse.jface.text.contentassist.backgroundFilterThreshold", 2000).intValue(); //$NON-NLS-1$
+
+	/**
+	 * Minimum number of proposals which are validated in parallel when filtering in the
+	 * background.
+	 *
+	 * @since 3.30
+	 */
+	private static final int PARALLEL_FILTER_THRESHOLD= 10000;
+
 	/** The associated text viewer. */
 	ITextViewer fViewer;
 	/** The associated content assistant. */
@@ -372,6 +395,7 @@ class CompletionProposalPopup implements IContentAssistListener {
 			int offset= fContentAssistSubjectControlAdapter.getSelectedRange().x;
 			List<ICompletionProposal> proposals= null;
 			DocumentEvent event= null;
+			fIsFilteredInBackground= false;
 			try {
 				if (offset > -1) {
 					event= TextUtilities.mergeProcessedDocumentEvents(fDocumentEvents);
@@ -379,23 +403,12 @@ class CompletionProposalPopup implements IContentAssistListener {
 				}
 			} catch (BadLocationException x) {
 				fDocumentEvents.clear();
+				fFilterDocument= null;
 			}
 			fFilterOffset= offset;
 
-			if (proposals != null && !proposals.isEmpty()) {
-				setProposals(proposals, fIsFilteredSubset);
-			} else {
-				hide();
-				if (fContentAssistant.isAutoActivation() && offset > 0 && event != null) {
-					try {
-						char charBeforeOffset= event.getDocument().getChar(offset - 1);
-						if (fContentAssistant.getAutoActivationTriggerType(charBeforeOffset) != TriggerType.NONE) {
-							fContentAssistant.fireSessionBeginEvent(true);
-							showProposals(true);
-						}
-					} catch (BadLocationException e) {
-					}
-				}
+			if (!fIsFilteredInBackground) {
+				showFilteredProposals(offset, proposals, event, fIsFilteredSubset);
 			}
 		}
 	};
@@ -406,6 +419,35 @@ class CompletionProposalPopup implements IContentAssistListener {
 	 * @since 3.1.1
 	 */
 	private final AtomicBoolean fIsFilterPending= new AtomicBoolean(false);
+	/**
+	 * Set to true by {@link #computeFilteredProposals(int, DocumentEvent)} if
+	 * the proposals are filtered by {@link #fBackgroundFilter}, <code>false</code>
+	 * if not.
+	 *
+	 * @since 3.30
+	 */
+	private boolean fIsFilteredInBackground;
+	/**
+	 * The filtering running in the background, or <code>null</code> if none.
+	 *
+	 * @since 3.30
+	 */
+	private BackgroundFilter fBackgroundFilter;
+	/**
+	 * The copy of the document the proposals are filtered against in the background, or
+	 * <code>null</code> if none. It is brought up to date with the merged document event of each
+	 * filter run, so that the document is only copied once per session.
+	 *
+	 * @since 3.30
+	 */
+	private IDocument fFilterDocument;
+	/**
+	 * The last filter which has been given {@link #fFilterDocument}, or <code>null</code> if none.
+	 * The copy must not be changed until this filter has finished.
+	 *
+	 * @since 3.30
+	 */
+	private BackgroundFilter fFilterDocumentReader;
 	/**
 	 * The info message at the bottom of the popup, or <code>null</code> for no popup (if
 	 * ContentAssistant does not provide one).
@@ -455,7 +497,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 
 	/**
 	 * Set to true by {@link #computeProposals(int)} when initial sorting is performed on the
-	 * computed proposals using {@link #fSorter}.
+	 * computed proposals using {@link #fSorter}, and by the {@link BackgroundFilter} that sorts the
+	 * filtered proposals.
 	 *
 	 * @since 3.11
 	 */
@@ -948,6 +991,9 @@ class CompletionProposalPopup implements IContentAssistListener {
 		if (fIsFilterPending.get()) {
 			fFilterRunnable.run();
 		}
+		if (fBackgroundFilter != null) {
+			fBackgroundFilter.publish(true);
+		}
 
 		// filter runnable may have hidden the proposals
 		if (!isValid(fProposalTable)) {
@@ -1141,6 +1187,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 	 * @since 3.0
 	 */
 	private void unregister() {
+		cancelBackgroundFilter();
+
 		if (fDocumentListener != null) {
 			IDocument document= fContentAssistSubjectControlAdapter.getDocument();
 			if (document != null) {
@@ -1149,6 +1197,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 			fDocumentListener= null;
 		}
 		fDocumentEvents.clear();
+		fFilterDocument= null;
+		fFilterDocumentReader= null;
 
 		if (fKeyListener != null && fContentAssistSubjectControlAdapter.getControl() != null && !fContentAssistSubjectControlAdapter.getControl().isDisposed()) {
 			fContentAssistSubjectControlAdapter.removeKeyListener(fKeyListener);
@@ -1187,6 +1237,7 @@ class CompletionProposalPopup implements IContentAssistListener {
 	 *        are removed from the displayed set
 	 */
 	void setProposals(List<ICompletionProposal> proposals, boolean isFilteredSubset) {
+		cancelBackgroundFilter(); // superseded by the given proposals
 		List<ICompletionProposal> oldProposals= fFilteredProposals;
 		ICompletionProposal oldProposal= getSelectedProposal(); // may trigger filtering and a reentrant call to setProposals()
 		if (oldProposals != fFilteredProposals) { // reentrant call was first - abort
@@ -1332,6 +1383,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 				public void documentAboutToBeChanged(DocumentEvent event) {
 					if (!fInserting) {
 						fDocumentEvents.add(event);
+					} else {
+						fFilterDocument= null; // not recorded, the copy can't be updated
 					}
 				}
 
@@ -1574,6 +1627,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 	 */
 	List<ICompletionProposal> computeFilteredProposals(int offset, DocumentEvent event) {
 		fDocumentEvents.clear();
+		cancelBackgroundFilter();
+		updateFilterDocument(event);
 
 		if (offset == fInvocationOffset && event == null) {
 			fIsFilteredSubset= false;
@@ -1603,6 +1658,12 @@ class CompletionProposalPopup implements IContentAssistListener {
 		}
 
 		IDocument document= fContentAssistSubjectControlAdapter.getDocument();
+		if (document != null && isBackgroundFilterable(proposals)) {
+			fBackgroundFilter= new BackgroundFilter(proposals, document, offset, event, fIsFilteredSubset);
+			fIsFilteredInBackground= true;
+			return fFilteredProposals;
+		}
+
 		int length= proposals.size();
 		List<ICompletionProposal> filtered= new ArrayList<>(length);
 		for (ICompletionProposal proposal : proposals) {
@@ -1638,6 +1699,207 @@ class CompletionProposalPopup implements IContentAssistListener {
 		return filtered;
 	}
 
+	/**
+	 * Tells whether the given proposals are filtered in the background, which is the case if there
+	 * are at least {@link #BACKGROUND_FILTER_THRESHOLD} proposals and all of them are thread safe.
+	 *
+	 * @param proposals the proposals to filter
+	 * @return <code>true</code> if the proposals are filtered in the background
+	 * @since 3.30
+	 */
+	private static boolean isBackgroundFilterable(List<ICompletionProposal> proposals) {
+		if (proposals.size() < BACKGROUND_FILTER_THRESHOLD) {
+			return false;
+		}
+		for (ICompletionProposal proposal : proposals) {
+			if (!(proposal instanceof ICompletionProposalExtension2) || !(proposal instanceof ICompletionProposalExtension8 p) || !p.isThreadSafe()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels the filtering running in the background, if any.
+	 *
+	 * @since 3.30
+	 */
+	private void cancelBackgroundFilter() {
+		if (fBackgroundFilter != null) {
+			fBackgroundFilter.cancel();
+			fBackgroundFilter= null;
+		}
+	}
+
+	/**
+	 * Applies the given merged document event to the copy of the document used for filtering in
+	 * the background, or discards the copy if it is still read by a filter or can't be updated.
+	 *
+	 * @param event the merged document event, may be <code>null</code>
+	 * @since 3.30
+	 */
+	private void updateFilterDocument(DocumentEvent event) {
+		if (fFilterDocument == null || event == null) {
+			return;
+		}
+		if (fFilterDocumentReader != null && !fFilterDocumentReader.isFinished()) {
+			fFilterDocument= null;
+			return;
+		}
+		try {
+			fFilterDocument.replace(event.getOffset(), event.getLength(), event.getText());
+		} catch (BadLocationException e) {
+			fFilterDocument= null;
+		}
+	}
+
+	/**
+	 * Returns the copy of the given document to filter against in the background, which is
+	 * copied only if there is no up to date copy.
+	 *
+	 * @param document the document
+	 * @return the copy of the document
+	 * @since 3.30
+	 */
+	private IDocument getFilterDocument(IDocument document) {
+		if (fFilterDocument == null || fFilterDocument.getLength() != document.getLength()) {
+			fFilterDocument= new Document(document.get());
+		}
+		return fFilterDocument;
+	}
+
+	/**
+	 * Shows the filtered proposals, or hides the popup if there are none.
+	 *
+	 * @param offset the offset the proposals have been filtered for
+	 * @param proposals the filtered proposals, may be <code>null</code>
+	 * @param event the merged document event, may be <code>null</code>
+	 * @param isFilteredSubset <code>true</code> if the proposals are a subset of the displayed
+	 *            proposals
+	 * @since 3.30
+	 */
+	private void showFilteredProposals(int offset, List<ICompletionProposal> proposals, DocumentEvent event, boolean isFilteredSubset) {
+		if (proposals != null && !proposals.isEmpty()) {
+			setProposals(proposals, isFilteredSubset);
+		} else {
+			hide();
+			if (fContentAssistant.isAutoActivation() && offset > 0 && event != null) {
+				try {
+					char charBeforeOffset= event.getDocument().getChar(offset - 1);
+					if (fContentAssistant.getAutoActivationTriggerType(charBeforeOffset) != TriggerType.NONE) {
+						fContentAssistant.fireSessionBeginEvent(true);
+						showProposals(true);
+					}
+				} catch (BadLocationException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Validates and sorts proposals in a background thread, in parallel if there are many of them,
+	 * and shows them in the UI thread unless the document has been changed in the meantime. The
+	 * proposals are validated against {@link CompletionProposalPopup#fFilterDocument}.
+	 *
+	 * @since 3.30
+	 */
+	private final class BackgroundFilter implements Runnable {
+
+		private final CompletableFuture<List<ICompletionProposal>> fResult= new CompletableFuture<>();
+		private final List<ICompletionProposal> fProposals;
+		private final IDocument fDocument;
+		private final int fOffset;
+		private final DocumentEvent fEvent;
+		private final DocumentEvent fCopiedEvent;
+		private final boolean fIsSubset;
+		private final ICompletionProposalSorter fProposalSorter;
+		private volatile boolean fIsFinished;
+
+		BackgroundFilter(List<ICompletionProposal> proposals, IDocument document, int offset, DocumentEvent event, boolean isSubset) {
+			fProposals= proposals;
+			fDocument= getFilterDocument(document);
+			fFilterDocumentReader= this;
+			fOffset= offset;
+			fEvent= event;
+			fCopiedEvent= event == null ? null : new DocumentEvent(fDocument, event.getOffset(), event.getLength(), event.getText());
+			fIsSubset= isSubset;
+			fProposalSorter= fSorter;
+
+			Display display= fContentAssistSubjectControlAdapter.getControl().getDisplay();
+			fResult.thenRun(() -> {
+				if (!display.isDisposed()) {
+					display.asyncExec(() -> publish(false));
+				}
+			});
+			Activator.getExecutor().execute(this);
+		}
+
+		@Override
+		public void run() {
+			try {
+				Stream<ICompletionProposal> stream= fProposals.size() >= PARALLEL_FILTER_THRESHOLD ? fProposals.parallelStream() : fProposals.stream();
+				List<ICompletionProposal> filtered= stream.filter(this::validate).collect(Collectors.toCollection(ArrayList::new));
+				if (fProposalSorter != null && !fResult.isDone()) {
+					filtered.sort(fProposalSorter::compare);
+				}
+				fResult.complete(filtered);
+			} catch (RuntimeException e) {
+				fResult.completeExceptionally(e);
+			} finally {
+				fIsFinished= true;
+			}
+		}
+
+		/**
+		 * Tells whether this filter has stopped reading its copy of the document.
+		 *
+		 * @return <code>true</code> if the filtering has run to its end, even if it has been canceled
+		 */
+		boolean isFinished() {
+			return fIsFinished;
+		}
+
+		private boolean validate(ICompletionProposal proposal) {
+			if (fResult.isDone()) {
+				return false; // canceled
+			}
+			try {
+				return ((ICompletionProposalExtension2) proposal).validate(fDocument, fOffset, fCopiedEvent);
+			} catch (RuntimeException e) {
+				// Make sure that poorly behaved completion proposers do not break filtering.
+				return false;
+			}
+		}
+
+		void cancel() {
+			fResult.cancel(false);
+		}
+
+		/**
+		 * Shows the filtered proposals if this is still the current filter and the document has not
+		 * been changed since.
+		 *
+		 * @param wait <code>true</code> to wait for the filtering to finish
+		 */
+		void publish(boolean wait) {
+			if (fBackgroundFilter != this || (!wait && !fResult.isDone())) {
+				return;
+			}
+			fBackgroundFilter= null;
+			if (!isValid(fProposalShell) || !fDocumentEvents.isEmpty()) {
+				return; // the document has changed, a new filter run is pending
+			}
+			List<ICompletionProposal> filtered;
+			try {
+				filtered= fResult.join();
+			} catch (CancellationException | CompletionException e) {
+				return;
+			}
+			fIsInitialSort= fProposalSorter != null;
+			showFilteredProposals(fOffset, filtered, fEvent, fIsSubset);
+		}
+	}
+
 	/**
 	 * Requests the proposal shell to take focus.
 	 *
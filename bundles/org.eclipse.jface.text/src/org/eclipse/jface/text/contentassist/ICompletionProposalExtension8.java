@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.contentassist;
+
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * Extends {@link org.eclipse.jface.text.contentassist.ICompletionProposal} with the following
+ * function:
+ * <ul>
+ * <li>specify whether the proposal may be filtered and sorted outside the UI thread</li>
+ * </ul>
+ * <p>
+ * When the proposal popup filters a large number of proposals of which all are thread safe, it
+ * calls {@link ICompletionProposalExtension2#validate(IDocument, int, DocumentEvent)} and the
+ * configured {@link ICompletionProposalSorter} in a background thread, possibly for several
+ * proposals in parallel. The document passed to <code>validate</code> is then a copy of the
+ * document's content without partitioning; the result is discarded if the document changes in the
+ * meantime.
+ * </p>
+ *
+ * @since 3.30
+ */
+public interface ICompletionProposalExtension8 {
+
+	/**
+	 * Returns <code>true</code> if {@link ICompletionProposalExtension2#validate(IDocument, int,
+	 * DocumentEvent)} and the methods used by the configured proposal sorter may be called from any
+	 * thread, concurrently with calls on other proposals.
+	 *
+	 * @return <code>true</code> if the proposal may be filtered in a background thread,
+	 *         <code>false</code> otherwise
+	 */
+	boolean isThreadSafe();
+}
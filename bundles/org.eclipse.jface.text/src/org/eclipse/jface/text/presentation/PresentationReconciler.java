@@ -14,14 +14,20 @@
 
 package org.eclipse.jface.text.presentation;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.custom.StyledText;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.DefaultPositionUpdater;
@@ -40,6 +46,8 @@ import org.eclipse.jface.text.ITextListener;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.ITextViewerExtension5;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextEvent;
 import org.eclipse.jface.text.TextPresentation;
@@ -52,9 +60,12 @@ import org.eclipse.jface.text.TypedPosition;
  * Standard implementation of <code>IPresentationReconciler</code>. This
  * implementation assumes that the tasks performed by its presentation damagers
  * and repairers are lightweight and of low cost. This presentation reconciler
- * runs in the UI thread and always repairs the complete damage caused by a
- * document change rather than just the portion overlapping with the viewer's
- * viewport.
+ * runs in the UI thread and repairs the complete damage caused by a document
+ * change right away, unless the damage is large, like when the input document
+ * is set. Then the portion overlapping with the viewer's viewport is repaired
+ * first and the rest of the damage is repaired in short slices while the UI
+ * thread is idle, or as soon as it is scrolled into view. The remaining damage
+ * is split at line starts, like the damage of an edit.
  * <p>
  * Usually, clients instantiate this class and configure it before using it.
  * </p>
@@ -64,12 +75,24 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	/** Prefix of the name of the position category for tracking damage regions. */
 	protected final static String TRACKED_PARTITION= "__reconciler_tracked_partition"; //$NON-NLS-1$
 
+	/**
+	 * Damage longer than this number of characters is repaired incrementally, see the class
+	 * description. Incremental repair is disabled if negative.
+	 */
+	private static final int INCREMENTAL_THRESHOLD= Integer.getInteger("org.eclipse.jface.text.presentation.incrementalThreshold", 64 * 1024).intValue(); //$NON-NLS-1$
+
+	/** The number of characters to repair at once when repairing incrementally. */
+	private static final int CHUNK_SIZE= 16 * 1024;
+
+	/** The time in nanoseconds a slice of an incremental repair may take. */
+	private static final long SLICE_DURATION= 10_000_000L;
+
 
 	/**
 	 * Internal listener class.
 	 */
 	class InternalListener implements
-			ITextInputListener, IDocumentListener, ITextListener,
+			ITextInputListener, IDocumentListener, ITextListener, IViewportListener,
 			IDocumentPartitioningListener, IDocumentPartitioningListenerExtension, IDocumentPartitioningListenerExtension2 {
 
 		/** Set to <code>true</code> if between a document about to be changed and a changed event. */
@@ -85,6 +108,7 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 			if (oldDocument != null) {
 				try {
 
+					fStalePositions.clear();
 					fViewer.removeTextListener(this);
 					oldDocument.removeDocumentListener(this);
 					oldDocument.removeDocumentPartitioningListener(this);
@@ -222,6 +246,14 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 			fChangedDocumentPartitions= null;
 		}
 
+		@Override
+		public void viewportChanged(int verticalOffset) {
+			IDocument document= fViewer.getDocument();
+			if (!fStalePositions.isEmpty() && fCachedRedrawState && document != null) {
+				repairVisibleDamage(document);
+			}
+		}
+
 		/**
 		 * Translates the given text event into the corresponding range of the viewer's document.
 		 *
@@ -263,6 +295,16 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	private boolean fDocumentPartitioningChanged= false;
 	/** The range covering the changed partitioning. */
 	private IRegion fChangedDocumentPartitions= null;
+	/**
+	 * The positions of the damage not yet repaired, disjoint.
+	 * @since 3.30
+	 */
+	private final List<Position> fStalePositions= new ArrayList<>();
+	/**
+	 * Whether a slice of the incremental repair is scheduled.
+	 * @since 3.30
+	 */
+	private boolean fRepairScheduled= false;
 	/**
 	 * The partitioning used by this presentation reconciler.
 	 * @since 3.0
@@ -353,6 +395,7 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 
 		fViewer= viewer;
 		fViewer.addTextInputListener(fInternalListener);
+		fViewer.addViewportListener(fInternalListener);
 
 		IDocument document= viewer.getDocument();
 		if (document != null) {
@@ -363,6 +406,7 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	@Override
 	public void uninstall() {
 		fViewer.removeTextInputListener(fInternalListener);
+		fViewer.removeViewportListener(fInternalListener);
 
 		// Ensure we uninstall all listeners
 		fInternalListener.inputDocumentAboutToBeChanged(fViewer.getDocument(), null);
@@ -443,7 +487,12 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 			for (ITypedRegion r : partitioning) {
 				IPresentationRepairer repairer= getRepairer(r.getType());
 				if (repairer != null) {
-					repairer.createPresentation(presentation, r);
+					long start= KeystrokeTrace.start();
+					try {
+						repairer.createPresentation(presentation, r);
+					} finally {
+						KeystrokeTrace.record(Phase.PRESENTATION, repairer, start);
+					}
 				}
 			}
 
@@ -490,7 +539,7 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 				return null;
 			}
 
-			IRegion r= damager.getDamageRegion(partition, e, fDocumentPartitioningChanged);
+			IRegion r= getDamageRegion(damager, partition, e);
 
 			if (!fDocumentPartitioningChanged && optimize && !isDeletion) {
 				damage= r;
@@ -551,11 +600,28 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 			return -1;
 		}
 
-		IRegion r= damager.getDamageRegion(partition, e, fDocumentPartitioningChanged);
+		IRegion r= getDamageRegion(damager, partition, e);
 
 		return r.getOffset() + r.getLength();
 	}
 
+	/**
+	 * Asks the given damager for the damage of a document change, tracing the time it takes.
+	 *
+	 * @param damager the damager
+	 * @param partition the partition of the change
+	 * @param e the document event
+	 * @return the damage region
+	 */
+	private IRegion getDamageRegion(IPresentationDamager damager, ITypedRegion partition, DocumentEvent e) {
+		long start= KeystrokeTrace.start();
+		try {
+			return damager.getDamageRegion(partition, e, fDocumentPartitioningChanged);
+		} finally {
+			KeystrokeTrace.record(Phase.PRESENTATION, damager, start);
+		}
+	}
+
 	/**
 	 * Processes the given damage.
 	 * @param damage the damage to be repaired
@@ -563,6 +629,15 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	 */
 	private void processDamage(IRegion damage, IDocument document) {
 		if (damage != null && damage.getLength() > 0) {
+			if (INCREMENTAL_THRESHOLD >= 0 && damage.getLength() > INCREMENTAL_THRESHOLD && fViewer.getTextWidget() != null) {
+				addStaleRegion(document, damage.getOffset(), damage.getOffset() + damage.getLength());
+				repairVisibleDamage(document);
+				scheduleRepair();
+				return;
+			}
+			if (!fStalePositions.isEmpty()) {
+				removeStaleRegion(document, damage.getOffset(), damage.getOffset() + damage.getLength());
+			}
 			TextPresentation p= createPresentation(damage, document);
 			if (p != null) {
 				applyTextRegionCollection(p);
@@ -570,6 +645,201 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		}
 	}
 
+	/**
+	 * Repairs the damage not yet repaired in the given range, which must start at a line start.
+	 *
+	 * @param document the document whose presentation must be repaired
+	 * @param start the start offset of the range
+	 * @param end the end offset of the range
+	 */
+	private void repair(IDocument document, int start, int end) {
+		removeStaleRegion(document, start, end);
+		TextPresentation p= createPresentation(new Region(start, end - start), document);
+		if (p != null) {
+			applyTextRegionCollection(p);
+		}
+	}
+
+	/**
+	 * Repairs the damage not yet repaired that overlaps with the viewer's viewport.
+	 *
+	 * @param document the document whose presentation must be repaired
+	 */
+	private void repairVisibleDamage(IDocument document) {
+		try {
+			int top= fViewer.getTopIndexStartOffset();
+			// the viewport may not be known yet when the input is set
+			int bottom= Math.max(fViewer.getBottomIndexEndOffset(), Math.min(top + CHUNK_SIZE, document.getLength()));
+			bottom= getNextLineStart(document, bottom);
+			for (Position position : new ArrayList<>(fStalePositions)) {
+				int start= Math.max(position.getOffset(), top);
+				int end= Math.min(position.getOffset() + position.getLength(), bottom);
+				if (!position.isDeleted() && start < end) {
+					repair(document, getLineStart(document, start), end);
+				}
+			}
+		} catch (BadLocationException x) {
+			// the viewport is out of sync with the document, leave it to the next slice
+		}
+	}
+
+	/**
+	 * Repairs chunks of the damage not yet repaired, starting with the damage nearest to the
+	 * viewport, until the time of a slice is used up.
+	 */
+	private void repairStaleDamage() {
+		fRepairScheduled= false;
+		IDocument document= fViewer == null ? null : fViewer.getDocument();
+		if (document == null || !fInternalListener.fCachedRedrawState) {
+			return;
+		}
+
+		long deadline= System.nanoTime() + SLICE_DURATION;
+		try {
+			while (!fStalePositions.isEmpty()) {
+				int top= fViewer.getTopIndexStartOffset();
+				Position next= null;
+				int nextStart= 0;
+				long nextDistance= Long.MAX_VALUE;
+				for (Iterator<Position> e= fStalePositions.iterator(); e.hasNext();) {
+					Position position= e.next();
+					if (position.isDeleted() || position.getLength() == 0) {
+						e.remove();
+						removePosition(document, position);
+						continue;
+					}
+					int end= position.getOffset() + position.getLength();
+					int start= position.getOffset() <= top && top < end ? top : position.getOffset();
+					// the damage below the viewport comes before the damage above it
+					long distance= start >= top ? start - top : (long) document.getLength() + top - end;
+					if (distance < nextDistance) {
+						next= position;
+						nextStart= start;
+						nextDistance= distance;
+					}
+				}
+				if (next == null) {
+					break;
+				}
+
+				int start= getLineStart(document, nextStart);
+				int end= Math.min(next.getOffset() + next.getLength(), getNextLineStart(document, Math.min(start + CHUNK_SIZE, document.getLength())));
+				repair(document, start, end);
+
+				if (System.nanoTime() > deadline) {
+					scheduleRepair();
+					return;
+				}
+			}
+		} catch (BadLocationException x) {
+			// the positions are out of sync with the document, repair everything now
+			clearStaleRegions(document);
+			TextPresentation p= createPresentation(new Region(0, document.getLength()), document);
+			if (p != null) {
+				applyTextRegionCollection(p);
+			}
+		}
+	}
+
+	/**
+	 * Schedules the next slice of the incremental repair, unless it is already scheduled.
+	 */
+	private void scheduleRepair() {
+		StyledText widget= fViewer.getTextWidget();
+		if (fRepairScheduled || fStalePositions.isEmpty() || widget == null || widget.isDisposed()) {
+			return;
+		}
+		fRepairScheduled= true;
+		widget.getDisplay().asyncExec(() -> {
+			if (widget.isDisposed()) {
+				fRepairScheduled= false;
+			} else {
+				repairStaleDamage();
+			}
+		});
+	}
+
+	/**
+	 * Marks the given range as damaged but not yet repaired.
+	 *
+	 * @param document the document
+	 * @param start the start offset of the range
+	 * @param end the end offset of the range
+	 */
+	private void addStaleRegion(IDocument document, int start, int end) {
+		removeStaleRegion(document, start, end);
+		addStalePosition(document, start, end);
+	}
+
+	private void addStalePosition(IDocument document, int start, int end) {
+		Position position= new Position(start, end - start);
+		try {
+			document.addPosition(fPositionCategory, position);
+			fStalePositions.add(position);
+		} catch (BadLocationException | BadPositionCategoryException x) {
+			// leave the range to the viewer's default presentation
+		}
+	}
+
+	/**
+	 * Marks the given range as repaired.
+	 *
+	 * @param document the document
+	 * @param start the start offset of the range
+	 * @param end the end offset of the range
+	 */
+	private void removeStaleRegion(IDocument document, int start, int end) {
+		for (int i= fStalePositions.size() - 1; i >= 0; i--) {
+			Position position= fStalePositions.get(i);
+			int positionEnd= position.getOffset() + position.getLength();
+			if (position.isDeleted() || position.getLength() == 0) {
+				fStalePositions.remove(i);
+				removePosition(document, position);
+			} else if (position.getOffset() < end && start < positionEnd) {
+				fStalePositions.remove(i);
+				removePosition(document, position);
+				if (position.getOffset() < start) {
+					addStalePosition(document, position.getOffset(), start);
+				}
+				if (end < positionEnd) {
+					addStalePosition(document, end, positionEnd);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets about all damage not yet repaired.
+	 *
+	 * @param document the document
+	 */
+	private void clearStaleRegions(IDocument document) {
+		for (Position position : fStalePositions) {
+			removePosition(document, position);
+		}
+		fStalePositions.clear();
+	}
+
+	private void removePosition(IDocument document, Position position) {
+		try {
+			document.removePosition(fPositionCategory, position);
+		} catch (BadPositionCategoryException x) {
+			// the category is gone with the input document
+		}
+	}
+
+	private static int getLineStart(IDocument document, int offset) throws BadLocationException {
+		return document.getLineOffset(document.getLineOfOffset(offset));
+	}
+
+	private static int getNextLineStart(IDocument document, int offset) throws BadLocationException {
+		int line= document.getLineOfOffset(offset);
+		if (document.getLineOffset(line) == offset) {
+			return offset;
+		}
+		return line + 1 < document.getNumberOfLines() ? document.getLineOffset(line + 1) : document.getLength();
+	}
+
 	/**
 	 * Applies the given text presentation to the text viewer the presentation
 	 * reconciler is installed on.
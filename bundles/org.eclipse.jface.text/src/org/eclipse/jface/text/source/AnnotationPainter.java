@@ -14,16 +14,17 @@
  *******************************************************************************/
 package org.eclipse.jface.text.source;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -323,6 +324,13 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 	 */
 	private static final Object HIGHLIGHTING= new Object();
 
+	/**
+	 * Number of decorations above which the decorations to paint are looked up with a region query
+	 * of the annotation model instead of visiting all decorations.
+	 * @since 3.30
+	 */
+	private static final int REGION_QUERY_THRESHOLD= 256;
+
 	/**
 	 * The presentation information (decoration) for an annotation.  Each such
 	 * object represents one decoration drawn on the text area, such as squiggly lines
@@ -345,6 +353,64 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		private Object fPaintingStrategy;
 	}
 
+	/**
+	 * The changes to a decoration map caused by one annotation model event. Reads fall through to
+	 * the underlying map, so the map does not have to be copied for every event; the changes are
+	 * written back in one step by {@link #apply()}.
+	 *
+	 * @since 3.30
+	 */
+	private static final class DecorationMapDelta {
+		/** The underlying map, only accessed while holding the lock */
+		private final Map<Annotation, Decoration> fMap;
+		/** The lock guarding the underlying map */
+		private final Object fLock;
+		/** The changed entries, <code>null</code> values denote removed entries */
+		private final Map<Annotation, Decoration> fChanges= new HashMap<>();
+
+		DecorationMapDelta(Map<Annotation, Decoration> map, Object lock) {
+			fMap= map;
+			fLock= lock;
+		}
+
+		Decoration get(Annotation annotation) {
+			if (fChanges.containsKey(annotation)) {
+				return fChanges.get(annotation);
+			}
+			synchronized (fLock) {
+				return fMap.get(annotation);
+			}
+		}
+
+		void put(Annotation annotation, Decoration decoration) {
+			fChanges.put(annotation, decoration);
+		}
+
+		Decoration remove(Annotation annotation) {
+			Decoration decoration= get(annotation);
+			if (decoration != null) {
+				fChanges.put(annotation, null);
+			}
+			return decoration;
+		}
+
+		/**
+		 * Writes the changes to the underlying map. Must be called while holding the lock.
+		 *
+		 * @return the underlying map
+		 */
+		Map<Annotation, Decoration> apply() {
+			for (Entry<Annotation, Decoration> change : fChanges.entrySet()) {
+				if (change.getValue() == null) {
+					fMap.remove(change.getKey());
+				} else {
+					fMap.put(change.getKey(), change.getValue());
+				}
+			}
+			return fMap;
+		}
+	}
+
 
 	/** Indicates whether this painter is active */
 	private boolean fIsActive= false;
@@ -570,16 +636,8 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		int drawRangeStart= Integer.MAX_VALUE;
 		int drawRangeEnd= -1;
 
-		Map<Annotation, Decoration> decorationsMap;
-		Map<Annotation, Decoration> highlightedDecorationsMap;
-
-		// Clone decoration maps
-		synchronized (fDecorationMapLock) {
-			decorationsMap= new HashMap<>(fDecorationsMap);
-		}
-		synchronized (fHighlightedDecorationsMapLock) {
-			highlightedDecorationsMap= new HashMap<>(fHighlightedDecorationsMap);
-		}
+		DecorationMapDelta decorationsMap;
+		DecorationMapDelta highlightedDecorationsMap;
 
 		boolean isWorldChange= false;
 
@@ -591,23 +649,33 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 				System.out.println("AP: INTERNAL CHANGE"); //$NON-NLS-1$
 			}
 
-			Iterator<Entry<Annotation, Decoration>> iter= decorationsMap.entrySet().iterator();
-			while (iter.hasNext()) {
-				Entry<Annotation, Decoration> entry= iter.next();
+			List<Entry<Annotation, Decoration>> oldDecorations;
+			synchronized (fDecorationMapLock) {
+				oldDecorations= new ArrayList<>(fDecorationsMap.entrySet());
+			}
+			for (Entry<Annotation, Decoration> entry : oldDecorations) {
 				Annotation annotation= entry.getKey();
 				Decoration decoration= entry.getValue();
 				drawDecoration(decoration, null, annotation, clippingRegion, document);
 			}
 
-			decorationsMap.clear();
-
-			highlightedDecorationsMap.clear();
+			// a world change rebuilds the maps, which are swapped in when done
+			decorationsMap= new DecorationMapDelta(new HashMap<>(), fDecorationMapLock);
+			highlightedDecorationsMap= new DecorationMapDelta(new HashMap<>(), fHighlightedDecorationsMapLock);
 
 			e= fModel.getAnnotationIterator();
 
 
 		} else {
 
+			// only the annotations carried by the event are touched, the maps are updated in place
+			synchronized (fDecorationMapLock) {
+				decorationsMap= new DecorationMapDelta(fDecorationsMap, fDecorationMapLock);
+			}
+			synchronized (fHighlightedDecorationsMapLock) {
+				highlightedDecorationsMap= new DecorationMapDelta(fHighlightedDecorationsMap, fHighlightedDecorationsMapLock);
+			}
+
 			// Remove annotations
 			Annotation[] removedAnnotations= event.getRemovedAnnotations();
 			for (Annotation annotation : removedAnnotations) {
@@ -719,12 +787,12 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		}
 
 		synchronized (fDecorationMapLock) {
-			fDecorationsMap= decorationsMap;
+			fDecorationsMap= decorationsMap.apply();
 			updateDrawRanges(drawRangeStart, drawRangeEnd, isWorldChange);
 		}
 
 		synchronized (fHighlightedDecorationsMapLock) {
-			fHighlightedDecorationsMap= highlightedDecorationsMap;
+			fHighlightedDecorationsMap= highlightedDecorationsMap.apply();
 			updateHighlightRanges(highlightAnnotationRangeStart, highlightAnnotationRangeEnd, isWorldChange);
 		}
 	}
@@ -1005,19 +1073,66 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		}
 	}
 
-	@Override
-	public void applyTextPresentation(TextPresentation tp) {
-		Set<Entry<Annotation, Decoration>> decorations;
-
-		synchronized (fHighlightedDecorationsMapLock) {
-			if (fHighlightedDecorationsMap == null || fHighlightedDecorationsMap.isEmpty()) {
-				return;
+	/**
+	 * Returns the decorations of the annotations which may lie in the given region. If the
+	 * annotation model supports region queries only the annotations in the region are looked up,
+	 * otherwise all decorations are returned. The result is a copy which can be used without
+	 * holding the lock.
+	 *
+	 * @param highlighted <code>true</code> for the highlighted decorations, <code>false</code> for
+	 *            the drawn decorations
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @return the decorations which may lie in the region
+	 * @since 3.30
+	 */
+	private List<Entry<Annotation, Decoration>> getDecorations(boolean highlighted, int offset, int length) {
+		Object lock= highlighted ? fHighlightedDecorationsMapLock : fDecorationMapLock;
+		int size;
+		synchronized (lock) {
+			Map<Annotation, Decoration> map= highlighted ? fHighlightedDecorationsMap : fDecorationsMap;
+			size= map == null ? 0 : map.size();
+		}
+		if (size == 0) {
+			return Collections.emptyList();
+		}
+
+		// query the model outside of the lock, it synchronizes on its own lock object
+		List<Annotation> candidates= null;
+		if (size > REGION_QUERY_THRESHOLD && fModel instanceof IAnnotationModelExtension2 extension) {
+			candidates= new ArrayList<>();
+			Iterator<Annotation> iter= extension.getAnnotationIterator(offset, length, true, true);
+			while (iter.hasNext() && candidates.size() < size) {
+				candidates.add(iter.next());
 			}
+		}
 
-			decorations= new HashSet<>(fHighlightedDecorationsMap.entrySet());
+		synchronized (lock) {
+			Map<Annotation, Decoration> map= highlighted ? fHighlightedDecorationsMap : fDecorationsMap;
+			if (map == null) {
+				return Collections.emptyList();
+			}
+			if (candidates == null || candidates.size() >= map.size()) {
+				return new ArrayList<>(map.entrySet());
+			}
+			List<Entry<Annotation, Decoration>> decorations= new ArrayList<>(candidates.size());
+			for (Annotation annotation : candidates) {
+				Decoration decoration= map.get(annotation);
+				if (decoration != null) {
+					decorations.add(new SimpleImmutableEntry<>(annotation, decoration));
+				}
+			}
+			return decorations;
 		}
+	}
 
+	@Override
+	public void applyTextPresentation(TextPresentation tp) {
 		IRegion region= tp.getExtent();
+		List<Entry<Annotation, Decoration>> decorations= getDecorations(true, region.getOffset(), region.getLength());
+		if (decorations.isEmpty()) {
+			return;
+		}
 
 		if (DEBUG) {
 			System.out.println("AP: applying text presentation offset: " + region.getOffset() + ", length= " + region.getLength()); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1402,11 +1517,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		final GC gc= event != null ? event.gc : null;
 
 		// Clone decorations
-		Collection<Entry<Annotation, Decoration>> decorations;
-		synchronized (fDecorationMapLock) {
-			decorations= new ArrayList<>(fDecorationsMap.size());
-			decorations.addAll(fDecorationsMap.entrySet());
-		}
+		Collection<Entry<Annotation, Decoration>> decorations= getDecorations(false, vOffset, vLength);
 
 		/*
 		 * Create a new list of annotations to be drawn, since removing from decorations is more
@@ -42,6 +42,9 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
@@ -258,7 +261,12 @@ public class AnnotationRulerColumn implements IVerticalRulerColumn, IVerticalRul
 
 		fCanvas.addPaintListener(event -> {
 			if (fCachedTextViewer != null) {
-				doubleBufferPaint(event.gc);
+				long start= KeystrokeTrace.start();
+				try {
+					doubleBufferPaint(event.gc);
+				} finally {
+					KeystrokeTrace.record(Phase.RULERS, this, start);
+				}
 			}
 		});
 
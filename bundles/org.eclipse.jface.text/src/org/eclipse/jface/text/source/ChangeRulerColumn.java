@@ -31,6 +31,9 @@ import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 import org.eclipse.jface.internal.text.revisions.RevisionPainter;
 import org.eclipse.jface.internal.text.source.DiffPainter;
 import org.eclipse.jface.viewers.ISelectionProvider;
@@ -194,7 +197,12 @@ public final class ChangeRulerColumn implements IChangeRulerColumn, IRevisionRul
 
 		fCanvas.addPaintListener(event -> {
 			if (fCachedTextViewer != null) {
-				doubleBufferPaint(event.gc);
+				long start= KeystrokeTrace.start();
+				try {
+					doubleBufferPaint(event.gc);
+				} finally {
+					KeystrokeTrace.record(Phase.RULERS, this, start);
+				}
 			}
 		});
 
@@ -14,11 +14,14 @@
 package org.eclipse.jface.text.source;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.swt.SWT;
@@ -43,6 +46,9 @@ import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.ScrollBar;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
@@ -81,14 +87,23 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		 */
 		@Override
 		public void textChanged(TextEvent e) {
+			if (e.getDocumentEvent() != null && (containsLineDelimiter(e.getText()) || containsLineDelimiter(e.getReplacedText()))) {
+				// annotations may have moved to other lines
+				fAnnotationRows.invalidate();
+			}
 			if (fTextViewer != null && e.getDocumentEvent() == null && e.getViewerRedrawState()) {
 				// handle only changes of visible document
 				redraw();
 			}
 		}
 
+		private boolean containsLineDelimiter(String text) {
+			return text != null && (text.indexOf('\n') != -1 || text.indexOf('\r') != -1);
+		}
+
 		@Override
 		public void modelChanged(IAnnotationModel model) {
+			fAnnotationRows.invalidate();
 			update();
 		}
 
@@ -99,37 +114,298 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			}
 
 			if (event.isWorldChange()) {
+				fAnnotationRows.invalidate();
 				update();
 				return;
 			}
 
-			Annotation[] annotations= event.getAddedAnnotations();
-			int length= annotations.length;
-			for (int i= 0; i < length; i++) {
-				if (!skip(annotations[i].getType())) {
-					update();
-					return;
+			boolean changed= fAnnotationRows.record(event.getAddedAnnotations());
+			changed |= fAnnotationRows.record(event.getRemovedAnnotations());
+			changed |= fAnnotationRows.record(event.getChangedAnnotations());
+			if (changed) {
+				update();
+			}
+		}
+	}
+
+	/**
+	 * The rectangles painted for the annotations of the model, bucketed by annotation type and
+	 * kind (persistent or temporary). Equal rectangles are stored once together with a count, so
+	 * a paint draws at most one rectangle per ruler row and bucket, independent of the number of
+	 * annotations.
+	 * <p>
+	 * The rectangles are updated from the annotation model events. They are only recomputed for
+	 * all annotations if the world changes, the configured annotation types change, or the ruler
+	 * size, the visible region or the line structure of the text widget changes. The pending
+	 * changes may be recorded from any thread, all other methods must be called in the UI thread.
+	 * </p>
+	 *
+	 * @since 3.30
+	 */
+	private final class AnnotationRows {
+
+		/**
+		 * The cached state of an annotation.
+		 *
+		 * @param types the configured annotation types the annotation is shown for
+		 * @param temporary whether the annotation is temporary
+		 * @param rectangle the rectangle of the annotation, see {@link #toRectangle(int, int)}, or
+		 *            <code>-1</code> if the annotation is not visible in the widget
+		 */
+		private record Row(List<Object> types, boolean temporary, long rectangle) {
+		}
+
+		/** Guards the pending changes. */
+		private final Object fLock= new Object();
+		/** The annotations that were added, removed or changed since the last validation. */
+		private Set<Annotation> fPendingAnnotations= new HashSet<>();
+		/** Whether the rectangles of all annotations have to be recomputed. */
+		private boolean fIsInvalid= true;
+
+		/** The cached annotations. */
+		private final Map<Annotation, Row> fRows= new HashMap<>();
+		/** Maps annotation types to the counted rectangles of their persistent annotations. */
+		private final Map<Object, Map<Long, int[]>> fPersistentRectangles= new HashMap<>();
+		/** Maps annotation types to the counted rectangles of their temporary annotations. */
+		private final Map<Object, Map<Long, int[]>> fTemporaryRectangles= new HashMap<>();
+
+		/** The ruler and widget geometry the rectangles were computed for. */
+		private int fHeight= -1;
+		private int fY;
+		private int fLineCount;
+		private int fThumbHeight;
+		private int fWritable;
+		private double fVisibleLines;
+		/** The region of the document shown in the text widget. */
+		private IRegion fVisibleRegion;
+
+		/**
+		 * Requests the recomputation of all rectangles.
+		 */
+		void invalidate() {
+			synchronized (fLock) {
+				fIsInvalid= true;
+				fPendingAnnotations.clear();
+			}
+		}
+
+		/**
+		 * Records the given annotations as changed.
+		 *
+		 * @param annotations the added, removed or changed annotations
+		 * @return <code>true</code> if any of the annotations is shown in this ruler
+		 */
+		boolean record(Annotation[] annotations) {
+			List<Annotation> shown= new ArrayList<>(annotations.length);
+			for (Annotation annotation : annotations) {
+				if (!skip(annotation.getType())) {
+					shown.add(annotation);
+				}
+			}
+			if (shown.isEmpty()) {
+				return false;
+			}
+			synchronized (fLock) {
+				if (!fIsInvalid) {
+					fPendingAnnotations.addAll(shown);
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the annotations shown in this ruler, as of the last validation.
+		 *
+		 * @return the annotations
+		 */
+		Collection<Annotation> getAnnotations() {
+			return fRows.keySet();
+		}
+
+		/**
+		 * Returns the counted rectangles of the given annotation type.
+		 *
+		 * @param annotationType the configured annotation type
+		 * @param temporary <code>true</code> for the rectangles of temporary annotations
+		 * @return the rectangles mapped to their count
+		 */
+		Map<Long, int[]> getRectangles(Object annotationType, boolean temporary) {
+			Map<Long, int[]> rectangles= (temporary ? fTemporaryRectangles : fPersistentRectangles).get(annotationType);
+			return rectangles != null ? rectangles : Collections.emptyMap();
+		}
+
+		/**
+		 * Brings the rectangles up to date with the annotation model and the given geometry.
+		 *
+		 * @param infos the current widget infos
+		 */
+		void validate(WidgetInfos infos) {
+			IRegion visibleRegion= getVisibleRegion();
+			boolean geometryChanged= fHeight != infos.bounds.height || fY != infos.bounds.y || fLineCount != infos.maxLines
+					|| fThumbHeight != infos.thumbHeight || fWritable != infos.writable || fVisibleLines != infos.visibleLines
+					|| !Objects.equals(fVisibleRegion, visibleRegion);
+
+			Set<Annotation> pending;
+			boolean invalid;
+			synchronized (fLock) {
+				invalid= fIsInvalid || geometryChanged;
+				pending= fPendingAnnotations;
+				fPendingAnnotations= new HashSet<>();
+				fIsInvalid= false;
+			}
+
+			fHeight= infos.bounds.height;
+			fY= infos.bounds.y;
+			fLineCount= infos.maxLines;
+			fThumbHeight= infos.thumbHeight;
+			fWritable= infos.writable;
+			fVisibleLines= infos.visibleLines;
+			fVisibleRegion= visibleRegion;
+
+			if (invalid) {
+				fRows.clear();
+				fPersistentRectangles.clear();
+				fTemporaryRectangles.clear();
+				if (fModel != null) {
+					Iterator<Annotation> iter= fModel.getAnnotationIterator();
+					while (iter.hasNext()) {
+						Annotation annotation= iter.next();
+						if (!annotation.isMarkedDeleted() && !skip(annotation.getType())) {
+							add(annotation, infos);
+						}
+					}
+				}
+			} else {
+				for (Annotation annotation : pending) {
+					remove(annotation);
+					if (fModel != null && !annotation.isMarkedDeleted() && !skip(annotation.getType()) && fModel.getPosition(annotation) != null) {
+						add(annotation, infos);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns the region of the document shown in the text widget.
+		 *
+		 * @return the shown region or <code>null</code> if none
+		 */
+		private IRegion getVisibleRegion() {
+			IRegion region= fTextViewer instanceof ITextViewerExtension5 extension ? extension.getModelCoverage() : fTextViewer.getVisibleRegion();
+			return region != null ? new Region(region.getOffset(), region.getLength()) : null;
+		}
+
+		private void add(Annotation annotation, WidgetInfos infos) {
+			Position position= fModel.getPosition(annotation);
+			if (position == null) {
+				return;
+			}
+
+			List<Object> types= new ArrayList<>(1);
+			for (Object annotationType : fAnnotationsSortedByLayer) {
+				if (isShownAs(annotation.getType(), annotationType)) {
+					types.add(annotationType);
+				}
+			}
+
+			Row row= new Row(types, !annotation.isPersistent(), computeRectangle(position, infos));
+			fRows.put(annotation, row);
+			if (row.rectangle() != -1) {
+				Map<Object, Map<Long, int[]>> buckets= row.temporary() ? fTemporaryRectangles : fPersistentRectangles;
+				for (Object annotationType : types) {
+					buckets.computeIfAbsent(annotationType, t -> new HashMap<>()).computeIfAbsent(Long.valueOf(row.rectangle()), r -> new int[1])[0]++;
+				}
+			}
+		}
+
+		private void remove(Annotation annotation) {
+			Row row= fRows.remove(annotation);
+			if (row == null || row.rectangle() == -1) {
+				return;
+			}
+			Map<Object, Map<Long, int[]>> buckets= row.temporary() ? fTemporaryRectangles : fPersistentRectangles;
+			for (Object annotationType : row.types()) {
+				Map<Long, int[]> rectangles= buckets.get(annotationType);
+				if (rectangles != null) {
+					Long key= Long.valueOf(row.rectangle());
+					int[] count= rectangles.get(key);
+					if (count != null && --count[0] == 0) {
+						rectangles.remove(key);
+					}
 				}
 			}
+		}
+
+		/**
+		 * Computes the rectangle of an annotation at the given position.
+		 *
+		 * @param p the position of the annotation
+		 * @param infos the widget infos
+		 * @return the rectangle or <code>-1</code> if the annotation is not visible in the widget
+		 */
+		private long computeRectangle(Position p, WidgetInfos infos) {
+			IDocument document= fTextViewer.getDocument();
+			StyledText textWidget= fTextViewer.getTextWidget();
+			IRegion visible= null;
+			if (!(fTextViewer instanceof ITextViewerExtension5)) {
+				visible= fTextViewer.getVisibleRegion(); // legacy support
+			}
 
-			annotations= event.getRemovedAnnotations();
-			length= annotations.length;
-			for (int i= 0; i < length; i++) {
-				if (!skip(annotations[i].getType())) {
-					update();
-					return;
+			if (visible != null && !p.overlapsWith(visible.getOffset(), visible.getLength())) {
+				return -1;
+			}
+
+			int annotationOffset= p.getOffset();
+			int annotationLength= p.getLength();
+			IRegion widgetRegion= null;
+			if (visible != null) {
+				annotationOffset= Math.max(p.getOffset(), visible.getOffset());
+				int annotationEnd= Math.min(p.getOffset() + p.getLength(), visible.getOffset() + visible.getLength());
+				annotationLength= annotationEnd - annotationOffset;
+			} else {
+				ITextViewerExtension5 extension= (ITextViewerExtension5) fTextViewer;
+				widgetRegion= extension.modelRange2WidgetRange(new Region(annotationOffset, annotationLength));
+				if (widgetRegion == null) {
+					return -1;
 				}
 			}
 
-			annotations= event.getChangedAnnotations();
-			length= annotations.length;
-			for (int i= 0; i < length; i++) {
-				if (!skip(annotations[i].getType())) {
-					update();
-					return;
+			try {
+				int startOffset= visible != null ? annotationOffset - visible.getOffset() : widgetRegion.getOffset();
+				int startLine= textWidget.getLineAtOffset(startOffset);
+
+				int yy= computeY(startLine, infos);
+				int hh= ANNOTATION_HEIGHT;
+
+				if (ANNOTATION_HEIGHT_SCALABLE) {
+					int numberOfLines= document.getNumberOfLines(annotationOffset, annotationLength);
+					// don't count empty trailing line
+					IRegion lastLine= document.getLineInformationOfOffset(annotationOffset + annotationLength);
+					if (lastLine.getOffset() == annotationOffset + annotationLength) {
+						numberOfLines--;
+					}
+					if (numberOfLines > 1) {
+						int yy2= computeY(startLine + numberOfLines - 1, infos);
+						hh= Math.max(yy2 - yy, ANNOTATION_HEIGHT);
+					}
 				}
+				return toRectangle(yy, hh);
+			} catch (BadLocationException | IllegalArgumentException x) {
+				// We don't care if the widget's content is changed since the annotation was created
+				// and do not match the annotation line/offset etc
+				return -1;
 			}
+		}
 
+		/**
+		 * Encodes a rectangle spanning the full ruler width.
+		 *
+		 * @param y the y coordinate of the rectangle
+		 * @param height the height of the rectangle
+		 * @return the encoded rectangle
+		 */
+		static long toRectangle(int y, int height) {
+			return ((long) y << 32) | height;
 		}
 	}
 
@@ -196,7 +472,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 				fNext= next;
 				Object annotationType= next.getType();
-				if (fType == null || fType.equals(annotationType) || !fConfiguredAnnotationTypes.contains(annotationType) && isSubtype(annotationType)) {
+				if (fType == null || isShownAs(annotationType, fType)) {
 					if (temp && pers) {
 						return;
 					}
@@ -211,13 +487,6 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			fNext= null;
 		}
 
-		private boolean isSubtype(Object annotationType) {
-			if (fAnnotationAccess instanceof IAnnotationAccessExtension extension) {
-				return extension.isSubtype(annotationType, fType);
-			}
-			return fType.equals(annotationType);
-		}
-
 		@Override
 		public boolean hasNext() {
 			return fNext != null;
@@ -472,10 +741,10 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 	 */
 	private final Map<Object, Boolean> fAllowedHeaderAnnotationTypes= new HashMap<>();
 	/**
-	 * The cached annotations.
-	 * @since 3.0
+	 * The cached annotations and the rectangles painted for them.
+	 * @since 3.30
 	 */
-	private final List<Annotation> fCachedAnnotations= new ArrayList<>();
+	private final AnnotationRows fAnnotationRows= new AnnotationRows();
 
 	/**
 	 * Redraw runnable lock
@@ -566,6 +835,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			}
 
 			fModel= model;
+			fAnnotationRows.invalidate();
 
 			if (fModel != null) {
 				fModel.addAnnotationModelListener(fInternalListener);
@@ -601,7 +871,12 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 		fCanvas.addPaintListener(event -> {
 			if (fTextViewer != null) {
-				doubleBufferPaint(event.gc);
+				long start= KeystrokeTrace.start();
+				try {
+					doubleBufferPaint(event.gc);
+				} finally {
+					KeystrokeTrace.record(Phase.RULERS, this, start);
+				}
 			}
 		});
 
@@ -716,31 +991,9 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		gc.setBackground(fCanvas.getBackground());
 		gc.fillRectangle(0, 0, width, height);
 
-		cacheAnnotations();
-
 		doPaint(gc);
 	}
 
-	private void cacheAnnotations() {
-		fCachedAnnotations.clear();
-		if (fModel != null) {
-			Iterator<Annotation> iter= fModel.getAnnotationIterator();
-			while (iter.hasNext()) {
-				Annotation annotation= iter.next();
-
-				if (annotation.isMarkedDeleted()) {
-					continue;
-				}
-
-				if (skip(annotation.getType())) {
-					continue;
-				}
-
-				fCachedAnnotations.add(annotation);
-			}
-		}
-	}
-
 	/**
 	 * Draws this overview ruler.
 	 *
@@ -749,111 +1002,47 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 	private void doPaint(GC gc) {
 
 		Rectangle r= new Rectangle(0, 0, 0, 0);
-		int yy, hh= ANNOTATION_HEIGHT;
+		int yy, hh;
 
-		IDocument document= fTextViewer.getDocument();
 		StyledText textWidget= fTextViewer.getTextWidget();
-		ITextViewerExtension5 extension= null;
-		IRegion visible= null;
-		if (fTextViewer instanceof ITextViewerExtension5) {
-			extension= (ITextViewerExtension5) fTextViewer;
-		} else {
-			visible= fTextViewer.getVisibleRegion(); // legacy support
-		}
-
-		WidgetInfos infos= null;
+		WidgetInfos infos= new WidgetInfos(textWidget, fCanvas);
+		fAnnotationRows.validate(infos);
+		r.x= INSET;
+		r.width= infos.bounds.width - (2 * INSET);
 
 		for (Object annotationType : fAnnotationsSortedByLayer) {
 			if (skip(annotationType)) {
 				continue;
 			}
 
-			int[] style= new int[] { FilterIterator.PERSISTENT, FilterIterator.TEMPORARY };
-			for (int element : style) {
-				boolean areColorsComputed= false;
-				Color fill= null;
-				Color stroke= null;
-
-				Iterator<Annotation> e= new FilterIterator(annotationType, element, fCachedAnnotations.iterator());
-				while (e.hasNext()) {
-					Annotation a= e.next();
-					Position p= fModel.getPosition(a);
+			for (boolean temporary : new boolean[] { false, true }) {
+				Map<Long, int[]> rectangles= fAnnotationRows.getRectangles(annotationType, temporary);
+				if (rectangles.isEmpty()) {
+					continue;
+				}
 
-					if (p == null) {
-						continue;
-					}
-					if (visible != null && !p.overlapsWith(visible.getOffset(), visible.getLength())) {
-						continue;
-					}
+				Color stroke= getStrokeColor(annotationType, temporary);
+				Color fill= fUseSaturatedColors ? stroke : getFillColor(annotationType, temporary);
 
-					int annotationOffset= p.getOffset();
-					int annotationLength= p.getLength();
-					IRegion widgetRegion= null;
-					if (visible != null) {
-						annotationOffset= Math.max(p.getOffset(), visible.getOffset());
-						int annotationEnd= Math.min(p.getOffset() + p.getLength(), visible.getOffset() + visible.getLength());
-						annotationLength= annotationEnd - annotationOffset;
-					} else {
-						ITextViewerExtension5 ext= extension;
-						widgetRegion= ext.modelRange2WidgetRange(new Region(annotationOffset, annotationLength));
-						if (widgetRegion == null) {
-							continue;
-						}
-					}
+				for (Long rectangle : rectangles.keySet()) {
+					yy= (int) (rectangle.longValue() >>> 32);
+					hh= (int) rectangle.longValue();
+					fAnnotationHeight= hh;
 
-					if (infos == null) {
-						infos= new WidgetInfos(textWidget, fCanvas);
-						r.x= INSET;
-						r.width= infos.bounds.width - (2 * INSET);
+					if (fill != null) {
+						gc.setBackground(fill);
+						gc.fillRectangle(INSET, yy, infos.bounds.width-(2*INSET), hh);
 					}
 
-					try {
-						@SuppressWarnings("null")
-						int startOffset= visible != null ? annotationOffset - visible.getOffset() : widgetRegion.getOffset();
-						int startLine= textWidget.getLineAtOffset(startOffset);
-
-						yy= computeY(startLine, infos);
-
-						if (ANNOTATION_HEIGHT_SCALABLE) {
-							int numberOfLines= document.getNumberOfLines(annotationOffset, annotationLength);
-							// don't count empty trailing line
-							IRegion lastLine= document.getLineInformationOfOffset(annotationOffset + annotationLength);
-							if (lastLine.getOffset() == annotationOffset + annotationLength) {
-								numberOfLines--;
-							}
-							if (numberOfLines > 1) {
-								int yy2= computeY(startLine + numberOfLines - 1, infos);
-								hh= Math.max(yy2 - yy, ANNOTATION_HEIGHT);
-							} else {
-								hh= ANNOTATION_HEIGHT;
-							}
-						}
-						fAnnotationHeight= hh;
-
-						if (!areColorsComputed) {
-							stroke= getStrokeColor(annotationType, element == FilterIterator.TEMPORARY);
-							fill= fUseSaturatedColors ? stroke : getFillColor(annotationType, element == FilterIterator.TEMPORARY);
-							areColorsComputed= true;
-						}
-
-						if (fill != null) {
-							gc.setBackground(fill);
-							gc.fillRectangle(INSET, yy, infos.bounds.width-(2*INSET), hh);
-						}
-
-						if (stroke != null) {
-							gc.setForeground(stroke);
-							r.y= yy;
-							if (yy + hh == infos.bounds.height) {
-								r.y--;
-							}
-							r.height= hh;
-							gc.setLineWidth(0); // NOTE: 0 means width is 1 but with optimized performance
-							gc.drawRectangle(r);
+					if (stroke != null) {
+						gc.setForeground(stroke);
+						r.y= yy;
+						if (yy + hh == infos.bounds.height) {
+							r.y--;
 						}
-					} catch (BadLocationException | IllegalArgumentException x) {
-						// We don't care if the widget's content is changed since the annotation was created
-						// and do not match the annotation line/offset etc
+						r.height= hh;
+						gc.setLineWidth(0); // NOTE: 0 means width is 1 but with optimized performance
+						gc.drawRectangle(r);
 					}
 				}
 			}
@@ -861,9 +1050,6 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 		if (DEBUG_DRAW) {
 			// draw debugging guides (boundaries):
-			if (infos == null) {
-				infos= new WidgetInfos(textWidget, fCanvas);
-			}
 			gc.setForeground(gc.getDevice().getSystemColor(SWT.COLOR_DARK_MAGENTA));
 			yy= infos.thumbHeight / 2;
 			gc.drawLine(0, yy, infos.bounds.x/2, yy);
@@ -1094,7 +1280,14 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 				Object annotationType= fAnnotationsSortedByLayer.get(i);
 
-				Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY);
+				Iterator<Annotation> e;
+				if (fModel instanceof IAnnotationModelExtension2 extension) {
+					// only look at the annotations near the lines
+					int offset= Math.max(0, start - 1);
+					e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY, extension.getAnnotationIterator(offset, end + 2 - offset, true, true));
+				} else {
+					e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY);
+				}
 				while (e.hasNext() && found == null) {
 					Annotation a= e.next();
 					if (a.isMarkedDeleted()) {
@@ -1222,6 +1415,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			fConfiguredAnnotationTypes.add(annotationType);
 			fAllowedAnnotationTypes.clear();
 		}
+		fAnnotationRows.invalidate();
 	}
 
 	@Override
@@ -1230,6 +1424,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			fConfiguredAnnotationTypes.remove(annotationType);
 			fAllowedAnnotationTypes.clear();
 		}
+		fAnnotationRows.invalidate();
 	}
 
 	@Override
@@ -1250,6 +1445,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			fLayersSortedByLayer.add(i, layerObj);
 			fAnnotationsSortedByLayer.add(i, annotationType);
 		}
+		fAnnotationRows.invalidate();
 	}
 
 	@Override
@@ -1271,6 +1467,28 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		return !contains(annotationType, fAllowedAnnotationTypes, fConfiguredAnnotationTypes);
 	}
 
+	/**
+	 * Returns whether annotations of the given type are shown as annotations of the given
+	 * configured type, i.e. if it is the configured type or an unconfigured subtype of it.
+	 *
+	 * @param annotationType the type of an annotation
+	 * @param configuredType the configured annotation type
+	 * @return <code>true</code> if the annotations are shown as the configured type
+	 * @since 3.30
+	 */
+	private boolean isShownAs(Object annotationType, Object configuredType) {
+		if (configuredType.equals(annotationType)) {
+			return true;
+		}
+		if (fConfiguredAnnotationTypes.contains(annotationType)) {
+			return false;
+		}
+		if (fAnnotationAccess instanceof IAnnotationAccessExtension extension) {
+			return extension.isSubtype(annotationType, configuredType);
+		}
+		return false;
+	}
+
 	/**
 	 * Returns whether the given annotation type should be skipped by the drawing routine of the header.
 	 *
@@ -1528,7 +1746,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 				continue;
 			}
 
-			Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY | FilterIterator.IGNORE_BAGS, fCachedAnnotations.iterator());
+			Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY | FilterIterator.IGNORE_BAGS, fAnnotationRows.getAnnotations().iterator());
 			while (e.hasNext()) {
 				if (e.next() != null) {
 					colorType= annotationType;
@@ -1583,7 +1801,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			int count= 0;
 			String annotationTypeLabel= null;
 
-			Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY | FilterIterator.IGNORE_BAGS, fCachedAnnotations.iterator());
+			Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY | FilterIterator.IGNORE_BAGS, fAnnotationRows.getAnnotations().iterator());
 			while (e.hasNext()) {
 				Annotation annotation= e.next();
 				if (annotation != null) {
@@ -30,6 +30,9 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 import org.eclipse.jface.util.Util;
 
 import org.eclipse.jface.text.BadLocationException;
@@ -153,7 +156,12 @@ public final class VerticalRuler implements IVerticalRuler, IVerticalRulerExtens
 
 		fCanvas.addPaintListener(event -> {
 			if (fTextViewer != null) {
-				doubleBufferPaint(event.gc);
+				long start= KeystrokeTrace.start();
+				try {
+					doubleBufferPaint(event.gc);
+				} finally {
+					KeystrokeTrace.record(Phase.RULERS, this, start);
+				}
 			}
 		});
 
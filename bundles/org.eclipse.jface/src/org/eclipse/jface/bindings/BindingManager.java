@@ -89,6 +89,15 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 	 */
 	private static String LOCALE_SEPARATOR = "_"; //$NON-NLS-1$
 
+	/**
+	 * Whether changes of the active contexts are applied incrementally to the
+	 * previous solution instead of recomputing all bindings. Can be disabled by
+	 * setting the system property
+	 * <code>org.eclipse.jface.bindings.incremental</code> to <code>false</code>.
+	 */
+	private static final boolean INCREMENTAL_RESOLUTION = !"false" //$NON-NLS-1$
+			.equalsIgnoreCase(System.getProperty("org.eclipse.jface.bindings.incremental")); //$NON-NLS-1$
+
 	private Map currentConflicts = null;
 
 	/**
@@ -281,6 +290,24 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 	 */
 	private Map prefixTable;
 
+	/**
+	 * The resolver applying changes of the active contexts to the previous
+	 * solution. This value is never <code>null</code>.
+	 */
+	private final IncrementalBindingResolver incrementalResolver = new IncrementalBindingResolver(
+			new IncrementalBindingResolver.ConflictResolver() {
+				@Override
+				public Binding resolveConflicts(Collection<Binding> matches, Map<String, String> activeContextTree) {
+					return BindingManager.this.resolveConflicts(matches, activeContextTree);
+				}
+
+				@Override
+				public void conflictDetected(TriggerSequence trigger, Collection<Binding> matches,
+						MultiStatus conflicts) {
+					addConflict(trigger, matches, conflicts);
+				}
+			});
+
 	/**
 	 * <p>
 	 * Constructs a new instance of <code>BindingManager</code>.
@@ -445,6 +472,7 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 	 * This method completes in <code>O(1)</code>.
 	 */
 	private final void clearSolution() {
+		incrementalResolver.invalidate();
 		setActiveBindings(null, null, null, null);
 	}
 
@@ -532,7 +560,6 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 		final int length = trimmedBindings.length;
 		for (int i = 0; i < length; i++) {
 			final Binding binding = trimmedBindings[i];
-			boolean found;
 
 			// Check the context.
 			final String contextId = binding.getContextId();
@@ -541,28 +568,8 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 				continue;
 			}
 
-			// Check the locale.
-			if (!localeMatches(binding)) {
-				continue;
-			}
-
-			// Check the platform.
-			if (!platformMatches(binding)) {
-				continue;
-			}
-
-			// Check the scheme ids.
-			final String schemeId = binding.getSchemeId();
-			found = false;
-			if (activeSchemeIds != null) {
-				for (String activeSchemeId : activeSchemeIds) {
-					if (Objects.equals(schemeId, activeSchemeId)) {
-						found = true;
-						break;
-					}
-				}
-			}
-			if (!found) {
+			// Check the locale, platform and scheme ids.
+			if (!stateMatches(binding)) {
 				continue;
 			}
 
@@ -584,9 +591,7 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 			}
 		}
 
-		MultiStatus conflicts = new MultiStatus("org.eclipse.jface", 0, //$NON-NLS-1$
-				"Keybinding conflicts occurred.  They may interfere with normal accelerator operation.", //$NON-NLS-1$
-				null);
+		MultiStatus conflicts = createConflictStatus();
 		/*
 		 * THIRD PASS: In this pass, we move any non-conflicting bindings
 		 * directly into the map. In the case of conflicts, we apply some
@@ -635,31 +640,8 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 				final Binding winner = resolveConflicts((Collection) match,
 						activeContextTree);
 				if (winner == null) {
-					// warn once ... so as not to flood the logs
 					conflictsByTrigger.put(trigger, match);
-					if (triggerConflicts.add(trigger)) {
-						final StringWriter sw = new StringWriter();
-						final BufferedWriter buffer = new BufferedWriter(sw);
-						try {
-							buffer.write("A conflict occurred for "); //$NON-NLS-1$
-							buffer.write(trigger.toString());
-							buffer.write(':');
-							Iterator i = ((Collection) match).iterator();
-							while (i.hasNext()) {
-								buffer.newLine();
-								buffer.write(i.next().toString());
-							}
-							buffer.flush();
-						} catch (IOException e) {
-							// we should not get this
-						}
-						conflicts.add(Status.warning(sw.toString()));
-					}
-					if (DEBUG) {
-						Tracing.printTrace("BINDINGS", //$NON-NLS-1$
-								"A conflict occurred for " + trigger); //$NON-NLS-1$
-						Tracing.printTrace("BINDINGS", "    " + match); //$NON-NLS-1$ //$NON-NLS-2$
-					}
+					addConflict(trigger, (Collection) match, conflicts);
 				} else {
 					bindingsByTrigger.put(trigger, winner);
 					addReverseLookup(triggersByCommandId, winner
@@ -667,11 +649,133 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 				}
 			}
 		}
+		logConflicts(conflicts);
+	}
+
+	/**
+	 * <p>
+	 * Creates the status collecting the binding conflicts found while
+	 * computing the bindings.
+	 * </p>
+	 *
+	 * @return A new, empty status; never <code>null</code>.
+	 */
+	private static final MultiStatus createConflictStatus() {
+		return new MultiStatus("org.eclipse.jface", 0, //$NON-NLS-1$
+				"Keybinding conflicts occurred.  They may interfere with normal accelerator operation.", //$NON-NLS-1$
+				null);
+	}
+
+	/**
+	 * <p>
+	 * Records a conflict which could not be resolved. Each trigger is only
+	 * reported once, so as not to flood the logs.
+	 * </p>
+	 *
+	 * @param trigger
+	 *            The trigger the bindings conflict for; must not be
+	 *            <code>null</code>.
+	 * @param match
+	 *            The conflicting bindings; must not be <code>null</code>.
+	 * @param conflicts
+	 *            The status collecting the conflicts; must not be
+	 *            <code>null</code>.
+	 */
+	private final void addConflict(final TriggerSequence trigger,
+			final Collection match, final MultiStatus conflicts) {
+		// warn once ... so as not to flood the logs
+		if (triggerConflicts.add(trigger)) {
+			final StringWriter sw = new StringWriter();
+			final BufferedWriter buffer = new BufferedWriter(sw);
+			try {
+				buffer.write("A conflict occurred for "); //$NON-NLS-1$
+				buffer.write(trigger.toString());
+				buffer.write(':');
+				Iterator i = match.iterator();
+				while (i.hasNext()) {
+					buffer.newLine();
+					buffer.write(i.next().toString());
+				}
+				buffer.flush();
+			} catch (IOException e) {
+				// we should not get this
+			}
+			conflicts.add(Status.warning(sw.toString()));
+		}
+		if (DEBUG) {
+			Tracing.printTrace("BINDINGS", //$NON-NLS-1$
+					"A conflict occurred for " + trigger); //$NON-NLS-1$
+			Tracing.printTrace("BINDINGS", "    " + match); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * <p>
+	 * Logs the conflicts collected in the status, if there are any.
+	 * </p>
+	 *
+	 * @param conflicts
+	 *            The status collecting the conflicts; must not be
+	 *            <code>null</code>.
+	 */
+	private static final void logConflicts(final MultiStatus conflicts) {
 		if (conflicts.getSeverity() != IStatus.OK) {
 			Policy.getLog().log(conflicts);
 		}
 	}
 
+	/**
+	 * <p>
+	 * Computes the bindings which match the current locale, platform and
+	 * scheme, regardless of their context. Deletion markers and the bindings
+	 * they delete are removed.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n)</code>, where <code>n</code> is
+	 * the number of bindings.
+	 * </p>
+	 *
+	 * @return The candidate bindings, in the order they were added; never
+	 *         <code>null</code>.
+	 */
+	private final Binding[] computeCandidateBindings() {
+		final Binding[] trimmedBindings = removeDeletions(bindings);
+		final List candidates = new ArrayList(trimmedBindings.length);
+		for (final Binding binding : trimmedBindings) {
+			if (stateMatches(binding)) {
+				candidates.add(binding);
+			}
+		}
+		return (Binding[]) candidates.toArray(new Binding[candidates.size()]);
+	}
+
+	/**
+	 * <p>
+	 * Tests whether the binding matches the active locales, platforms and
+	 * schemes.
+	 * </p>
+	 *
+	 * @param binding
+	 *            The binding with which to test; must not be <code>null</code>.
+	 * @return <code>true</code> if the binding can be active in the current
+	 *         state; <code>false</code> otherwise.
+	 */
+	private final boolean stateMatches(final Binding binding) {
+		if (!localeMatches(binding) || !platformMatches(binding)) {
+			return false;
+		}
+
+		final String schemeId = binding.getSchemeId();
+		if (activeSchemeIds != null) {
+			for (String activeSchemeId : activeSchemeIds) {
+				if (Objects.equals(schemeId, activeSchemeId)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * <p>
 	 * Notifies this manager that the context manager has changed. This method
@@ -1721,6 +1825,11 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 			if (DEBUG) {
 				Tracing.printTrace("BINDINGS", "Cache hit"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
+			if (INCREMENTAL_RESOLUTION) {
+				incrementalResolver.setSolution(activeContextTree, existingCache.getBindingsByTrigger(),
+						existingCache.getTriggersByCommandId(), existingCache.getPrefixTable(),
+						existingCache.getConflictsByTrigger());
+			}
 			setActiveBindings(existingCache.getBindingsByTrigger(), existingCache.getTriggersByCommandId(),
 					existingCache.getPrefixTable(),
 					existingCache.getConflictsByTrigger());
@@ -1732,6 +1841,27 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 			Tracing.printTrace("BINDINGS", "Cache miss"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 
+		/*
+		 * If only the contexts changed since the last solution, then apply the
+		 * delta to it.
+		 */
+		if (INCREMENTAL_RESOLUTION && incrementalResolver.canResolve()) {
+			final MultiStatus conflicts = createConflictStatus();
+			incrementalResolver.resolve(activeContextTree, conflicts);
+			logConflicts(conflicts);
+
+			existingCache.setBindingsByTrigger(incrementalResolver.getBindingsByTrigger());
+			existingCache.setTriggersByCommandId(incrementalResolver.getTriggersByCommand());
+			existingCache.setConflictsByTrigger(incrementalResolver.getConflictsByTrigger());
+			existingCache.setPrefixTable(incrementalResolver.getPrefixTable());
+
+			setActiveBindings(incrementalResolver.getBindingsByTrigger(),
+					incrementalResolver.getTriggersByCommand(),
+					incrementalResolver.getPrefixTable(),
+					incrementalResolver.getConflictsByTrigger());
+			return;
+		}
+
 		// Compute the active bindings.
 		final Map commandIdsByTrigger = new HashMap();
 		final Map triggersByParameterizedCommand = new HashMap();
@@ -1746,6 +1876,14 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 		existingCache.setConflictsByTrigger(conflictsByTrigger);
 		existingCache.setPrefixTable(newPrefixTable);
 
+		if (INCREMENTAL_RESOLUTION) {
+			if (!incrementalResolver.isIndexed()) {
+				incrementalResolver.index(computeCandidateBindings());
+			}
+			incrementalResolver.setSolution(activeContextTree, commandIdsByTrigger,
+					triggersByParameterizedCommand, newPrefixTable, conflictsByTrigger);
+		}
+
 		setActiveBindings(commandIdsByTrigger, triggersByParameterizedCommand,
 				newPrefixTable,
 				conflictsByTrigger);
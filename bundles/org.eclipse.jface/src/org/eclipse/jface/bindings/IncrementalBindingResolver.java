@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.bindings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.commands.ParameterizedCommand;
+import org.eclipse.core.runtime.MultiStatus;
+
+/**
+ * <p>
+ * Resolves the active bindings of a {@link BindingManager} incrementally. The
+ * resolver keeps an index of the candidate bindings, i.e. the bindings which
+ * survived the deletion markers and match the active locale, platform and
+ * scheme, grouped by trigger and by context. When only the active contexts
+ * change, just the triggers which have a candidate binding in one of the
+ * contexts entering or leaving the context tree are resolved again. All other
+ * entries are taken over from the previous solution.
+ * </p>
+ * <p>
+ * The published maps are never modified after they were handed out, as they
+ * are kept in the {@link CachedBindingSet} cache and returned to clients. The
+ * previous solution is therefore copied before the delta is applied, and the
+ * maps of partial matches in the prefix table are copied on write.
+ * </p>
+ * <p>
+ * The index is only valid as long as the bindings, locale, platform and scheme
+ * stay the same. The binding manager has to {@link #invalidate()} it whenever
+ * one of them changes.
+ * </p>
+ */
+final class IncrementalBindingResolver {
+
+	/**
+	 * The strategy resolving conflicts between bindings for the same trigger.
+	 */
+	interface ConflictResolver {
+		/**
+		 * Attempts to resolve the conflicts between the given bindings.
+		 *
+		 * @param bindings          the bindings matching the same trigger; at
+		 *                          least two.
+		 * @param activeContextTree the tree of active contexts.
+		 * @return the winning binding, or <code>null</code> on a tie.
+		 */
+		Binding resolveConflicts(Collection<Binding> bindings, Map<String, String> activeContextTree);
+
+		/**
+		 * Reports an unresolved conflict for the given trigger.
+		 *
+		 * @param trigger   the trigger
+		 * @param bindings  the conflicting bindings
+		 * @param conflicts the status collecting the conflicts to be logged
+		 */
+		void conflictDetected(TriggerSequence trigger, Collection<Binding> bindings, MultiStatus conflicts);
+	}
+
+	private final ConflictResolver conflictResolver;
+
+	/**
+	 * The candidate bindings by trigger, in the order of the binding manager's
+	 * bindings. <code>null</code> if the index is not built.
+	 */
+	private Map<TriggerSequence, List<Binding>> candidatesByTrigger;
+
+	/**
+	 * The triggers which have at least one candidate binding in a context.
+	 * <code>null</code> if the index is not built.
+	 */
+	private Map<String, Set<TriggerSequence>> triggersByContext;
+
+	/**
+	 * The context tree the current solution was computed for, or
+	 * <code>null</code> if there is no current solution.
+	 */
+	private Map<String, String> contextTree;
+
+	private Map<TriggerSequence, Binding> bindingsByTrigger;
+
+	private Map<ParameterizedCommand, Collection<TriggerSequence>> triggersByCommand;
+
+	private Map<TriggerSequence, Map<TriggerSequence, Binding>> prefixTable;
+
+	private Map<TriggerSequence, Collection<Binding>> conflictsByTrigger;
+
+	/**
+	 * The maps of partial matches which have been copied while applying the
+	 * current delta, and can therefore be modified.
+	 */
+	private final Set<Map<TriggerSequence, Binding>> writablePartialMatches = Collections
+			.newSetFromMap(new IdentityHashMap<>());
+
+	IncrementalBindingResolver(ConflictResolver conflictResolver) {
+		this.conflictResolver = conflictResolver;
+	}
+
+	/**
+	 * Forget the index and the current solution.
+	 */
+	void invalidate() {
+		candidatesByTrigger = null;
+		triggersByContext = null;
+		forgetSolution();
+	}
+
+	/**
+	 * Forget the current solution, but keep the index.
+	 */
+	void forgetSolution() {
+		contextTree = null;
+		bindingsByTrigger = null;
+		triggersByCommand = null;
+		prefixTable = null;
+		conflictsByTrigger = null;
+	}
+
+	/**
+	 * @return whether the index of candidate bindings has been built.
+	 */
+	boolean isIndexed() {
+		return candidatesByTrigger != null;
+	}
+
+	/**
+	 * Builds the index of candidate bindings.
+	 *
+	 * @param candidates the bindings matching the current locale, platform and
+	 *                   scheme, with the deletions already removed.
+	 */
+	void index(Binding[] candidates) {
+		candidatesByTrigger = new HashMap<>();
+		triggersByContext = new HashMap<>();
+		for (Binding binding : candidates) {
+			TriggerSequence trigger = binding.getTriggerSequence();
+			candidatesByTrigger.computeIfAbsent(trigger, t -> new ArrayList<>(1)).add(binding);
+			triggersByContext.computeIfAbsent(binding.getContextId(), c -> new HashSet<>()).add(trigger);
+		}
+		forgetSolution();
+	}
+
+	/**
+	 * Remembers a solution which has been computed by other means (a full
+	 * computation or a cache hit) as the base for the next delta.
+	 */
+	@SuppressWarnings("unchecked")
+	void setSolution(Map activeContextTree, Map bindings, Map triggers, Map prefixes, Map conflicts) {
+		contextTree = activeContextTree;
+		bindingsByTrigger = bindings;
+		triggersByCommand = triggers;
+		prefixTable = prefixes;
+		conflictsByTrigger = conflicts;
+	}
+
+	/**
+	 * @return whether there is an index and a solution a delta can be applied to.
+	 */
+	boolean canResolve() {
+		return candidatesByTrigger != null && contextTree != null && bindingsByTrigger != null
+				&& triggersByCommand != null && prefixTable != null && conflictsByTrigger != null;
+	}
+
+	/**
+	 * Computes the solution for the new context tree from the current solution.
+	 * Afterwards the new solution is the current one and can be retrieved with
+	 * the getters.
+	 *
+	 * @param newContextTree the new tree of active contexts; must not be
+	 *                       <code>null</code>.
+	 * @param conflicts      the status collecting the conflicts to be logged;
+	 *                       must not be <code>null</code>.
+	 */
+	void resolve(Map<String, String> newContextTree, MultiStatus conflicts) {
+		Set<TriggerSequence> affected = new LinkedHashSet<>();
+		collectTriggers(contextTree.keySet(), newContextTree.keySet(), affected);
+		collectTriggers(newContextTree.keySet(), contextTree.keySet(), affected);
+
+		Map<TriggerSequence, Binding> newBindings = new HashMap<>(bindingsByTrigger);
+		Map<TriggerSequence, Collection<Binding>> newConflicts = new HashMap<>(conflictsByTrigger);
+		Map<ParameterizedCommand, Collection<TriggerSequence>> newTriggers = new HashMap<>(triggersByCommand);
+		Map<TriggerSequence, Map<TriggerSequence, Binding>> newPrefixTable = new HashMap<>(prefixTable);
+		writablePartialMatches.clear();
+
+		// Resolve the affected triggers against the new tree
+		Map<TriggerSequence, Binding> winners = new HashMap<>();
+		for (TriggerSequence trigger : affected) {
+			List<Binding> matches = new ArrayList<>(2);
+			for (Binding candidate : candidatesByTrigger.get(trigger)) {
+				if (newContextTree.containsKey(candidate.getContextId())) {
+					matches.add(candidate);
+				}
+			}
+			newConflicts.remove(trigger);
+			if (matches.size() == 1) {
+				winners.put(trigger, matches.get(0));
+			} else if (matches.size() > 1) {
+				Binding winner = conflictResolver.resolveConflicts(matches, newContextTree);
+				if (winner == null) {
+					newConflicts.put(trigger, matches);
+					conflictResolver.conflictDetected(trigger, matches, conflicts);
+				} else {
+					winners.put(trigger, winner);
+				}
+			}
+		}
+
+		// First remove all the bindings which lost, then add the winners
+		for (TriggerSequence trigger : affected) {
+			Binding previous = newBindings.get(trigger);
+			if (previous != null && previous != winners.get(trigger)) {
+				removeBinding(trigger, previous, newBindings, newTriggers, newPrefixTable);
+			}
+		}
+		for (Map.Entry<TriggerSequence, Binding> entry : winners.entrySet()) {
+			if (newBindings.get(entry.getKey()) != entry.getValue()) {
+				addBinding(entry.getKey(), entry.getValue(), newBindings, newTriggers, newPrefixTable);
+			}
+		}
+		writablePartialMatches.clear();
+
+		contextTree = newContextTree;
+		bindingsByTrigger = newBindings;
+		triggersByCommand = newTriggers;
+		prefixTable = newPrefixTable;
+		conflictsByTrigger = newConflicts;
+	}
+
+	private void collectTriggers(Set<String> contexts, Set<String> otherContexts, Set<TriggerSequence> result) {
+		for (String contextId : contexts) {
+			if (!otherContexts.contains(contextId)) {
+				Set<TriggerSequence> triggers = triggersByContext.get(contextId);
+				if (triggers != null) {
+					result.addAll(triggers);
+				}
+			}
+		}
+	}
+
+	private void removeBinding(TriggerSequence trigger, Binding binding, Map<TriggerSequence, Binding> bindings,
+			Map<ParameterizedCommand, Collection<TriggerSequence>> triggers,
+			Map<TriggerSequence, Map<TriggerSequence, Binding>> prefixes) {
+		bindings.remove(trigger);
+
+		ParameterizedCommand command = binding.getParameterizedCommand();
+		Collection<TriggerSequence> commandTriggers = triggers.get(command);
+		if (commandTriggers != null) {
+			Collection<TriggerSequence> remaining = new ArrayList<>(commandTriggers);
+			remaining.remove(trigger);
+			if (remaining.isEmpty()) {
+				triggers.remove(command);
+			} else {
+				triggers.put(command, remaining);
+			}
+		}
+
+		// The perfect match only stays if the trigger is a prefix of others
+		if (prefixes.containsKey(trigger) && prefixes.get(trigger) == null) {
+			prefixes.remove(trigger);
+		}
+		for (TriggerSequence prefix : trigger.getPrefixes()) {
+			Map<TriggerSequence, Binding> partialMatches = prefixes.get(prefix);
+			if (partialMatches == null) {
+				continue;
+			}
+			partialMatches = writable(partialMatches);
+			partialMatches.remove(trigger);
+			if (!partialMatches.isEmpty()) {
+				prefixes.put(prefix, partialMatches);
+			} else if (bindings.containsKey(prefix)) {
+				prefixes.put(prefix, null);
+			} else {
+				prefixes.remove(prefix);
+			}
+		}
+	}
+
+	private void addBinding(TriggerSequence trigger, Binding binding, Map<TriggerSequence, Binding> bindings,
+			Map<ParameterizedCommand, Collection<TriggerSequence>> triggers,
+			Map<TriggerSequence, Map<TriggerSequence, Binding>> prefixes) {
+		bindings.put(trigger, binding);
+
+		ParameterizedCommand command = binding.getParameterizedCommand();
+		Collection<TriggerSequence> commandTriggers = triggers.get(command);
+		Collection<TriggerSequence> updated = commandTriggers == null ? new ArrayList<>(1)
+				: new ArrayList<>(commandTriggers);
+		updated.add(trigger);
+		triggers.put(command, updated);
+
+		if (!prefixes.containsKey(trigger)) {
+			prefixes.put(trigger, null);
+		}
+		for (TriggerSequence prefix : trigger.getPrefixes()) {
+			Map<TriggerSequence, Binding> partialMatches = prefixes.get(prefix);
+			if (partialMatches == null) {
+				partialMatches = new HashMap<>();
+				writablePartialMatches.add(partialMatches);
+			} else {
+				partialMatches = writable(partialMatches);
+			}
+			partialMatches.put(trigger, binding);
+			prefixes.put(prefix, partialMatches);
+		}
+	}
+
+	private Map<TriggerSequence, Binding> writable(Map<TriggerSequence, Binding> partialMatches) {
+		if (writablePartialMatches.contains(partialMatches)) {
+			return partialMatches;
+		}
+		Map<TriggerSequence, Binding> copy = new HashMap<>(partialMatches);
+		writablePartialMatches.add(copy);
+		return copy;
+	}
+
+	Map<TriggerSequence, Binding> getBindingsByTrigger() {
+		return bindingsByTrigger;
+	}
+
+	Map<ParameterizedCommand, Collection<TriggerSequence>> getTriggersByCommand() {
+		return triggersByCommand;
+	}
+
+	Map<TriggerSequence, Map<TriggerSequence, Binding>> getPrefixTable() {
+		return prefixTable;
+	}
+
+	Map<TriggerSequence, Collection<Binding>> getConflictsByTrigger() {
+		return conflictsByTrigger;
+	}
+}
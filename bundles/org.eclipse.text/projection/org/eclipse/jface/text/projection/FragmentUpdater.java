@@ -34,6 +34,8 @@ class FragmentUpdater extends DefaultPositionUpdater {
 
 	/** Indicates whether the position being updated represents the last fragment. */
 	private boolean fIsLast= false;
+	/** The mapping to inform about removed fragments, may be <code>null</code> */
+	private final ProjectionMapping fMapping;
 
 	/**
 	 * Creates the fragment updater for the given category.
@@ -41,7 +43,19 @@ class FragmentUpdater extends DefaultPositionUpdater {
 	 * @param fragmentCategory the position category used for managing the fragments of a document
 	 */
 	protected FragmentUpdater(String fragmentCategory) {
+		this(fragmentCategory, null);
+	}
+
+	/**
+	 * Creates the fragment updater for the given category.
+	 *
+	 * @param fragmentCategory the position category used for managing the fragments of a document
+	 * @param mapping the projection mapping to inform about removed fragments, or <code>null</code>
+	 * @since 3.15
+	 */
+	FragmentUpdater(String fragmentCategory, ProjectionMapping mapping) {
 		super(fragmentCategory);
+		fMapping= mapping;
 	}
 
 	@Override
@@ -66,6 +80,8 @@ class FragmentUpdater extends DefaultPositionUpdater {
 
 				if (notDeleted()) {
 					adaptToReplace();
+				} else if (fMapping != null) {
+					fMapping.projectionChanged();
 				}
 			}
 
@@ -121,12 +121,12 @@ public class ProjectionDocument extends AbstractDocument {
 
 		fSegmentsCategory= SEGMENTS_CATEGORY;
 		fFragmentsCategory= FRAGMENTS_CATEGORY_PREFIX + hashCode();
+		fMapping= new ProjectionMapping(masterDocument, fFragmentsCategory, this, fSegmentsCategory);
+
 		fMasterDocument.addPositionCategory(fFragmentsCategory);
-		fFragmentsUpdater= new FragmentUpdater(fFragmentsCategory);
+		fFragmentsUpdater= new FragmentUpdater(fFragmentsCategory, fMapping);
 		fMasterDocument.addPositionUpdater(fFragmentsUpdater);
 
-		fMapping= new ProjectionMapping(masterDocument, fFragmentsCategory, this, fSegmentsCategory);
-
 		ITextStore s= new ProjectionTextStore(masterDocument, fMapping);
 		ILineTracker tracker= new DefaultLineTracker();
 
@@ -229,7 +229,7 @@ public class ProjectionDocument extends AbstractDocument {
 		try {
 
 			addPositionCategory(fSegmentsCategory);
-			fSegmentUpdater= new SegmentUpdater(fSegmentsCategory);
+			fSegmentUpdater= new SegmentUpdater(fSegmentsCategory, fMapping);
 			addPositionUpdater(fSegmentUpdater);
 
 			int offset= 0;
@@ -241,6 +241,7 @@ public class ProjectionDocument extends AbstractDocument {
 				addPosition(fSegmentsCategory, segment);
 				offset += fragment.length;
 			}
+			fMapping.projectionChanged();
 
 		} catch (BadPositionCategoryException x) {
 			internalError();
@@ -358,6 +359,7 @@ public class ProjectionDocument extends AbstractDocument {
 				Segment segment= createSegmentFor(fragment, index);
 				segment.markForStretch();
 			}
+			fMapping.projectionChanged();
 
 			getTracker().replace(event.getOffset(), event.getLength(), event.getText());
 			super.fireDocumentChanged(event);
@@ -445,6 +447,7 @@ public class ProjectionDocument extends AbstractDocument {
 				fragment.setLength(offsetInMaster - fragment.getOffset());
 				fragment.segment.setLength(imageRegion.getOffset() - fragment.segment.getOffset());
 			}
+			fMapping.projectionChanged();
 
 			getTracker().replace(event.getOffset(), event.getLength(), event.getText());
 			super.fireDocumentChanged(event);
@@ -724,6 +727,7 @@ public class ProjectionDocument extends AbstractDocument {
 					Fragment fragment= new Fragment(0, 0);
 					fMasterDocument.addPosition(fFragmentsCategory, fragment);
 					createSegmentFor(fragment, 0);
+					fMapping.projectionChanged();
 				} catch (BadPositionCategoryException x) {
 					internalError();
 				}
@@ -810,7 +814,10 @@ public class ProjectionDocument extends AbstractDocument {
 	protected void updateDocumentStructures(DocumentEvent event) {
 		super.updateDocumentStructures(event);
 		ensureWellFormedSegmentation(computeAnchor(event));
-		fMapping.projectionChanged();
+		if (!(event instanceof ProjectionDocumentEvent slave) || ProjectionDocumentEvent.CONTENT_CHANGE != slave.getChangeType()) {
+			// content changes only move and resize the segments, the segment updater keeps the mapping up to date
+			fMapping.projectionChanged();
+		}
 	}
 
 	private int computeAnchor(DocumentEvent event) {
@@ -830,6 +837,7 @@ public class ProjectionDocument extends AbstractDocument {
 
 	private boolean ensureWellFormedSegmentation(int anchorOffset) {
 		boolean changed= false;
+		boolean joined= false;
 		Position[] segments= getSegments();
 		for (int i= 0; i < segments.length; i++) {
 			Segment segment= (Segment) segments[i];
@@ -852,6 +860,7 @@ public class ProjectionDocument extends AbstractDocument {
 					segment.setLength(segment.getLength() + next.getLength());
 					fragment.setLength(fragment.getLength() + next.fragment.getLength());
 					next.delete();
+					joined= true;
 				}
 			}
 		}
@@ -871,6 +880,10 @@ public class ProjectionDocument extends AbstractDocument {
 			}
 		}
 
+		if (changed || joined) {
+			fMapping.projectionChanged();
+		}
+
 		return changed;
 	}
 
@@ -917,6 +930,7 @@ public class ProjectionDocument extends AbstractDocument {
 			fragment.segment= segment;
 			fMasterDocument.addPosition(fFragmentsCategory, fragment);
 			addPosition(fSegmentsCategory, segment);
+			fMapping.projectionChanged();
 
 			getTracker().set(fMasterDocument.get(offsetInMaster, lengthInMaster));
 			super.fireDocumentChanged(event);
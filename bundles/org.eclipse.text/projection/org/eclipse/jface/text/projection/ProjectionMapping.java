@@ -54,6 +54,11 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 	private Position[] fCachedSegments;
 	/** Cached fragments */
 	private Position[] fCachedFragments;
+	/**
+	 * Cached image length, <code>-1</code> if unknown
+	 * @since 3.15
+	 */
+	private int fCachedImageLength= -1;
 
 	/**
 	 * Creates a new mapping between the given parent document and the given projection document.
@@ -76,6 +81,20 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 	public void projectionChanged() {
 		fCachedSegments= null;
 		fCachedFragments= null;
+		fCachedImageLength= -1;
+	}
+
+	/**
+	 * Notifies this projection mapping that the segments have been adapted to a
+	 * document change without being added or removed.
+	 *
+	 * @param lengthDelta the change of the sum of the segment lengths
+	 * @since 3.15
+	 */
+	void segmentsUpdated(int lengthDelta) {
+		if (fCachedImageLength != -1) {
+			fCachedImageLength += lengthDelta;
+		}
 	}
 
 	private Position[] getSegments() {
@@ -573,12 +592,15 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 
 	@Override
 	public int getImageLength() {
-		Position[] segments= getSegments();
-		int length= 0;
-		for (Position segment : segments) {
-			length += segment.length;
+		if (fCachedImageLength == -1) {
+			Position[] segments= getSegments();
+			int length= 0;
+			for (Position segment : segments) {
+				length += segment.length;
+			}
+			fCachedImageLength= length;
 		}
-		return length;
+		return fCachedImageLength;
 	}
 
 	@Override
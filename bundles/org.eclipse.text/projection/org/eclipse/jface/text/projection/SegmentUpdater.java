@@ -35,6 +35,8 @@ class SegmentUpdater extends DefaultPositionUpdater {
 
 	private Segment fNextSegment= null;
 	private boolean fIsProjectionChange= false;
+	/** The mapping to inform about segment changes, may be <code>null</code> */
+	private final ProjectionMapping fMapping;
 
 	/**
 	 * Creates the segment updater for the given category.
@@ -42,7 +44,19 @@ class SegmentUpdater extends DefaultPositionUpdater {
 	 * @param segmentCategory the position category used for managing the segments of a projection document
 	 */
 	protected SegmentUpdater(String segmentCategory) {
+		this(segmentCategory, null);
+	}
+
+	/**
+	 * Creates the segment updater for the given category.
+	 *
+	 * @param segmentCategory the position category used for managing the segments of a projection document
+	 * @param mapping the projection mapping to inform about segment changes, or <code>null</code>
+	 * @since 3.15
+	 */
+	SegmentUpdater(String segmentCategory, ProjectionMapping mapping) {
 		super(segmentCategory);
+		fMapping= mapping;
 	}
 
 	@Override
@@ -60,6 +74,9 @@ class SegmentUpdater extends DefaultPositionUpdater {
 			fReplaceLength= (event.getText() == null ? 0 : event.getText().length());
 			fDocument= event.getDocument();
 
+			int lengthDelta= 0;
+			boolean isDeleted= false;
+
 			for (int i= 0; i < category.length; i++) {
 
 				fPosition= category[i];
@@ -76,10 +93,21 @@ class SegmentUpdater extends DefaultPositionUpdater {
 
 				if (notDeleted()) {
 					adaptToReplace();
+					lengthDelta += fPosition.length - fOriginalPosition.length;
+				} else {
+					isDeleted= true;
 				}
 
 			}
 
+			if (fMapping != null) {
+				if (isDeleted) {
+					fMapping.projectionChanged();
+				} else {
+					fMapping.segmentsUpdated(lengthDelta);
+				}
+			}
+
 		} catch (BadPositionCategoryException x) {
 			// do nothing
 		}
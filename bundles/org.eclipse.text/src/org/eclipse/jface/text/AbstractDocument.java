@@ -30,6 +30,9 @@ import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.SafeRunner;
 
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
 
 /**
  * Abstract default implementation of <code>IDocument</code> and its extension
@@ -635,27 +638,36 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 						continue;
 					}
 				}
+				long start= KeystrokeTrace.start();
 				try {
 					p.documentAboutToBeChanged(event);
 				} catch (Exception ex) {
 					log(ex);
+				} finally {
+					KeystrokeTrace.record(Phase.DOCUMENT_LISTENERS, p, start);
 				}
 			}
 		}
 
 		for (IDocumentListener listener : fPrenotifiedDocumentListeners) {
+			long start= KeystrokeTrace.start();
 			try {
 				listener.documentAboutToBeChanged(event);
 			} catch (Exception ex) {
 				log(ex);
+			} finally {
+				KeystrokeTrace.record(Phase.DOCUMENT_LISTENERS, listener, start);
 			}
 		}
 
 		for (IDocumentListener listener : fDocumentListeners) {
+			long start= KeystrokeTrace.start();
 			try {
 				listener.documentAboutToBeChanged(event);
 			} catch (Exception ex) {
 				log(ex);
+			} finally {
+				KeystrokeTrace.record(Phase.DOCUMENT_LISTENERS, listener, start);
 			}
 		}
 
@@ -682,15 +694,20 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 					}
 				}
 
-				if (partitioner instanceof IDocumentPartitionerExtension extension) {
-					IRegion r= extension.documentChanged2(event);
-					if (r != null) {
-						fDocumentPartitioningChangedEvent.setPartitionChange(partitioning, r.getOffset(), r.getLength());
-					}
-				} else {
-					if (partitioner.documentChanged(event)) {
-						fDocumentPartitioningChangedEvent.setPartitionChange(partitioning, 0, event.getDocument().getLength());
+				long start= KeystrokeTrace.start();
+				try {
+					if (partitioner instanceof IDocumentPartitionerExtension extension) {
+						IRegion r= extension.documentChanged2(event);
+						if (r != null) {
+							fDocumentPartitioningChangedEvent.setPartitionChange(partitioning, r.getOffset(), r.getLength());
+						}
+					} else {
+						if (partitioner.documentChanged(event)) {
+							fDocumentPartitioningChangedEvent.setPartitionChange(partitioning, 0, event.getDocument().getLength());
+						}
 					}
+				} finally {
+					KeystrokeTrace.record(Phase.DOCUMENT_LISTENERS, partitioner, start);
 				}
 			}
 		}
@@ -750,18 +767,24 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		}
 
 		for (IDocumentListener listener : fPrenotifiedDocumentListeners) {
+			long start= KeystrokeTrace.start();
 			try {
 				listener.documentChanged(event);
 			} catch (Exception ex) {
 				log(ex);
+			} finally {
+				KeystrokeTrace.record(Phase.DOCUMENT_LISTENERS, listener, start);
 			}
 		}
 
 		for (IDocumentListener listener : fDocumentListeners) {
+			long start= KeystrokeTrace.start();
 			try {
 				listener.documentChanged(event);
 			} catch (Exception ex) {
 				log(ex);
+			} finally {
+				KeystrokeTrace.record(Phase.DOCUMENT_LISTENERS, listener, start);
 			}
 		}
 
@@ -1183,7 +1206,12 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 */
 	protected void updatePositions(DocumentEvent event) {
 		for(IPositionUpdater u: fPositionUpdaters) {
-			u.update(event);
+			long start= KeystrokeTrace.start();
+			try {
+				u.update(event);
+			} finally {
+				KeystrokeTrace.record(Phase.POSITION_UPDATERS, u, start);
+			}
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.jface.text;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -164,24 +166,8 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 				throw new BadLocationException();
 			}
 
-			int patternFlags= 0;
-
-			if (regExSearch) {
-				patternFlags |= Pattern.MULTILINE;
-				findString= substituteLinebreak(findString);
-			}
-
-			if (!caseSensitive) {
-				patternFlags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
-			}
-
-			if (!regExSearch) {
-				findString= asRegPattern(findString);
-			}
-
-			if (wholeWord) {
-				findString= "\\b" + findString + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
-			}
+			int patternFlags= toPatternFlags(caseSensitive, regExSearch);
+			findString= toPattern(findString, wholeWord, regExSearch);
 
 			fFindReplaceMatchOffset= startOffset;
 			if (fFindReplaceMatcher != null && fFindReplaceMatcher.pattern().pattern().equals(findString) && fFindReplaceMatcher.pattern().flags() == patternFlags) {
@@ -198,18 +184,7 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 
 		if (operationCode == REPLACE || operationCode == REPLACE_FIND_NEXT) {
 			if (regExSearch) {
-				Pattern pattern= fFindReplaceMatcher.pattern();
-				String prevMatch= fFindReplaceMatcher.group();
-				try {
-					replaceText= interpretReplaceEscapes(replaceText, prevMatch);
-					Matcher replaceTextMatcher= pattern.matcher(prevMatch);
-					replaceText= replaceTextMatcher.replaceFirst(replaceText);
-				} catch (IndexOutOfBoundsException | IllegalArgumentException ex) {
-					// These exceptions are thrown by Matcher#replaceFirst(), capturing information about
-					// invalid regular expression patterns, such as unfinished character escape sequences
-					// at the end of the pattern
-					throw new PatternSyntaxException(ex.getLocalizedMessage(), replaceText, -1);
-				}
+				replaceText= expandReplaceText(fFindReplaceMatcher.pattern(), fFindReplaceMatcher.group(), replaceText);
 			}
 
 			int offset= fFindReplaceMatcher.start();
@@ -277,6 +252,229 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 		return null;
 	}
 
+	/**
+	 * Returns the regions of all matches of a given string in a range of this adapter's document,
+	 * found in a single forward scan. Unlike repeated calls to
+	 * {@link #find(int, String, boolean, boolean, boolean, boolean)} this method neither changes
+	 * the state of this adapter nor walks the document through its {@link CharSequence} view,
+	 * which makes it suited for operations on all matches like "Select All".
+	 * <p>
+	 * Empty matches are skipped. A match must lie completely inside the given range, the text
+	 * around the range is only consulted for look-around and word boundaries.
+	 * </p>
+	 *
+	 * @param offset the offset of the range to search
+	 * @param length the length of the range to search
+	 * @param findString the string to find
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param wholeWord indicates whether the findString should be limited by white spaces as
+	 * 			defined by Character.isWhiteSpace. Must not be used in combination with <code>regExSearch</code>.
+	 * @param regExSearch if <code>true</code> findString represents a regular expression
+	 * 			Must not be used in combination with <code>wholeWord</code>.
+	 * @return the regions of the matches in ascending order, an empty array if there was no match
+	 * @throws BadLocationException if the range is not a valid range of the document
+	 * @throws PatternSyntaxException if a regular expression has invalid syntax
+	 * @since 3.15
+	 */
+	public IRegion[] findAll(int offset, int length, String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) throws BadLocationException {
+		Matcher matcher= createRangeMatcher(offset, length, findString, caseSensitive, wholeWord, regExSearch);
+		if (matcher == null) {
+			return new IRegion[0];
+		}
+
+		List<IRegion> matches= new ArrayList<>();
+		try {
+			while (matcher.find()) {
+				if (matcher.end() > matcher.start()) {
+					matches.add(new Region(matcher.start(), matcher.end() - matcher.start()));
+				}
+			}
+		} catch (StackOverflowError e) {
+			String message= TextMessages.getString("FindReplaceDocumentAdapter.patternTooComplex"); //$NON-NLS-1$
+			throw new PatternSyntaxException(message, findString, -1);
+		}
+		return matches.toArray(new IRegion[matches.size()]);
+	}
+
+	/**
+	 * Replaces all matches of a given string in a range of this adapter's document. The matches
+	 * are collected in a single forward scan, so the document is not searched again after each
+	 * replacement and text inserted by a replacement is never matched itself. The matches are then
+	 * replaced in ascending order, one document change per match, which keeps the positions between
+	 * the matches and is the order a {@link DocumentRewriteSessionType#SEQUENTIAL sequential}
+	 * rewrite session handles best. Callers that want the replacements to form a single undoable
+	 * change should wrap the call into a {@link DocumentRewriteSession}.
+	 * <p>
+	 * Empty matches are skipped. If <code>regExSearch</code> is <code>true</code>, the replace
+	 * text is interpreted for each match as in
+	 * {@link #replace(String, boolean)}. Calling this method resets the state of this adapter, so a
+	 * subsequent {@link #replace(String, boolean)} must be preceded by a new find.
+	 * </p>
+	 *
+	 * @param offset the offset of the range to search
+	 * @param length the length of the range to search
+	 * @param findString the string to find
+	 * @param replaceText the replacement text
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param wholeWord indicates whether the findString should be limited by white spaces as
+	 * 			defined by Character.isWhiteSpace. Must not be used in combination with <code>regExSearch</code>.
+	 * @param regExSearch if <code>true</code> findString represents a regular expression
+	 * 			Must not be used in combination with <code>wholeWord</code>.
+	 * @return the regions of the replacement texts in the modified document in ascending order, an
+	 *         empty array if there was no match
+	 * @throws BadLocationException if the range is not a valid range of the document
+	 * @throws PatternSyntaxException if a regular expression or the replace text has invalid syntax
+	 * @since 3.15
+	 */
+	public IRegion[] replaceAll(int offset, int length, String findString, String replaceText, boolean caseSensitive, boolean wholeWord, boolean regExSearch) throws BadLocationException {
+		Matcher matcher= createRangeMatcher(offset, length, findString, caseSensitive, wholeWord, regExSearch);
+		if (matcher == null) {
+			return new IRegion[0];
+		}
+
+		List<String> replacements= new ArrayList<>();
+		List<IRegion> matches= new ArrayList<>();
+		try {
+			while (matcher.find()) {
+				int matchOffset= matcher.start();
+				int matchLength= matcher.end() - matchOffset;
+				if (matchLength == 0) {
+					continue;
+				}
+
+				String replacement= regExSearch ? expandReplaceText(matcher.pattern(), matcher.group(), replaceText) : replaceText;
+				if (fDocument instanceof IRepairableDocumentExtension
+						&& ((IRepairableDocumentExtension)fDocument).isLineInformationRepairNeeded(matchOffset, matchLength, replacement)) {
+					String message= TextMessages.getString("FindReplaceDocumentAdapter.incompatibleLineDelimiter"); //$NON-NLS-1$
+					throw new PatternSyntaxException(message, replacement, matchOffset);
+				}
+
+				matches.add(new Region(matchOffset, matchLength));
+				replacements.add(replacement);
+			}
+		} catch (StackOverflowError e) {
+			String message= TextMessages.getString("FindReplaceDocumentAdapter.patternTooComplex"); //$NON-NLS-1$
+			throw new PatternSyntaxException(message, findString, -1);
+		}
+
+		IRegion[] replaced= new IRegion[matches.size()];
+		if (replaced.length > 0) {
+			fFindReplaceState= null;
+		}
+		int delta= 0;
+		for (int i= 0; i < replaced.length; i++) {
+			IRegion match= matches.get(i);
+			String replacement= replacements.get(i);
+			fDocument.replace(match.getOffset() + delta, match.getLength(), replacement);
+			replaced[i]= new Region(match.getOffset() + delta, replacement.length());
+			delta+= replacement.length() - match.getLength();
+		}
+		return replaced;
+	}
+
+	/**
+	 * Creates a matcher for the given search criteria that is restricted to the given range of a
+	 * snapshot of the document.
+	 *
+	 * @param offset the offset of the range
+	 * @param length the length of the range
+	 * @param findString the string to find
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param wholeWord indicates whether the findString should be limited by word boundaries
+	 * @param regExSearch if <code>true</code> findString represents a regular expression
+	 * @return the matcher or <code>null</code> if the find string is empty
+	 * @throws BadLocationException if the range is not a valid range of the document
+	 * @since 3.15
+	 */
+	private Matcher createRangeMatcher(int offset, int length, String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) throws BadLocationException {
+		Assert.isTrue(!(regExSearch && wholeWord));
+
+		if (findString == null || findString.isEmpty()) {
+			return null;
+		}
+
+		String text= fDocument.get();
+		if (offset < 0 || length < 0 || offset + length > text.length()) {
+			throw new BadLocationException();
+		}
+
+		Pattern pattern= Pattern.compile(toPattern(findString, wholeWord, regExSearch), toPatternFlags(caseSensitive, regExSearch));
+		Matcher matcher= pattern.matcher(text);
+		matcher.region(offset, offset + length);
+		matcher.useTransparentBounds(true);
+		matcher.useAnchoringBounds(false);
+		return matcher;
+	}
+
+	/**
+	 * Returns the flags of the pattern for the given search criteria.
+	 *
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param regExSearch if <code>true</code> the find string represents a regular expression
+	 * @return the pattern flags
+	 * @since 3.15
+	 */
+	private static int toPatternFlags(boolean caseSensitive, boolean regExSearch) {
+		int patternFlags= 0;
+
+		if (regExSearch) {
+			patternFlags |= Pattern.MULTILINE;
+		}
+
+		if (!caseSensitive) {
+			patternFlags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+		}
+
+		return patternFlags;
+	}
+
+	/**
+	 * Returns the regular expression for the given find string and search criteria.
+	 *
+	 * @param findString the string to find
+	 * @param wholeWord indicates whether the findString should be limited by word boundaries
+	 * @param regExSearch if <code>true</code> findString represents a regular expression
+	 * @return the regular expression
+	 * @throws PatternSyntaxException if \R is used at an illegal position
+	 * @since 3.15
+	 */
+	private String toPattern(String findString, boolean wholeWord, boolean regExSearch) throws PatternSyntaxException {
+		if (regExSearch) {
+			findString= substituteLinebreak(findString);
+		} else {
+			findString= asRegPattern(findString);
+		}
+
+		if (wholeWord) {
+			findString= "\\b" + findString + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		return findString;
+	}
+
+	/**
+	 * Computes the text that replaces a regular expression match.
+	 *
+	 * @param pattern the pattern that produced the match
+	 * @param match the matched text
+	 * @param replaceText the replace text, possibly containing escapes and group references
+	 * @return the text to replace the match with
+	 * @throws PatternSyntaxException if the replace text has invalid syntax
+	 * @since 3.15
+	 */
+	private String expandReplaceText(Pattern pattern, String match, String replaceText) throws PatternSyntaxException {
+		try {
+			String interpreted= interpretReplaceEscapes(replaceText, match);
+			Matcher replaceTextMatcher= pattern.matcher(match);
+			return replaceTextMatcher.replaceFirst(interpreted);
+		} catch (IndexOutOfBoundsException | IllegalArgumentException ex) {
+			// These exceptions are thrown by Matcher#replaceFirst(), capturing information about
+			// invalid regular expression patterns, such as unfinished character escape sequences
+			// at the end of the pattern
+			throw new PatternSyntaxException(ex.getLocalizedMessage(), replaceText, -1);
+		}
+	}
+
 	/**
 	 * Substitutes \R in a regex find pattern with {@code (?>\r\n?|\n)}
 	 *
@@ -38,6 +38,12 @@ import org.eclipse.jface.text.IDocument;
  */
 public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 
+	/**
+	 * Whether to skip the rules that can't match the next character, see
+	 * {@link RuleDispatchTable}.
+	 */
+	private static final boolean DISPATCH_RULES= !"false".equalsIgnoreCase(System.getProperty("org.eclipse.jface.text.rules.dispatch")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	/** The list of rules of this scanner */
 	protected IRule[] fRules;
 	/** The token to be returned by default if no rule fires */
@@ -56,6 +62,8 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 	protected int fColumn;
 	/** Internal setting for the un-initialized column cache. */
 	protected static final int UNDEFINED= -1;
+	/** The rules that can match by next character, <code>null</code> if not yet computed */
+	private RuleDispatchTable fDispatchTable;
 
 	/**
 	 * Creates a new rule based scanner which does not have any rule.
@@ -170,8 +178,18 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 		fColumn= UNDEFINED;
 
 		if (fRules != null) {
-			for (IRule fRule : fRules) {
-				IToken token= (fRule.evaluate(this));
+			IRule[] rules= fRules;
+			if (DISPATCH_RULES && rules.length > 1) {
+				// fRules is protected, subclasses may have changed it
+				if (fDispatchTable == null || !fDispatchTable.isFor(rules)) {
+					fDispatchTable= new RuleDispatchTable(rules);
+				}
+				int c= read();
+				unread();
+				rules= fDispatchTable.getRules(c);
+			}
+			for (IRule rule : rules) {
+				IToken token= (rule.evaluate(this));
 				if (!token.isUndefined()) {
 					return token;
 				}
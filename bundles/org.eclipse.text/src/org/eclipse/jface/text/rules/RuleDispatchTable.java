@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Tells a {@link RuleBasedScanner} which of its rules can match at the current position, given
+ * the next character.
+ * <p>
+ * The standard rules only match if the first character they read is a particular character, or
+ * is accepted by their detector. For ASCII characters, the table lists the rules that can match,
+ * in their original order, and leaves out the others: evaluating them would just read the
+ * character, unread it, and return an undefined token. Rules of other classes, including
+ * subclasses of the standard rules, are always listed, as are all rules for other characters.
+ * The detectors of the rules are assumed to depend on the given character only.
+ * </p>
+ */
+final class RuleDispatchTable {
+
+	/** The number of characters having a table entry. */
+	private static final int TABLE_SIZE= 128;
+
+	/** The rules of the scanner, copied. */
+	private final IRule[] fRules;
+
+	/** The rules that can match, by first character, computed on demand. */
+	private final IRule[][] fTable= new IRule[TABLE_SIZE][];
+
+	/**
+	 * Creates a table for the given rules.
+	 *
+	 * @param rules the rules of the scanner
+	 */
+	RuleDispatchTable(IRule[] rules) {
+		fRules= rules.clone();
+	}
+
+	/**
+	 * Returns whether this table was created for the given rules.
+	 *
+	 * @param rules the rules of the scanner
+	 * @return <code>true</code> if the table is up to date
+	 */
+	boolean isFor(IRule[] rules) {
+		if (rules.length != fRules.length) {
+			return false;
+		}
+		for (int i= 0; i < rules.length; i++) {
+			if (rules[i] != fRules[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the rules that can match if the given character is read next.
+	 *
+	 * @param c the next character, or {@link ICharacterScanner#EOF}
+	 * @return the rules to evaluate, in order
+	 */
+	IRule[] getRules(int c) {
+		if (c < 0 || c >= TABLE_SIZE) {
+			return fRules;
+		}
+		IRule[] rules= fTable[c];
+		if (rules == null) {
+			List<IRule> candidates= new ArrayList<>(fRules.length);
+			for (IRule rule : fRules) {
+				if (canStartWith(rule, (char) c)) {
+					candidates.add(rule);
+				}
+			}
+			rules= candidates.size() == fRules.length ? fRules : candidates.toArray(new IRule[candidates.size()]);
+			fTable[c]= rules;
+		}
+		return rules;
+	}
+
+	/**
+	 * Returns whether the given rule can match if the given character is read first.
+	 *
+	 * @param rule the rule
+	 * @param c the first character
+	 * @return <code>false</code> if the rule is known not to match
+	 */
+	private static boolean canStartWith(IRule rule, char c) {
+		Class<?> type= rule.getClass();
+		if (type == PatternRule.class || type == SingleLineRule.class || type == MultiLineRule.class
+				|| type == EndOfLineRule.class || type == WordPatternRule.class) {
+			return ((PatternRule) rule).fStartSequence[0] == c;
+		}
+		if (type == WordRule.class) {
+			return ((WordRule) rule).fDetector.isWordStart(c);
+		}
+		if (type == WhitespaceRule.class) {
+			return ((WhitespaceRule) rule).fDetector.isWhitespace(c);
+		}
+		if (type == NumberRule.class) {
+			return Character.isDigit(c);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,425 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.internal;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.core.runtime.ILog;
+
+/**
+ * Records how long each keystroke in a text viewer takes, from the key event
+ * until the text widget has painted the result, split into phases: verify key
+ * listeners, auto edit strategies, document listeners, position updaters,
+ * presentation reconciling, painters and rulers. The time of each phase is
+ * attributed to the classes of the listeners, strategies and painters that
+ * were called.
+ * <p>
+ * Keystrokes are only traced if the system property
+ * <code>org.eclipse.text.traceKeystrokes</code> is set to <code>true</code>.
+ * Otherwise {@link #start()} returns <code>0</code> and
+ * {@link #record(Phase, Object, long)} returns immediately, so the
+ * instrumentation costs a static field read per call site. When enabled, the
+ * last <code>org.eclipse.text.traceKeystrokes.size</code> keystrokes (default
+ * 1000) are kept in a ring buffer, the trace is registered as the platform MBean
+ * <code>org.eclipse.text:type=KeystrokeTrace</code>, and keystrokes taking
+ * longer than <code>org.eclipse.text.traceKeystrokes.slowMillis</code>
+ * milliseconds, if set, are logged with their phases and contributors.
+ * </p>
+ * <p>
+ * The times of the phases exclude the phases nested in them, for example the
+ * presentation reconciling triggered by a document listener. Only the thread
+ * that received the key event is traced; all work it does until the widget is
+ * painted counts towards the keystroke.
+ * </p>
+ * <p>
+ * Typical instrumentation:
+ * </p>
+ *
+ * <pre>
+ * long start= KeystrokeTrace.start();
+ * listener.documentChanged(event);
+ * KeystrokeTrace.record(KeystrokeTrace.Phase.DOCUMENT_LISTENERS, listener, start);
+ * </pre>
+ */
+public final class KeystrokeTrace implements KeystrokeTraceMXBean {
+
+	/**
+	 * Whether keystrokes are traced.
+	 */
+	public static final boolean ENABLED= Boolean.getBoolean("org.eclipse.text.traceKeystrokes"); //$NON-NLS-1$
+
+	/** The number of keystrokes kept. */
+	private static final int CAPACITY= Math.max(1, Integer.getInteger("org.eclipse.text.traceKeystrokes.size", 1000).intValue()); //$NON-NLS-1$
+
+	/** The time in nanoseconds above which keystrokes are logged, <code>0</code> to log none. */
+	private static final long SLOW_NANOS= TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("org.eclipse.text.traceKeystrokes.slowMillis", 0).intValue()); //$NON-NLS-1$
+
+	/** The name of the MBean exposing the trace. */
+	public static final String OBJECT_NAME= "org.eclipse.text:type=KeystrokeTrace"; //$NON-NLS-1$
+
+	/** The number of contributors listed per keystroke in reports. */
+	private static final int TOP_CONTRIBUTORS= 5;
+
+	/**
+	 * The phases of a keystroke.
+	 */
+	public enum Phase {
+		/** The verify key listeners of the viewer. */
+		VERIFY_KEY,
+		/** The auto edit strategies. */
+		AUTO_EDIT,
+		/** The document partitioners and listeners. */
+		DOCUMENT_LISTENERS,
+		/** The position updaters of the document. */
+		POSITION_UPDATERS,
+		/** The damagers and repairers of the presentation reconciler. */
+		PRESENTATION,
+		/** The painters of the viewer. */
+		PAINTERS,
+		/** The painting of the vertical and overview rulers. */
+		RULERS,
+		/** The whole keystroke, from the key event to the painted text widget. */
+		TOTAL
+	}
+
+	/**
+	 * The timings of one keystroke.
+	 */
+	public static final class Keystroke {
+
+		private final long time;
+
+		private final int keyCode;
+
+		private final char character;
+
+		private final long[] nanos= new long[Phase.values().length];
+
+		/** The nanoseconds spent per phase and class. */
+		private final Map<String, long[]> contributors= new HashMap<>();
+
+		Keystroke(long time, int keyCode, char character) {
+			this.time= time;
+			this.keyCode= keyCode;
+			this.character= character;
+		}
+
+		/**
+		 * @return the time of the key event in milliseconds since the epoch
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * @return the SWT key code of the key event
+		 */
+		public int getKeyCode() {
+			return keyCode;
+		}
+
+		/**
+		 * @return the character of the key event
+		 */
+		public char getCharacter() {
+			return character;
+		}
+
+		/**
+		 * @param phase the phase
+		 * @return the time spent in the phase in nanoseconds
+		 */
+		public long getNanos(Phase phase) {
+			return nanos[phase.ordinal()];
+		}
+
+		/**
+		 * @return the names of the phases and classes the time was spent in, by
+		 *         descending time in nanoseconds
+		 */
+		public List<Map.Entry<String, Long>> getContributors() {
+			List<Map.Entry<String, Long>> result= new ArrayList<>(contributors.size());
+			for (Map.Entry<String, long[]> entry : contributors.entrySet()) {
+				result.add(Map.entry(entry.getKey(), Long.valueOf(entry.getValue()[0])));
+			}
+			result.sort(Map.Entry.<String, Long> comparingByValue().reversed());
+			return result;
+		}
+
+		void add(Phase phase, Object contributor, long elapsed) {
+			nanos[phase.ordinal()]+= elapsed;
+			String name= phase.name() + ' ' + (contributor == null ? "null" : contributor.getClass().getName()); //$NON-NLS-1$
+			contributors.computeIfAbsent(name, n -> new long[1])[0]+= elapsed;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder= new StringBuilder();
+			builder.append(String.format("keystroke %s (key code %d) took %.3f ms:", //$NON-NLS-1$
+					Character.isISOControl(character) ? "\\u" + Integer.toHexString(character) : String.valueOf(character), //$NON-NLS-1$
+					Integer.valueOf(keyCode), Double.valueOf(getNanos(Phase.TOTAL) / 1e6)));
+			for (Phase phase : Phase.values()) {
+				if (phase != Phase.TOTAL && nanos[phase.ordinal()] > 0) {
+					builder.append(String.format(" %s %.3f ms", phase, Double.valueOf(nanos[phase.ordinal()] / 1e6))); //$NON-NLS-1$
+				}
+			}
+			List<Map.Entry<String, Long>> top= getContributors();
+			for (Map.Entry<String, Long> entry : top.subList(0, Math.min(TOP_CONTRIBUTORS, top.size()))) {
+				builder.append(String.format("%n  %10.3f ms  %s", Double.valueOf(entry.getValue().longValue() / 1e6), entry.getKey())); //$NON-NLS-1$
+			}
+			return builder.toString();
+		}
+	}
+
+	private static final KeystrokeTrace INSTANCE= new KeystrokeTrace(CAPACITY, SLOW_NANOS, System::nanoTime);
+
+	/** The number of keystrokes kept. */
+	private final int capacity;
+
+	/** The time in nanoseconds above which keystrokes are logged, <code>0</code> to log none. */
+	private final long slowNanos;
+
+	/** The source of the current time in nanoseconds. */
+	private final LongSupplier clock;
+
+	/** The recorded keystrokes, a ring buffer. Guarded by <code>this</code>. */
+	private final Keystroke[] keystrokes;
+
+	/** The number of keystrokes recorded. Guarded by <code>this</code>. */
+	private long count;
+
+	// The state of the current keystroke, only accessed by its thread
+
+	private volatile Thread thread;
+
+	private Keystroke current;
+
+	private long startNanos;
+
+	private long lastNanos;
+
+	/** The time spent in the phases nested in each level of phases. */
+	private long[] nestedNanos= new long[16];
+
+	private int depth;
+
+	/**
+	 * Creates a keystroke trace. Only the {@link #getDefault() default trace} is fed by the
+	 * instrumentation, other instances are for tests.
+	 *
+	 * @param capacity the number of keystrokes kept
+	 * @param slowNanos the time in nanoseconds above which keystrokes are logged,
+	 *            <code>0</code> to log none
+	 * @param clock the source of the current time in nanoseconds, must not return <code>0</code>
+	 */
+	KeystrokeTrace(int capacity, long slowNanos, LongSupplier clock) {
+		this.capacity= capacity;
+		this.slowNanos= slowNanos;
+		this.clock= clock;
+		keystrokes= new Keystroke[capacity];
+	}
+
+	/**
+	 * @return the keystroke trace
+	 */
+	public static KeystrokeTrace getDefault() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts tracing a keystroke, finishing the previous one if it wasn't
+	 * painted. Must be called from the thread that processes the key event.
+	 *
+	 * @param keyCode the SWT key code of the key event
+	 * @param character the character of the key event
+	 */
+	public static void beginKeystroke(int keyCode, char character) {
+		if (ENABLED) {
+			INSTANCE.begin(keyCode, character);
+		}
+	}
+
+	/**
+	 * Finishes tracing the current keystroke once the text widget has been
+	 * painted. Does nothing if no keystroke is traced by the calling thread.
+	 */
+	public static void endKeystroke() {
+		if (ENABLED) {
+			INSTANCE.end();
+		}
+	}
+
+	/**
+	 * Starts the measurement of a phase of the current keystroke.
+	 *
+	 * @return the start time to pass to {@link #record(Phase, Object, long)},
+	 *         <code>0</code> if the calling thread doesn't trace a keystroke
+	 */
+	public static long start() {
+		return ENABLED ? INSTANCE.startPhase() : 0;
+	}
+
+	/**
+	 * Records the time elapsed since the start of a phase of the current
+	 * keystroke.
+	 *
+	 * @param phase the phase
+	 * @param contributor the listener, strategy or painter the time is attributed to
+	 * @param start the value returned by {@link #start()}
+	 */
+	public static void record(Phase phase, Object contributor, long start) {
+		if (start != 0) {
+			INSTANCE.recordPhase(phase, contributor, start);
+		}
+	}
+
+	void begin(int keyCode, char character) {
+		finish(lastNanos);
+		current= new Keystroke(System.currentTimeMillis(), keyCode, character);
+		depth= 0;
+		startNanos= clock.getAsLong();
+		lastNanos= startNanos;
+		thread= Thread.currentThread();
+	}
+
+	void end() {
+		if (thread == Thread.currentThread()) {
+			finish(clock.getAsLong());
+		}
+	}
+
+	long startPhase() {
+		if (thread != Thread.currentThread()) {
+			return 0;
+		}
+		if (++depth == nestedNanos.length) {
+			nestedNanos= Arrays.copyOf(nestedNanos, depth * 2);
+		}
+		nestedNanos[depth]= 0;
+		return clock.getAsLong();
+	}
+
+	void recordPhase(Phase phase, Object contributor, long start) {
+		if (start == 0 || thread != Thread.currentThread() || depth <= 0) {
+			// the keystroke finished meanwhile
+			return;
+		}
+		long now= clock.getAsLong();
+		long elapsed= now - start;
+		long nested= nestedNanos[depth--];
+		nestedNanos[depth]+= elapsed;
+		current.add(phase, contributor, Math.max(0, elapsed - nested));
+		lastNanos= now;
+	}
+
+	private void finish(long endNanos) {
+		Keystroke keystroke= current;
+		if (keystroke == null) {
+			return;
+		}
+		thread= null;
+		current= null;
+		keystroke.nanos[Phase.TOTAL.ordinal()]= endNanos - startNanos;
+		synchronized (this) {
+			keystrokes[(int) (count++ % capacity)]= keystroke;
+		}
+		if (slowNanos > 0 && keystroke.getNanos(Phase.TOTAL) > slowNanos) {
+			ILog.of(KeystrokeTrace.class).warn("Slow " + keystroke); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @return the recorded keystrokes, oldest first
+	 */
+	public synchronized List<Keystroke> getKeystrokes() {
+		int size= (int) Math.min(count, capacity);
+		List<Keystroke> result= new ArrayList<>(size);
+		for (long i= count - size; i < count; i++) {
+			result.add(keystrokes[(int) (i % capacity)]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a percentile of the time spent in a phase by the recorded
+	 * keystrokes.
+	 *
+	 * @param phase the phase
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the time in nanoseconds, <code>0</code> if no keystroke was recorded
+	 */
+	public long getPercentileNanos(Phase phase, double percentile) {
+		List<Keystroke> recorded= getKeystrokes();
+		if (recorded.isEmpty()) {
+			return 0;
+		}
+		long[] values= new long[recorded.size()];
+		for (int i= 0; i < values.length; i++) {
+			values[i]= recorded.get(i).getNanos(phase);
+		}
+		Arrays.sort(values);
+		int rank= (int) Math.ceil(values.length * percentile / 100);
+		return values[Math.max(0, Math.min(values.length, rank) - 1)];
+	}
+
+	@Override
+	public synchronized long getKeystrokeCount() {
+		return count;
+	}
+
+	@Override
+	public double getPercentileMillis(String phase, double percentile) {
+		return getPercentileNanos(Phase.valueOf(phase), percentile) / 1e6;
+	}
+
+	@Override
+	public String getReport() {
+		StringWriter writer= new StringWriter();
+		PrintWriter out= new PrintWriter(writer);
+		out.printf("%-20s %10s %10s %10s %10s%n", "phase", "p50 ms", "p90 ms", "p99 ms", "max ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		for (Phase phase : Phase.values()) {
+			out.printf("%-20s %10.3f %10.3f %10.3f %10.3f%n", phase, //$NON-NLS-1$
+					Double.valueOf(getPercentileNanos(phase, 50) / 1e6), Double.valueOf(getPercentileNanos(phase, 90) / 1e6),
+					Double.valueOf(getPercentileNanos(phase, 99) / 1e6), Double.valueOf(getPercentileNanos(phase, 100) / 1e6));
+		}
+		out.flush();
+		return writer.toString();
+	}
+
+	@Override
+	public String dumpSlowKeystrokes(long thresholdMillis) {
+		long threshold= TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		StringBuilder builder= new StringBuilder();
+		for (Keystroke keystroke : getKeystrokes()) {
+			if (keystroke.getNanos(Phase.TOTAL) >= threshold) {
+				builder.append(keystroke).append(System.lineSeparator());
+			}
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public synchronized void reset() {
+		Arrays.fill(keystrokes, null);
+		count= 0;
+	}
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.internal;
+
+/**
+ * The management interface of the {@link KeystrokeTrace}.
+ */
+public interface KeystrokeTraceMXBean {
+
+	/**
+	 * @return the number of keystrokes recorded since the last reset
+	 */
+	long getKeystrokeCount();
+
+	/**
+	 * Returns a percentile of the time spent in a phase by the recorded
+	 * keystrokes.
+	 *
+	 * @param phase the name of a {@link KeystrokeTrace.Phase}
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the time in milliseconds
+	 */
+	double getPercentileMillis(String phase, double percentile);
+
+	/**
+	 * @return the percentiles of all phases as a table
+	 */
+	String getReport();
+
+	/**
+	 * Returns the phases and the slowest contributors of the recorded
+	 * keystrokes that took at least the given time.
+	 *
+	 * @param thresholdMillis the minimal time of the keystrokes in milliseconds
+	 * @return one entry per keystroke, oldest first
+	 */
+	String dumpSlowKeystrokes(long thresholdMillis);
+
+	/**
+	 * Discards all recorded keystrokes.
+	 */
+	void reset();
+}
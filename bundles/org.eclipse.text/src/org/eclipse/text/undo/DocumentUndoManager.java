@@ -91,6 +91,21 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		/** The replaced text. */
 		protected String fPreservedText;
 
+		/**
+		 * The chunk holding the text and the replaced text once they are compacted,
+		 * <code>null</code> if they are not.
+		 */
+		protected UndoTextStore.Chunk fChunk;
+
+		/** The offset of the compacted text in the chunk, the replaced text follows it. */
+		protected int fChunkOffset;
+
+		/** The length of the compacted text. */
+		protected int fTextLength;
+
+		/** The length of the compacted replaced text. */
+		protected int fPreservedTextLength;
+
 		/** The undo modification stamp. */
 		protected long fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 
@@ -117,6 +132,10 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void reinitialize() {
 			fStart= fEnd= -1;
 			fText= fPreservedText= null;
+			if (fChunk != null) {
+				fChunk.release();
+				fChunk= null;
+			}
 			fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 			fRedoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
@@ -145,11 +164,11 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void undoTextChange() {
 			try {
 				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fText
-							.length(), fPreservedText, fUndoModificationStamp);
+					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, getTextLength(),
+							getPreservedText(), fUndoModificationStamp);
 				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fText.length(),
-							fPreservedText);
+					fDocumentUndoManager.fDocument.replace(fStart, getTextLength(),
+							getPreservedText());
 				}
 			} catch (BadLocationException x) {
 			}
@@ -257,11 +276,13 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 */
 		@Override
 		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
-			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
+			if (isValid() && isAvailable()) {
+				String text= getText();
+				String preservedText= getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
 				undoTextChange();
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.UNDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.UNDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
@@ -273,9 +294,9 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void redoTextChange() {
 			try {
 				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fEnd - fStart, fText, fRedoModificationStamp);
+					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fEnd - fStart, getText(), fRedoModificationStamp);
 				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fEnd - fStart, fText);
+					fDocumentUndoManager.fDocument.replace(fStart, fEnd - fStart, getText());
 				}
 			} catch (BadLocationException x) {
 			}
@@ -291,11 +312,13 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 */
 		@Override
 		public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
-			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
+			if (isValid() && isAvailable()) {
+				String text= getText();
+				String preservedText= getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
 				redoTextChange();
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.REDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.REDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
@@ -337,11 +360,73 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				}
 			} else {
 				updateTextChange();
+				compact();
 				fDocumentUndoManager.fCurrent= createCurrent();
 			}
 			fDocumentUndoManager.resetProcessChangeState();
 		}
 
+		/**
+		 * Compacts the text and the replaced text of this change if they are large.
+		 * Must only be called once the change is complete.
+		 */
+		protected void compact() {
+			if (fChunk == null && fText != null && fPreservedText != null
+					&& UndoTextStore.isWorthCompacting((long) fText.length() + fPreservedText.length())) {
+				fChunk= UndoTextStore.getDefault().store(List.of(fText, fPreservedText));
+				fChunkOffset= 0;
+				fTextLength= fText.length();
+				fPreservedTextLength= fPreservedText.length();
+				fText= fPreservedText= null;
+			}
+		}
+
+		/**
+		 * Returns the newly inserted text.
+		 *
+		 * @return the text, or <code>null</code> if not set or not available
+		 */
+		protected String getText() {
+			if (fChunk != null) {
+				String content= fChunk.getContent();
+				return content == null ? null : content.substring(fChunkOffset, fChunkOffset + fTextLength);
+			}
+			return fText;
+		}
+
+		/**
+		 * Returns the length of the newly inserted text without restoring it.
+		 *
+		 * @return the length of the text
+		 */
+		protected int getTextLength() {
+			return fChunk != null ? fTextLength : fText.length();
+		}
+
+		/**
+		 * Returns the replaced text.
+		 *
+		 * @return the replaced text, or <code>null</code> if not set or not available
+		 */
+		protected String getPreservedText() {
+			if (fChunk != null) {
+				String content= fChunk.getContent();
+				int offset= fChunkOffset + fTextLength;
+				return content == null ? null : content.substring(offset, offset + fPreservedTextLength);
+			}
+			return fPreservedText;
+		}
+
+		/**
+		 * Checks whether the texts of this change can be restored. This is only
+		 * not the case if they were compacted and can't be read back.
+		 *
+		 * @return <code>true</code> if the texts are available
+		 */
+		protected boolean isAvailable() {
+			return fChunk == null || fChunk.getContent() != null;
+		}
+
 		/**
 		 * Updates the text from the buffers without resetting the buffers or adding
 		 * anything to the stack.
@@ -375,7 +460,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 * @return <code>true</code> if the change is valid for undo or redo
 		 */
 		protected boolean isValid() {
-			return fStart > -1 && fEnd > -1 && fText != null;
+			return fStart > -1 && fEnd > -1 && (fText != null || fChunk != null);
 		}
 
 		@Override
@@ -395,11 +480,11 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			text.append(fEnd);
 			text.append(delimiter);
 			text.append("text: '"); //$NON-NLS-1$
-			text.append(fText);
+			text.append(getText());
 			text.append('\'');
 			text.append(delimiter);
 			text.append("preservedText: '"); //$NON-NLS-1$
-			text.append(fPreservedText);
+			text.append(getPreservedText());
 			text.append('\'');
 			return text.toString();
 		}
@@ -433,6 +518,9 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		/** The list of individual changes */
 		private final List<UndoableTextChange> fChanges= new ArrayList<>();
 
+		/** The chunk shared by the individual changes once they are packed, <code>null</code> if they are not. */
+		private UndoTextStore.Chunk fPackedChunk;
+
 		/**
 		 * Creates a new compound text change.
 		 *
@@ -456,10 +544,14 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 
 			int size= fChanges.size();
 			if (size > 0) {
+				if (!isAvailable()) {
+					return IOperationHistory.OPERATION_INVALID_STATUS;
+				}
+
 				UndoableTextChange c;
 
 				c= fChanges.get(0);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getPreservedText(), c.getText(), uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
 
 				DocumentRewriteSession rewriteSession= null;
 				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
@@ -477,7 +569,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
 				}
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo,
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getPreservedText(), c.getText(), uiInfo,
 						DocumentUndoEvent.UNDONE, size > 1);
 			}
 			return Status.OK_STATUS;
@@ -488,10 +580,13 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 
 			int size= fChanges.size();
 			if (size > 0) {
+				if (!isAvailable()) {
+					return IOperationHistory.OPERATION_INVALID_STATUS;
+				}
 
 				UndoableTextChange c;
 				c= fChanges.get(size - 1);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getText(), c.getPreservedText(), uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
 
 				DocumentRewriteSession rewriteSession= null;
 				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
@@ -509,7 +604,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
 				}
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.REDONE, size > 1);
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getText(), c.getPreservedText(), uiInfo, DocumentUndoEvent.REDONE, size > 1);
 			}
 
 			return Status.OK_STATUS;
@@ -552,9 +647,61 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				updateTextChange();
 			}
 			fDocumentUndoManager.fCurrent= createCurrent();
+			if (fDocumentUndoManager.fCurrent != this) {
+				// the compound change is complete
+				compact();
+			}
 			fDocumentUndoManager.resetProcessChangeState();
 		}
 
+		/**
+		 * {@inheritDoc}
+		 * Packs the texts of all individual changes into one chunk.
+		 */
+		@Override
+		protected void compact() {
+			if (fPackedChunk != null) {
+				return;
+			}
+			long length= 0;
+			for (UndoableTextChange c : fChanges) {
+				length+= c.fText.length() + c.fPreservedText.length();
+			}
+			if (!UndoTextStore.isWorthCompacting(length) || length > Integer.MAX_VALUE / 3) {
+				return;
+			}
+
+			List<String> texts= new ArrayList<>(2 * fChanges.size());
+			for (UndoableTextChange c : fChanges) {
+				texts.add(c.fText);
+				texts.add(c.fPreservedText);
+			}
+			fPackedChunk= UndoTextStore.getDefault().store(texts);
+			int offset= 0;
+			for (UndoableTextChange c : fChanges) {
+				c.fChunk= fPackedChunk;
+				c.fChunkOffset= offset;
+				c.fTextLength= c.fText.length();
+				c.fPreservedTextLength= c.fPreservedText.length();
+				offset+= c.fTextLength + c.fPreservedTextLength;
+				c.fText= c.fPreservedText= null;
+			}
+		}
+
+		@Override
+		protected boolean isAvailable() {
+			return fPackedChunk == null || fPackedChunk.getContent() != null;
+		}
+
+		@Override
+		public void dispose() {
+			super.dispose();
+			if (fPackedChunk != null) {
+				fPackedChunk.release();
+				fPackedChunk= null;
+			}
+		}
+
 		@Override
 		protected boolean isValid() {
 			return fStart > -1 || !fChanges.isEmpty();
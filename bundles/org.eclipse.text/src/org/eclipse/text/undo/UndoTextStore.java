@@ -0,0 +1,606 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.undo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.core.runtime.ILog;
+
+
+/**
+ * Compact storage for the texts of the document undo history.
+ * <p>
+ * Texts are stored in chunks, encoded in one to three bytes per character like
+ * UTF-8 and deflated unless deflating does not make them smaller. The chunks of all undo managers share a memory budget;
+ * beyond it, the oldest chunks are written to a temporary file and read back
+ * when their content is needed. The decoded content of the chunk used last is
+ * softly cached, so that the changes of a compound change sharing a chunk do
+ * not decode it over and over again.
+ * </p>
+ * <p>
+ * The file is written by a background thread, so storing a chunk never waits for the disk. Once
+ * all spilled chunks are released, the file is truncated; once the released chunks take more
+ * room in the file than the others and than the memory budget, the others are copied to a new
+ * file and the old file is deleted. The file is only readable by its owner where the file system
+ * supports it, and it is deleted when the store is disposed; the shared store is disposed when
+ * the virtual machine shuts down.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+final class UndoTextStore {
+
+	/**
+	 * Texts shorter than this number of characters in total are not worth compacting and are kept
+	 * as strings.
+	 */
+	static final int COMPACT_THRESHOLD= Integer.getInteger("org.eclipse.text.undo.compactThreshold", 16 * 1024).intValue(); //$NON-NLS-1$
+
+	/**
+	 * The number of bytes of chunks to keep in memory, the older chunks are spilled to a temporary
+	 * file. Spilling is disabled if negative.
+	 */
+	private static final long MEMORY_BUDGET= Long.getLong("org.eclipse.text.undo.memoryBudget", 32L * 1024 * 1024).longValue(); //$NON-NLS-1$
+
+	/** The shared store. */
+	private static final UndoTextStore fgDefault= createDefault();
+
+	/**
+	 * Some compacted texts, concatenated.
+	 */
+	final class Chunk {
+
+		/** The number of characters of the content. */
+		private final int fLength;
+
+		/** Whether the data is deflated. */
+		private final boolean fDeflated;
+
+		/** The number of bytes of the data. */
+		private final int fSize;
+
+		/** The data, <code>null</code> if spilled or released. */
+		private byte[] fData;
+
+		/** The offset of the data in the spill file, <code>-1</code> if not spilled. */
+		private long fFileOffset= -1;
+
+		private Chunk(int length, byte[] data, boolean deflated) {
+			fLength= length;
+			fData= data;
+			fSize= data.length;
+			fDeflated= deflated;
+		}
+
+		/**
+		 * Returns the texts of this chunk, concatenated.
+		 *
+		 * @return the content, or <code>null</code> if the chunk is released or its content could
+		 *         not be read back from the spill file
+		 */
+		String getContent() {
+			return UndoTextStore.this.getContent(this);
+		}
+
+		/**
+		 * Releases the storage of this chunk. The content is no longer available afterwards.
+		 */
+		void release() {
+			UndoTextStore.this.release(this);
+		}
+	}
+
+	/** The number of bytes of chunks to keep in memory, no spilling if negative. */
+	private final long fMemoryBudget;
+
+	/** Runs the writing to the spill file. */
+	private final Executor fExecutor;
+
+	/** Serializes the writing to the spill file. */
+	private final Object fWriteLock= new Object();
+
+	/** The chunks kept in memory, oldest first. */
+	private final Set<Chunk> fInMemory= new LinkedHashSet<>();
+
+	/** The number of bytes of the chunks kept in memory. */
+	private long fMemoryUsed;
+
+	/** The spilled chunks that are not released. */
+	private final Set<Chunk> fSpilled= new LinkedHashSet<>();
+
+	/** The number of bytes of the spilled chunks that are not released. */
+	private long fSpilledBytes;
+
+	/** The spill file, <code>null</code> if not yet created. */
+	private Path fSpillFile;
+
+	/** The channel of the spill file, <code>null</code> if not yet created. */
+	private FileChannel fSpillChannel;
+
+	/** The number of bytes written to the spill file. */
+	private long fSpillFileLength;
+
+	/** Whether spilling failed, it is not tried again. */
+	private boolean fSpillFailed;
+
+	/** Whether the store is disposed, nothing is spilled any more. */
+	private boolean fDisposed;
+
+	/** Whether the writing to the spill file is scheduled. */
+	private boolean fWriteScheduled;
+
+	/** The chunk whose content is cached. */
+	private Chunk fCachedChunk;
+
+	/** The cached content. */
+	private SoftReference<String> fCachedContent;
+
+	/**
+	 * Creates a store.
+	 *
+	 * @param memoryBudget the number of bytes of chunks to keep in memory, spilling is disabled if
+	 *            negative
+	 * @param executor runs the writing to the spill file
+	 */
+	UndoTextStore(long memoryBudget, Executor executor) {
+		fMemoryBudget= memoryBudget;
+		fExecutor= executor;
+	}
+
+	private static UndoTextStore createDefault() {
+		UndoTextStore store= new UndoTextStore(MEMORY_BUDGET, createSpillExecutor());
+		Runtime.getRuntime().addShutdownHook(new Thread(store::dispose, "Undo text spill file deletion")); //$NON-NLS-1$
+		return store;
+	}
+
+	private static Executor createSpillExecutor() {
+		ThreadPoolExecutor executor= new ThreadPoolExecutor(1, 1, 10L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread= new Thread(runnable, "Undo text spilling"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Returns the store shared by all undo managers.
+	 *
+	 * @return the shared store
+	 */
+	static UndoTextStore getDefault() {
+		return fgDefault;
+	}
+
+	/**
+	 * Returns whether texts of the given total length are worth compacting.
+	 *
+	 * @param length the number of characters
+	 * @return <code>true</code> if the texts should be compacted
+	 */
+	static boolean isWorthCompacting(long length) {
+		return length >= COMPACT_THRESHOLD;
+	}
+
+	/**
+	 * Stores the given texts, concatenated, in a new chunk.
+	 *
+	 * @param texts the texts to store
+	 * @return the chunk
+	 */
+	Chunk store(Iterable<String> texts) {
+		ByteArrayOutputStream encoded= new ByteArrayOutputStream();
+		byte[] buffer= new byte[3 * 1024];
+		int length= 0;
+		for (String text : texts) {
+			for (int i= 0, n= text.length(); i < n;) {
+				int count= 0;
+				for (; i < n && count < buffer.length - 2; i++)
+					count= encode(text.charAt(i), buffer, count);
+				encoded.write(buffer, 0, count);
+			}
+			length+= text.length();
+		}
+
+		byte[] data= encoded.toByteArray();
+		ByteArrayOutputStream deflated= new ByteArrayOutputStream(data.length / 4);
+		Deflater deflater= new Deflater(Deflater.BEST_SPEED);
+		try (DeflaterOutputStream out= new DeflaterOutputStream(deflated, deflater)) {
+			out.write(data);
+		} catch (IOException e) {
+			// can't happen with an in-memory stream
+			throw new IllegalStateException(e);
+		} finally {
+			deflater.end();
+		}
+
+		Chunk chunk;
+		if (deflated.size() < data.length)
+			chunk= new Chunk(length, deflated.toByteArray(), true);
+		else
+			chunk= new Chunk(length, data, false);
+
+		boolean write;
+		synchronized (this) {
+			fInMemory.add(chunk);
+			fMemoryUsed+= chunk.fSize;
+			write= fMemoryBudget >= 0 && !fSpillFailed && !fDisposed && fMemoryUsed > fMemoryBudget && requestWrite();
+		}
+		if (write)
+			fExecutor.execute(this::write);
+		return chunk;
+	}
+
+	private synchronized String getContent(Chunk chunk) {
+		if (chunk == fCachedChunk) {
+			String content= fCachedContent.get();
+			if (content != null)
+				return content;
+		}
+
+		byte[] data= chunk.fData;
+		if (data == null) {
+			if (chunk.fFileOffset == -1)
+				return null;
+			try {
+				data= new byte[chunk.fSize];
+				ByteBuffer buffer= ByteBuffer.wrap(data);
+				while (buffer.hasRemaining()) {
+					if (fSpillChannel.read(buffer, chunk.fFileOffset + buffer.position()) < 0)
+						throw new IOException("Unexpected end of " + fSpillFile); //$NON-NLS-1$
+				}
+			} catch (IOException e) {
+				ILog.of(UndoTextStore.class).error("Could not read back undo text from " + fSpillFile, e); //$NON-NLS-1$
+				return null;
+			}
+		}
+
+		if (chunk.fDeflated) {
+			try (InflaterInputStream in= new InflaterInputStream(new ByteArrayInputStream(data))) {
+				data= in.readAllBytes();
+			} catch (IOException e) {
+				ILog.of(UndoTextStore.class).error("Could not inflate undo text", e); //$NON-NLS-1$
+				return null;
+			}
+		}
+		String content= decode(data, chunk.fLength);
+
+		fCachedChunk= chunk;
+		fCachedContent= new SoftReference<>(content);
+		return content;
+	}
+
+	/**
+	 * Encodes a character like UTF-8 does, but on its own. Unlike UTF-8, this keeps unpaired
+	 * surrogates, which the texts of changes may have.
+	 *
+	 * @param c the character
+	 * @param buffer the buffer, must have room for three bytes
+	 * @param offset the offset in the buffer
+	 * @return the offset after the encoded character
+	 */
+	private static int encode(char c, byte[] buffer, int offset) {
+		if (c < 0x80) {
+			buffer[offset++]= (byte) c;
+		} else if (c < 0x800) {
+			buffer[offset++]= (byte) (0xC0 | c >> 6);
+			buffer[offset++]= (byte) (0x80 | c & 0x3F);
+		} else {
+			buffer[offset++]= (byte) (0xE0 | c >> 12);
+			buffer[offset++]= (byte) (0x80 | c >> 6 & 0x3F);
+			buffer[offset++]= (byte) (0x80 | c & 0x3F);
+		}
+		return offset;
+	}
+
+	/**
+	 * Decodes the characters encoded by {@link #encode(char, byte[], int)}.
+	 *
+	 * @param data the encoded characters
+	 * @param length the number of characters
+	 * @return the decoded string
+	 */
+	private static String decode(byte[] data, int length) {
+		char[] chars= new char[length];
+		for (int i= 0, offset= 0; i < length; i++) {
+			int b= data[offset++];
+			if (b >= 0) {
+				chars[i]= (char) b;
+			} else if ((b & 0xE0) == 0xC0) {
+				chars[i]= (char) ((b & 0x1F) << 6 | data[offset++] & 0x3F);
+			} else {
+				chars[i]= (char) ((b & 0x0F) << 12 | (data[offset++] & 0x3F) << 6 | data[offset++] & 0x3F);
+			}
+		}
+		return new String(chars);
+	}
+
+	private void release(Chunk chunk) {
+		boolean write= false;
+		synchronized (this) {
+			if (chunk == fCachedChunk) {
+				fCachedChunk= null;
+				fCachedContent= null;
+			}
+			if (fInMemory.remove(chunk)) {
+				fMemoryUsed-= chunk.fSize;
+				chunk.fData= null;
+			} else if (fSpilled.remove(chunk)) {
+				chunk.fFileOffset= -1;
+				fSpilledBytes-= chunk.fSize;
+				write= (fSpilled.isEmpty() || isWorthCompacting()) && requestWrite();
+			}
+		}
+		if (write)
+			fExecutor.execute(this::write);
+	}
+
+	/**
+	 * Returns whether the released chunks take more room in the spill file than the others and
+	 * than the memory budget.
+	 */
+	private boolean isWorthCompacting() {
+		long released= fSpillFileLength - fSpilledBytes;
+		return released > fSpilledBytes && released > fMemoryBudget;
+	}
+
+	/**
+	 * Returns whether the writing to the spill file has to be scheduled, that is unless it is
+	 * scheduled already.
+	 */
+	private boolean requestWrite() {
+		if (fWriteScheduled)
+			return false;
+		fWriteScheduled= true;
+		return true;
+	}
+
+	/**
+	 * Spills the oldest chunks until the chunks kept in memory fit into the budget, then truncates
+	 * or compacts the spill file if worthwhile.
+	 */
+	private void write() {
+		synchronized (fWriteLock) {
+			synchronized (this) {
+				fWriteScheduled= false;
+			}
+			try {
+				spill();
+				compact();
+			} catch (IOException e) {
+				synchronized (this) {
+					fSpillFailed= true;
+				}
+				ILog.of(UndoTextStore.class).error("Could not spill undo text to disk, keeping it in memory", e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Writes the oldest chunks to the spill file until the chunks kept in memory fit into the
+	 * budget. The chunks are written without holding the lock of the store, the chunks released
+	 * meanwhile are left in the file as garbage.
+	 */
+	private void spill() throws IOException {
+		List<Chunk> chunks= new ArrayList<>();
+		List<byte[]> data= new ArrayList<>();
+		FileChannel channel;
+		long offset;
+		synchronized (this) {
+			if (fMemoryBudget < 0 || fSpillFailed || fDisposed)
+				return;
+			long used= fMemoryUsed;
+			for (Iterator<Chunk> iterator= fInMemory.iterator(); used > fMemoryBudget && iterator.hasNext();) {
+				Chunk chunk= iterator.next();
+				chunks.add(chunk);
+				data.add(chunk.fData);
+				used-= chunk.fSize;
+			}
+			if (chunks.isEmpty())
+				return;
+			if (fSpillChannel == null) {
+				fSpillFile= createSpillFile();
+				fSpillChannel= FileChannel.open(fSpillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+			channel= fSpillChannel;
+			offset= fSpillFileLength;
+		}
+
+		long[] offsets= new long[chunks.size()];
+		for (int i= 0; i < offsets.length; i++) {
+			offsets[i]= offset;
+			offset+= writeFully(channel, data.get(i), offset);
+		}
+
+		synchronized (this) {
+			fSpillFileLength= offset;
+			for (int i= 0; i < offsets.length; i++) {
+				Chunk chunk= chunks.get(i);
+				if (fInMemory.remove(chunk)) {
+					chunk.fFileOffset= offsets[i];
+					chunk.fData= null;
+					fMemoryUsed-= chunk.fSize;
+					fSpilled.add(chunk);
+					fSpilledBytes+= chunk.fSize;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Truncates the spill file if all spilled chunks are released, or copies the spilled chunks
+	 * that are not released to a new file if worthwhile.
+	 */
+	private void compact() throws IOException {
+		List<Chunk> chunks;
+		long[] offsets;
+		FileChannel oldChannel;
+		Path oldFile;
+		synchronized (this) {
+			if (fSpillChannel == null)
+				return;
+			if (fSpilled.isEmpty()) {
+				// all spilled chunks are gone, start over
+				if (fSpillFileLength > 0) {
+					fSpillChannel.truncate(0);
+					fSpillFileLength= 0;
+				}
+				return;
+			}
+			if (!isWorthCompacting())
+				return;
+			chunks= new ArrayList<>(fSpilled);
+			offsets= new long[chunks.size()];
+			for (int i= 0; i < offsets.length; i++)
+				offsets[i]= chunks.get(i).fFileOffset;
+			oldChannel= fSpillChannel;
+			oldFile= fSpillFile;
+		}
+
+		Path newFile= createSpillFile();
+		FileChannel newChannel= FileChannel.open(newFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long[] newOffsets= new long[offsets.length];
+		long length= 0;
+		try {
+			for (int i= 0; i < offsets.length; i++) {
+				byte[] data= new byte[chunks.get(i).fSize];
+				ByteBuffer buffer= ByteBuffer.wrap(data);
+				while (buffer.hasRemaining()) {
+					if (oldChannel.read(buffer, offsets[i] + buffer.position()) < 0)
+						throw new IOException("Unexpected end of " + oldFile); //$NON-NLS-1$
+				}
+				newOffsets[i]= length;
+				length+= writeFully(newChannel, data, length);
+			}
+		} catch (IOException e) {
+			newChannel.close();
+			Files.deleteIfExists(newFile);
+			throw e;
+		}
+
+		synchronized (this) {
+			for (int i= 0; i < newOffsets.length; i++) {
+				Chunk chunk= chunks.get(i);
+				// the chunks released meanwhile are garbage in the new file
+				if (fSpilled.contains(chunk))
+					chunk.fFileOffset= newOffsets[i];
+			}
+			fSpillChannel= newChannel;
+			fSpillFile= newFile;
+			fSpillFileLength= length;
+		}
+		oldChannel.close();
+		Files.deleteIfExists(oldFile);
+	}
+
+	private static Path createSpillFile() throws IOException {
+		// owner only on POSIX file systems
+		return Files.createTempFile("undo", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Closes and deletes the spill file. The spilled chunks can no longer be read back, the chunks
+	 * stored afterwards are kept in memory.
+	 */
+	void dispose() {
+		synchronized (fWriteLock) {
+			FileChannel channel;
+			Path file;
+			synchronized (this) {
+				fDisposed= true;
+				for (Chunk chunk : fSpilled)
+					chunk.fFileOffset= -1;
+				fSpilled.clear();
+				fSpilledBytes= 0;
+				channel= fSpillChannel;
+				file= fSpillFile;
+				fSpillChannel= null;
+				fSpillFile= null;
+				fSpillFileLength= 0;
+			}
+			if (channel == null)
+				return;
+			try {
+				channel.close();
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				ILog.of(UndoTextStore.class).error("Could not delete the undo text spill file " + file, e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static int writeFully(FileChannel channel, byte[] data, long offset) throws IOException {
+		ByteBuffer buffer= ByteBuffer.wrap(data);
+		while (buffer.hasRemaining())
+			channel.write(buffer, offset + buffer.position());
+		return data.length;
+	}
+
+	/**
+	 * Returns the number of bytes of the chunks kept in memory, for the tests.
+	 *
+	 * @return the number of bytes
+	 */
+	synchronized long getMemoryUsed() {
+		return fMemoryUsed;
+	}
+
+	/**
+	 * Returns the number of spilled chunks that are not released, for the tests.
+	 *
+	 * @return the number of chunks
+	 */
+	synchronized int getSpilledChunkCount() {
+		return fSpilled.size();
+	}
+
+	/**
+	 * Returns the spill file, for the tests.
+	 *
+	 * @return the spill file, or <code>null</code> if not yet created
+	 */
+	synchronized Path getSpillFile() {
+		return fSpillFile;
+	}
+
+	/**
+	 * Returns the number of bytes written to the spill file, for the tests.
+	 *
+	 * @return the number of bytes
+	 */
+	synchronized long getSpillFileLength() {
+		return fSpillFileLength;
+	}
+}
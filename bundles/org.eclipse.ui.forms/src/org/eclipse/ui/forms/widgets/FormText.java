@@ -264,6 +264,8 @@ public class FormText extends Canvas {
 			Paragraph[] paragraphs = model.getParagraphs();
 			GC gc = new GC(FormText.this);
 			gc.setFont(getFont());
+			// measure bold text with the bold font, the sizes are cached
+			ensureBoldFontPresent(getFont());
 			Locator loc = new Locator();
 			int width = wHint != SWT.DEFAULT ? wHint : 0;
 			FontMetrics fm = gc.getFontMetrics();
@@ -281,22 +283,13 @@ public class FormText extends Canvas {
 				ParagraphSegment[] segments = p.getSegments();
 				if (segments.length > 0) {
 					selectableInTheLastRow = false;
-					int pwidth = 0;
 					for (ParagraphSegment segment : segments) {
-						segment.advanceLocator(gc, wHint, loc, resourceTable, false);
-						if (wHint != SWT.DEFAULT) {
-							width = Math.max(width, loc.width);
-						} else {
-							pwidth = Math.max(pwidth, loc.width);
-						}
 						if (segment instanceof IFocusSelectable) {
 							selectableInTheLastRow = true;
+							break;
 						}
 					}
-					if (wHint == SWT.DEFAULT) {
-						width = Math.max(width, pwidth);
-					}
-					loc.y += loc.rowHeight;
+					width = Math.max(width, p.computeSize(gc, wHint, loc, resourceTable));
 				} else {
 					// empty new line
 					loc.y += lineHeight;
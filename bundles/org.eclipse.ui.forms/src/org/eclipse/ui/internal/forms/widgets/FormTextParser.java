@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.forms.widgets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * Parses the tagged text of a {@link FormTextModel} into a light-weight tree
+ * of the elements and texts of the markup.
+ * <p>
+ * The tree is built in a single pass with a SAX parser instead of a DOM, and
+ * it is immutable, so the tree of a tagged text can be shared. The trees of
+ * the most recently parsed texts are cached, form editors tend to set the same
+ * texts over and over again. The model still creates its own paragraphs from
+ * the tree, they keep the layout of the widget.
+ * </p>
+ */
+final class FormTextParser {
+
+	/**
+	 * The number of parsed texts to cache.
+	 */
+	private static final int CACHE_SIZE = 64;
+
+	/**
+	 * Texts longer than this are not cached, they are unlikely to be set again.
+	 */
+	private static final int MAX_CACHED_LENGTH = 64 * 1024;
+
+	/**
+	 * A node of the tree. Nodes that are neither elements nor texts, like
+	 * CDATA sections or processing instructions, are kept as plain nodes: they
+	 * are ignored but separate the texts around them.
+	 */
+	static class Node {
+	}
+
+	static final class Text extends Node {
+		final String value;
+
+		Text(String value) {
+			this.value = value;
+		}
+	}
+
+	static final class Element extends Node {
+		final String name;
+
+		/*
+		 * the attribute names and values, alternating
+		 */
+		private final String[] attributes;
+
+		final Node[] children;
+
+		Element(String name, String[] attributes, Node[] children) {
+			this.name = name;
+			this.attributes = attributes;
+			this.children = children;
+		}
+
+		/**
+		 * Returns the value of an attribute.
+		 *
+		 * @param attributeName
+		 *            the qualified name of the attribute
+		 * @return the value, or <code>null</code> if the element does not have
+		 *         the attribute
+		 */
+		String getAttribute(String attributeName) {
+			for (int i = 0; i < attributes.length; i += 2) {
+				if (attributes[i].equals(attributeName)) {
+					return attributes[i + 1];
+				}
+			}
+			return null;
+		}
+	}
+
+	private static final Node OTHER = new Node();
+
+	private static final String[] NO_ATTRIBUTES = new String[0];
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private static final Map<String, Element> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Element> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private FormTextParser() {
+	}
+
+	/**
+	 * Parses a tagged text, or returns the tree of the text if it has been
+	 * parsed recently.
+	 *
+	 * @param taggedText
+	 *            the text
+	 * @return the root element
+	 */
+	static Element parse(String taggedText) throws ParserConfigurationException, SAXException, IOException {
+		synchronized (cache) {
+			Element root = cache.get(taggedText);
+			if (root != null) {
+				return root;
+			}
+		}
+		Element root = parse(new InputSource(new StringReader(processAmpersandEscapes(taggedText))));
+		if (taggedText.length() <= MAX_CACHED_LENGTH) {
+			synchronized (cache) {
+				cache.put(taggedText, root);
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Parses a tagged text from a stream.
+	 *
+	 * @param is
+	 *            the stream
+	 * @return the root element
+	 */
+	static Element parse(InputStream is) throws ParserConfigurationException, SAXException, IOException {
+		return parse(new InputSource(is));
+	}
+
+	private static String processAmpersandEscapes(String pTaggedText) {
+		try {
+			String taggedText = pTaggedText.replace("&quot;", "&#034;"); //$NON-NLS-1$//$NON-NLS-2$
+			taggedText = taggedText.replace("&apos;", "&#039;"); //$NON-NLS-1$//$NON-NLS-2$
+			taggedText = taggedText.replace("&lt;", "&#060;"); //$NON-NLS-1$//$NON-NLS-2$
+			taggedText = taggedText.replace("&gt;", "&#062;"); //$NON-NLS-1$//$NON-NLS-2$
+			taggedText = taggedText.replace("&amp;", "&#038;"); //$NON-NLS-1$//$NON-NLS-2$
+			return taggedText.replaceAll("&([^#])", "&#038;$1"); //$NON-NLS-1$//$NON-NLS-2$
+		} catch (Exception e) {
+			return pTaggedText;
+		}
+	}
+
+	private static Element parse(InputSource source) throws ParserConfigurationException, SAXException, IOException {
+		@SuppressWarnings("restriction")
+		SAXParser parser = org.eclipse.core.internal.runtime.XmlProcessorFactory.createSAXParserWithErrorOnDOCTYPE(false);
+		TreeBuilder builder = new TreeBuilder();
+		parser.setProperty("http://xml.org/sax/properties/lexical-handler", builder); //$NON-NLS-1$
+		parser.parse(source, builder);
+		return builder.root;
+	}
+
+	/*
+	 * Builds the tree from the SAX events. Like the DOM, adjacent characters
+	 * make up one text, also across comments.
+	 */
+	private static final class TreeBuilder extends DefaultHandler2 {
+		private final Deque<List<Node>> children = new ArrayDeque<>();
+
+		private final Deque<Element> elements = new ArrayDeque<>();
+
+		private final StringBuilder text = new StringBuilder();
+
+		private boolean inCData;
+
+		Element root;
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes atts) {
+			flushText();
+			String[] attributes = NO_ATTRIBUTES;
+			if (atts.getLength() > 0) {
+				attributes = new String[atts.getLength() * 2];
+				for (int i = 0; i < atts.getLength(); i++) {
+					attributes[2 * i] = atts.getQName(i);
+					attributes[2 * i + 1] = atts.getValue(i);
+				}
+			}
+			elements.push(new Element(qName, attributes, NO_CHILDREN));
+			children.push(new ArrayList<>());
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			flushText();
+			Element started = elements.pop();
+			List<Node> nodes = children.pop();
+			Element element = nodes.isEmpty() ? started
+					: new Element(started.name, started.attributes, nodes.toArray(new Node[nodes.size()]));
+			if (children.isEmpty()) {
+				root = element;
+			} else {
+				children.peek().add(element);
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (!inCData && !children.isEmpty()) {
+				text.append(ch, start, length);
+			}
+		}
+
+		@Override
+		public void startCDATA() {
+			flushText();
+			inCData = true;
+		}
+
+		@Override
+		public void endCDATA() {
+			inCData = false;
+			addOther();
+		}
+
+		@Override
+		public void processingInstruction(String target, String data) {
+			flushText();
+			addOther();
+		}
+
+		@Override
+		public void error(SAXParseException e) {
+			// keep parse errors from being written to standard output
+		}
+
+		@Override
+		public void warning(SAXParseException e) {
+			// keep parse errors from being written to standard output
+		}
+
+		private void addOther() {
+			if (!children.isEmpty()) {
+				children.peek().add(OTHER);
+			}
+		}
+
+		private void flushText() {
+			if (text.length() > 0) {
+				children.peek().add(new Text(text.toString()));
+				text.setLength(0);
+			}
+		}
+	}
+}
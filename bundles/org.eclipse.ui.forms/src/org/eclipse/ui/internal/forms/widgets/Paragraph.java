@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.Vector;
 
+import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontMetrics;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Rectangle;
@@ -35,6 +36,39 @@ public class Paragraph {
 
 	private boolean addVerticalSpace = true;
 
+	/*
+	 * the number of wrap widths whose size is cached, the form text is asked
+	 * for its minimum, maximum and actual size
+	 */
+	private static final int SIZE_CACHE_SIZE = 4;
+
+	/*
+	 * The size of the paragraph for one wrap width and font.
+	 */
+	private static final class CachedSize {
+		final int wHint;
+
+		final Font font;
+
+		final int width;
+
+		final int height;
+
+		final int lastWidth;
+
+		CachedSize(int wHint, Font font, int width, int height, int lastWidth) {
+			this.wHint = wHint;
+			this.font = font;
+			this.width = width;
+			this.height = height;
+			this.lastWidth = lastWidth;
+		}
+	}
+
+	private CachedSize[] sizeCache;
+
+	private int nextCachedSize;
+
 	public Paragraph(boolean addVerticalSpace) {
 		this.addVerticalSpace = addVerticalSpace;
 	}
@@ -60,6 +94,7 @@ public class Paragraph {
 			segments = new Vector<>();
 		}
 		segments.add(segment);
+		sizeCache = null;
 	}
 
 	public void parseRegularText(String text, boolean expandURLs, boolean wrapAllowed,
@@ -133,6 +168,59 @@ public class Paragraph {
 		addSegment(hs);
 	}
 
+	/**
+	 * Moves the locator over this paragraph to compute the size of the form
+	 * text, starting at the indent of the paragraph with an empty row. The
+	 * sizes of paragraphs having only text are cached per wrap width until
+	 * the cache is cleared, so that they are measured once.
+	 *
+	 * @return the width of the widest row of this paragraph
+	 */
+	public int computeSize(GC gc, int wHint, Locator loc,
+			Hashtable<String, Object> resourceTable) {
+		ParagraphSegment[] segments = getSegments();
+		boolean textOnly = isTextOnly(segments);
+		Font font = gc.getFont();
+		if (textOnly && sizeCache != null) {
+			for (CachedSize size : sizeCache) {
+				if (size != null && size.wHint == wHint && size.font == font) {
+					loc.y += size.height;
+					loc.width = size.lastWidth;
+					return size.width;
+				}
+			}
+		}
+		int y = loc.y;
+		int width = 0;
+		for (ParagraphSegment segment : segments) {
+			segment.advanceLocator(gc, wHint, loc, resourceTable, false);
+			width = Math.max(width, loc.width);
+		}
+		loc.y += loc.rowHeight;
+		if (textOnly) {
+			if (sizeCache == null) {
+				sizeCache = new CachedSize[SIZE_CACHE_SIZE];
+			}
+			sizeCache[nextCachedSize] = new CachedSize(wHint, font, width, loc.y - y, loc.width);
+			nextCachedSize = (nextCachedSize + 1) % SIZE_CACHE_SIZE;
+		}
+		return width;
+	}
+
+	/*
+	 * Whether the size of the segments only depends on the fonts and the wrap
+	 * width. Other segments depend on the size of images and controls, and
+	 * on the locator left by the previous paragraph.
+	 */
+	private static boolean isTextOnly(ParagraphSegment[] segments) {
+		for (ParagraphSegment segment : segments) {
+			if (!(segment instanceof TextSegment) && !(segment instanceof BreakSegment)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	protected void computeRowHeights(GC gc, int width, Locator loc,
 			int lineHeight, Hashtable<String, Object> resourceTable) {
 		ParagraphSegment[] segments = getSegments();
@@ -236,6 +324,7 @@ public class Paragraph {
 		return null;
 	}
 	public void clearCache(String fontId) {
+		sizeCache = null;
 		if (segments != null) {
 			for (ParagraphSegment segment : segments) {
 				segment.clearCache(fontId);
@@ -83,6 +83,7 @@ import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.ide.IDEWorkbenchMessages;
 import org.eclipse.ui.internal.ide.IIDEHelpContextIds;
+import org.eclipse.ui.internal.ide.dialogs.ResourceNameIndex;
 import org.eclipse.ui.internal.ide.model.ResourceFactory;
 import org.eclipse.ui.model.WorkbenchLabelProvider;
 import org.eclipse.ui.statushandlers.StatusManager;
@@ -589,7 +590,15 @@ public class FilteredResourcesSelectionDialog extends FilteredItemsSelectionDial
 	@Override
 	protected void fillContentProvider(AbstractContentProvider contentProvider, ItemsFilter itemsFilter,
 			IProgressMonitor progressMonitor) throws CoreException {
-		if (itemsFilter instanceof ResourceFilter) {
+		if (itemsFilter.getClass() == ResourceFilter.class && container.getType() == IResource.ROOT
+				&& ResourceNameIndex.isEnabled()) {
+			// the index only narrows down the candidates, the filter still matches them
+			ResourceFilter resourceFilter = (ResourceFilter) itemsFilter;
+			contentProvider.add(container, resourceFilter);
+			long characters = ResourceNameIndex.getRequiredCharacterMask(resourceFilter.getPattern());
+			ResourceNameIndex.getInstance().accept(characters, resourceFilter.isShowDerived(),
+					resource -> contentProvider.add(resource, resourceFilter), progressMonitor);
+		} else if (itemsFilter instanceof ResourceFilter) {
 			IResource[] members = container.members();
 			progressMonitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_searchJob_taskName,
 					members.length);
@@ -0,0 +1,655 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide.dialogs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+
+/**
+ * An index of the names of all resources in the workspace, for the resource
+ * selection dialogs.
+ * <p>
+ * The index holds the resources the dialogs find by visiting the accessible
+ * projects, that is without hidden and team private members. It is built the
+ * first time it is queried and then kept up to date from the resource deltas,
+ * so a query doesn't walk the workspace and doesn't create a resource handle
+ * for every file. For every name, the index records which letters and digits
+ * it contains, and for every letter and digit it keeps the list of the
+ * resources whose names contain it. Every name matching a pattern, whether by
+ * prefix, substring, camel case or wildcards, contains all letters and digits
+ * of the pattern. A query therefore only walks the list of the rarest letter
+ * or digit of the pattern, so its cost depends on the number of candidates
+ * rather than on the size of the workspace. Only patterns without letters and
+ * digits walk the whole index.
+ * </p>
+ * <p>
+ * The index can be disabled with the system property
+ * <code>org.eclipse.ui.ide.resourceNameIndex=false</code>.
+ * </p>
+ * <p>
+ * This class is thread safe. The index is built and the members of added
+ * resources are visited without holding the lock, the changes reported while
+ * the index is built are applied before it is published.
+ * </p>
+ */
+public final class ResourceNameIndex implements IResourceChangeListener {
+
+	private static final boolean ENABLED = Boolean
+			.parseBoolean(System.getProperty("org.eclipse.ui.ide.resourceNameIndex", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/*
+	 * the number of letters and digits
+	 */
+	private static final int CHARACTER_COUNT = 36;
+
+	private static ResourceNameIndex instance;
+
+	private static final Entry[] NO_ENTRIES = new Entry[0];
+
+	/*
+	 * A resource, the children of containers are sorted by name.
+	 */
+	private static final class Entry {
+		final String name;
+
+		final int type;
+
+		final long characters;
+
+		boolean derived;
+
+		/*
+		 * whether the entry has been removed from the index but may still be in
+		 * the lists of the characters
+		 */
+		boolean removed;
+
+		Entry parent;
+
+		Entry[] children;
+
+		Entry(String name, int type, boolean derived) {
+			this.name = name;
+			this.type = type;
+			this.characters = getCharacterMask(name);
+			this.derived = derived;
+			this.children = type == IResource.FILE ? null : NO_ENTRIES;
+		}
+	}
+
+	/*
+	 * The entries whose names contain a letter or digit, for every letter and
+	 * digit. Removed entries are dropped from a list when they make up half of
+	 * it.
+	 */
+	private static final class CharacterLists {
+		final Entry[][] entries = new Entry[CHARACTER_COUNT][];
+
+		final int[] sizes = new int[CHARACTER_COUNT];
+
+		final int[] removed = new int[CHARACTER_COUNT];
+
+		CharacterLists() {
+			Arrays.fill(entries, NO_ENTRIES);
+		}
+
+		/*
+		 * Adds an entry and the entries of its members.
+		 */
+		void add(Entry entry) {
+			long characters = entry.characters;
+			while (characters != 0) {
+				int c = Long.numberOfTrailingZeros(characters);
+				characters &= characters - 1;
+				if (sizes[c] == entries[c].length) {
+					entries[c] = Arrays.copyOf(entries[c], Math.max(16, sizes[c] * 2));
+				}
+				entries[c][sizes[c]++] = entry;
+			}
+			if (entry.children != null) {
+				for (Entry child : entry.children) {
+					add(child);
+				}
+			}
+		}
+
+		/*
+		 * Marks an entry and the entries of its members as removed.
+		 */
+		void remove(Entry entry) {
+			entry.removed = true;
+			long characters = entry.characters;
+			while (characters != 0) {
+				int c = Long.numberOfTrailingZeros(characters);
+				characters &= characters - 1;
+				if (++removed[c] > sizes[c] / 2) {
+					compact(c);
+				}
+			}
+			if (entry.children != null) {
+				for (Entry child : entry.children) {
+					remove(child);
+				}
+			}
+		}
+
+		private void compact(int c) {
+			Entry[] list = entries[c];
+			int size = 0;
+			for (int i = 0; i < sizes[c]; i++) {
+				if (!list[i].removed) {
+					list[size++] = list[i];
+				}
+			}
+			Arrays.fill(list, size, sizes[c], null);
+			sizes[c] = size;
+			removed[c] = 0;
+		}
+
+		/*
+		 * Returns the letter or digit of the mask with the fewest entries.
+		 */
+		int getRarest(long characters) {
+			int rarest = -1;
+			while (characters != 0) {
+				int c = Long.numberOfTrailingZeros(characters);
+				characters &= characters - 1;
+				if (rarest < 0 || sizes[c] - removed[c] < sizes[rarest] - removed[rarest]) {
+					rarest = c;
+				}
+			}
+			return rarest;
+		}
+	}
+
+	/*
+	 * A change of the index computed from a resource delta: the resource at
+	 * the path is removed, replaced by the entry if not null, or its derived
+	 * flag is changed.
+	 */
+	private static final class Change {
+		final IPath path;
+
+		final Entry entry;
+
+		final boolean remove;
+
+		final boolean derived;
+
+		Change(IPath path, Entry entry, boolean remove, boolean derived) {
+			this.path = path;
+			this.entry = entry;
+			this.remove = remove;
+			this.derived = derived;
+		}
+	}
+
+	private final Object lock = new Object();
+
+	/*
+	 * the entry of the workspace root, null if the index is not built
+	 */
+	private Entry root;
+
+	/*
+	 * the lists of the entries by character, null if the index is not built
+	 */
+	private CharacterLists lists;
+
+	/*
+	 * the changes reported while the index is built, null if it is not built
+	 */
+	private List<Change> pending;
+
+	private ResourceNameIndex() {
+	}
+
+	/**
+	 * Returns whether the index is enabled.
+	 *
+	 * @return <code>true</code> if the dialogs should use the index
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Returns the index of the workspace.
+	 *
+	 * @return the index
+	 */
+	public static synchronized ResourceNameIndex getInstance() {
+		if (instance == null) {
+			instance = new ResourceNameIndex();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the letters and digits of a name or pattern, ignoring case.
+	 *
+	 * @param text the name or pattern
+	 * @return the mask of the characters
+	 */
+	public static long getCharacterMask(String text) {
+		long mask = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 'a' && c <= 'z') {
+				mask |= 1L << (c - 'a');
+			} else if (c >= 'A' && c <= 'Z') {
+				mask |= 1L << (c - 'A');
+			} else if (c >= '0' && c <= '9') {
+				mask |= 1L << (26 + c - '0');
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the letters and digits every name matching a search pattern has.
+	 * Patterns with several words match names having any of the words, so they
+	 * can't be used to narrow the search.
+	 *
+	 * @param pattern the pattern, as used by the search pattern of the dialog
+	 * @return the mask of the characters
+	 */
+	public static long getRequiredCharacterMask(String pattern) {
+		String trimmed = pattern.trim();
+		for (int i = 0; i < trimmed.length(); i++) {
+			if (Character.isWhitespace(trimmed.charAt(i))) {
+				return 0;
+			}
+		}
+		return getCharacterMask(trimmed);
+	}
+
+	/**
+	 * Passes the resources of the workspace whose names have all the given
+	 * characters to a consumer, in no particular order. Builds the index first
+	 * if necessary.
+	 *
+	 * @param characters     the mask of the characters the names must have, see
+	 *                       {@link #getRequiredCharacterMask(String)}
+	 * @param includeDerived whether to include the members of derived folders
+	 * @param consumer       the consumer of the resources
+	 * @param monitor        the progress monitor
+	 * @throws CoreException if the index can't be built
+	 */
+	public void accept(long characters, boolean includeDerived, Consumer<IResource> consumer,
+			IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 2);
+		if (!ensureBuilt(subMonitor.split(1))) {
+			return;
+		}
+		subMonitor.setWorkRemaining(1);
+		List<Entry> matches = new ArrayList<>();
+		List<IPath> paths = new ArrayList<>();
+		synchronized (lock) {
+			if (characters == 0) {
+				// every name matches, there is no list to narrow the search
+				for (Entry project : root.children) {
+					collect(project, includeDerived, matches);
+				}
+			} else {
+				int rarest = lists.getRarest(characters);
+				Entry[] candidates = lists.entries[rarest];
+				for (int i = 0; i < lists.sizes[rarest]; i++) {
+					Entry candidate = candidates[i];
+					if (!candidate.removed && (candidate.characters & characters) == characters
+							&& (includeDerived || !isInDerivedFolder(candidate))) {
+						matches.add(candidate);
+					}
+				}
+			}
+			for (Entry match : matches) {
+				paths.add(getFullPath(match));
+			}
+		}
+		IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		for (int i = 0; i < matches.size(); i++) {
+			IPath fullPath = paths.get(i);
+			IResource resource = switch (matches.get(i).type) {
+			case IResource.PROJECT -> workspaceRoot.getProject(fullPath.lastSegment());
+			case IResource.FOLDER -> workspaceRoot.getFolder(fullPath);
+			default -> workspaceRoot.getFile(fullPath);
+			};
+			consumer.accept(resource);
+			if (i % 1000 == 0 && subMonitor.isCanceled()) {
+				return;
+			}
+		}
+	}
+
+	/*
+	 * Builds the index without holding the lock if necessary. Waits for a build
+	 * started by another query. Returns false if canceled.
+	 */
+	private boolean ensureBuilt(IProgressMonitor monitor) throws CoreException {
+		List<Change> changes;
+		synchronized (lock) {
+			while (root == null && pending != null) {
+				if (monitor.isCanceled()) {
+					return false;
+				}
+				try {
+					lock.wait(100);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			if (root != null) {
+				return true;
+			}
+			changes = new ArrayList<>();
+			pending = changes;
+		}
+		Entry built = null;
+		CharacterLists builtLists = null;
+		try {
+			built = build(monitor);
+			if (built != null) {
+				builtLists = new CharacterLists();
+				for (Entry project : built.children) {
+					builtLists.add(project);
+				}
+			}
+			return built != null;
+		} finally {
+			synchronized (lock) {
+				// an update that failed while building drops the changes
+				if (pending == changes) {
+					pending = null;
+					if (builtLists != null) {
+						apply(built, builtLists, changes);
+						root = built;
+						lists = builtLists;
+					}
+				}
+				lock.notifyAll();
+			}
+		}
+	}
+
+	private static void collect(Entry entry, boolean includeDerived, List<Entry> matches) {
+		matches.add(entry);
+		if (entry.children == null || (entry.derived && entry.type == IResource.FOLDER && !includeDerived)) {
+			return;
+		}
+		for (Entry child : entry.children) {
+			collect(child, includeDerived, matches);
+		}
+	}
+
+	private static boolean isInDerivedFolder(Entry entry) {
+		for (Entry parent = entry.parent; parent != null; parent = parent.parent) {
+			if (parent.derived && parent.type == IResource.FOLDER) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static IPath getFullPath(Entry entry) {
+		if (entry.type == IResource.ROOT) {
+			return IPath.ROOT;
+		}
+		return getFullPath(entry.parent).append(entry.name);
+	}
+
+	/*
+	 * Returns the entry of the workspace root, or null if canceled.
+	 */
+	private static Entry build(IProgressMonitor monitor) throws CoreException {
+		IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, projects.length);
+		Entry root = new Entry("", IResource.ROOT, false); //$NON-NLS-1$
+		List<Entry> children = new ArrayList<>(projects.length);
+		for (IProject project : projects) {
+			if (project.isAccessible()) {
+				Entry entry = create(project);
+				if (entry != null) {
+					entry.parent = root;
+					children.add(entry);
+				}
+			}
+			subMonitor.worked(1);
+			if (subMonitor.isCanceled()) {
+				return null;
+			}
+		}
+		root.children = toSortedArray(children);
+		return root;
+	}
+
+	/*
+	 * Returns the entry of a resource with the entries of its members, or null
+	 * if the resource is hidden or team private. The members of every container
+	 * are collected and sorted once the container has been visited.
+	 */
+	private static Entry create(IResource resource) throws CoreException {
+		Entry[] top = new Entry[1];
+		// the entries and the collected members of the containers being
+		// visited, by depth
+		List<Entry> containers = new ArrayList<>();
+		List<List<Entry>> members = new ArrayList<>();
+		int baseDepth = resource.getFullPath().segmentCount();
+		resource.accept((IResourceProxy proxy) -> {
+			int depth = proxy.requestFullPath().segmentCount() - baseDepth;
+			Entry entry = new Entry(proxy.getName(), proxy.getType(), proxy.isDerived());
+			// the containers at this depth and below have been visited
+			seal(containers, members, depth);
+			if (depth == 0) {
+				top[0] = entry;
+			} else {
+				entry.parent = containers.get(depth - 1);
+				members.get(depth - 1).add(entry);
+			}
+			if (entry.children == null) {
+				return false;
+			}
+			containers.add(entry);
+			members.add(new ArrayList<>());
+			return true;
+		}, IResource.NONE);
+		seal(containers, members, 0);
+		return top[0];
+	}
+
+	/*
+	 * Sorts the collected members of the containers from the given depth on into
+	 * their entries and stops collecting for them.
+	 */
+	private static void seal(List<Entry> containers, List<List<Entry>> members, int depth) {
+		for (int i = containers.size() - 1; i >= depth; i--) {
+			containers.remove(i).children = toSortedArray(members.remove(i));
+		}
+	}
+
+	private static Entry[] toSortedArray(List<Entry> entries) {
+		if (entries.isEmpty()) {
+			return NO_ENTRIES;
+		}
+		Entry[] array = entries.toArray(new Entry[entries.size()]);
+		Arrays.sort(array, (first, second) -> first.name.compareTo(second.name));
+		return array;
+	}
+
+	private static Entry[] insert(Entry[] children, Entry entry) {
+		int index = indexOf(children, entry.name);
+		if (index >= 0) {
+			Entry[] copy = children.clone();
+			copy[index] = entry;
+			return copy;
+		}
+		index = -index - 1;
+		Entry[] copy = new Entry[children.length + 1];
+		System.arraycopy(children, 0, copy, 0, index);
+		copy[index] = entry;
+		System.arraycopy(children, index, copy, index + 1, children.length - index);
+		return copy;
+	}
+
+	private static int indexOf(Entry[] children, String name) {
+		int low = 0;
+		int high = children.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = children[middle].name.compareTo(name);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/*
+	 * Returns the entry of a resource, or null if not in the index.
+	 */
+	private static Entry find(Entry root, IPath fullPath) {
+		Entry entry = root;
+		for (int i = 0; i < fullPath.segmentCount() && entry != null; i++) {
+			if (entry.children == null) {
+				return null;
+			}
+			int index = indexOf(entry.children, fullPath.segment(i));
+			entry = index < 0 ? null : entry.children[index];
+		}
+		return entry;
+	}
+
+	private static void apply(Entry root, CharacterLists lists, List<Change> changes) {
+		for (Change change : changes) {
+			if (!change.remove && change.entry == null) {
+				Entry entry = find(root, change.path);
+				if (entry != null) {
+					entry.derived = change.derived;
+				}
+				continue;
+			}
+			Entry parentEntry = find(root, change.path.removeLastSegments(1));
+			if (parentEntry == null || parentEntry.children == null) {
+				continue;
+			}
+			int index = indexOf(parentEntry.children, change.path.lastSegment());
+			if (index >= 0) {
+				lists.remove(parentEntry.children[index]);
+			}
+			if (change.entry != null) {
+				change.entry.parent = parentEntry;
+				lists.add(change.entry);
+				parentEntry.children = insert(parentEntry.children, change.entry);
+			} else if (index >= 0) {
+				Entry[] children = new Entry[parentEntry.children.length - 1];
+				System.arraycopy(parentEntry.children, 0, children, 0, index);
+				System.arraycopy(parentEntry.children, index + 1, children, index, children.length - index);
+				parentEntry.children = children;
+			}
+		}
+	}
+
+	/*
+	 * Returns the change replacing the entry of a resource by the entry of its
+	 * current members, or removing it if the resource is not accessible.
+	 */
+	private static Change replace(IResource resource) throws CoreException {
+		if (!resource.isAccessible()) {
+			return new Change(resource.getFullPath(), null, true, false);
+		}
+		Entry entry = create(resource);
+		if (entry == null) {
+			// hidden or team private
+			return new Change(resource.getFullPath(), null, true, false);
+		}
+		return new Change(resource.getFullPath(), entry, false, false);
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		synchronized (lock) {
+			if (root == null && pending == null) {
+				return;
+			}
+		}
+		// visit the added resources without holding the lock
+		List<Change> changes = new ArrayList<>();
+		try {
+			delta.accept(child -> {
+				IResource resource = child.getResource();
+				switch (child.getKind()) {
+				case IResourceDelta.ADDED:
+					changes.add(replace(resource));
+					return false;
+				case IResourceDelta.REMOVED:
+					changes.add(new Change(resource.getFullPath(), null, true, false));
+					return false;
+				case IResourceDelta.CHANGED:
+					int flags = child.getFlags();
+					if ((flags & (IResourceDelta.OPEN | IResourceDelta.TYPE | IResourceDelta.REPLACED)) != 0) {
+						changes.add(replace(resource));
+						return false;
+					}
+					if ((flags & IResourceDelta.DERIVED_CHANGED) != 0) {
+						changes.add(new Change(resource.getFullPath(), null, false, resource.isDerived()));
+					}
+					return true;
+				default:
+					return true;
+				}
+			});
+		} catch (CoreException e) {
+			// rebuild on the next query rather than answering from a broken index
+			synchronized (lock) {
+				root = null;
+				lists = null;
+				pending = null;
+			}
+			IDEWorkbenchPlugin.log("Could not update the resource name index", e); //$NON-NLS-1$
+			return;
+		}
+		synchronized (lock) {
+			if (root != null) {
+				apply(root, lists, changes);
+			} else if (pending != null) {
+				pending.addAll(changes);
+			}
+		}
+	}
+}
@@ -43,6 +43,12 @@ public class CachedMarkerBuilder {
 	private static final String TAG_CATEGORY_GROUP = "categoryGroup"; //$NON-NLS-1$
 	private static final String VALUE_NONE = "none"; //$NON-NLS-1$
 
+	/**
+	 * Whether marker deltas are applied to the shown markers instead of
+	 * gathering all markers again on every change.
+	 */
+	private static final boolean INCREMENTAL = Boolean.getBoolean("org.eclipse.ui.views.markers.incremental"); //$NON-NLS-1$
+
 	// The MarkerContentGenerator we are using for building
 	private MarkerContentGenerator generator;
 	private MarkerUpdateJob updateJob;
@@ -130,7 +136,7 @@ public class CachedMarkerBuilder {
 
 		if (isIncremental()) {
 			if (incrementJob != null) {
-				incrementJob.clearEntries();
+				incrementJob.clearUpdates();
 			}
 		}
 	}
@@ -292,6 +298,7 @@ public class CachedMarkerBuilder {
 	 */
 	void scheduleUpdate() {
 		if (active) {
+			requestRebuild();
 			scheduler.scheduleUpdate(MarkerUpdateScheduler.SHORT_DELAY,true);
 		}
 	}
@@ -301,6 +308,7 @@ public class CachedMarkerBuilder {
 	 */
 	void scheduleUpdate(long delay) {
 		if (active) {
+			requestRebuild();
 			scheduler.scheduleUpdate(delay,true);
 		}
 	}
@@ -435,11 +443,7 @@ public class CachedMarkerBuilder {
 				// ensure cancellation before calling the method
 				// updateJob.cancel();
 			} else {
-				/*
-				 * updateJob = isIncremental() ? new IncrementUpdateJob(this):
-				 * new MarkerUpdateJob(this);
-				 */
-				updateJob = new MarkerUpdateJob(this);
+				updateJob = isIncremental() ? getIncrementJob() : new MarkerUpdateJob(this);
 				updateJob.setPriority(Job.LONG);
 				updateJob.setSystem(true);
 			}
@@ -580,20 +584,47 @@ public class CachedMarkerBuilder {
 	}
 
 ///////	<Incremental update code>///////
-		private IncrementUpdateJob incrementJob;
+	private IncrementUpdateJob incrementJob;
+
+	private volatile boolean rebuildRequested = true;
+
 	/**
-	 * Checks whether the builder should perform incrementally Note : Incremental
-	 * updating method is NOT used and tested yet but left out for further
-	 * investigation(*).
+	 * Checks whether the builder applies marker deltas incrementally instead of
+	 * gathering all markers again on every change, see
+	 * {@link IncrementUpdateJob}.
 	 *
 	 * @return Returns true if we should collect markers incrementally.
 	 */
 	boolean isIncremental() {
-		/*
-		 * We do not update incrementally. We have
-		 * code for further investigation(*) for this anyway.
-		 */
-		return false;
+		return INCREMENTAL;
+	}
+
+	/**
+	 * Return the incremental update job, the caller must hold the scheduling
+	 * lock.
+	 */
+	private IncrementUpdateJob getIncrementJob() {
+		if (incrementJob == null) {
+			incrementJob = new IncrementUpdateJob(this);
+		}
+		return incrementJob;
+	}
+
+	/**
+	 * Request the next update to gather all markers again, e.g. because the
+	 * filters, the scope or the grouping changed.
+	 */
+	void requestRebuild() {
+		rebuildRequested = true;
+	}
+
+	/**
+	 * Return whether a rebuild has been requested and reset the request.
+	 */
+	boolean takeRebuildRequest() {
+		boolean requested = rebuildRequested;
+		rebuildRequested = false;
+		return requested;
 	}
 
 	/**
@@ -622,14 +653,11 @@ public class CachedMarkerBuilder {
 	 * Handles an incremental update
 	 */
 	void incrementalUpdate(MarkerUpdate update) {
+		IncrementUpdateJob job;
 		synchronized (getUpdateScheduler().getSchedulingLock()) {
-			if (incrementJob == null) {
-				scheduleUpdateJob(MarkerUpdateScheduler.SHORT_DELAY, true);
-			}
-		}
-		if (incrementJob != null) {
-			incrementJob.addUpdate(update);
+			job = getIncrementJob();
 		}
+		job.addUpdate(update);
 	}
 ///////	</Incremental update code>///////
 
@@ -14,230 +14,123 @@
 
 package org.eclipse.ui.internal.views.markers;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.ui.views.markers.internal.MarkerMessages;
 
 /**
- * The job that performs incremental update. Once the processing is complete it
- * schedules an UI update. If it'll be possible and beneficial switch to
- * incremental updatation, this has been left out for further investigation(*).
- * only, and not used currently.
+ * The job that performs incremental updates. The marker deltas queued by the
+ * {@link MarkersChangeListener} are applied to the sorted and grouped markers
+ * in place, see {@link Markers#applyDelta(Collection, Collection)}. The markers
+ * are only gathered again if the builder requests a rebuild, e.g. after the
+ * filters or the grouping changed. Once the processing is complete it
+ * schedules an UI update.
  *
  * @since 3.6
  */
 class IncrementUpdateJob extends MarkerUpdateJob {
 
-	private LinkedList<MarkerEntry> incrementEntryList;
 	private LinkedList<MarkerUpdate> updateQueue;
 
 	public IncrementUpdateJob(CachedMarkerBuilder builder) {
 		super(builder);
-		incrementEntryList = new LinkedList<>();
 	}
 
 	@Override
 	protected IStatus run(IProgressMonitor monitor) {
 		monitor.beginTask(MarkerMessages.MarkerView_processUpdates, IProgressMonitor.UNKNOWN);
-		boolean clean= isClean();
-		if (clean) {
-			clearEntries();
-		}
-		Collection<MarkerEntry> markerEntries = incrementalEntries();
-		if (clean) {
-			/*
-			 * Unfortunately we cannot lock marker operations between gathering
-			 * and updation. We have this code in place only for further
-			 * investigation
-			 */
-			clean = !clean(markerEntries, monitor);
-			LinkedList<MarkerUpdate> queue = getUpdatesQueue();
-			synchronized (queue) {
-				queue.clear();
-			}
-		}
-		if (monitor.isCanceled()) {
-			return Status.CANCEL_STATUS;
-		}
-		if (!clean) {
-			builder.registerTypesToListener();
-			if (!processUpdates(monitor)) {
+		if (builder.takeRebuildRequest()) {
+			// the deltas received from now on are applied to the result
+			clearUpdates();
+			buildMarkers(monitor);
+			if (monitor.isCanceled()) {
+				builder.requestRebuild();
 				return Status.CANCEL_STATUS;
 			}
+			return Status.OK_STATUS;
 		}
-		if (!processMarkerEntries(markerEntries, monitor)) {
-			return Status.CANCEL_STATUS;
-		}
-		if (monitor.isCanceled()) {
-			return Status.CANCEL_STATUS;
-		}
-		// update with sorted entries
-		updateIncrementalList(markerEntries);
-
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
+		// from here on the deltas are consumed, don't cancel
+		Map<IMarker, MarkerEntry> removed = new LinkedHashMap<>();
+		Map<IMarker, MarkerEntry> inserted = new LinkedHashMap<>();
+		boolean added = collectUpdates(removed, inserted);
+		if (removed.isEmpty() && inserted.isEmpty()) {
+			builder.setBuilding(false);
+			updateDone();
+			return Status.OK_STATUS;
+		}
+		if (!builder.getMarkers().applyDelta(removed.values(), inserted.values())) {
+			clearUpdates();
+			buildMarkers(monitor);
+			return Status.OK_STATUS;
+		}
+		builder.updateChangeFlags(new boolean[] { added, !removed.isEmpty(), !inserted.isEmpty() });
 		builder.getUpdateScheduler().scheduleUIUpdate(MarkerUpdateScheduler.SHORT_DELAY);
-		if (monitor.isCanceled()) {
-			return Status.CANCEL_STATUS;
-		}
 		builder.setBuilding(false);
 		updateDone();
 		return Status.OK_STATUS;
 	}
 
 	/**
-	 * Update the list
+	 * Drain the queued updates into the entries to remove and to insert, the
+	 * last change of a marker wins. Entries that no longer pass the filters
+	 * are removed.
+	 *
+	 * @return whether any marker was added
 	 */
-	private boolean updateIncrementalList(Collection<MarkerEntry> markerEntries) {
-		markerEntries.clear();
-		Markers clone = builder.getMarkers();
-		synchronized (clone) {
-			clone = clone.getClone();
-		}
-		markerEntries.addAll(Arrays.asList(clone.getMarkerEntryArray()));
-		return true;
-	}
-
-	/**
-	 * Process the incremental updates
-	 */
-	private boolean processUpdates(IProgressMonitor monitor) {
-		Collection<MarkerEntry> markerEntries = incrementalEntries();
-		int addCount = 0, removedCount = 0, changedCount = 0, size = 0, newSize = 0;
+	private boolean collectUpdates(Map<IMarker, MarkerEntry> removed, Map<IMarker, MarkerEntry> inserted) {
+		boolean added = false;
 		LinkedList<MarkerUpdate> queue = getUpdatesQueue();
-		MarkerUpdate next = null;
-		do {
+		while (true) {
+			MarkerUpdate next;
 			synchronized (queue) {
-				if (!queue.isEmpty()) {
-					next = queue.removeFirst();
-				} else {
-					next = null;
+				if (queue.isEmpty()) {
+					break;
 				}
+				next = queue.removeFirst();
 			}
-			if (monitor.isCanceled() || next == null) {
-				break;
+			for (MarkerEntry entry : next.removed) {
+				inserted.remove(entry.getMarker());
+				removed.put(entry.getMarker(), entry);
 			}
-			/**
-			 * The following performs incremental updation of the markers that
-			 * were gathered intially, and keeps them synched at any point with
-			 * the markers of interest in Workspace
-			 */
-			// unfortunately marker operations cannot be locked
-			// so locking between gathering of markers and
-			// marker deltas is not possible
-			size = markerEntries.size();
-			handleRemovedEntries(markerEntries, next.removed);
-			newSize = markerEntries.size();
-			removedCount += size - newSize;
-
-			handleChangedEntries(markerEntries, next.changed);
-			changedCount += next.changed.size();
-
-			size = newSize;
-			handleAddedEntries(markerEntries, next.added);
-			newSize = markerEntries.size();
-			removedCount += newSize - size;
-		} while (next != null);
-		boolean[] changeFlags = new boolean[] { addCount > 0, removedCount > 0,
-				changedCount > 0 };
-		for (boolean changeFlag : changeFlags) {
-			if (changeFlag) {
-				builder.updateChangeFlags(changeFlags);
-				return true;
+			for (MarkerEntry entry : next.added) {
+				removed.remove(entry.getMarker());
+				inserted.put(entry.getMarker(), entry);
+				added = true;
 			}
-		}
-		return false;
-	}
-
-	private void handleAddedEntries(Collection<MarkerEntry> markerEntries, Collection<MarkerEntry> added) {
-		MarkerContentGenerator generator = builder.getGenerator();
-		Iterator<MarkerEntry> iterator = added.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			if (generator.select(entry)) {
-				markerEntries.add(entry);
+			for (MarkerEntry entry : next.changed) {
+				removed.remove(entry.getMarker());
+				inserted.put(entry.getMarker(), entry);
 			}
 		}
-	}
-
-	private void handleChangedEntries(Collection<MarkerEntry> markerEntries,
-			Collection<MarkerEntry> changed) {
 		MarkerContentGenerator generator = builder.getGenerator();
-		Iterator<MarkerEntry> iterator = changed.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			Iterator<MarkerEntry> iterator2 = markerEntries.iterator();
-			while (iterator2.hasNext()) {
-				MarkerEntry oldEntry = iterator2.next();
-				if (oldEntry.getMarker().equals(entry.getMarker())) {
-					iterator2.remove();
-				}
-			}
-			if (!generator.select(entry)) {
-				iterator.remove();
+		inserted.values().removeIf(entry -> {
+			if (entry.getMarker().exists() && generator.select(entry)) {
+				return false;
 			}
-		}
-		markerEntries.addAll(changed);
-	}
-
-	private void handleRemovedEntries(Collection<MarkerEntry> markerEntries,
-			Collection<MarkerEntry> removed) {
-		boolean found = false;
-		Iterator<MarkerEntry> iterator = markerEntries.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			found = entry.getStaleState();
-			if (found) {
-				iterator.remove();
-			}
-			if (removed.isEmpty()) {
-				continue;
-			}
-			Iterator<MarkerEntry> iterator2 = removed.iterator();
-			while (iterator2.hasNext()) {
-				MarkerEntry stale = iterator2.next();
-				if (stale.getMarker().equals(entry.getMarker())) {
-					iterator2.remove();
-					if (!found) {
-						iterator.remove();
-					}
-					break;
-				}
-			}
-		}
-		if (removed.isEmpty()) {
-			// TODO: do we check for residuals?
-			return;
-		}
-		// TODO: do we check for residuals?
-		iterator = markerEntries.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			if (entry.getMarker() != null && !entry.getMarker().exists()) {
-				iterator.remove();
-			}
-		}
-	}
-
-	/**
-	 * Clean
-	 */
-	void clearEntries() {
-		incrementEntryList = new LinkedList<>();
+			removed.put(entry.getMarker(), entry);
+			return true;
+		});
+		return added;
 	}
 
 	/**
-	 * @return Returns the incrementEntryies.
+	 * Discard the queued updates.
 	 */
-	Collection<MarkerEntry> incrementalEntries() {
-		return incrementEntryList;
+	void clearUpdates() {
+		LinkedList<MarkerUpdate> queue = getUpdatesQueue();
+		synchronized (queue) {
+			queue.clear();
+		}
 	}
 
 	/**
@@ -269,4 +162,4 @@ class IncrementUpdateJob extends MarkerUpdateJob {
 		}
 		return super.belongsTo(family);
 	}
-}
\ No newline at end of file
+}
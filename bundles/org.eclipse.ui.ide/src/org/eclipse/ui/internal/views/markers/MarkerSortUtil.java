@@ -28,8 +28,14 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -365,4 +371,112 @@ public class MarkerSortUtil {
 		sortStartingKElement(entries, comparator, from, entries.length - 1, k,monitor);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Number of inserted entries above which {@link #applyChanges} sorts again
+	 * instead of inserting the entries one by one.
+	 */
+	private static final int BULK_INSERT_THRESHOLD = 1000;
+
+	/**
+	 * Removes entries from and inserts entries into the entries of a category,
+	 * <code>[from,to]</code> in the array, whose first
+	 * <code>sortedLength</code> entries are in sort order and come before the
+	 * others. The entries are inserted at their sort position by binary search.
+	 * If an entry of the sorted part is removed while unsorted entries remain,
+	 * or if many entries are inserted, the sorted part is rebuilt by
+	 * {@link #sortStartingKElement(MarkerEntry[], Comparator, int, int, int, IProgressMonitor)}
+	 * instead.
+	 *
+	 * @param entries
+	 *            the array holding the entries of the category
+	 * @param from
+	 *            the index of the first entry of the category
+	 * @param to
+	 *            the index of the last entry of the category
+	 * @param sortedLength
+	 *            the number of leading entries in sort order
+	 * @param removedKeys
+	 *            the keys of the entries to remove
+	 * @param keyFunction
+	 *            returns the key of an entry
+	 * @param inserted
+	 *            the entries to insert
+	 * @param comparator
+	 *            the comparator of the entries
+	 * @param limit
+	 *            the number of leading entries to keep in sort order
+	 * @param removed
+	 *            collects the keys of the entries that have been removed
+	 * @return the new entries of the category, the first
+	 *         <code>min(limit, length)</code> of them in sort order
+	 */
+	static <K> MarkerEntry[] applyChanges(MarkerEntry[] entries, int from, int to, int sortedLength,
+			Set<K> removedKeys, Function<MarkerEntry, K> keyFunction, Collection<? extends MarkerEntry> inserted,
+			Comparator<MarkerItem> comparator, int limit, Set<K> removed) {
+		List<MarkerEntry> result = new ArrayList<>(Math.max(0, to - from + 1) + inserted.size());
+		int sorted = 0;
+		if (removedKeys.isEmpty()) {
+			result.addAll(Arrays.asList(entries).subList(from, to + 1));
+			sorted = Math.min(sortedLength, result.size());
+		} else {
+			for (int i = from; i <= to; i++) {
+				MarkerEntry entry = entries[i];
+				K key = keyFunction.apply(entry);
+				if (removedKeys.contains(key)) {
+					removed.add(key);
+					continue;
+				}
+				result.add(entry);
+				if (i - from < sortedLength) {
+					sorted++;
+				}
+			}
+		}
+		// a gap in the sorted part has to be filled from the unsorted rest
+		boolean resort = (sorted < sortedLength && result.size() > sorted)
+				|| inserted.size() > BULK_INSERT_THRESHOLD;
+		for (MarkerEntry entry : inserted) {
+			if (resort) {
+				result.add(entry);
+				continue;
+			}
+			int low = 0;
+			int high = sorted;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (comparator.compare(result.get(mid), entry) <= 0) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			if (low == sorted && sorted >= limit) {
+				// behind the sorted part
+				result.add(entry);
+			} else {
+				result.add(low, entry);
+				sorted = Math.min(sorted + 1, limit);
+			}
+			entry.clearCache();
+		}
+		MarkerEntry[] array = result.toArray(new MarkerEntry[result.size()]);
+		if (resort) {
+			sortStartingKElement(array, comparator, 0, array.length - 1, Math.min(limit, array.length),
+					new NullProgressMonitor());
+		}
+		return array;
+	}
+
+	/**
+	 * Apply changes to mock entries, see
+	 * {@link #applyChanges(MarkerEntry[], int, int, int, Set, Function, Collection, Comparator, int, Set)}.
+	 * Method for use by test cases, the entries are identified by their names.
+	 *
+	 * @return the new entries
+	 */
+	public static MarkerItem[] applyChanges(MockMarkerEntry[] entries, int sortedLength, Set<String> removedNames,
+			List<MockMarkerEntry> inserted, Comparator<MarkerItem> comparator, int limit) {
+		return applyChanges(entries, 0, entries.length - 1, sortedLength, removedNames,
+				entry -> ((MockMarkerEntry) entry).name, inserted, comparator, limit, new HashSet<>());
+	}
+}
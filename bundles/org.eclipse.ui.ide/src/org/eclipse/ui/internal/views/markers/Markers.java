@@ -21,15 +21,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
 import org.eclipse.ui.views.markers.MarkerItem;
 import org.eclipse.ui.views.markers.internal.MarkerGroup;
@@ -46,11 +49,28 @@ class Markers {
 
 	static final MarkerCategory[] EMPTY_CATEGORY_ARRAY = new MarkerCategory[0];
 	static final MarkerEntry[] EMPTY_ENTRY_ARRAY = new MarkerEntry[0];
+	private static final MarkerGroupingEntry[] EMPTY_KEY_ARRAY = new MarkerGroupingEntry[0];
+
+	/**
+	 * Minimal number of changed entries above which a delta is not applied but
+	 * the markers are gathered again, see {@link #applyDelta}.
+	 */
+	private static final int DELTA_LIMIT = 1000;
+
+	/**
+	 * Number of changed entries above which the viewer is refreshed completely
+	 * instead of updating their labels.
+	 */
+	private static final int VIEWER_CHANGES_LIMIT = 1000;
 
 	// the marker entries
 	private volatile MarkerEntry[] markerEntryArray = EMPTY_ENTRY_ARRAY;
 	// the categories
 	private volatile MarkerCategory[] categories = EMPTY_CATEGORY_ARRAY;
+	// the grouping entries of the categories, in the same order
+	private MarkerGroupingEntry[] categoryKeys = EMPTY_KEY_ARRAY;
+	// the grouping entries of the markers if grouped
+	private Map<IMarker, MarkerGroupingEntry> markerKeys;
 
 	private final CachedMarkerBuilder builder;
 
@@ -61,6 +81,11 @@ class Markers {
 	private Map<IMarker, MarkerEntry> markerToEntryMap;
 	private Integer[] markerCounts;
 
+	// the entries whose labels changed since the viewer was refreshed, null if
+	// the viewer has to be refreshed completely
+	private Set<MarkerEntry> viewerChanges;
+	private final Object viewerChangesLock = new Object();
+
 	Markers(CachedMarkerBuilder builder) {
 		this.builder = builder;
 	}
@@ -83,8 +108,11 @@ class Markers {
 				markerToEntryMap = null;
 			}
 			markerCounts = null;
+			requestFullViewerRefresh();
 			if (markerEntries.isEmpty()) {
 				categories = EMPTY_CATEGORY_ARRAY;
+				categoryKeys = EMPTY_KEY_ARRAY;
+				markerKeys = sortAndGroup && builder.isShowingHierarchy() ? new HashMap<>() : null;
 				markerEntryArray = EMPTY_ENTRY_ARRAY;
 				return true;
 			}
@@ -105,6 +133,8 @@ class Markers {
 				}
 			} else {
 				categories = EMPTY_CATEGORY_ARRAY;
+				categoryKeys = EMPTY_KEY_ARRAY;
+				markerKeys = null;
 			}
 			return true;
 		} finally {
@@ -125,6 +155,8 @@ class Markers {
 				categories = markerCategories;
 			} else {
 				categories = EMPTY_CATEGORY_ARRAY;
+				categoryKeys = EMPTY_KEY_ARRAY;
+				markerKeys = null;
 			}
 
 			if (monitor.isCanceled()) {
@@ -147,6 +179,7 @@ class Markers {
 		MarkerCategory lastCategory = null;
 		try {
 			inChange = true;
+			requestFullViewerRefresh();
 			if (builder.isShowingHierarchy()) {
 				Comparator<MarkerItem> comparator = markerComparator.getFieldsComparator();
 				for (MarkerCategory category : categories) {
@@ -219,15 +252,18 @@ class Markers {
 				builder.getCategoryGroup(), newMarkers.length - 1, monitor);
 		int start = 0;
 		MarkerCategory[] markerCategories = new MarkerCategory[boundaryInfoMap.size()];
+		MarkerGroupingEntry[] keys = new MarkerGroupingEntry[boundaryInfoMap.size()];
 		int i = 0;
 		int end = 0;
 		for (Entry<MarkerGroupingEntry, Integer> entry : boundaryInfoMap.entrySet()) {
 			end = entry.getValue();
+			keys[i] = entry.getKey();
 			markerCategories[i++] = new MarkerCategory(this, start, end,
 					builder.getCategoryGroup().getMarkerField()
 							.getValue(newMarkers[start]));
 			start = end + 1;
 		}
+		categoryKeys = keys;
 		return markerCategories;
 	}
 
@@ -243,6 +279,8 @@ class Markers {
 			int k, IProgressMonitor monitor) {
 		TreeMap<MarkerGroupingEntry, List<MarkerEntry>> map = new TreeMap<>(
 				group.getEntriesComparator());
+		Map<IMarker, MarkerGroupingEntry> keys = new HashMap<>();
+		markerKeys = null;
 		for (int i = 0; i <= k; i++) {
 			IMarker marker = entries[i].getMarker();
 			if (marker == null) {
@@ -259,6 +297,7 @@ class Markers {
 					map.put(groupingEntry, list);
 				}
 				list.add(entries[i]);
+				keys.put(marker, groupingEntry);
 			} catch (CoreException e) {
 				entries[i].checkIfMarkerStale();
 			}
@@ -276,9 +315,222 @@ class Markers {
 			}
 			result.put(key, i - 1);
 		}
+		markerKeys = keys;
 		return result;
 	}
 
+	/**
+	 * Apply a batch of marker changes to the sorted and grouped entries without
+	 * gathering and sorting all markers again. Only the categories of the
+	 * changed markers are rebuilt, see
+	 * {@link MarkerSortUtil#applyChanges(MarkerEntry[], int, int, int, Set, java.util.function.Function, Collection, Comparator, int, Set)},
+	 * the entries of the other categories are copied as a block. A delta
+	 * changing more than a quarter of the entries is not applied since
+	 * gathering the markers again is cheaper.
+	 *
+	 * @param removed
+	 *            the entries of the markers that are no longer shown
+	 * @param inserted
+	 *            the entries of the added or changed markers that are shown
+	 * @return <code>false</code> if the delta can't be applied and the markers
+	 *         have to be gathered again
+	 */
+	synchronized boolean applyDelta(Collection<MarkerEntry> removed, Collection<MarkerEntry> inserted) {
+		boolean grouped = builder.isShowingHierarchy();
+		MarkerGroup group = builder.getCategoryGroup();
+		MarkerEntry[] entries = markerEntryArray;
+		if (grouped && (group == null || markerKeys == null || categoryKeys.length != categories.length)) {
+			return false;
+		}
+		if (removed.size() + inserted.size() > Math.max(DELTA_LIMIT, entries.length / 4)) {
+			return false;
+		}
+		boolean initialVal = inChange;
+		try {
+			inChange = true;
+			Comparator<MarkerItem> comparator = grouped ? builder.getComparator().getFieldsComparator()
+					: builder.getComparator();
+			int limit = getSortedLength(Integer.MAX_VALUE);
+			// the markers whose entries have been taken out
+			Set<IMarker> present = new HashSet<>();
+			MarkerEntry[] newArray;
+			if (grouped) {
+				newArray = applyGroupedDelta(entries, group, removed, inserted, comparator, limit, present);
+			} else {
+				Set<IMarker> gone = new HashSet<>();
+				for (MarkerEntry entry : removed) {
+					gone.add(entry.getMarker());
+				}
+				for (MarkerEntry entry : inserted) {
+					gone.add(entry.getMarker());
+				}
+				newArray = MarkerSortUtil.applyChanges(entries, 0, entries.length - 1,
+						getSortedLength(entries.length), gone, MarkerEntry::getMarker, inserted, comparator, limit,
+						present);
+			}
+			MarkerEntry.clearCollationCache();
+
+			if (markerToEntryMap != null) {
+				for (MarkerEntry entry : removed) {
+					markerToEntryMap.remove(entry.getMarker());
+				}
+				for (MarkerEntry entry : inserted) {
+					markerToEntryMap.put(entry.getMarker(), entry);
+				}
+			}
+			markerCounts = null;
+			markerEntryArray = newArray;
+
+			// the viewer finds added and removed entries by itself, the
+			// labels of the changed ones and of the categories are updated
+			synchronized (viewerChangesLock) {
+				if (viewerChanges != null) {
+					for (MarkerEntry entry : inserted) {
+						if (present.contains(entry.getMarker())) {
+							viewerChanges.add(entry);
+						}
+					}
+					if (viewerChanges.size() > VIEWER_CHANGES_LIMIT) {
+						viewerChanges = null;
+					}
+				}
+			}
+			return true;
+		} finally {
+			inChange = initialVal;
+		}
+	}
+
+	/**
+	 * Apply the delta to the categories of the removed and inserted markers,
+	 * update the categories and return the new entries.
+	 */
+	private MarkerEntry[] applyGroupedDelta(MarkerEntry[] entries, MarkerGroup group,
+			Collection<MarkerEntry> removed, Collection<MarkerEntry> inserted, Comparator<MarkerItem> comparator,
+			int limit, Set<IMarker> present) {
+		// the removed markers and the inserted entries by category
+		Map<MarkerGroupingEntry, Set<IMarker>> gone = new TreeMap<>(group.getEntriesComparator());
+		Map<MarkerGroupingEntry, List<MarkerEntry>> added = new TreeMap<>(group.getEntriesComparator());
+		for (MarkerEntry entry : removed) {
+			MarkerGroupingEntry key = markerKeys.remove(entry.getMarker());
+			if (key != null) {
+				gone.computeIfAbsent(key, k -> new HashSet<>()).add(entry.getMarker());
+			}
+		}
+		for (MarkerEntry entry : inserted) {
+			IMarker marker = entry.getMarker();
+			MarkerGroupingEntry oldKey = markerKeys.remove(marker);
+			if (oldKey != null) {
+				gone.computeIfAbsent(oldKey, k -> new HashSet<>()).add(marker);
+			}
+			MarkerGroupingEntry key;
+			try {
+				key = group.findGroupValue(marker.getType(), marker);
+			} catch (CoreException e) {
+				entry.checkIfMarkerStale();
+				continue;
+			}
+			markerKeys.put(marker, key);
+			added.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+		}
+
+		// the existing and the new categories in order, mapped to the index
+		// of the existing category or -1
+		TreeMap<MarkerGroupingEntry, Integer> order = new TreeMap<>(group.getEntriesComparator());
+		for (int i = 0; i < categoryKeys.length; i++) {
+			order.put(categoryKeys[i], Integer.valueOf(i));
+		}
+		for (MarkerGroupingEntry key : added.keySet()) {
+			order.putIfAbsent(key, Integer.valueOf(-1));
+		}
+
+		Map<MarkerGroupingEntry, MarkerEntry[]> changed = new TreeMap<>(group.getEntriesComparator());
+		int size = 0;
+		for (Entry<MarkerGroupingEntry, Integer> mapEntry : order.entrySet()) {
+			MarkerGroupingEntry key = mapEntry.getKey();
+			int index = mapEntry.getValue().intValue();
+			MarkerCategory category = index < 0 ? null : categories[index];
+			if (!gone.containsKey(key) && !added.containsKey(key)) {
+				size += category.end - category.start + 1;
+				continue;
+			}
+			int from = category == null ? 0 : category.start;
+			int to = category == null ? -1 : category.end;
+			MarkerEntry[] segment = MarkerSortUtil.applyChanges(entries, from, to,
+					getSortedLength(to - from + 1), gone.getOrDefault(key, Collections.emptySet()),
+					MarkerEntry::getMarker, added.getOrDefault(key, Collections.emptyList()), comparator, limit,
+					present);
+			changed.put(key, segment);
+			size += segment.length;
+		}
+
+		MarkerEntry[] newArray = new MarkerEntry[size];
+		List<MarkerCategory> newCategories = new ArrayList<>(order.size());
+		List<MarkerGroupingEntry> newKeys = new ArrayList<>(order.size());
+		int start = 0;
+		for (Entry<MarkerGroupingEntry, Integer> mapEntry : order.entrySet()) {
+			MarkerGroupingEntry key = mapEntry.getKey();
+			MarkerEntry[] segment = changed.get(key);
+			MarkerCategory category;
+			int length;
+			if (segment == null) {
+				category = categories[mapEntry.getValue().intValue()];
+				length = category.end - category.start + 1;
+				System.arraycopy(entries, category.start, newArray, start, length);
+			} else {
+				length = segment.length;
+				if (length == 0) {
+					continue;
+				}
+				System.arraycopy(segment, 0, newArray, start, length);
+			}
+			newCategories.add(new MarkerCategory(this, start, start + length - 1,
+					group.getMarkerField().getValue(newArray[start])));
+			newKeys.add(key);
+			start += length;
+		}
+		categories = newCategories.toArray(EMPTY_CATEGORY_ARRAY);
+		categoryKeys = newKeys.toArray(EMPTY_KEY_ARRAY);
+		return newArray;
+	}
+
+	/**
+	 * Return the number of leading entries of a category (or of all entries if
+	 * not grouped) that are kept in sort order, the others are only known to
+	 * come after them.
+	 */
+	private int getSortedLength(int size) {
+		MarkerContentGenerator generator = builder.getGenerator();
+		if (!generator.isMarkerLimitsEnabled() || generator.getMarkerLimits() <= 0) {
+			return size;
+		}
+		return Math.min(size, generator.getMarkerLimits());
+	}
+
+	/**
+	 * Return the entries whose labels changed since the last call and reset
+	 * them.
+	 *
+	 * @return the changed entries or <code>null</code> if the viewer has to be
+	 *         refreshed completely
+	 */
+	Set<MarkerEntry> takeViewerChanges() {
+		synchronized (viewerChangesLock) {
+			Set<MarkerEntry> changes = viewerChanges;
+			viewerChanges = new HashSet<>();
+			return changes;
+		}
+	}
+
+	/**
+	 * Mark the viewer to be refreshed completely on its next update.
+	 */
+	void requestFullViewerRefresh() {
+		synchronized (viewerChangesLock) {
+			viewerChanges = null;
+		}
+	}
+
 	/**
 	 * Returns an array of marker counts where getMarkerCounts()[severity] is
 	 * the number of markers in the list with the given severity.
@@ -156,14 +156,11 @@ class MarkersChangeListener implements IResourceChangeListener {
 
 	/**
 	 * Handle changes incrementally.
-	 * The following performs incremental updation
-	 * of the markers that were gathered initially, and keeps them synched at
-	 * any point with the markers of interest in Workspace. Unfortunately marker
-	 * operations cannot be locked so locking between gathering of markers and
-	 * marker deltas is not possible.
-	 *
-	 * Note : this method of updating is NOT used and tested yet and has holes
-	 * but left out SOLELY for further investigation(*).
+	 * The following queues the marker deltas for the {@link IncrementUpdateJob}
+	 * which applies them to the markers that were gathered initially, and keeps
+	 * them synched at any point with the markers of interest in Workspace.
+	 * Marker operations cannot be locked, deltas received while the markers
+	 * are gathered are applied after the gathering, which is idempotent.
 	 */
 	private void handleIncrementalChange(IResourceChangeEvent event) {
 		IMarkerDelta[] markerDeltas = event.findMarkerDeltas(null, true);
@@ -15,6 +15,8 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.Set;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -81,6 +83,13 @@ class UIUpdateJob extends WorkbenchJob {
 			if (monitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
+			/*
+			 * Take the label changes before the clone, changes applied in
+			 * between are kept for the next update.
+			 */
+			Markers markers = view.getBuilder().getMarkers();
+			Set<MarkerEntry> changes = view.isVisible() ? markers.takeViewerChanges() : null;
+
 			/*
 			 * always use a clone for Thread safety. We avoid setting the clone
 			 * as new input as we would offset the benefits of optimization in
@@ -89,6 +98,7 @@ class UIUpdateJob extends WorkbenchJob {
 			clone= view.createViewerInputClone();
 			if (clone == null) {
 				// do not update yet,we are changing
+				markers.requestFullViewerRefresh();
 				return Status.CANCEL_STATUS;
 			}
 
@@ -101,7 +111,19 @@ class UIUpdateJob extends WorkbenchJob {
 				contentProvider.inputChanged(viewer, view.getViewerInput(), clone);
 
 				viewer.getTree().setRedraw(false);
-				viewer.refresh(true);
+				if (changes == null) {
+					viewer.refresh(true);
+				} else {
+					// only incremental changes: let the viewer add and remove
+					// items and update the labels that changed
+					viewer.refresh(false);
+					if (!changes.isEmpty()) {
+						viewer.update(changes.toArray(), null);
+					}
+					if (view.getBuilder().isShowingHierarchy()) {
+						viewer.update(clone.getCategories(), null);
+					}
+				}
 				if (!monitor.isCanceled()) {
 					//do not expand if canceled
 					view.reexpandCategories();
@@ -14,9 +14,16 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.navigator.resources.workbench;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -27,6 +34,7 @@ import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.util.Throttler;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.Viewer;
@@ -41,8 +49,61 @@ import org.eclipse.ui.model.WorkbenchContentProvider;
 public class ResourceExtensionContentProvider extends WorkbenchContentProvider {
 
 	private static final Object[] NO_CHILDREN = new Object[0];
+
+	/**
+	 * The minimum time between two updates of the viewer from another thread,
+	 * the deltas notified in between are merged into one update.
+	 */
+	private static final Duration UPDATE_INTERVAL = Duration.ofMillis(100);
+
+	/**
+	 * The children added to and removed from a container.
+	 */
+	private static final class ContainerChanges {
+		final Set<IResource> added = new LinkedHashSet<>();
+
+		final Set<IResource> removed = new LinkedHashSet<>();
+
+		boolean hasRename;
+
+		boolean isEmpty() {
+			return added.isEmpty() && removed.isEmpty();
+		}
+	}
+
+	/**
+	 * How a resource is shown by a tree viewer, as far as the public API of
+	 * the viewer tells.
+	 */
+	private enum NodeState {
+		/** Not known to be shown. */
+		NOT_SHOWN,
+		/** Shown by a collapsed item. */
+		COLLAPSED,
+		/** Shown by an expanded item. */
+		EXPANDED
+	}
+
 	private Viewer viewer;
 
+	/**
+	 * Guards the pending updates.
+	 */
+	private final Object pendingLock = new Object();
+
+	/**
+	 * The resources to refresh that have not been refreshed yet.
+	 */
+	private SortedSet<IResource> pendingRefreshes = createRefreshSet();
+
+	/**
+	 * The changes of containers that have not been applied yet, in the order
+	 * of the deltas.
+	 */
+	private Map<IResource, ContainerChanges> pendingChanges = new LinkedHashMap<>();
+
+	private Throttler updateThrottler;
+
 	public ResourceExtensionContentProvider() {
 		super();
 	}
@@ -85,8 +146,24 @@ public class ResourceExtensionContentProvider extends WorkbenchContentProvider {
 	}
 
 
+	@Override
+	public void dispose() {
+		synchronized (pendingLock) {
+			pendingRefreshes.clear();
+			pendingChanges.clear();
+		}
+		super.dispose();
+	}
+
 	/**
 	 * Process the resource delta.
+	 * <p>
+	 * The changes are merged with the changes of the previous deltas that have
+	 * not been applied to the viewer yet. Deltas notified in the UI thread are
+	 * applied right away, deltas from other threads at most every
+	 * {@link #UPDATE_INTERVAL}, so that a burst of deltas, like from switching
+	 * a branch, updates the viewer a few times rather than once per delta.
+	 * </p>
 	 */
 	@Override
 	protected void processDelta(IResourceDelta delta) {
@@ -96,55 +173,75 @@ public class ResourceExtensionContentProvider extends WorkbenchContentProvider {
 			return;
 		}
 
-		final Collection<Runnable> runnables = new ArrayList<>();
-		final SortedSet<IResource> resourcesToRefresh = new TreeSet<>(new Comparator<IResource>() {
+		final Map<IResource, ContainerChanges> changes = new LinkedHashMap<>();
+		final SortedSet<IResource> resourcesToRefresh = createRefreshSet();
+		processDelta(delta, changes, resourcesToRefresh);
+
+		if (changes.isEmpty() && resourcesToRefresh.isEmpty()) {
+			return;
+		}
+
+		synchronized (pendingLock) {
+			mergePendingUpdates(changes, resourcesToRefresh);
+			if (updateThrottler == null) {
+				updateThrottler = new Throttler(ctrl.getDisplay(), UPDATE_INTERVAL, this::runUpdates);
+			}
+		}
+
+		//Are we in the UIThread? If so spin it until we are done
+		if (ctrl.getDisplay().getThread() == Thread.currentThread()) {
+			runUpdates();
+		} else {
+			updateThrottler.throttledAsyncExec();
+		}
+
+	}
+
+	private static SortedSet<IResource> createRefreshSet() {
+		return new TreeSet<>(new Comparator<IResource>() {
 			private final PathComparator pathComparator = new PathComparator();
 			@Override
 			public int compare(IResource arg0, IResource arg1) {
 				return pathComparator.compare(arg0.getFullPath(), arg1.getFullPath());
 			}
 		});
-		processDelta(delta, runnables, resourcesToRefresh);
+	}
 
-		IResource currentTopLevelResource = null;
-		for (IResource resource : resourcesToRefresh) {
-			if (resource == null) {
+	/**
+	 * Merges the changes of a delta into the pending updates. A child that is
+	 * added and removed again before the viewer is updated is dropped, a child
+	 * that is removed and added again is refreshed.
+	 */
+	private void mergePendingUpdates(Map<IResource, ContainerChanges> changes, Set<IResource> toRefresh) {
+		for (IResource resource : toRefresh) {
+			if (resource != null) {
 				// paranoia, see bug 509821
-				continue;
-			}
-			if (currentTopLevelResource == null
-					|| !currentTopLevelResource.getFullPath().isPrefixOf(resource.getFullPath())) {
-				currentTopLevelResource = resource;
-				runnables.add(getRefreshRunnable(resource));
+				pendingRefreshes.add(resource);
 			}
 		}
-
-		if (runnables.isEmpty()) {
-			return;
-		}
-
-		//Are we in the UIThread? If so spin it until we are done
-		if (ctrl.getDisplay().getThread() == Thread.currentThread()) {
-			runUpdates(runnables);
-		} else {
-			ctrl.getDisplay().asyncExec(() -> {
-				// Abort if this happens after disposes
-				Control ctrl1 = viewer.getControl();
-				if (ctrl1 == null || ctrl1.isDisposed()) {
-					return;
+		changes.forEach((container, containerChanges) -> {
+			ContainerChanges pending = pendingChanges.computeIfAbsent(container, c -> new ContainerChanges());
+			for (IResource removed : containerChanges.removed) {
+				if (!pending.added.remove(removed)) {
+					pending.removed.add(removed);
 				}
-
-				runUpdates(runnables);
-			});
-		}
-
+			}
+			for (IResource added : containerChanges.added) {
+				if (pending.removed.remove(added)) {
+					pendingRefreshes.add(added);
+				} else {
+					pending.added.add(added);
+				}
+			}
+			pending.hasRename |= containerChanges.hasRename;
+		});
 	}
 
 	/**
-	 * Process a resource delta. Add runnables for addAndRemove and
-	 * resourceToUpdate.
+	 * Process a resource delta. Collect the children added to and removed from
+	 * containers, and the resources to refresh.
 	 */
-	private void processDelta(IResourceDelta delta, Collection<Runnable> addAndRemoveRunnables,
+	private void processDelta(IResourceDelta delta, Map<IResource, ContainerChanges> changes,
 			Set<IResource> toRefresh) {
 		//he widget may have been destroyed
 		// by the time this is run. Check for this and do nothing if so.
@@ -194,7 +291,7 @@ public class ResourceExtensionContentProvider extends WorkbenchContentProvider {
 
 		// Handle changed children .
 		for (IResourceDelta affectedChild : affectedChildren) {
-			processDelta(affectedChild, addAndRemoveRunnables, toRefresh);
+			processDelta(affectedChild, changes, toRefresh);
 		}
 
 		// @issue several problems here:
@@ -220,86 +317,196 @@ public class ResourceExtensionContentProvider extends WorkbenchContentProvider {
 			return;
 		}
 
-		final Object[] addedObjects;
-		final Object[] removedObjects;
-
 		// Process additions before removals as to not cause selection
 		// preservation prior to new objects being added
-		// Handle added children. Issue one update for all insertions.
+		ContainerChanges containerChanges = changes.computeIfAbsent(resource, c -> new ContainerChanges());
 		int numMovedFrom = 0;
 		int numMovedTo = 0;
-		if (addedChildren.length > 0) {
-			addedObjects = new Object[addedChildren.length];
-			for (int i = 0; i < addedChildren.length; i++) {
-				addedObjects[i] = addedChildren[i].getResource();
-				if ((addedChildren[i].getFlags() & IResourceDelta.MOVED_FROM) != 0) {
-					++numMovedFrom;
-				}
+		for (IResourceDelta addedChild : addedChildren) {
+			containerChanges.added.add(addedChild.getResource());
+			if ((addedChild.getFlags() & IResourceDelta.MOVED_FROM) != 0) {
+				++numMovedFrom;
 			}
-		} else {
-			addedObjects = new Object[0];
+		}
+		for (IResourceDelta removedChild : removedChildren) {
+			containerChanges.removed.add(removedChild.getResource());
+			if ((removedChild.getFlags() & IResourceDelta.MOVED_TO) != 0) {
+				++numMovedTo;
+			}
+		}
+		// heuristic test for items moving within same folder (i.e. renames)
+		containerChanges.hasRename |= numMovedFrom > 0 && numMovedTo > 0;
+	}
+
+	/**
+	 * Applies the pending updates to the viewer. Runs in the UI thread.
+	 * <p>
+	 * The changes below a collapsed node are replaced by a refresh of the
+	 * topmost collapsed node, which drops its child items, if any, so that they
+	 * are created from the current resources when it is expanded. The other
+	 * changes are applied one by one. All updates run with redraw suspended.
+	 * </p>
+	 */
+	private void runUpdates() {
+		SortedSet<IResource> refreshes;
+		Map<IResource, ContainerChanges> changes;
+		synchronized (pendingLock) {
+			if (pendingRefreshes.isEmpty() && pendingChanges.isEmpty()) {
+				return;
+			}
+			refreshes = pendingRefreshes;
+			changes = pendingChanges;
+			pendingRefreshes = createRefreshSet();
+			pendingChanges = new LinkedHashMap<>();
 		}
 
-		// Handle removed children. Issue one update for all removals.
-		if (removedChildren.length > 0) {
-			removedObjects = new Object[removedChildren.length];
-			for (int i = 0; i < removedChildren.length; i++) {
-				removedObjects[i] = removedChildren[i].getResource();
-				if ((removedChildren[i].getFlags() & IResourceDelta.MOVED_TO) != 0) {
-					++numMovedTo;
+		// Abort if this happens after disposes
+		Control ctrl = viewer.getControl();
+		if (ctrl == null || ctrl.isDisposed()) {
+			return;
+		}
+
+		if (!(viewer instanceof AbstractTreeViewer treeViewer)) {
+			StructuredViewer structuredViewer = (StructuredViewer) viewer;
+			changes.forEach((container, containerChanges) -> {
+				if (!containerChanges.isEmpty()) {
+					structuredViewer.refresh(container);
 				}
+			});
+			for (IResource resource : getTopLevelResources(refreshes)) {
+				structuredViewer.refresh(resource);
 			}
-		} else {
-			removedObjects = new Object[0];
+			return;
 		}
-		// heuristic test for items moving within same folder (i.e. renames)
-		final boolean hasRename = numMovedFrom > 0 && numMovedTo > 0;
-
-		Runnable addAndRemove = () -> {
-			if (viewer instanceof AbstractTreeViewer treeViewer) {
-				// Disable redraw until the operation is finished so we don't
-				// get a flash of both the new and old item (in the case of
-				// rename)
-				// Only do this if we're both adding and removing files (the
-				// rename case)
-				if (hasRename) {
-					treeViewer.getControl().setRedraw(false);
+
+		Map<IResource, NodeState> nodeStates = new HashMap<>();
+		for (Iterator<Map.Entry<IResource, ContainerChanges>> it = changes.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<IResource, ContainerChanges> entry = it.next();
+			if (entry.getValue().isEmpty()) {
+				it.remove();
+				continue;
+			}
+			IResource collapsed = getTopmostCollapsed(treeViewer, entry.getKey(), nodeStates);
+			if (collapsed != null) {
+				refreshes.add(collapsed);
+				it.remove();
+			}
+		}
+		SortedSet<IResource> refreshRoots = createRefreshSet();
+		for (IResource resource : refreshes) {
+			IResource parent = resource.getParent();
+			IResource collapsed = parent == null ? null : getTopmostCollapsed(treeViewer, parent, nodeStates);
+			refreshRoots.add(collapsed != null ? collapsed : resource);
+		}
+		List<IResource> toRefresh = getTopLevelResources(refreshRoots);
+		Set<IResource> refreshed = new HashSet<>(toRefresh);
+		changes.keySet().removeIf(container -> isInRefreshed(container, refreshed));
+
+		boolean hasRename = changes.values().stream().anyMatch(containerChanges -> containerChanges.hasRename);
+		// Disable redraw until the updates are finished so we don't
+		// get a flash of both the new and old item (in the case of
+		// rename) or of every single update
+		boolean suspendRedraw = hasRename || changes.size() + toRefresh.size() > 1;
+		if (suspendRedraw) {
+			ctrl.setRedraw(false);
+		}
+		try {
+			changes.forEach((container, containerChanges) -> {
+				if (!containerChanges.added.isEmpty()) {
+					treeViewer.add(container, containerChanges.added.toArray());
 				}
-				try {
-					if (addedObjects.length > 0) {
-						treeViewer.add(resource, addedObjects);
-					}
-					if (removedObjects.length > 0) {
-						treeViewer.remove(removedObjects);
-					}
-				} finally {
-					if (hasRename) {
-						treeViewer.getControl().setRedraw(true);
-					}
+				if (!containerChanges.removed.isEmpty()) {
+					treeViewer.remove(containerChanges.removed.toArray());
 				}
-			} else {
-				((StructuredViewer) viewer).refresh(resource);
+			});
+			for (IResource resource : toRefresh) {
+				treeViewer.refresh(resource);
+			}
+		} finally {
+			if (suspendRedraw) {
+				ctrl.setRedraw(true);
+			}
+		}
+	}
+
+	/**
+	 * Returns the topmost node of the container and its ancestors that is not
+	 * expanded, below the input of the viewer.
+	 * <p>
+	 * A node is known to be shown if it is expanded, or if its parent is
+	 * expanded or is the input. Only the ancestors known to be shown are
+	 * considered, since other content extensions may show the resources in
+	 * another structure, like working sets. If the container itself is not
+	 * known to be shown, the collapsed nodes are not looked up at all and the
+	 * container is updated one change at a time.
+	 * </p>
+	 *
+	 * @return the node, or <code>null</code> if the container and all its
+	 *         ancestors are expanded, or if the container is not known to be
+	 *         shown
+	 */
+	private IResource getTopmostCollapsed(AbstractTreeViewer treeViewer, IResource container,
+			Map<IResource, NodeState> nodeStates) {
+		Object input = viewer.getInput();
+		IResource collapsed = null;
+		for (IResource current = container; !isTop(current, input); current = current.getParent()) {
+			NodeState state = nodeStates.computeIfAbsent(current,
+					resource -> getNodeState(treeViewer, resource, input));
+			if (state == NodeState.NOT_SHOWN) {
+				// The viewer does not mirror the resource tree from here on
+				break;
+			}
+			if (state == NodeState.COLLAPSED) {
+				collapsed = current;
 			}
-		};
-		addAndRemoveRunnables.add(addAndRemove);
+		}
+		return collapsed;
+	}
+
+	private static NodeState getNodeState(AbstractTreeViewer treeViewer, IResource resource, Object input) {
+		if (treeViewer.getExpandedState(resource)) {
+			return NodeState.EXPANDED;
+		}
+		IResource parent = resource.getParent();
+		if (isTop(parent, input) || treeViewer.getExpandedState(parent)) {
+			return NodeState.COLLAPSED;
+		}
+		return NodeState.NOT_SHOWN;
 	}
 
 	/**
-	 * Return a runnable for refreshing a resource.
-	 * @return Runnable
+	 * Returns whether the resource is the input of the viewer or above it.
 	 */
-	private Runnable getRefreshRunnable(final IResource resource) {
-		return () -> ((StructuredViewer) viewer).refresh(resource);
+	private static boolean isTop(IResource resource, Object input) {
+		return resource == null || resource.getType() == IResource.ROOT || resource.equals(input);
 	}
 
 	/**
-	 * Run all of the runnables that are the widget updates
+	 * Returns the resources that are not below another of the resources.
+	 *
+	 * @param resources
+	 *            the resources, sorted by their paths
 	 */
-	private void runUpdates(Collection<Runnable> runnables) {
-		for (Runnable runnable : runnables) {
-			runnable.run();
+	private static List<IResource> getTopLevelResources(SortedSet<IResource> resources) {
+		List<IResource> topLevelResources = new ArrayList<>();
+		IResource currentTopLevelResource = null;
+		for (IResource resource : resources) {
+			if (currentTopLevelResource == null
+					|| !currentTopLevelResource.getFullPath().isPrefixOf(resource.getFullPath())) {
+				currentTopLevelResource = resource;
+				topLevelResources.add(resource);
+			}
 		}
+		return topLevelResources;
+	}
 
+	private static boolean isInRefreshed(IResource resource, Set<IResource> refreshed) {
+		for (IResource current = resource; current != null; current = current.getParent()) {
+			if (refreshed.contains(current)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 }
@@ -145,6 +145,15 @@ public class SectionDescriptor extends AbstractSectionDescriptor {
 		return filter;
 	}
 
+	/**
+	 * Returns whether the section has a filter, without creating it.
+	 *
+	 * @return <code>true</code> if a filter is declared for the section
+	 */
+	boolean hasFilter() {
+		return filter != null || getConfigurationElement().getAttribute(ATT_SECTION_FILTER) != null;
+	}
+
 	/**
 	 * Retrieves the value for section enablement which is a precise number of
 	 * items selected. For example: enablesFor=" 4" enables the action only when
@@ -16,7 +16,14 @@ package org.eclipse.ui.internal.views.properties.tabbed.view;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -28,6 +35,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.internal.views.properties.tabbed.TabbedPropertyViewStatusCodes;
 import org.eclipse.ui.internal.views.properties.tabbed.l10n.TabbedPropertyMessages;
@@ -86,6 +94,38 @@ public class TabbedPropertyRegistry {
 
 	private static final String TOP = "top"; //$NON-NLS-1$
 
+	/**
+	 * The maximum number of resolved tab lists to cache.
+	 */
+	private static final int TAB_LIST_CACHE_SIZE = 64;
+
+	/**
+	 * The key of a resolved tab list: the effective types of the selected
+	 * elements and, if some section depends on it, the size of the selection.
+	 */
+	private static final class TabListKey {
+
+		private final Set<Class<?>> types;
+
+		private final int size;
+
+		TabListKey(Set<Class<?>> types, int size) {
+			this.types = types;
+			this.size = size;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			return object instanceof TabListKey other && size == other.size
+					&& types.equals(other.types);
+		}
+
+		@Override
+		public int hashCode() {
+			return types.hashCode() * 31 + size;
+		}
+	}
+
 	protected String contributorId;
 
 	protected IConfigurationElement contributorConfigurationElement;
@@ -108,6 +148,37 @@ public class TabbedPropertyRegistry {
 
 	protected boolean overridableTabListContentProvider = false;
 
+	/**
+	 * The section descriptors of {@link #tabDescriptors} that apply to a
+	 * selection solely depending on the types of the selected elements and the
+	 * size of the selection.
+	 */
+	private Set<ISectionDescriptor> typeBasedSections;
+
+	/**
+	 * Whether any section descriptor of {@link #tabDescriptors} depends on the
+	 * selected elements themselves.
+	 */
+	private boolean hasSelectionBasedSections;
+
+	/**
+	 * Whether any type based section depends on the size of the selection.
+	 */
+	private boolean hasSizeBasedSections;
+
+	/**
+	 * The tab lists with the type based sections resolved, by the types of the
+	 * selected elements, least recently used first.
+	 */
+	private final Map<TabListKey, ITabDescriptor[]> tabListCache = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TabListKey, ITabDescriptor[]> eldest) {
+			return size() > TAB_LIST_CACHE_SIZE;
+		}
+	};
+
 	/**
 	 * There is one details registry for each contributor type.
 	 */
@@ -271,16 +342,80 @@ public class TabbedPropertyRegistry {
 			return EMPTY_DESCRIPTOR_ARRAY;
 		}
 
-		ITabDescriptor[] allDescriptors = null;
-		if (tabDescriptorProvider == null) {
-			allDescriptors = getAllTabDescriptors();
-		} else {
-			allDescriptors = tabDescriptorProvider.getTabDescriptors(part,
+		if (tabDescriptorProvider != null) {
+			return filterTabDescriptors(tabDescriptorProvider.getTabDescriptors(part,
+					selection), part, selection);
+		}
+
+		ITabDescriptor[] allDescriptors = getAllTabDescriptors();
+		TabListKey key = getTabListKey(selection);
+		if (key == null) {
+			return filterTabDescriptors(allDescriptors, part,
 					selection);
 		}
 
-		return filterTabDescriptors(allDescriptors, part,
-				selection);
+		// the sections that only depend on the types of the selected elements
+		// are resolved once per combination of types, the others are checked
+		// every time
+		ITabDescriptor[] resolved = tabListCache.get(key);
+		if (resolved == null) {
+			resolved = filterSections(allDescriptors, descriptor -> !typeBasedSections
+					.contains(descriptor) || descriptor.appliesTo(part, selection));
+			tabListCache.put(key, resolved);
+		}
+		if (!hasSelectionBasedSections) {
+			return resolved.clone();
+		}
+		return filterSections(resolved, descriptor -> typeBasedSections
+				.contains(descriptor) || descriptor.appliesTo(part, selection));
+	}
+
+	/**
+	 * Returns the key of the cached tab list for the given selection, or
+	 * <code>null</code> if the tab list for the selection is not cached.
+	 */
+	private TabListKey getTabListKey(ISelection selection) {
+		if (!(selection instanceof IStructuredSelection structuredSelection)
+				|| typeBasedSections == null || typeBasedSections.isEmpty()) {
+			return null;
+		}
+		Set<Class<?>> types = new HashSet<>();
+		for (Object object : structuredSelection) {
+			Class<?> type = typeMapper == null ? object.getClass() : typeMapper.mapType(object);
+			if (type == null) {
+				return null;
+			}
+			types.add(type);
+		}
+		return new TabListKey(types, hasSizeBasedSections ? structuredSelection.size() : 0);
+	}
+
+	/**
+	 * Returns copies of the given tab descriptors with the section descriptors
+	 * that do not pass the given test removed, leaving out tabs without
+	 * sections.
+	 */
+	@SuppressWarnings("unchecked")
+	private ITabDescriptor[] filterSections(ITabDescriptor[] descriptors,
+			Predicate<ISectionDescriptor> applies) {
+		List<ITabDescriptor> result = new ArrayList<>();
+		for (ITabDescriptor descriptor : descriptors) {
+			List<ISectionDescriptor> filteredSectionDescriptors = new ArrayList<>();
+			for (ISectionDescriptor section : (List<ISectionDescriptor>) descriptor.getSectionDescriptors()) {
+				if (applies.test(section)) {
+					filteredSectionDescriptors.add(section);
+				}
+			}
+			if (!filteredSectionDescriptors.isEmpty()) {
+				AbstractTabDescriptor filtered = (AbstractTabDescriptor) ((AbstractTabDescriptor) descriptor).clone();
+				filtered.setSectionDescriptors(filteredSectionDescriptors);
+				result.add(filtered);
+			}
+		}
+		if (result.isEmpty()) {
+			return EMPTY_DESCRIPTOR_ARRAY;
+		}
+		return result.toArray(new ITabDescriptor[result.size()]);
 	}
 
 	/**
@@ -333,10 +468,34 @@ public class TabbedPropertyRegistry {
 			temp = sortTabDescriptorsByCategory(temp);
 			temp = sortTabDescriptorsByAfterTab(temp);
 			tabDescriptors = temp.toArray(new TabDescriptor[temp.size()]);
+			classifySections();
 		}
 		return tabDescriptors;
 	}
 
+	/**
+	 * Finds out which sections of the tab descriptors apply to a selection
+	 * solely depending on the types of the selected elements: the sections
+	 * read from the extensions which have no filter.
+	 */
+	@SuppressWarnings("unchecked")
+	private void classifySections() {
+		typeBasedSections = Collections.newSetFromMap(new IdentityHashMap<>());
+		hasSelectionBasedSections = false;
+		hasSizeBasedSections = false;
+		for (ITabDescriptor tab : tabDescriptors) {
+			for (ISectionDescriptor section : (List<ISectionDescriptor>) tab.getSectionDescriptors()) {
+				if (section.getClass() == SectionDescriptor.class && !((SectionDescriptor) section).hasFilter()) {
+					typeBasedSections.add(section);
+					hasSizeBasedSections |= section.getEnablesFor() != ISectionDescriptor.ENABLES_FOR_ANY;
+				} else {
+					hasSelectionBasedSections = true;
+				}
+			}
+		}
+		tabListCache.clear();
+	}
+
 	/**
 	 * Reads property tab extensions. Returns all tab descriptors for the
 	 * current contributor id or an empty list if none is found.
@@ -524,5 +683,6 @@ public class TabbedPropertyRegistry {
 				}
 			}
 		}
+		tabListCache.clear();
 	}
 }
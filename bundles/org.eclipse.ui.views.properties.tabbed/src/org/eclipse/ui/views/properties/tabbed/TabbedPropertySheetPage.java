@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -101,6 +102,18 @@ public class TabbedPropertySheetPage
 
 	private final Map<TabContents, Composite> tabToComposite;
 
+	/**
+	 * The maximum number of tabs to keep for reuse.
+	 */
+	private static final int RECYCLED_TABS_LIMIT = 16;
+
+	/**
+	 * Tabs that no longer apply to the current selection, with their controls
+	 * kept for a later selection with the same tab structure. Least recently
+	 * used first.
+	 */
+	private final Map<ITabDescriptor, TabContents> recycledTabs = new LinkedHashMap<>(16, 0.75f, true);
+
 	private final List<String> selectionQueue;
 
 	private boolean selectionQueueLocked;
@@ -466,6 +479,8 @@ public class TabbedPropertySheetPage
 
 		disposeTabs(descriptorToTab.values());
 		descriptorToTab = new HashMap<>();
+		disposeTabs(recycledTabs.values());
+		recycledTabs.clear();
 
 		/**
 		 * Remove the label provider change listener.
@@ -654,6 +669,9 @@ public class TabbedPropertySheetPage
 		boolean disposingCurrentTab = (currentTab != null);
 		for (ITabDescriptor descriptor : descriptors) {
 			TabContents tab = descriptorToTab.remove(descriptor);
+			if (tab == null) {
+				tab = recycledTabs.remove(descriptor);
+			}
 
 			if (tab != null && tab.controlsHaveBeenCreated()) {
 				if (tab == currentTab) {
@@ -673,10 +691,38 @@ public class TabbedPropertySheetPage
 			currentTab.aboutToBeHidden();
 			currentTab = null;
 		}
-		disposeTabs(descriptorToTab.values());
+		recycleTabs(descriptorToTab);
 		descriptorToTab = newTabs;
 	}
 
+	/**
+	 * Keeps the given tabs for reuse by a later selection with the same tab
+	 * structure, which saves creating the controls of their sections again.
+	 * Tabs without controls and the least recently used tabs beyond
+	 * {@link #RECYCLED_TABS_LIMIT} are disposed.
+	 */
+	private void recycleTabs(Map<ITabDescriptor, TabContents> tabs) {
+		List<TabContents> disposedTabs = new ArrayList<>();
+		for (Map.Entry<ITabDescriptor, TabContents> entry : tabs.entrySet()) {
+			TabContents tab = entry.getValue();
+			Composite tabComposite = tabToComposite.get(tab);
+			if (!tab.controlsHaveBeenCreated() || tabComposite == null) {
+				disposedTabs.add(tab);
+				continue;
+			}
+			tabComposite.setVisible(false);
+			TabContents replaced = recycledTabs.put(entry.getKey(), tab);
+			if (replaced != null && replaced != tab) {
+				disposedTabs.add(replaced);
+			}
+		}
+		for (Iterator<TabContents> iter = recycledTabs.values().iterator(); recycledTabs.size() > RECYCLED_TABS_LIMIT;) {
+			disposedTabs.add(iter.next());
+			iter.remove();
+		}
+		disposeTabs(disposedTabs);
+	}
+
 	/**
 	 * Create the tab contents for the provided tab descriptor.
 	 *
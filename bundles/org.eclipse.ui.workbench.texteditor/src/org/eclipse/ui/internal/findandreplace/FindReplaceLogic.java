@@ -28,6 +28,7 @@ import org.eclipse.jface.text.IFindReplaceTarget;
 import org.eclipse.jface.text.IFindReplaceTargetExtension;
 import org.eclipse.jface.text.IFindReplaceTargetExtension3;
 import org.eclipse.jface.text.IFindReplaceTargetExtension4;
+import org.eclipse.jface.text.IFindReplaceTargetExtension5;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Region;
 
@@ -356,7 +357,9 @@ public class FindReplaceLogic implements IFindReplaceLogic {
 
 	/**
 	 * Replaces all occurrences of the user's findString with the replace string.
-	 * Returns the number of replacements that occur.
+	 * Returns the number of replacements that occur. If the target supports it,
+	 * all matches are collected in a single scan and replaced in one document
+	 * change, otherwise they are searched and replaced one after the other.
 	 *
 	 * @return the number of occurrences
 	 *
@@ -366,6 +369,18 @@ public class FindReplaceLogic implements IFindReplaceLogic {
 			return 0;
 		}
 
+		if (target instanceof IFindReplaceTargetExtension5 bulkTarget) {
+			int[] replaceCount = { -1 };
+			executeWithReplaceAllEnabled(() -> {
+				replaceCount[0] = bulkTarget.replaceAll(findString, replaceString,
+						isAvailableAndActive(SearchOptions.CASE_SENSITIVE),
+						isAvailableAndActive(SearchOptions.WHOLE_WORD), isAvailableAndActive(SearchOptions.REGEX));
+			});
+			if (replaceCount[0] >= 0) {
+				return replaceCount[0];
+			}
+		}
+
 		List<Point> replacements = new ArrayList<>();
 		executeInForwardMode(() -> {
 			executeWithReplaceAllEnabled(() -> {
@@ -406,9 +421,20 @@ public class FindReplaceLogic implements IFindReplaceLogic {
 	}
 
 	/**
+	 * Selects all occurrences of the user's findString, in a single scan if the
+	 * target supports it.
+	 *
 	 * @return the number of selected elements
 	 */
 	private int selectAll() {
+		if (target instanceof IFindReplaceTargetExtension5 bulkTarget) {
+			int selectCount = bulkTarget.selectAll(findString, isAvailableAndActive(SearchOptions.CASE_SENSITIVE),
+					isAvailableAndActive(SearchOptions.WHOLE_WORD), isAvailableAndActive(SearchOptions.REGEX));
+			if (selectCount >= 0) {
+				return selectCount;
+			}
+		}
+
 		List<Point> selections = new ArrayList<>();
 		executeInForwardMode(() -> {
 			Point currentSeletion = new Point(0, 0);
@@ -140,6 +140,24 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	/** The delay after which the initialization job is triggered. */
 	private static final int INITIALIZE_DELAY= 500;
 
+	/**
+	 * Whether the differences are computed with the {@link HistogramDiff} instead of the
+	 * <code>RangeDifferencer</code>.
+	 *
+	 * @since 3.20
+	 */
+	private static final boolean HISTOGRAM_DIFF= Boolean.getBoolean("org.eclipse.ui.texteditor.quickdiff.histogram"); //$NON-NLS-1$
+
+	/**
+	 * The maximal number of lines that are compared incrementally after a document change, larger
+	 * changes re-initialize the differ. The incremental comparison runs in the thread changing the
+	 * document, usually the UI thread, so the window is kept small whatever the diff engine; the
+	 * re-initialization diffs the whole document in the background job.
+	 *
+	 * @since 3.20
+	 */
+	private static final int MAX_INCREMENTAL_LINES= 50;
+
 	/** Suspended state */
 	private static final int SUSPENDED= 0;
 	/** Initializing state */
@@ -677,7 +695,12 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 				DocumentEquivalenceClass rightEquivalent= new DocumentEquivalenceClass(actual, hash);
 				fRightEquivalent= rightEquivalent;
 				IRangeComparator act= new DocEquivalenceComparator(rightEquivalent, null);
-				ArrayList<QuickDiffRangeDifference> diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, monitor, ref, act));
+				ArrayList<QuickDiffRangeDifference> diffs;
+				if (HISTOGRAM_DIFF) {
+					diffs= HistogramDiff.findRanges(monitor, leftEquivalent, null, rightEquivalent, null);
+				} else {
+					diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, monitor, ref, act));
+				}
 				// 7:	Reset the model to the just gotten differences
 				// 		re-inject stored events to get up to date.
 				synchronized (DocumentLineDiffer.this) {
@@ -979,7 +1002,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		// size: the size of the document change in lines
 
 		// put an upper bound to the delay we can afford
-		if (added > 50 || fNLines > 50) {
+		if (added > MAX_INCREMENTAL_LINES || fNLines > MAX_INCREMENTAL_LINES) {
 			initialize();
 			return;
 		}
@@ -1059,7 +1082,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		IRangeComparator change= new DocEquivalenceComparator(rightEquivalent, rightRange);
 
 		// put an upper bound to the delay we can afford
-		if (leftLine - shiftAfter - leftStartLine > 50 || rightLine - shiftAfter - rightStartLine > 50) {
+		if (leftLine - shiftAfter - leftStartLine > MAX_INCREMENTAL_LINES || rightLine - shiftAfter - rightStartLine > MAX_INCREMENTAL_LINES) {
 			initialize();
 			return;
 		}
@@ -1069,7 +1092,12 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 //					">\n\n<" + right.get(rightRegion.getOffset(), rightRegion.getLength()) + ">\n"); //$NON-NLS-1$ //$NON-NLS-2$
 
 		// compare
-		List<QuickDiffRangeDifference> diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, null, reference, change));
+		List<QuickDiffRangeDifference> diffs;
+		if (HISTOGRAM_DIFF) {
+			diffs= HistogramDiff.findRanges(null, leftEquivalent, leftRange, rightEquivalent, rightRange);
+		} else {
+			diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, null, reference, change));
+		}
 		if (diffs.isEmpty()) {
 			diffs.add(new QuickDiffRangeDifference(RangeDifference.CHANGE, 0, 0, 0, 0));
 		}
@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.texteditor.quickdiff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.source.ILineRange;
+import org.eclipse.jface.text.source.LineRange;
+
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocEquivalenceComparator;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocumentEquivalenceClass;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.Hash;
+
+import org.eclipse.compare.rangedifferencer.AbstractRangeDifferenceFactory;
+import org.eclipse.compare.rangedifferencer.RangeDifference;
+import org.eclipse.compare.rangedifferencer.RangeDifferencer;
+
+
+/**
+ * Line oriented histogram diff on the line hashes of two
+ * {@link DocumentEquivalenceClass}es.
+ * <p>
+ * The algorithm strips the common prefix and suffix of a region, then anchors
+ * the region on the longest common run of lines that contains the line
+ * occurring least often, and recurses on the parts before and after the run.
+ * Unique lines make good anchors, so the result is close to a patience diff,
+ * and the time needed is roughly linear in the number of lines. Regions that
+ * only have lines in common which occur more than {@value #MAX_CHAIN_LENGTH}
+ * times are compared with the {@link RangeDifferencer}.
+ * </p>
+ * <p>
+ * The result has the same form as the result of
+ * <code>RangeDifferencer.findRanges</code>: alternating unchanged and changed
+ * ranges covering both line ranges, with line numbers relative to the start of
+ * the ranges.
+ * </p>
+ *
+ * @since 3.20
+ */
+public final class HistogramDiff {
+
+	/** Lines occurring more often than this in a region are not used as anchors. */
+	private static final int MAX_CHAIN_LENGTH= 64;
+
+	/**
+	 * Custom range difference factory for the fall back comparison.
+	 */
+	private static final AbstractRangeDifferenceFactory FACTORY= new AbstractRangeDifferenceFactory() {
+		@Override
+		protected RangeDifference createRangeDifference() {
+			return new QuickDiffRangeDifference();
+		}
+	};
+
+	private final DocumentEquivalenceClass fLeft;
+	private final DocumentEquivalenceClass fRight;
+	private final int fLeftStart;
+	private final int fRightStart;
+	private final IProgressMonitor fMonitor;
+
+	/** The line ids of the left range, equal lines have equal ids. */
+	private final int[] fA;
+	/** The line ids of the right range, equal lines have equal ids. */
+	private final int[] fB;
+
+	/** Number of occurrences of an id in the left part of the current region. */
+	private final int[] fCount;
+	/** First occurrence of an id in the left part of the current region. */
+	private final int[] fHead;
+	/** Next occurrence of the id of a left line in the current region, <code>-1</code> if none. */
+	private final int[] fNext;
+
+	private HistogramDiff(DocumentEquivalenceClass left, ILineRange leftRange, DocumentEquivalenceClass right, ILineRange rightRange, IProgressMonitor monitor) {
+		fLeft= left;
+		fRight= right;
+		fLeftStart= leftRange == null ? 0 : leftRange.getStartLine();
+		fRightStart= rightRange == null ? 0 : rightRange.getStartLine();
+		fMonitor= monitor;
+
+		Map<Hash, Integer> ids= new HashMap<>();
+		fA= toIds(left, fLeftStart, leftRange == null ? left.getCount() : leftRange.getNumberOfLines(), ids);
+		fB= toIds(right, fRightStart, rightRange == null ? right.getCount() : rightRange.getNumberOfLines(), ids);
+		fCount= new int[ids.size()];
+		fHead= new int[ids.size()];
+		fNext= new int[fA.length];
+	}
+
+	/**
+	 * Compares the given line ranges.
+	 *
+	 * @param monitor the progress monitor, may be <code>null</code>
+	 * @param left the line hashes of the reference document
+	 * @param leftRange the lines to compare, <code>null</code> for all lines
+	 * @param right the line hashes of the actual document
+	 * @param rightRange the lines to compare, <code>null</code> for all lines
+	 * @return the differences, relative to the start of the ranges; the result is incomplete
+	 *         if the monitor got canceled
+	 */
+	public static ArrayList<QuickDiffRangeDifference> findRanges(IProgressMonitor monitor, DocumentEquivalenceClass left, ILineRange leftRange, DocumentEquivalenceClass right, ILineRange rightRange) {
+		return new HistogramDiff(left, leftRange, right, rightRange, monitor).findRanges();
+	}
+
+	private static int[] toIds(DocumentEquivalenceClass equivalenceClass, int start, int length, Map<Hash, Integer> ids) {
+		int[] result= new int[length];
+		for (int i= 0; i < length; i++) {
+			Hash hash= equivalenceClass.getHash(start + i);
+			Integer id= ids.get(hash);
+			if (id == null) {
+				id= Integer.valueOf(ids.size());
+				ids.put(hash, id);
+			}
+			result[i]= id.intValue();
+		}
+		return result;
+	}
+
+	private ArrayList<QuickDiffRangeDifference> findRanges() {
+		// the changes as {leftStart, leftEnd, rightStart, rightEnd}
+		List<int[]> changes= new ArrayList<>();
+		Deque<int[]> regions= new ArrayDeque<>();
+		regions.push(new int[] { 0, fA.length, 0, fB.length });
+		while (!regions.isEmpty()) {
+			if (fMonitor != null && fMonitor.isCanceled()) {
+				break;
+			}
+
+			int[] region= regions.pop();
+			int as= region[0], ae= region[1], bs= region[2], be= region[3];
+
+			while (as < ae && bs < be && fA[as] == fB[bs]) {
+				as++;
+				bs++;
+			}
+			while (as < ae && bs < be && fA[ae - 1] == fB[be - 1]) {
+				ae--;
+				be--;
+			}
+
+			if (as == ae && bs == be) {
+				continue;
+			}
+			if (as == ae || bs == be) {
+				changes.add(new int[] { as, ae, bs, be });
+				continue;
+			}
+
+			int[] anchor= findAnchor(as, ae, bs, be);
+			if (anchor == null) {
+				addFallbackChanges(as, ae, bs, be, changes);
+			} else {
+				regions.push(new int[] { as, anchor[0], bs, anchor[2] });
+				regions.push(new int[] { anchor[1], ae, anchor[3], be });
+			}
+		}
+
+		changes.sort(Comparator.comparingInt((int[] change) -> change[0]).thenComparingInt(change -> change[2]));
+		return toRangeDifferences(changes);
+	}
+
+	/**
+	 * Finds the longest common run of lines containing the rarest line of the region.
+	 *
+	 * @param as the start of the region in the left lines
+	 * @param ae the exclusive end of the region in the left lines
+	 * @param bs the start of the region in the right lines
+	 * @param be the exclusive end of the region in the right lines
+	 * @return the run as {leftStart, leftEnd, rightStart, rightEnd}, or <code>null</code> if
+	 *         the region has no lines in common that occur at most {@value #MAX_CHAIN_LENGTH}
+	 *         times
+	 */
+	private int[] findAnchor(int as, int ae, int bs, int be) {
+		for (int i= ae - 1; i >= as; i--) {
+			int id= fA[i];
+			fNext[i]= fCount[id] == 0 ? -1 : fHead[id];
+			fHead[id]= i;
+			fCount[id]++;
+		}
+
+		int[] best= null;
+		int bestLength= 0;
+		int bestCount= MAX_CHAIN_LENGTH + 1;
+		for (int bi= bs; bi < be;) {
+			int id= fB[bi];
+			int nextBi= bi + 1;
+			if (fCount[id] > 0 && fCount[id] <= bestCount) {
+				for (int ai= fHead[id]; ai != -1; ai= fNext[ai]) {
+					int count= fCount[id];
+					int sa= ai, sb= bi;
+					while (sa > as && sb > bs && fA[sa - 1] == fB[sb - 1]) {
+						sa--;
+						sb--;
+						count= Math.min(count, fCount[fA[sa]]);
+					}
+					int ea= ai + 1, eb= bi + 1;
+					while (ea < ae && eb < be && fA[ea] == fB[eb]) {
+						count= Math.min(count, fCount[fA[ea]]);
+						ea++;
+						eb++;
+					}
+					if (nextBi < eb) {
+						nextBi= eb;
+					}
+					if (ea - sa > bestLength || count < bestCount) {
+						best= new int[] { sa, ea, sb, eb };
+						bestLength= ea - sa;
+						bestCount= count;
+					}
+					// skip the occurrences inside the run just found
+					while (fNext[ai] != -1 && fNext[ai] < ea) {
+						ai= fNext[ai];
+					}
+				}
+			}
+			bi= nextBi;
+		}
+
+		for (int i= as; i < ae; i++) {
+			fCount[fA[i]]= 0;
+		}
+		return best;
+	}
+
+	/**
+	 * Compares a region without suitable anchor with the {@link RangeDifferencer}.
+	 *
+	 * @param as the start of the region in the left lines
+	 * @param ae the exclusive end of the region in the left lines
+	 * @param bs the start of the region in the right lines
+	 * @param be the exclusive end of the region in the right lines
+	 * @param changes the list to add the changes to
+	 */
+	private void addFallbackChanges(int as, int ae, int bs, int be, List<int[]> changes) {
+		DocEquivalenceComparator reference= new DocEquivalenceComparator(fLeft, new LineRange(fLeftStart + as, ae - as));
+		DocEquivalenceComparator actual= new DocEquivalenceComparator(fRight, new LineRange(fRightStart + bs, be - bs));
+		for (RangeDifference difference : RangeDifferencer.findDifferences(FACTORY, fMonitor, reference, actual)) {
+			changes.add(new int[] { as + difference.leftStart(), as + difference.leftEnd(), bs + difference.rightStart(), bs + difference.rightEnd() });
+		}
+	}
+
+	private ArrayList<QuickDiffRangeDifference> toRangeDifferences(List<int[]> changes) {
+		ArrayList<QuickDiffRangeDifference> result= new ArrayList<>(changes.size() * 2 + 1);
+		int leftEnd= 0;
+		int rightEnd= 0;
+		int[] pending= null;
+		for (int[] change : changes) {
+			if (pending != null && pending[1] == change[0] && pending[3] == change[2]) {
+				// join adjacent changes
+				pending= new int[] { pending[0], change[1], pending[2], change[3] };
+				continue;
+			}
+			if (pending != null) {
+				addRanges(result, leftEnd, rightEnd, pending);
+				leftEnd= pending[1];
+				rightEnd= pending[3];
+			}
+			pending= change;
+		}
+		if (pending != null) {
+			addRanges(result, leftEnd, rightEnd, pending);
+			leftEnd= pending[1];
+			rightEnd= pending[3];
+		}
+		if (leftEnd < fA.length || rightEnd < fB.length) {
+			result.add(new QuickDiffRangeDifference(RangeDifference.NOCHANGE, rightEnd, fB.length - rightEnd, leftEnd, fA.length - leftEnd));
+		}
+		return result;
+	}
+
+	private static void addRanges(List<QuickDiffRangeDifference> result, int leftEnd, int rightEnd, int[] change) {
+		if (change[0] > leftEnd || change[2] > rightEnd) {
+			result.add(new QuickDiffRangeDifference(RangeDifference.NOCHANGE, rightEnd, change[2] - rightEnd, leftEnd, change[0] - leftEnd));
+		}
+		result.add(new QuickDiffRangeDifference(RangeDifference.CHANGE, change[2], change[3] - change[2], change[0], change[1] - change[0]));
+	}
+}
@@ -86,6 +86,20 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 	 */
 	private Job refreshJob;
 
+	/**
+	 * The job matching the filter text against the index of the pattern filter,
+	 * or <code>null</code>.
+	 *
+	 * @see PatternFilter#setUseIndex(boolean)
+	 */
+	private Job matchJob;
+
+	/**
+	 * Whether the refresh job is refreshing the tree, which doesn't change its
+	 * content.
+	 */
+	private boolean refreshingFilter;
+
 	/**
 	 * @since 3.3
 	 */
@@ -322,7 +336,10 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 		treeViewer = doCreateTreeViewer(parent, style);
 		GridData data = new GridData(SWT.FILL, SWT.FILL, true, true);
 		treeViewer.getControl().setLayoutData(data);
-		treeViewer.getControl().addDisposeListener(e -> refreshJob.cancel());
+		treeViewer.getControl().addDisposeListener(e -> {
+			refreshJob.cancel();
+			cancelMatchJob();
+		});
 		if (treeViewer instanceof NotifyingTreeViewer) {
 			getPatternFilter().setUseCache(true);
 		}
@@ -392,6 +409,14 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 				}
 
 				boolean initial = initialText != null && initialText.equals(text);
+				if (!initial && getPatternFilter().needsIndexedMatch(text)) {
+					matchJob = getPatternFilter().createMatchJob(treeViewer, text, () -> schedule());
+					if (matchJob != null) {
+						// refresh the tree once the matches are known
+						matchJob.schedule();
+						return Status.OK_STATUS;
+					}
+				}
 				if (initial) {
 					getPatternFilter().setPattern(null);
 				} else if (text != null) {
@@ -414,7 +439,12 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 							}
 						}
 					}
-					treeViewer.refresh(true);
+					refreshingFilter = true;
+					try {
+						treeViewer.refresh(true);
+					} finally {
+						refreshingFilter = false;
+					}
 
 					if (text.length() > 0 && !initial) {
 						/*
@@ -621,9 +651,17 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 		previousFilterText = getFilterString();
 		// cancel currently running job first, to prevent unnecessary redraw
 		refreshJob.cancel();
+		cancelMatchJob();
 		refreshJob.schedule(getRefreshJobDelay());
 	}
 
+	private void cancelMatchJob() {
+		if (matchJob != null) {
+			matchJob.cancel();
+			matchJob = null;
+		}
+	}
+
 	@Override
 	public final PatternFilter getPatternFilter() {
 		return (PatternFilter) super.getPatternFilter();
@@ -730,7 +768,9 @@ public class FilteredTree extends AbstractFilteredViewerComposite<PatternFilter>
 
 		@Override
 		public void refresh(boolean updateLabels) {
-			getPatternFilter().clearCaches();
+			if (!refreshingFilter) {
+				getPatternFilter().clearCaches();
+			}
 			super.refresh(updateLabels);
 		}
 
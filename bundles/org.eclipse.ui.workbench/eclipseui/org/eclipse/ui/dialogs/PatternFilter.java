@@ -17,6 +17,8 @@ package org.eclipse.ui.dialogs;
 
 import java.util.HashMap;
 import java.util.Map;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.text.StringMatcher;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ContentViewer;
@@ -61,6 +63,27 @@ public class PatternFilter extends ViewerFilter {
 
 	private boolean useEarlyReturnIfMatcherIsNull = true;
 
+	/**
+	 * Whether the filtered tree matches the pattern against an index of the
+	 * texts of the elements.
+	 */
+	private boolean useIndex = false;
+
+	/**
+	 * The pattern string of the matcher.
+	 */
+	private String patternString;
+
+	/*
+	 * The texts of the elements of the viewer, or null if not collected yet
+	 */
+	private PatternFilterIndex index;
+
+	/*
+	 * The last matches computed by a match job
+	 */
+	private volatile PatternFilterIndex.Matches indexedMatches;
+
 	private static Object[] EMPTY = new Object[0];
 
 	@Override
@@ -72,6 +95,11 @@ public class PatternFilter extends ViewerFilter {
 			return elements;
 		}
 
+		PatternFilterIndex.Matches matches = getIndexedMatches();
+		if (matches != null) {
+			return matches.filter(elements);
+		}
+
 		if (!useCache) {
 			return super.filter(viewer, parent, elements);
 		}
@@ -145,6 +173,51 @@ public class PatternFilter extends ViewerFilter {
 	 */
 	public final void setIncludeLeadingWildcard(final boolean includeLeadingWildcard) {
 		this.includeLeadingWildcard = includeLeadingWildcard;
+		indexedMatches = null;
+	}
+
+	/**
+	 * Sets whether {@link FilteredTree} matches the pattern against an index of
+	 * the texts of the elements. The texts are collected once with
+	 * {@link #getSearchTexts(Viewer, Object)} and matched by a background job, so
+	 * that typing in the filter text doesn't block the UI thread. When the pattern
+	 * is extended, only the elements that matched before are tested again. The
+	 * viewer is refreshed once the matches are known.
+	 * <p>
+	 * With an index, an element is shown if one of its texts matches the pattern,
+	 * or if one of its children is shown. Overrides of
+	 * {@link #isElementVisible(Viewer, Object)}, {@link #isLeafMatch(Viewer, Object)}
+	 * and {@link #wordMatches(String)} are not used for filtering, so subclasses
+	 * overriding them must provide the texts they match in
+	 * {@link #getSearchTexts(Viewer, Object)}. The index is collected again
+	 * whenever the tree content changes.
+	 * </p>
+	 *
+	 * @param useIndex whether to match the pattern against an index
+	 * @since 3.138
+	 */
+	public final void setUseIndex(boolean useIndex) {
+		this.useIndex = useIndex;
+		clearCaches();
+	}
+
+	/**
+	 * Returns the texts of the given element that are matched against the
+	 * pattern when an index is used, see {@link #setUseIndex(boolean)}. The
+	 * default implementation returns the label of the element.
+	 *
+	 * Subclasses overriding {@link #isLeafMatch(Viewer, Object)} should override
+	 * this method too.
+	 *
+	 * @param viewer  the viewer that contains the element
+	 * @param element the tree element
+	 * @return the texts of the element, or <code>null</code> if neither the
+	 *         element nor its children are shown while filtering
+	 * @since 3.138
+	 */
+	protected String[] getSearchTexts(Viewer viewer, Object element) {
+		String labelText = ((ILabelProvider) ((ContentViewer) viewer).getLabelProvider()).getText(element);
+		return labelText == null ? new String[0] : new String[] { labelText };
 	}
 
 	/**
@@ -163,21 +236,28 @@ public class PatternFilter extends ViewerFilter {
 			useEarlyReturnIfMatcherIsNull = false;
 			return;
 		}
-		clearCaches();
+		// keep the index, it only depends on the tree content
+		cache.clear();
+		foundAnyCache.clear();
+		this.patternString = patternString;
 		if (patternString == null || patternString.isEmpty()) {
 			matcher = null;
 		} else {
-			String pattern = patternString;
-			if (!patternString.endsWith(" ")) { //$NON-NLS-1$
-				pattern += "*"; //$NON-NLS-1$
-			}
-			if (includeLeadingWildcard) {
-				pattern = "*" + pattern; //$NON-NLS-1$
-			}
-			matcher = new StringMatcher(pattern.trim(), true, false);
+			matcher = createMatcher(patternString);
 		}
 	}
 
+	private StringMatcher createMatcher(String patternString) {
+		String pattern = patternString;
+		if (!patternString.endsWith(" ")) { //$NON-NLS-1$
+			pattern += "*"; //$NON-NLS-1$
+		}
+		if (includeLeadingWildcard) {
+			pattern = "*" + pattern; //$NON-NLS-1$
+		}
+		return new StringMatcher(pattern.trim(), true, false);
+	}
+
 	/**
 	 * Clears the caches used for optimizing this filter. Needs to be called
 	 * whenever the tree content changes.
@@ -185,16 +265,97 @@ public class PatternFilter extends ViewerFilter {
 	/* package */ void clearCaches() {
 		cache.clear();
 		foundAnyCache.clear();
+		index = null;
+		indexedMatches = null;
+	}
+
+	/**
+	 * Returns the matches computed with the index for the current pattern.
+	 *
+	 * @return the matches, or <code>null</code> if there are none
+	 */
+	private PatternFilterIndex.Matches getIndexedMatches() {
+		PatternFilterIndex.Matches matches = indexedMatches;
+		if (matches == null || matches.index() != index || !matches.pattern().equals(patternString)) {
+			return null;
+		}
+		return matches;
+	}
+
+	/**
+	 * Answers whether the given pattern must be matched by a match job before
+	 * the viewer is refreshed.
+	 *
+	 * @param pattern the pattern string
+	 * @return <code>true</code> if an index is used and the pattern wasn't
+	 *         matched yet
+	 */
+	/* package */ boolean needsIndexedMatch(String pattern) {
+		if (!useIndex || !useCache || pattern == null || pattern.isEmpty()) {
+			return false;
+		}
+		PatternFilterIndex.Matches matches = indexedMatches;
+		return index == null || matches == null || matches.index() != index || !matches.pattern().equals(pattern);
+	}
+
+	/**
+	 * Creates a job that matches the given pattern against the index, after
+	 * collecting the index if needed. Must be called in the UI thread.
+	 *
+	 * @param viewer  the viewer
+	 * @param pattern the pattern string
+	 * @param done    runs when the matches are known, in the thread of the job
+	 * @return the job to schedule, or <code>null</code> if the content of the
+	 *         viewer can't be indexed
+	 */
+	/* package */ Job createMatchJob(ContentViewer viewer, String pattern, Runnable done) {
+		if (index == null) {
+			index = PatternFilterIndex.create(this, viewer);
+			if (index == null) {
+				return null;
+			}
+		}
+		PatternFilterIndex currentIndex = index;
+		StringMatcher jobMatcher = createMatcher(pattern);
+		PatternFilterIndex.Matches matches = indexedMatches;
+		PatternFilterIndex.Matches previous = matches != null && isNarrowing(matches.pattern(), pattern) ? matches
+				: null;
+		Job job = Job.create("Match Filter", monitor -> { //$NON-NLS-1$
+			PatternFilterIndex.Matches result = currentIndex.match(pattern, text -> wordMatches(jobMatcher, text),
+					previous, monitor);
+			if (result == null) {
+				return Status.CANCEL_STATUS;
+			}
+			indexedMatches = result;
+			done.run();
+			return Status.OK_STATUS;
+		});
+		job.setSystem(true);
+		return job;
+	}
+
+	/**
+	 * Answers whether a pattern only matches texts that the previous pattern
+	 * matches, which is the case when the last word of the previous pattern is
+	 * extended.
+	 */
+	private static boolean isNarrowing(String previous, String pattern) {
+		if (previous.isEmpty() || !pattern.startsWith(previous)
+				|| Character.isWhitespace(previous.charAt(previous.length() - 1))) {
+			return false;
+		}
+		return pattern.substring(previous.length()).chars().noneMatch(Character::isWhitespace);
 	}
 
 	/**
 	 * Answers whether the given String matches the pattern.
 	 *
-	 * @param string the String to test
+	 * @param matcher the matcher of the pattern, or <code>null</code>
+	 * @param string  the String to test
 	 *
 	 * @return whether the string matches the pattern
 	 */
-	private boolean match(String string) {
+	private static boolean match(StringMatcher matcher, String string) {
 		if (matcher == null) {
 			return true;
 		}
@@ -280,19 +441,23 @@ public class PatternFilter extends ViewerFilter {
 	 *         match criteria.
 	 */
 	protected boolean wordMatches(String text) {
+		return wordMatches(matcher, text);
+	}
+
+	private static boolean wordMatches(StringMatcher matcher, String text) {
 		if (text == null) {
 			return false;
 		}
 
 		// If the whole text matches we are all set
-		if (match(text)) {
+		if (match(matcher, text)) {
 			return true;
 		}
 
 		// Otherwise check if any of the words of the text matches
 		String[] words = StringMatcher.getWords(text);
 		for (String word : words) {
-			if (!match(word)) {
+			if (!match(matcher, word)) {
 				return false;
 			}
 		}
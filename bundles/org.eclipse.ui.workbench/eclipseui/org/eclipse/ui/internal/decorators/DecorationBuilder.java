@@ -183,6 +183,37 @@ public class DecorationBuilder implements IDecoration {
 		valueSet = true;
 	}
 
+	/**
+	 * Add the result calculated by another decorator to the receiver, as if the
+	 * decorator was applied at this point: the prefixes and suffixes are
+	 * appended, the overlays only fill quadrants that are still free and the
+	 * colors and the font are replaced if set by the result.
+	 *
+	 * @param result the result to merge
+	 */
+	void mergeResult(DecorationResult result) {
+		prefixes.addAll(result.getPrefixes());
+		suffixes.addAll(result.getSuffixes());
+		ImageDescriptor[] resultDescriptors = result.getDescriptors();
+		if (resultDescriptors != null) {
+			for (int i = 0; i < descriptors.length; i++) {
+				if (descriptors[i] == null) {
+					descriptors[i] = resultDescriptors[i];
+				}
+			}
+		}
+		if (result.getForegroundColor() != null) {
+			foregroundColor = result.getForegroundColor();
+		}
+		if (result.getBackgroundColor() != null) {
+			backgroundColor = result.getBackgroundColor();
+		}
+		if (result.getFont() != null) {
+			font = result.getFont();
+		}
+		valueSet = true;
+	}
+
 	@Override
 	public void setBackgroundColor(Color bgColor) {
 		this.backgroundColor = bgColor;
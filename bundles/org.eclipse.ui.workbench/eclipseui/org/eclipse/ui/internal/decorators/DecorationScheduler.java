@@ -16,16 +16,26 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.decorators;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -44,6 +54,7 @@ import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.WorkbenchMessages;
+import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.progress.UIJob;
 import org.eclipse.ui.progress.WorkbenchJob;
 
@@ -108,6 +119,22 @@ import org.eclipse.ui.progress.WorkbenchJob;
  * asynchronously by the <code>decorationJob</code> and enqueued for UI-update,
  * and finally, the <code>updateJob</code> fires events which cause the viewers
  * to update the UI using the now available decoration results.
+ *
+ * <p>
+ * When the workbench runs with
+ * <code>-Dorg.eclipse.ui.decorators.parallel=true</code> the
+ * <code>decorationJob</code> works in batches instead: elements whose
+ * decorators are all thread safe are decorated concurrently, the time every
+ * decorator needs is tracked by a {@link DecoratorLatencyTracker} and slow
+ * decorators are demoted to the <code>slowDecorationJob</code>. The
+ * <code>decorationJob</code> resolves the decorators of an element and shows
+ * the last results of its slow decorators in their place, the
+ * <code>slowDecorationJob</code> only evaluates the slow decorators and then
+ * queues the element again, so that the <code>decorationJob</code> merges the
+ * new results. Thread safe decorators run on a small dedicated thread pool,
+ * decorators that are not thread safe are never evaluated by two threads at
+ * once.
+ * </p>
  */
 public class DecorationScheduler {
 
@@ -133,6 +160,63 @@ public class DecorationScheduler {
 
 	private final Job decorationJob;
 
+	/**
+	 * Whether the lightweight decorators are evaluated in parallel and slow
+	 * decorators are demoted to the <code>slowDecorationJob</code>.
+	 */
+	private static final boolean PARALLEL_DECORATION = Boolean.getBoolean("org.eclipse.ui.decorators.parallel"); //$NON-NLS-1$
+
+	/** Maximum number of references decorated in one parallel batch. */
+	private static final int PARALLEL_BATCH_SIZE = 256;
+
+	/** Delay before the slow decorators are evaluated. */
+	private static final int SLOW_DECORATION_DELAY = 200;
+
+	private final DecoratorLatencyTracker latencyTracker = new DecoratorLatencyTracker();
+
+	/**
+	 * Elements waiting for the evaluation of slow decorators. Manually
+	 * synchronized on DecorationScheduler.this
+	 **/
+	private final LinkedHashMap<Object, SlowDecorationReference> awaitingSlowDecoration = new LinkedHashMap<>();
+
+	/**
+	 * Elements whose slow decorators have just been evaluated and which are
+	 * queued again to merge the results. Manually synchronized on
+	 * DecorationScheduler.this
+	 **/
+	private final Set<Object> slowDecorated = new HashSet<>();
+
+	private Job slowDecorationJob;
+
+	/** Upper bound of the threads evaluating thread safe decorators. */
+	private static final int PARALLEL_THREADS = Math.max(1,
+			Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+	/** Manually synchronized on DecorationScheduler.this **/
+	private ExecutorService decorationExecutor;
+
+	/** Maximum number of elements whose slow decorator results are kept. */
+	private static final int SLOW_RESULTS_LIMIT = 10000;
+
+	/**
+	 * The last results of the slow decorators of an element by decoration
+	 * context and decorator, merged into the decoration of the element in place
+	 * of the slow decorators. A <code>null</code> result records that the
+	 * decorator did not contribute anything. Manually synchronized on
+	 * DecorationScheduler.slowResults
+	 **/
+	private final Map<Object, Map<IDecorationContext, Map<LightweightDecoratorDefinition, DecorationResult>>> slowResults = new LinkedHashMap<>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<Object, Map<IDecorationContext, Map<LightweightDecoratorDefinition, DecorationResult>>> eldest) {
+			return size() > SLOW_RESULTS_LIMIT;
+		}
+	};
+
 	// Notifies about updateJob or clearJob finishing
 	private final class JobChangeListener extends JobChangeAdapter {
 
@@ -328,6 +412,15 @@ public class DecorationScheduler {
 	 */
 	synchronized void shutdown() {
 		shutdown = true;
+		if (decorationExecutor != null) {
+			decorationExecutor.shutdownNow();
+			decorationExecutor = null;
+		}
+		awaitingSlowDecoration.clear();
+		slowDecorated.clear();
+		synchronized (slowResults) {
+			slowResults.clear();
+		}
 	}
 
 	/**
@@ -346,6 +439,64 @@ public class DecorationScheduler {
 		return reference;
 	}
 
+	/**
+	 * Get the next batch of references to be decorated in parallel.
+	 *
+	 * @return the references, empty if there are none or if we are shut down
+	 */
+	private synchronized List<DecorationReference> removeNextReferences() {
+		List<DecorationReference> references = new ArrayList<>(
+				Math.min(awaitingDecoration.size(), PARALLEL_BATCH_SIZE));
+		DecorationReference reference;
+		while (references.size() < PARALLEL_BATCH_SIZE
+				&& (reference = removeNextReference()) != null) {
+			references.add(reference);
+		}
+		return references;
+	}
+
+	/**
+	 * Queue the element for the evaluation of its slow decorators.
+	 *
+	 * @param slowDecorators the slow decorators of the element, resolved by the
+	 *                       <code>decorationJob</code>
+	 */
+	private synchronized void queueForSlowDecoration(DecorationReference fastReference, IDecorationContext context,
+			LightweightDecoratorDefinition[] slowDecorators) {
+		if (shutdown) {
+			return;
+		}
+		Object element = fastReference.getElement();
+		boolean force = fastReference.shouldForceUpdate();
+		SlowDecorationReference slowReference = awaitingSlowDecoration.get(element);
+		if (slowReference != null) {
+			if (force) {
+				slowReference.reference.setForceUpdate(force);
+			}
+			slowReference.reference.addContext(context);
+			slowReference.decorators = slowDecorators;
+		} else {
+			DecorationReference reference = new DecorationReference(element, fastReference.getAdaptedElement(),
+					context);
+			reference.setForceUpdate(force);
+			awaitingSlowDecoration.put(element, new SlowDecorationReference(reference, slowDecorators));
+		}
+		if (slowDecorationJob == null) {
+			slowDecorationJob = createSlowDecorationJob();
+		}
+		if (slowDecorationJob.getState() == Job.NONE) {
+			slowDecorationJob.schedule(SLOW_DECORATION_DELAY);
+		}
+	}
+
+	/**
+	 * Return whether the slow decorators of the element have just been evaluated,
+	 * and forget it.
+	 */
+	private synchronized boolean removeSlowDecorated(Object element) {
+		return slowDecorated.remove(element);
+	}
+
 	/**
 	 * Create the Thread used for running decoration.
 	 */
@@ -377,6 +528,18 @@ public class DecorationScheduler {
 				DecorationReference reference;
 
 				boolean queued = false;
+				if (PARALLEL_DECORATION) {
+					List<DecorationReference> references;
+					while (!(references = removeNextReferences()).isEmpty()) {
+						subMonitor.split(references.size());
+						if (decorateInParallel(references)) {
+							queued = true;
+							// let the fast decorations reach the UI while we go on
+							scheduleUpdateJobIfIdle();
+						}
+						subMonitor.setWorkRemaining(awaitingDecoration.size() + 1);
+					}
+				}
 				// for each in awaitingDecorationValues, but not locking the map during the whole iteration:
 				while ((reference = removeNextReference()) != null) {
 					subMonitor.split(1);
@@ -408,32 +571,308 @@ public class DecorationScheduler {
 				DecorationBuilder cacheResult = new DecorationBuilder(context);
 				// Calculate the decoration
 				decoratorManager.getLightweightManager().getDecorations(element, cacheResult);
+				return publish(element, force, context, cacheResult);
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return DecoratorManager.FAMILY_DECORATE == family;
+			}
+
+			@Override
+			public boolean shouldRun() {
+				return PlatformUI.isWorkbenchRunning();
+			}
+		};
+
+		decorationJob.setSystem(true);
+		decorationJob.setPriority(Job.DECORATE);
+		return decorationJob;
+	}
+
+	/**
+	 * Put the result of the decoration into the cache and remember the element
+	 * for the next label update if there is a decoration or if an update is
+	 * forced.
+	 *
+	 * @return <code>true</code> if an update is required
+	 */
+	private boolean publish(Object element, boolean force, IDecorationContext context,
+			DecorationBuilder cacheResult) {
+		// If we should update regardless then put a result
+		// anyways
+		if (cacheResult.hasValue() || force) {
+
+			// Synchronize on the result lock as we want to
+			// be sure that we do not try and decorate during
+			// label update servicing.
+			// Note: resultCache and pendingUpdate modifications
+			// must be done atomically.
+
+			// Add the decoration even if it's empty in
+			// order to indicate that the decoration is
+			// ready
+
+			internalPutResult(element, context, cacheResult.createResult());
+
+			// Add an update for only the original element
+			// to
+			// prevent multiple updates and clear the cache.
+			synchronized (pendingUpdate) {
+				pendingUpdate.add(element);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * A decoration of one element in one context computed by the parallel
+	 * decoration.
+	 */
+	private static final class DecorationTask {
+		final DecorationReference reference;
+
+		final IDecorationContext context;
+
+		final LightweightDecoratorDefinition[] decorators;
+
+		final Map<LightweightDecoratorDefinition, DecorationResult> slowResults;
+
+		final boolean concurrent;
+
+		final DecorationBuilder builder;
+
+		DecorationTask(DecorationReference reference, IDecorationContext context,
+				LightweightDecoratorDefinition[] decorators, Map<LightweightDecoratorDefinition, DecorationResult> slowResults) {
+			this.reference = reference;
+			this.context = context;
+			this.decorators = decorators;
+			this.slowResults = slowResults;
+			this.builder = new DecorationBuilder(context);
+			boolean threadSafe = true;
+			for (LightweightDecoratorDefinition decorator : decorators) {
+				threadSafe &= slowResults.containsKey(decorator) || decorator.isThreadSafe();
+			}
+			this.concurrent = threadSafe;
+		}
+
+		Object getElement() {
+			return reference.getElement();
+		}
+	}
+
+	/**
+	 * Decorate the references with their fast decorators and the last results of
+	 * their slow decorators, in the order the decorators are defined. Elements
+	 * whose fast decorators are all thread safe are decorated concurrently by the
+	 * <code>decorationExecutor</code>, the others in the calling thread. Elements
+	 * with slow decorators are queued for the <code>slowDecorationJob</code>
+	 * unless it has just evaluated them.
+	 *
+	 * @return <code>true</code> if an update is required
+	 */
+	private boolean decorateInParallel(List<DecorationReference> references) {
+		LightweightDecoratorManager lightweightManager = decoratorManager.getLightweightManager();
+		List<DecorationTask> tasks = new ArrayList<>(references.size());
+		Set<DecorationTask> slowTasks = new HashSet<>();
+		// The contributor lookup is not thread safe, so resolve the decorators
+		// before going parallel
+		for (DecorationReference reference : references) {
+			Object element = reference.getElement();
+			LightweightDecoratorDefinition[] decorators = lightweightManager.getDecoratorsFor(element);
+			List<LightweightDecoratorDefinition> fast = new ArrayList<>(decorators.length);
+			List<LightweightDecoratorDefinition> slow = new ArrayList<>();
+			latencyTracker.assignLanes(decorators, fast, slow);
+			boolean evaluated = removeSlowDecorated(element);
+			for (IDecorationContext context : reference.getContexts()) {
+				Map<LightweightDecoratorDefinition, DecorationResult> results = new HashMap<>();
+				boolean upToDate = evaluated;
+				if (slow.isEmpty()) {
+					putSlowResults(element, context, null);
+				} else {
+					Map<LightweightDecoratorDefinition, DecorationResult> lastResults = getSlowResults(element,
+							context);
+					for (LightweightDecoratorDefinition decorator : slow) {
+						results.put(decorator, lastResults == null ? null : lastResults.get(decorator));
+						// a decorator demoted in the meantime has not been evaluated
+						upToDate &= lastResults != null && lastResults.containsKey(decorator);
+					}
+				}
+				DecorationTask task = new DecorationTask(reference, context, decorators, results);
+				tasks.add(task);
+				if (!slow.isEmpty() && !upToDate) {
+					slowTasks.add(task);
+					queueForSlowDecoration(reference, context,
+							slow.toArray(new LightweightDecoratorDefinition[slow.size()]));
+				}
+			}
+		}
+
+		Map<DecorationTask, Future<?>> futures = new LinkedHashMap<>();
+		ExecutorService executor = getDecorationExecutor();
+		for (DecorationTask task : tasks) {
+			if (task.concurrent && executor != null) {
+				try {
+					futures.put(task, executor.submit(() -> lightweightManager.getDecorations(task.getElement(),
+							task.builder, task.decorators, task.slowResults, latencyTracker)));
+				} catch (RejectedExecutionException e) {
+					// shut down meanwhile, the task is done in this thread below
+				}
+			}
+		}
+
+		boolean queued = false;
+		boolean interrupted = false;
+		for (DecorationTask task : tasks) {
+			Future<?> future = futures.get(task);
+			if (future == null) {
+				lightweightManager.getDecorations(task.getElement(), task.builder, task.decorators, task.slowResults,
+						latencyTracker);
+			} else if (!interrupted) {
+				try {
+					future.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					WorkbenchPlugin.log(e.getCause());
+				}
+			}
+			if (interrupted && future != null) {
+				// The builder may still be written, decorate the element again
+				// later instead of publishing it
+				future.cancel(false);
+				queueForDecoration(task.getElement(), task.reference.getAdaptedElement(),
+						task.reference.shouldForceUpdate(), null, task.context);
+				continue;
+			}
+			// a forced update of an element queued for its slow decorators is
+			// done once their results are merged
+			boolean force = task.reference.shouldForceUpdate() && !slowTasks.contains(task);
+			queued |= publish(task.getElement(), force, task.context, task.builder);
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return queued;
+	}
 
-				// If we should update regardless then put a result
-				// anyways
-				if (cacheResult.hasValue() || force) {
+	/**
+	 * Return the executor evaluating thread safe decorators in parallel.
+	 *
+	 * @return the executor or <code>null</code> if we are shut down
+	 */
+	private synchronized ExecutorService getDecorationExecutor() {
+		if (shutdown) {
+			return null;
+		}
+		if (decorationExecutor == null) {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(PARALLEL_THREADS, PARALLEL_THREADS, 5,
+					TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+						Thread thread = new Thread(runnable, "Decoration Worker"); //$NON-NLS-1$
+						thread.setDaemon(true);
+						thread.setPriority(Thread.MIN_PRIORITY);
+						return thread;
+					});
+			executor.allowCoreThreadTimeOut(true);
+			decorationExecutor = executor;
+		}
+		return decorationExecutor;
+	}
 
-					// Synchronize on the result lock as we want to
-					// be sure that we do not try and decorate during
-					// label update servicing.
-					// Note: resultCache and pendingUpdate modifications
-					// must be done atomically.
+	/**
+	 * Return the last results of the slow decorators of the element.
+	 *
+	 * @return the results by decorator or <code>null</code> if the slow
+	 *         decorators have not been evaluated yet
+	 */
+	private Map<LightweightDecoratorDefinition, DecorationResult> getSlowResults(Object element,
+			IDecorationContext context) {
+		synchronized (slowResults) {
+			Map<IDecorationContext, Map<LightweightDecoratorDefinition, DecorationResult>> results = slowResults
+					.get(element);
+			return results == null ? null : results.get(context);
+		}
+	}
+
+	/**
+	 * Remember the results of the slow decorators of the element, or forget them
+	 * if <code>results</code> is <code>null</code>.
+	 */
+	private void putSlowResults(Object element, IDecorationContext context,
+			Map<LightweightDecoratorDefinition, DecorationResult> results) {
+		synchronized (slowResults) {
+			Map<IDecorationContext, Map<LightweightDecoratorDefinition, DecorationResult>> contextResults = slowResults
+					.get(element);
+			if (results != null) {
+				if (contextResults == null) {
+					contextResults = new HashMap<>(2);
+					slowResults.put(element, contextResults);
+				}
+				contextResults.put(context, results);
+			} else if (contextResults != null) {
+				contextResults.remove(context);
+				if (contextResults.isEmpty()) {
+					slowResults.remove(element);
+				}
+			}
+		}
+	}
+
+	/**
+	 * An element waiting for the evaluation of its slow decorators.
+	 */
+	private static final class SlowDecorationReference {
+		final DecorationReference reference;
 
-					// Add the decoration even if it's empty in
-					// order to indicate that the decoration is
-					// ready
+		LightweightDecoratorDefinition[] decorators;
 
-					internalPutResult(element, context, cacheResult.createResult());
+		SlowDecorationReference(DecorationReference reference, LightweightDecoratorDefinition[] decorators) {
+			this.reference = reference;
+			this.decorators = decorators;
+		}
+	}
 
-					// Add an update for only the original element
-					// to
-					// prevent multiple updates and clear the cache.
-					synchronized (pendingUpdate) {
-						pendingUpdate.add(element);
+	/**
+	 * Create the job evaluating the slow decorators of the elements. It only
+	 * evaluates the decorators resolved by the <code>decorationJob</code> and
+	 * queues the elements for the <code>decorationJob</code> again, which merges
+	 * the results with the ones of the fast decorators.
+	 */
+	private Job createSlowDecorationJob() {
+		Job job = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
+			@Override
+			public IStatus run(IProgressMonitor monitor) {
+				LightweightDecoratorManager lightweightManager = decoratorManager.getLightweightManager();
+				List<DecorationReference> evaluated = new ArrayList<>();
+				long startTime = System.currentTimeMillis();
+				SlowDecorationReference slowReference;
+				while (!monitor.isCanceled() && (slowReference = removeNextSlowReference()) != null) {
+					DecorationReference reference = slowReference.reference;
+					Object element = reference.getElement();
+					for (IDecorationContext context : reference.getContexts()) {
+						Map<LightweightDecoratorDefinition, DecorationResult> results = new HashMap<>();
+						for (LightweightDecoratorDefinition decorator : slowReference.decorators) {
+							// Keep the result of every decorator apart so that it
+							// can be merged in place of the decorator
+							DecorationBuilder builder = new DecorationBuilder(context);
+							lightweightManager.getDecorations(element, builder,
+									new LightweightDecoratorDefinition[] { decorator }, Collections.emptyMap(),
+									latencyTracker);
+							results.put(decorator, builder.hasValue() ? builder.createResult() : null);
+						}
+						putSlowResults(element, context, results);
+					}
+					evaluated.add(reference);
+					// Show what we have so far from time to time
+					if (System.currentTimeMillis() - startTime >= UPDATE_DELAY) {
+						requeueSlowDecorated(evaluated);
+						evaluated.clear();
+						startTime = System.currentTimeMillis();
 					}
-					return true;
 				}
-				return false;
+				requeueSlowDecorated(evaluated);
+				return Status.OK_STATUS;
 			}
 
 			@Override
@@ -446,10 +885,60 @@ public class DecorationScheduler {
 				return PlatformUI.isWorkbenchRunning();
 			}
 		};
+		job.setSystem(true);
+		job.setPriority(Job.DECORATE);
+		return job;
+	}
 
-		decorationJob.setSystem(true);
-		decorationJob.setPriority(Job.DECORATE);
-		return decorationJob;
+	/**
+	 * Queue the elements whose slow decorators have been evaluated for the
+	 * <code>decorationJob</code>, which merges their results.
+	 */
+	private synchronized void requeueSlowDecorated(List<DecorationReference> references) {
+		if (shutdown) {
+			return;
+		}
+		for (DecorationReference reference : references) {
+			slowDecorated.add(reference.getElement());
+			for (IDecorationContext context : reference.getContexts()) {
+				queueForDecoration(reference.getElement(), reference.getAdaptedElement(),
+						reference.shouldForceUpdate(), null, context);
+			}
+		}
+	}
+
+	/**
+	 * Get the next element to be decorated by the slow decorators. The fast
+	 * decorations have precedence, so <code>null</code> is returned while
+	 * elements are awaiting their fast decoration.
+	 */
+	private synchronized SlowDecorationReference removeNextSlowReference() {
+		if (shutdown) {
+			return null;
+		}
+		if (!awaitingDecoration.isEmpty()) {
+			if (!awaitingSlowDecoration.isEmpty()) {
+				slowDecorationJob.schedule(SLOW_DECORATION_DELAY);
+			}
+			return null;
+		}
+		Iterator<SlowDecorationReference> iterator = awaitingSlowDecoration.values().iterator();
+		if (!iterator.hasNext()) {
+			return null;
+		}
+		SlowDecorationReference reference = iterator.next();
+		iterator.remove();
+		return reference;
+	}
+
+	/**
+	 * Schedule the update job unless it is already scheduled or running, in
+	 * which case rescheduling would only delay the pending update.
+	 */
+	private synchronized void scheduleUpdateJobIfIdle() {
+		if (updateJob == null || updateJob.getState() == Job.NONE) {
+			scheduleUpdateJob();
+		}
 	}
 
 	/**
@@ -484,6 +973,9 @@ public class DecorationScheduler {
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
 				resultCache.clear();
+				synchronized (slowResults) {
+					slowResults.clear();
+				}
 				return Status.OK_STATUS;
 			}
 
@@ -587,7 +1079,7 @@ public class DecorationScheduler {
 				// Other decoration requests may have occurred due to
 				// updates or we may have timed out updating listeners.
 				// Only clear the results if there are none pending.
-				if (awaitingDecoration.isEmpty()) {
+				if (awaitingDecoration.isEmpty() && awaitingSlowDecorationIsEmpty()) {
 					resultCache.clear();
 				}
 			}
@@ -621,6 +1113,10 @@ public class DecorationScheduler {
 		return job;
 	}
 
+	private synchronized boolean awaitingSlowDecorationIsEmpty() {
+		return awaitingSlowDecoration.isEmpty();
+	}
+
 	/**
 	 * Return whether or not there is a decoration for this element ready.
 	 *
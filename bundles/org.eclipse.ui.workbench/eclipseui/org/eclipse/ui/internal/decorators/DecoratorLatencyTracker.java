@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.decorators;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the time the lightweight decorators need to decorate a single
+ * element. Decorators whose average latency exceeds the slow threshold are
+ * reported as slow by {@link #isSlow(DecoratorDefinition)} and get demoted to
+ * the low priority lane of the {@link DecorationScheduler}.
+ * <p>
+ * The average is an exponential moving average so a decorator that becomes fast
+ * again (e.g. after its caches are warmed up) is promoted back automatically.
+ * </p>
+ */
+class DecoratorLatencyTracker {
+
+	/**
+	 * Average time in milliseconds above which a decorator is considered slow.
+	 */
+	private static final long SLOW_THRESHOLD_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(Integer.getInteger("org.eclipse.ui.decorators.slowThreshold", 5).intValue()); //$NON-NLS-1$
+
+	/**
+	 * Number of samples required before a decorator can be demoted.
+	 */
+	private static final int MIN_SAMPLES = 10;
+
+	/**
+	 * Weight of a new sample in the moving average, expressed as a shift (1/8).
+	 */
+	private static final int SMOOTHING_SHIFT = 3;
+
+	private static final class Stats {
+		// written under the monitor of the receiver, read without locking
+		private volatile long averageNanos;
+
+		private volatile int samples;
+
+		synchronized void record(long nanos) {
+			if (samples == 0) {
+				averageNanos = nanos;
+			} else {
+				averageNanos += (nanos - averageNanos) >> SMOOTHING_SHIFT;
+			}
+			if (samples < Integer.MAX_VALUE) {
+				samples++;
+			}
+		}
+	}
+
+	private final Map<DecoratorDefinition, Stats> stats = new ConcurrentHashMap<>();
+
+	/**
+	 * Record the time a decorator needed to decorate one element.
+	 *
+	 * @param decorator the decorator
+	 * @param nanos     the elapsed time in nanoseconds
+	 */
+	void record(DecoratorDefinition decorator, long nanos) {
+		stats.computeIfAbsent(decorator, d -> new Stats()).record(nanos);
+	}
+
+	/**
+	 * Return whether the decorator is slow enough to be evaluated in the low
+	 * priority lane.
+	 *
+	 * @param decorator the decorator
+	 * @return <code>true</code> if the decorator should be demoted
+	 */
+	boolean isSlow(DecoratorDefinition decorator) {
+		Stats decoratorStats = stats.get(decorator);
+		return decoratorStats != null && decoratorStats.samples >= MIN_SAMPLES
+				&& decoratorStats.averageNanos > SLOW_THRESHOLD_NANOS;
+	}
+
+	/**
+	 * Split the decorators into the ones evaluated in the fast lane and the
+	 * ones demoted to the slow lane, keeping their order.
+	 *
+	 * @param <D>        the type of the decorators
+	 * @param decorators the decorators of an element
+	 * @param fast       the collection the fast decorators are added to
+	 * @param slow       the collection the slow decorators are added to
+	 */
+	<D extends DecoratorDefinition> void assignLanes(D[] decorators, Collection<? super D> fast,
+			Collection<? super D> slow) {
+		for (D decorator : decorators) {
+			if (isSlow(decorator)) {
+				slow.add(decorator);
+			} else {
+				fast.add(decorator);
+			}
+		}
+	}
+}
@@ -36,6 +36,8 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 
 	static final String ATT_ICON = "icon"; //$NON-NLS-1$
 
+	private static final String ATT_THREAD_SAFE = "threadSafe"; //$NON-NLS-1$
+
 	// Constants for quadrants
 	/**
 	 * Position <code>TOP_LEFT</code>. Value <code>0</code>
@@ -84,7 +86,13 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 	 * The DeclarativeDecorator is the internal decorator supplied by the decorator
 	 * definition.
 	 */
-	private ILightweightLabelDecorator decorator;
+	private volatile ILightweightLabelDecorator decorator;
+
+	/**
+	 * Held while a decorator that is not thread safe decorates an element in the
+	 * parallel decoration.
+	 */
+	final Object decorationLock = new Object();
 
 	private int quadrant;
 
@@ -107,6 +115,19 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 		if (labelProviderCreationFailed) {
 			return null;
 		}
+		// fast path without locking, the decorator may be requested concurrently
+		// by the parallel decoration
+		ILightweightLabelDecorator current = decorator;
+		if (current != null) {
+			return current;
+		}
+		return createDecorator();
+	}
+
+	private synchronized ILightweightLabelDecorator createDecorator() throws CoreException {
+		if (labelProviderCreationFailed) {
+			return null;
+		}
 
 		final CoreException[] exceptions = new CoreException[1];
 
@@ -162,6 +183,17 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 		return definingElement.getAttribute(DecoratorDefinition.ATT_CLASS) == null;
 	}
 
+	/**
+	 * Return whether or not the decorator may be called concurrently for
+	 * different elements. Declarative decorators are always thread safe, other
+	 * decorators have to declare it using the <code>threadSafe</code> attribute.
+	 *
+	 * @return boolean <code>true</code> if the decorator is thread safe
+	 */
+	boolean isThreadSafe() {
+		return isDeclarative() || Boolean.parseBoolean(definingElement.getAttribute(ATT_THREAD_SAFE));
+	}
+
 	/**
 	 * Return the icon location.
 	 *
@@ -16,6 +16,7 @@ package org.eclipse.ui.internal.decorators;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
@@ -346,6 +347,52 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 		}
 	}
 
+	/**
+	 * Fill the decoration with the results of the given decorators and record the
+	 * time each of them needed in the tracker. Unlike
+	 * {@link #getDecorations(Object, DecorationBuilder)} this method does not use
+	 * the shared runnable and may therefore be called from several threads at
+	 * once. Decorators that are not thread safe are never evaluated by two
+	 * threads at once.
+	 *
+	 * @param element     The source element
+	 * @param decoration  The DecorationResult we are working on.
+	 * @param decorators  The decorators to apply, in order
+	 * @param slowResults The results to merge in place of the decorators that
+	 *                    are not evaluated, <code>null</code> if a decorator did
+	 *                    not contribute anything
+	 * @param tracker     The tracker recording the decorator latencies
+	 */
+	void getDecorations(Object element, DecorationBuilder decoration, LightweightDecoratorDefinition[] decorators,
+			Map<LightweightDecoratorDefinition, DecorationResult> slowResults, DecoratorLatencyTracker tracker) {
+		LightweightRunnable elementRunnable = new LightweightRunnable();
+		for (LightweightDecoratorDefinition decorator : decorators) {
+			if (slowResults.containsKey(decorator)) {
+				DecorationResult result = slowResults.get(decorator);
+				if (result != null) {
+					decoration.mergeResult(result);
+				}
+				continue;
+			}
+			decoration.setCurrentDefinition(decorator);
+			elementRunnable.setValues(element, decoration, decorator);
+			if (decorator.isThreadSafe()) {
+				runTimed(elementRunnable, decorator, tracker);
+			} else {
+				synchronized (decorator.decorationLock) {
+					runTimed(elementRunnable, decorator, tracker);
+				}
+			}
+		}
+	}
+
+	private static void runTimed(LightweightRunnable elementRunnable, LightweightDecoratorDefinition decorator,
+			DecoratorLatencyTracker tracker) {
+		long start = System.nanoTime();
+		SafeRunner.run(elementRunnable);
+		tracker.record(decorator, System.nanoTime() - start);
+	}
+
 	/**
 	 * Decorate the element receiver in a SafeRunnable.
 	 *
@@ -45,6 +45,7 @@ public class PreferencePatternFilter extends PatternFilter {
 	 */
 	public PreferencePatternFilter() {
 		super();
+		setUseIndex(true);
 	}
 
 	/*
@@ -109,4 +110,17 @@ public class PreferencePatternFilter extends PatternFilter {
 		return false;
 	}
 
+	@Override
+	protected String[] getSearchTexts(Viewer viewer, Object element) {
+		if (WorkbenchActivityHelper.restrictUseOf(element)) {
+			return null;
+		}
+		IPreferenceNode node = (IPreferenceNode) element;
+		String[] keywords = getKeywords(node);
+		String[] texts = new String[keywords.length + 1];
+		texts[0] = node.getLabelText();
+		System.arraycopy(keywords, 0, texts, 1, keywords.length);
+		return texts;
+	}
+
 }
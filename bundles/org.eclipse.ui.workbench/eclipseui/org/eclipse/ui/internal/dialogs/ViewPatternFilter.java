@@ -28,6 +28,13 @@ import org.eclipse.ui.dialogs.PatternFilter;
  */
 public class ViewPatternFilter extends PatternFilter {
 
+	/**
+	 * Create a new instance of a ViewPatternFilter
+	 */
+	public ViewPatternFilter() {
+		setUseIndex(true);
+	}
+
 	@Override
 	public boolean isElementSelectable(Object element) {
 		return element instanceof MPartDescriptor;
@@ -35,8 +42,16 @@ public class ViewPatternFilter extends PatternFilter {
 
 	@Override
 	protected boolean isLeafMatch(Viewer viewer, Object element) {
-		return element instanceof MPartDescriptor desc && Stream.of(desc.getLabel(), desc.getCategory()) //
-				.map(text -> LocalizationHelper.getLocalized(text, desc)) //
-				.anyMatch(this::wordMatches);
+		return Stream.of(getSearchTexts(viewer, element)).anyMatch(this::wordMatches);
+	}
+
+	@Override
+	protected String[] getSearchTexts(Viewer viewer, Object element) {
+		if (element instanceof MPartDescriptor desc) {
+			return Stream.of(desc.getLabel(), desc.getCategory()) //
+					.map(text -> LocalizationHelper.getLocalized(text, desc)) //
+					.toArray(String[]::new);
+		}
+		return new String[0];
 	}
 }
@@ -48,6 +48,7 @@ import org.eclipse.e4.ui.tests.workbench.ModelServiceImplTest;
 import org.eclipse.e4.ui.tests.workbench.PartFocusTest;
 import org.eclipse.e4.ui.tests.workbench.PartOnTopManagerTest;
 import org.eclipse.e4.ui.tests.workbench.PartRenderingEngineTests;
+import org.eclipse.e4.ui.tests.workbench.RenderingMetricsTest;
 import org.eclipse.e4.ui.tests.workbench.SWTPartRendererTest;
 import org.eclipse.e4.ui.tests.workbench.SashRendererTest;
 import org.eclipse.e4.ui.tests.workbench.TopoSortTests;
@@ -72,6 +73,7 @@ import org.junit.platform.suite.api.Suite;
 		Bug320857Test.class,
 		PartOnTopManagerTest.class,
 		PartRenderingEngineTests.class,
+		RenderingMetricsTest.class,
 		SashRendererTest.class,
 		MApplicationCommandAccessTest.class,
 		MMenuItemTest.class,
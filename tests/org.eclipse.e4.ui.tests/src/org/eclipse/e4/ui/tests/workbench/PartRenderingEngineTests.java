@@ -31,6 +31,7 @@ import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.statusreporter.StatusReporter;
 import org.eclipse.e4.ui.internal.workbench.swt.IEventLoopAdvisor;
+import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
 import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
@@ -61,6 +62,7 @@ import org.eclipse.swt.custom.CTabItem;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.ToolBar;
 import org.eclipse.swt.widgets.Widget;
@@ -3213,4 +3215,112 @@ public class PartRenderingEngineTests {
 		modelService.removePerspectiveModel(perspectiveB, window);
 		assertNull(part.getCurSharedRef());
 	}
+
+	/**
+	 * Creates a window with a visible stack and a minimized stack, and enables
+	 * the lazy rendering with the given prefetch delay.
+	 */
+	private MPartStack createMinimizedStack(MWindow window, int prefetchDelay) {
+		appContext.set(PartRenderingEngine.LAZY_RENDERING_KEY, Boolean.TRUE);
+		appContext.set(PartRenderingEngine.PREFETCH_DELAY_KEY, Integer.valueOf(prefetchDelay));
+		application.getChildren().add(window);
+
+		MPartSashContainer container = ems.createModelElement(MPartSashContainer.class);
+		window.getChildren().add(container);
+
+		MPartStack stack = ems.createModelElement(MPartStack.class);
+		container.getChildren().add(stack);
+		MPart partA = ems.createModelElement(MPart.class);
+		partA.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.eclipse.e4.ui.tests.workbench.SampleView");
+		stack.getChildren().add(partA);
+
+		MPartStack minimizedStack = ems.createModelElement(MPartStack.class);
+		minimizedStack.getTags().add(IPresentationEngine.MINIMIZED);
+		minimizedStack.setVisible(false);
+		container.getChildren().add(minimizedStack);
+		MPart partB = ems.createModelElement(MPart.class);
+		partB.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.eclipse.e4.ui.tests.workbench.SampleView");
+		minimizedStack.getChildren().add(partB);
+		minimizedStack.setSelectedElement(partB);
+		return minimizedStack;
+	}
+
+	@Test
+	public void testLazyRendering_MinimizedStackIsDeferred() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack minimizedStack = createMinimizedStack(window, -1);
+
+		contextRule.createAndRunWorkbench(window);
+
+		assertNull(minimizedStack.getWidget());
+		assertNull(minimizedStack.getSelectedElement().getWidget());
+		assertTrue(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+	}
+
+	@Test
+	public void testLazyRendering_RenderedWhenRevealed() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack minimizedStack = createMinimizedStack(window, -1);
+		contextRule.createAndRunWorkbench(window);
+
+		minimizedStack.getTags().remove(IPresentationEngine.MINIMIZED);
+		minimizedStack.setVisible(true);
+
+		assertNotNull(minimizedStack.getWidget());
+		assertNotNull(minimizedStack.getSelectedElement().getWidget());
+		assertFalse(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+		assertEquals(window.getWidget(), ((Control) minimizedStack.getWidget()).getShell());
+	}
+
+	@Test
+	public void testLazyRendering_RenderedWhenRequested() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack minimizedStack = createMinimizedStack(window, -1);
+		contextRule.createAndRunWorkbench(window);
+
+		appContext.get(IPresentationEngine.class).createGui(minimizedStack);
+
+		assertNotNull(minimizedStack.getWidget());
+		assertFalse(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+	}
+
+	@Test
+	public void testLazyRendering_NotRenderedWhenRemoved() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack minimizedStack = createMinimizedStack(window, -1);
+		contextRule.createAndRunWorkbench(window);
+
+		minimizedStack.setToBeRendered(false);
+
+		assertNull(minimizedStack.getWidget());
+		assertFalse(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+	}
+
+	@Test
+	public void testLazyRendering_PrefetchedWhenIdle() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack minimizedStack = createMinimizedStack(window, 0);
+		contextRule.createAndRunWorkbench(window);
+
+		assertTrue(DisplayHelper.waitForCondition(Display.getDefault(), 5000,
+				() -> minimizedStack.getWidget() != null));
+		assertFalse(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+	}
+
+	@Test
+	public void testLazyRendering_PrefetchPostponedByInput() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack minimizedStack = createMinimizedStack(window, 1000);
+		contextRule.createAndRunWorkbench(window);
+		Shell shell = (Shell) window.getWidget();
+		Display display = shell.getDisplay();
+
+		long end = System.currentTimeMillis() + 1500;
+		while (System.currentTimeMillis() < end) {
+			shell.notifyListeners(SWT.MouseMove, new Event());
+			DisplayHelper.sleep(display, 20);
+			assertNull(minimizedStack.getWidget());
+		}
+		assertTrue(DisplayHelper.waitForCondition(display, 5000, () -> minimizedStack.getWidget() != null));
+	}
 }
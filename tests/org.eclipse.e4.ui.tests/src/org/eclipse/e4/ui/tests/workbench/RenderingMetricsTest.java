@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.e4.ui.internal.workbench.swt.RenderingMetrics;
+import org.eclipse.e4.ui.internal.workbench.swt.RenderingMetrics.Timer;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.junit.Test;
+
+/**
+ * Tests the timers of the {@link RenderingMetrics} registry.
+ */
+public class RenderingMetricsTest {
+
+	private static final long MICROS = TimeUnit.MICROSECONDS.toNanos(1);
+
+	private final RenderingMetrics metrics = new RenderingMetrics();
+
+	private Timer getTimer(String name) {
+		for (Timer timer : metrics.getTimers()) {
+			if (timer.getName().equals(name)) {
+				return timer;
+			}
+		}
+		throw new AssertionError("No timer " + name + " in " + names());
+	}
+
+	private List<String> names() {
+		List<String> names = new ArrayList<>();
+		for (Timer timer : metrics.getTimers()) {
+			names.add(timer.getName());
+		}
+		return names;
+	}
+
+	@Test
+	public void testSamplesAreAttributedByKey() {
+		MPart contribution = MBasicFactory.INSTANCE.createPart();
+		contribution.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/SampleView");
+		MPart part = MBasicFactory.INSTANCE.createPart();
+
+		metrics.add(RenderingMetrics.CREATE_WIDGET, contribution, MICROS);
+		metrics.add(RenderingMetrics.CREATE_WIDGET, contribution, MICROS);
+		metrics.add(RenderingMetrics.CREATE_WIDGET, part, MICROS);
+		metrics.add(RenderingMetrics.CAN_EXECUTE, "org.eclipse.ui.file.save", MICROS);
+		metrics.add(RenderingMetrics.PROCESS_CONTENTS, this, MICROS);
+		metrics.add(RenderingMetrics.PROCESS_CONTENTS, null, MICROS);
+
+		assertEquals(5, metrics.getTimerCount());
+		assertEquals(2, getTimer("createWidget bundleclass://org.eclipse.e4.ui.tests/SampleView").getCount());
+		assertEquals(1, getTimer("createWidget " + part.getClass().getSimpleName()).getCount());
+		assertEquals(1, getTimer("canExecute org.eclipse.ui.file.save").getCount());
+		assertEquals(1, getTimer("processContents " + getClass().getName()).getCount());
+		assertEquals(1, getTimer("processContents null").getCount());
+	}
+
+	@Test
+	public void testTimerStatistics() {
+		metrics.add(RenderingMetrics.CREATE_GUI, "key", 500);
+		metrics.add(RenderingMetrics.CREATE_GUI, "key", 3 * MICROS);
+		metrics.add(RenderingMetrics.CREATE_GUI, "key", 100 * MICROS);
+
+		Timer timer = getTimer("createGui key");
+		assertEquals(3, timer.getCount());
+		assertEquals(500 + 103 * MICROS, timer.getTotalNanos());
+		assertEquals(100 * MICROS, timer.getMaxNanos());
+		// the upper bounds of the histogram buckets
+		assertEquals(1, timer.getPercentileMicros(0));
+		assertEquals(1, timer.getPercentileMicros(33));
+		assertEquals(4, timer.getPercentileMicros(50));
+		assertEquals(128, timer.getPercentileMicros(99));
+		assertEquals(128, timer.getPercentileMicros(100));
+	}
+
+	@Test
+	public void testReset() {
+		metrics.add(RenderingMetrics.CREATE_GUI, "key", 0);
+		metrics.reset();
+		assertEquals(0, metrics.getTimerCount());
+		assertTrue(metrics.getTimers().isEmpty());
+	}
+
+	@Test
+	public void testTimersSortedByTotalTime() {
+		metrics.add(RenderingMetrics.CREATE_GUI, "small", 10 * MICROS);
+		metrics.add(RenderingMetrics.CREATE_GUI, "large", 30 * MICROS);
+		metrics.add(RenderingMetrics.CREATE_GUI, "medium", 12 * MICROS);
+		metrics.add(RenderingMetrics.CREATE_GUI, "medium", 12 * MICROS);
+
+		assertEquals(List.of("createGui large", "createGui medium", "createGui small"), names());
+	}
+
+	@Test
+	public void testReport() {
+		metrics.add(RenderingMetrics.PROCESS_CONTRIBUTIONS, "org.eclipse.ui.main.menu", 2 * MICROS);
+
+		String report = metrics.getReport();
+		String[] lines = report.split("\\R");
+		assertEquals(report, 2, lines.length);
+		assertTrue(report, lines[0].contains("operation"));
+		assertTrue(report, lines[1].trim().startsWith("1 "));
+		assertTrue(report, lines[1].endsWith("processContributions org.eclipse.ui.main.menu"));
+	}
+}
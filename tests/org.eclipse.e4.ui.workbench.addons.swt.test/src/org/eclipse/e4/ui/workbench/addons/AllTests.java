@@ -4,6 +4,7 @@ import org.eclipse.e4.ui.workbench.addons.cleanupaddon.CleanupAddonTest;
 import org.eclipse.e4.ui.workbench.addons.minmax.MaximizableChildrenTag;
 import org.eclipse.e4.ui.workbench.addons.minmax.MaximizeBugTest;
 import org.eclipse.e4.ui.workbench.addons.minmax.MaximizePartSashContainerPlaceholderTest;
+import org.eclipse.e4.ui.workbench.addons.minmax.TrimStackLazyRenderingTest;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
@@ -12,6 +13,7 @@ import org.junit.platform.suite.api.Suite;
 		MaximizeBugTest.class, //
 		MaximizePartSashContainerPlaceholderTest.class, //
 		MaximizableChildrenTag.class, //
+		TrimStackLazyRenderingTest.class, //
 		CleanupAddonTest.class, //
 })
 public class AllTests {
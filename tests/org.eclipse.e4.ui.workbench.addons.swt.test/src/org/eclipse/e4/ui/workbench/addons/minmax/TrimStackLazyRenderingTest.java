@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.ui.workbench.addons.minmax;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
+import org.eclipse.e4.ui.internal.workbench.PartServiceImpl;
+import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
+import org.eclipse.e4.ui.internal.workbench.swt.CSSRenderingUtils;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.impl.ApplicationFactoryImpl;
+import org.eclipse.e4.ui.model.application.ui.SideValue;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.model.application.ui.basic.impl.BasicFactoryImpl;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolControl;
+import org.eclipse.e4.ui.model.application.ui.menu.impl.MenuFactoryImpl;
+import org.eclipse.e4.ui.workbench.IPresentationEngine;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.e4.ui.workbench.modeling.EPartService;
+import org.eclipse.e4.ui.workbench.swt.DisplayUISynchronize;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a stack minimized at startup is only rendered when its trim stack
+ * shows it, if the rendering engine renders hidden elements lazily.
+ */
+public class TrimStackLazyRenderingTest {
+
+	private IEclipseContext appContext;
+
+	private IPresentationEngine renderer;
+
+	private MTrimmedWindow window;
+
+	private MPartStack minimizedStack;
+
+	private MToolControl trimStackControl;
+
+	private Shell shell;
+
+	@BeforeEach
+	public void setUp() {
+		MApplication application = ApplicationFactoryImpl.eINSTANCE.createApplication();
+
+		window = BasicFactoryImpl.eINSTANCE.createTrimmedWindow();
+		window.setElementId("MainWindow");
+		application.getChildren().add(window);
+		application.setSelectedElement(window);
+
+		MPartSashContainer container = BasicFactoryImpl.eINSTANCE.createPartSashContainer();
+		window.getChildren().add(container);
+		window.setSelectedElement(container);
+
+		MPartStack stack = BasicFactoryImpl.eINSTANCE.createPartStack();
+		stack.setElementId("mainStack");
+		stack.getChildren().add(BasicFactoryImpl.eINSTANCE.createPart());
+		container.getChildren().add(stack);
+
+		minimizedStack = BasicFactoryImpl.eINSTANCE.createPartStack();
+		minimizedStack.setElementId("minimizedStack");
+		MPart part = BasicFactoryImpl.eINSTANCE.createPart();
+		part.setLabel("minimized part");
+		minimizedStack.getChildren().add(part);
+		minimizedStack.setSelectedElement(part);
+		minimizedStack.getTags().add(IPresentationEngine.MINIMIZED);
+		minimizedStack.setVisible(false);
+		container.getChildren().add(minimizedStack);
+
+		MTrimBar trimBar = BasicFactoryImpl.eINSTANCE.createTrimBar();
+		trimBar.setSide(SideValue.LEFT);
+		window.getTrimBars().add(trimBar);
+		trimStackControl = MenuFactoryImpl.eINSTANCE.createToolControl();
+		trimStackControl.setElementId(TrimStackIdHelper.createTrimStackId(minimizedStack, null, window));
+		trimStackControl.setContributionURI(TrimStack.CONTRIBUTION_URI);
+		trimStackControl.getTags().add("TrimStack");
+		trimBar.getChildren().add(trimStackControl);
+
+		appContext = E4Application.createDefaultContext();
+		appContext.set(Display.class, Display.getDefault());
+		appContext.set(MApplication.class.getName(), application);
+		appContext.set(MWindow.class, window);
+		appContext.set(UISynchronize.class, new DisplayUISynchronize(Display.getDefault()));
+		appContext.set(EModelService.class, new ModelServiceImpl(appContext));
+		appContext.set(PartRenderingEngine.LAZY_RENDERING_KEY, Boolean.TRUE);
+		appContext.set(PartRenderingEngine.PREFETCH_DELAY_KEY, Integer.valueOf(-1));
+
+		ContextInjectionFactory.setDefault(appContext);
+		renderer = ContextInjectionFactory.make(PartRenderingEngine.class, appContext);
+		appContext.set(IPresentationEngine.class, renderer);
+		appContext.set(EPartService.class, ContextInjectionFactory.make(PartServiceImpl.class, appContext));
+		application.setContext(appContext);
+
+		UIEventPublisher ep = new UIEventPublisher(appContext);
+		((Notifier) application).eAdapters().add(ep);
+		appContext.set(UIEventPublisher.class, ep);
+		appContext.set(CSSRenderingUtils.class, new CSSRenderingUtils());
+		E4Application.initializeServices(application);
+
+		shell = (Shell) renderer.createGui(window);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		renderer.removeGui(window);
+		renderer.stop();
+		shell.dispose();
+		appContext.dispose();
+		ContextInjectionFactory.setDefault(null);
+	}
+
+	@Test
+	public void testMinimizedStackIsDeferred() {
+		assertNull(minimizedStack.getWidget());
+		assertTrue(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+		assertNotNull(trimStackControl.getObject());
+	}
+
+	@Test
+	public void testShowStackRendersDeferredStack() {
+		TrimStack trimStack = (TrimStack) trimStackControl.getObject();
+
+		trimStack.showStack(true);
+
+		assertNotNull(minimizedStack.getWidget());
+		assertFalse(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+		assertNotNull(minimizedStack.getSelectedElement().getWidget());
+
+		trimStack.showStack(false);
+		assertNotNull(minimizedStack.getWidget());
+	}
+
+	@Test
+	public void testHideStackKeepsStackDeferred() {
+		TrimStack trimStack = (TrimStack) trimStackControl.getObject();
+
+		trimStack.showStack(false);
+
+		assertNull(minimizedStack.getWidget());
+		assertTrue(PartRenderingEngine.isRenderingDeferred(minimizedStack));
+	}
+}
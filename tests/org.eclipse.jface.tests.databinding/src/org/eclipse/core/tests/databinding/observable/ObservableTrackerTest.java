@@ -16,6 +16,7 @@
 package org.eclipse.core.tests.databinding.observable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
@@ -26,6 +27,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.databinding.observable.AbstractObservable;
+import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
@@ -186,6 +188,35 @@ public class ObservableTrackerTest extends AbstractDefaultRealmTestCase {
 		assertThrows(IllegalStateException.class, () -> ObservableTracker.setIgnore(false));
 	}
 
+	@Test
+	public void testRunAndTrack() throws Exception {
+		final ObservableStub first = new ObservableStub();
+		final ObservableStub second = new ObservableStub();
+		IChangeListener listener = event -> {
+		};
+		IObservable[] result = ObservableTracker.runAndTrack(null, () -> {
+			ObservableTracker.getterCalled(first);
+			ObservableTracker.getterCalled(second);
+			ObservableTracker.getterCalled(first);
+		}, null, listener, null);
+		assertEquals(Arrays.asList(first, second), Arrays.asList(result));
+		assertTrue(first.hasListeners());
+		assertTrue(second.hasListeners());
+
+		IObservable[] previous = result;
+		result = ObservableTracker.runAndTrack(null, () -> {
+			ObservableTracker.getterCalled(first);
+			ObservableTracker.getterCalled(second);
+		}, previous, listener, null);
+		assertSame("unchanged dependencies should be reused", previous, result);
+
+		result = ObservableTracker.runAndTrack(null, () -> ObservableTracker.getterCalled(second), result, listener,
+				null);
+		assertEquals(Arrays.asList(second), Arrays.asList(result));
+		assertFalse(first.hasListeners());
+		assertTrue(second.hasListeners());
+	}
+
 	public static class ObservableStub extends AbstractObservable {
 		public ObservableStub() {
 			this(Realm.getDefault());
@@ -199,5 +230,10 @@ public class ObservableTrackerTest extends AbstractDefaultRealmTestCase {
 		public boolean isStale() {
 			return false;
 		}
+
+		@Override
+		public boolean hasListeners() {
+			return super.hasListeners();
+		}
 	}
 }
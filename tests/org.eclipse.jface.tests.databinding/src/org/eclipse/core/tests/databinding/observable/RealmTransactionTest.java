@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.map.WritableMap;
+import org.eclipse.core.databinding.observable.set.WritableSet;
+import org.eclipse.core.databinding.observable.value.ComputedValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.MapChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+import org.eclipse.jface.databinding.conformance.util.SetChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Realm#beginTransaction()} and
+ * {@link Realm#commitTransaction()}.
+ */
+public class RealmTransactionTest {
+	private Realm realm;
+
+	@Before
+	public void setUp() throws Exception {
+		realm = new CurrentRealm(true);
+		RealmTester.setDefault(realm);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+	}
+
+	@Test
+	public void testValueChangesAreMerged() throws Exception {
+		WritableValue<String> value = new WritableValue<>("a", String.class);
+		ValueChangeEventTracker<String> tracker = ValueChangeEventTracker.observe(value);
+		ChangeEventTracker changeTracker = ChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		value.setValue("b");
+		value.setValue("c");
+		assertEquals(0, tracker.count);
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals(1, changeTracker.count);
+		assertEquals("a", tracker.event.diff.getOldValue());
+		assertEquals("c", tracker.event.diff.getNewValue());
+	}
+
+	@Test
+	public void testListChangesAreMerged() throws Exception {
+		WritableList<String> list = new WritableList<>(new ArrayList<>(List.of("a", "b")), String.class);
+		ListChangeEventTracker<String> tracker = ListChangeEventTracker.observe(list);
+
+		realm.beginTransaction();
+		list.add("c");
+		list.remove("a");
+		list.add(0, "d");
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		List<String> oldList = new ArrayList<>(List.of("a", "b"));
+		tracker.event.diff.applyTo(oldList);
+		assertEquals(list, oldList);
+	}
+
+	@Test
+	public void testSetChangesAreMerged() throws Exception {
+		WritableSet<String> set = new WritableSet<>(Set.of("a"), String.class);
+		SetChangeEventTracker tracker = SetChangeEventTracker.observe(set);
+
+		realm.beginTransaction();
+		set.add("b");
+		set.remove("b");
+		set.remove("a");
+		set.add("c");
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals(Set.of("c"), tracker.event.diff.getAdditions());
+		assertEquals(Set.of("a"), tracker.event.diff.getRemovals());
+	}
+
+	@Test
+	public void testMapChangesAreMerged() throws Exception {
+		WritableMap<String, String> map = new WritableMap<>();
+		map.put("a", "1");
+		map.put("b", "2");
+		MapChangeEventTracker<String, String> tracker = MapChangeEventTracker.observe(map);
+
+		realm.beginTransaction();
+		map.put("a", "3");
+		map.remove("b");
+		map.put("c", "4");
+		map.remove("c");
+		map.put("b", "2");
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals(Set.of(), tracker.event.diff.getAddedKeys());
+		assertEquals(Set.of(), tracker.event.diff.getRemovedKeys());
+		assertEquals(Set.of("a"), tracker.event.diff.getChangedKeys());
+		assertEquals("1", tracker.event.diff.getOldValue("a"));
+		assertEquals("3", tracker.event.diff.getNewValue("a"));
+	}
+
+	@Test
+	public void testComputedValueIsRecomputedOnce() throws Exception {
+		WritableValue<Integer> first = new WritableValue<>(1, Integer.class);
+		WritableValue<Integer> second = new WritableValue<>(2, Integer.class);
+		int[] calculations = new int[1];
+		IObservableValue<Integer> sum = ComputedValue.create(() -> {
+			calculations[0]++;
+			return first.getValue() + second.getValue();
+		});
+		ValueChangeEventTracker<Integer> tracker = ValueChangeEventTracker.observe(sum);
+		sum.addValueChangeListener(event -> sum.getValue());
+		assertEquals(Integer.valueOf(3), sum.getValue());
+
+		realm.beginTransaction();
+		first.setValue(10);
+		second.setValue(20);
+		first.setValue(100);
+		realm.commitTransaction();
+
+		assertEquals(2, calculations[0]);
+		assertEquals(1, tracker.count);
+		assertEquals(Integer.valueOf(3), tracker.event.diff.getOldValue());
+		assertEquals(Integer.valueOf(120), tracker.event.diff.getNewValue());
+	}
+
+	@Test
+	public void testNestedTransactions() throws Exception {
+		WritableValue<String> value = new WritableValue<>("a", String.class);
+		ValueChangeEventTracker<String> tracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		realm.beginTransaction();
+		value.setValue("b");
+		realm.commitTransaction();
+		assertEquals(0, tracker.count);
+		value.setValue("c");
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals("c", tracker.event.diff.getNewValue());
+
+		value.setValue("d");
+		assertEquals(2, tracker.count);
+	}
+
+	@Test
+	public void testValueChangedBackIsNotFired() throws Exception {
+		WritableValue<String> value = new WritableValue<>("a", String.class);
+		ValueChangeEventTracker<String> tracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		value.setValue("b");
+		value.setValue("a");
+		realm.commitTransaction();
+
+		assertEquals(0, tracker.count);
+	}
+
+	@Test
+	public void testComputedEventsAreNotDeferredByDefault() throws Exception {
+		WritableValue<Integer> source = new WritableValue<>(1, Integer.class);
+		IObservableValue<Integer> computed = ComputedValue.create(() -> source.getValue() * 2);
+		List<String> notified = new ArrayList<>();
+		computed.addValueChangeListener(event -> notified.add("computed"));
+		computed.getValue();
+		// After the listener of the computed value
+		source.addChangeListener(event -> notified.add("source"));
+
+		source.setValue(2);
+		assertEquals(List.of("computed", "source"), notified);
+
+		notified.clear();
+		computed.getValue();
+		realm.setGlitchFree(true);
+		source.setValue(3);
+		assertEquals(List.of("source", "computed"), notified);
+	}
+
+	@Test
+	public void testListenerThrowsDuringCommit() throws Exception {
+		WritableValue<String> first = new WritableValue<>("a", String.class);
+		WritableValue<String> second = new WritableValue<>("a", String.class);
+		first.addValueChangeListener(event -> {
+			throw new IllegalStateException();
+		});
+		ValueChangeEventTracker<String> tracker = ValueChangeEventTracker.observe(second);
+
+		realm.beginTransaction();
+		first.setValue("b");
+		second.setValue("b");
+		assertThrows(IllegalStateException.class, () -> realm.commitTransaction());
+		assertEquals("the events after the failing one should be fired", 1, tracker.count);
+
+		new WritableValue<>("a", String.class).setValue("b");
+		assertEquals(1, tracker.count);
+		second.setValue("c");
+		assertEquals(2, tracker.count);
+	}
+
+	@Test
+	public void testListenerThrowsWhileDispatching() throws Exception {
+		realm.setGlitchFree(true);
+		WritableValue<Integer> source = new WritableValue<>(1, Integer.class);
+		IObservableValue<Integer> failing = ComputedValue.create(() -> source.getValue() + 1);
+		IObservableValue<Integer> computed = ComputedValue.create(() -> source.getValue() * 2);
+		failing.addValueChangeListener(event -> {
+			throw new IllegalStateException();
+		});
+		ValueChangeEventTracker<Integer> tracker = ValueChangeEventTracker.observe(computed);
+		failing.getValue();
+		computed.getValue();
+
+		assertThrows(IllegalStateException.class, () -> source.setValue(2));
+		assertEquals(1, tracker.count);
+
+		new WritableValue<>("a", String.class).setValue("b");
+		assertEquals("no event should be left for a later dispatch", 1, tracker.count);
+		failing.getValue();
+		computed.getValue();
+		assertThrows(IllegalStateException.class, () -> source.setValue(3));
+		assertEquals(2, tracker.count);
+	}
+
+	@Test
+	public void testTransactionWithinDispatch() throws Exception {
+		WritableValue<String> source = new WritableValue<>("a", String.class);
+		WritableValue<String> target = new WritableValue<>("a", String.class);
+		ValueChangeEventTracker<String> tracker = ValueChangeEventTracker.observe(target);
+		int[] countAfterCommit = new int[1];
+		source.addValueChangeListener(event -> {
+			realm.beginTransaction();
+			target.setValue("b");
+			target.setValue(event.diff.getNewValue());
+			realm.commitTransaction();
+			countAfterCommit[0] = tracker.count;
+		});
+
+		source.setValue("c");
+		assertEquals(1, countAfterCommit[0]);
+		assertEquals(1, tracker.count);
+		assertEquals("c", tracker.event.diff.getNewValue());
+
+		realm.setGlitchFree(true);
+		source.setValue("d");
+		assertEquals(2, tracker.count);
+		assertEquals("c", tracker.event.diff.getOldValue());
+		assertEquals("d", tracker.event.diff.getNewValue());
+
+		realm.beginTransaction();
+		source.setValue("e");
+		assertEquals(2, tracker.count);
+		realm.commitTransaction();
+		assertEquals(3, tracker.count);
+		assertEquals("d", tracker.event.diff.getOldValue());
+		assertEquals("e", tracker.event.diff.getNewValue());
+	}
+
+	@Test
+	public void testCommitWithoutTransaction() throws Exception {
+		assertThrows(IllegalStateException.class, () -> realm.commitTransaction());
+	}
+}
@@ -26,9 +26,11 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.value.ComputedValue;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
 import org.junit.Test;
 
@@ -147,6 +149,55 @@ public class ComputedValueTest extends AbstractDefaultRealmTestCase {
 		assertFalse("because value2 is not a part of the calculation the listeners should have been removed", value2.hasListeners());
 	}
 
+	@Test
+	public void testDiamondIsRecomputedOnce() throws Exception {
+		final WritableValue<Integer> source = new WritableValue<>(Integer.valueOf(1), Integer.class);
+		final IObservableValue<Integer> left = ComputedValue.create(() -> source.getValue() + 1);
+		final IObservableValue<Integer> right = ComputedValue.create(() -> source.getValue() * 10);
+		final List<String> calculated = new ArrayList<>();
+		final IObservableValue<String> sum = ComputedValue.create(() -> {
+			String value = left.getValue() + "/" + right.getValue();
+			calculated.add(value);
+			return value;
+		});
+		final List<String> notified = new ArrayList<>();
+		sum.addValueChangeListener(event -> notified.add(event.diff.getNewValue()));
+		assertEquals("2/10", sum.getValue());
+
+		Realm realm = source.getRealm();
+		realm.setGlitchFree(true);
+		try {
+			source.setValue(Integer.valueOf(2));
+		} finally {
+			realm.setGlitchFree(false);
+		}
+
+		assertEquals("sum should never see a mix of old and new values", List.of("2/10", "3/20"), calculated);
+		assertEquals(List.of("3/20"), notified);
+	}
+
+	@Test
+	public void testStopsListeningWhenDirtyWithoutListeners() throws Exception {
+		WritableValueExt<Integer> source = new WritableValueExt<>(Integer.TYPE, Integer.valueOf(1));
+		IObservableValue<Integer> computed = ComputedValue.create(() -> source.getValue() + 1);
+		assertEquals(Integer.valueOf(2), computed.getValue());
+		assertTrue(source.hasListeners());
+
+		source.setValue(Integer.valueOf(2));
+		assertFalse("an unreferenced computed value must not stay reachable from its dependencies",
+				source.hasListeners());
+		assertEquals(Integer.valueOf(3), computed.getValue());
+		assertTrue(source.hasListeners());
+
+		ValueChangeEventTracker<Integer> tracker = ValueChangeEventTracker.observe(computed);
+		source.setValue(Integer.valueOf(3));
+		assertEquals(1, tracker.count);
+		assertTrue("a computed value with listeners keeps listening while dirty", source.hasListeners());
+		source.setValue(Integer.valueOf(4));
+		assertEquals(Integer.valueOf(5), computed.getValue());
+		assertEquals(1, tracker.count);
+	}
+
 	@Test
 	public void testSetValueUnsupportedOperationException() throws Exception {
 		ComputedValue<Object> cv = new ComputedValue<>() {
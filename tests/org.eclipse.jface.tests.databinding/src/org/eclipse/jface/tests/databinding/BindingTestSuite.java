@@ -53,6 +53,7 @@ import org.eclipse.core.tests.databinding.observable.Diffs_ListDiffTests;
 import org.eclipse.core.tests.databinding.observable.ObservableTrackerTest;
 import org.eclipse.core.tests.databinding.observable.ObservablesTest;
 import org.eclipse.core.tests.databinding.observable.RealmTest;
+import org.eclipse.core.tests.databinding.observable.RealmTransactionTest;
 import org.eclipse.core.tests.databinding.observable.list.AbstractObservableListTest;
 import org.eclipse.core.tests.databinding.observable.list.ComputedListTest;
 import org.eclipse.core.tests.databinding.observable.list.ListDiffTest;
@@ -168,6 +169,7 @@ import org.eclipse.jface.tests.internal.databinding.swt.DateTimeCalendarObservab
 import org.eclipse.jface.tests.internal.databinding.swt.DateTimeDateObservableValueTest;
 import org.eclipse.jface.tests.internal.databinding.swt.DateTimeSelectionPropertyTest;
 import org.eclipse.jface.tests.internal.databinding.swt.DateTimeTimeObservableValueTest;
+import org.eclipse.jface.tests.internal.databinding.swt.DisplayRealmQueueTest;
 import org.eclipse.jface.tests.internal.databinding.swt.GroupObservableValueTest;
 import org.eclipse.jface.tests.internal.databinding.swt.LabelObservableValueTest;
 import org.eclipse.jface.tests.internal.databinding.swt.LocalDateSelectionPropertyTest;
@@ -213,6 +215,7 @@ import org.junit.platform.suite.api.SelectClasses;
 		DateTimeSelectionPropertyTest.class, DateTimeTimeObservableValueTest.class,
 		LocalDateSelectionPropertyTest.class, DecoratingObservableTest.class, LocalDateTimeObservableValueTest.class,
 		DelayedObservableValueTest.class, DetailObservableListTest.class, DetailObservableMapTest.class,
+		DisplayRealmQueueTest.class,
 		DetailObservableSetTest.class, DetailObservableValueTest.class, DifferentRealmsBindingTest.class,
 		Diffs_ListDiffTests.class, DiffsTest.class, DuplexingObservableValueTest.class, EditMaskLexerAndTokenTest.class,
 		EditMaskParserTest.class, GroupObservableValueTest.class, IdentityConverterTest.class, IdentityMapTest.class,
@@ -232,7 +235,8 @@ import org.junit.platform.suite.api.SelectClasses;
 		ObservableMapTest.class, ObservableSetContentProviderTest.class, ObservableSetTreeContentProviderTest.class,
 		ObservablesManagerTest.class, ObservablesTest.class, ObservableTrackerTest.class,
 		ObservableValueEditingSupportTest.class, PojoPropertiesTest.class, PolicyTest.class,
-		PreferencePageSupportTest.class, QueueTest.class, RealmTest.class, ScaleObservableValueMaxTest.class,
+		PreferencePageSupportTest.class, QueueTest.class, RealmTest.class, RealmTransactionTest.class,
+		ScaleObservableValueMaxTest.class,
 		ScaleObservableValueMinTest.class, ScaleObservableValueSelectionTest.class,
 		SetOnlyJavaBeanTest.class, SetSimpleValueObservableMapTest.class,
 		SideEffectTest.class, SpinnerObservableValueMaxTest.class, SpinnerObservableValueMinTest.class,
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.internal.databinding.swt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.jface.databinding.swt.DisplayRealm;
+import org.eclipse.jface.internal.databinding.swt.DisplayRealmQueue;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+import org.eclipse.swt.widgets.Display;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DisplayRealmQueue}.
+ */
+public class DisplayRealmQueueTest extends AbstractDefaultRealmTestCase {
+	private static final int COUNT = 1000;
+
+	@Test
+	public void testRunnablesFromBackgroundThreadAreBatched() throws Exception {
+		Display display = Display.getCurrent();
+		Realm realm = DisplayRealm.getRealm(display);
+		DisplayRealmQueue queue = DisplayRealmQueue.getQueue(display);
+		assertNotNull(queue);
+		runAsync();
+		long batchCount = queue.getBatchCount();
+		long runCount = queue.getRunCount();
+
+		List<Integer> run = Collections.synchronizedList(new ArrayList<>());
+		Thread thread = new Thread(() -> {
+			for (int i = 0; i < COUNT; i++) {
+				Integer value = Integer.valueOf(i);
+				realm.asyncExec(() -> run.add(value));
+			}
+		});
+		thread.start();
+		thread.join();
+		runAsync();
+
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < COUNT; i++) {
+			expected.add(Integer.valueOf(i));
+		}
+		assertEquals(expected, run);
+		assertEquals(0, queue.getQueueDepth());
+		assertEquals(runCount + COUNT, queue.getRunCount());
+		assertTrue(queue.getMaxQueueDepth() >= COUNT);
+		assertTrue(queue.getBatchCount() - batchCount < COUNT / 10);
+	}
+
+	@Test
+	public void testNestedEventLoop() throws Exception {
+		Display display = Display.getCurrent();
+		Realm realm = DisplayRealm.getRealm(display);
+		List<String> run = new ArrayList<>();
+		realm.asyncExec(() -> {
+			run.add("first");
+			// Like a modal dialog
+			long end = System.currentTimeMillis() + 10000;
+			while (run.size() < 2 && System.currentTimeMillis() < end) {
+				if (!display.readAndDispatch()) {
+					Thread.yield();
+				}
+			}
+		});
+		realm.asyncExec(() -> run.add("second"));
+		runAsync();
+
+		assertEquals(List.of("first", "second"), run);
+	}
+}
@@ -28,10 +28,13 @@ import org.eclipse.jface.text.tests.reconciler.AbstractReconcilerTest;
 import org.eclipse.jface.text.tests.reconciler.FastAbstractReconcilerTest;
 import org.eclipse.jface.text.tests.rules.FastPartitionerTest;
 import org.eclipse.jface.text.tests.rules.FastPartitionerZeroLengthTest;
+import org.eclipse.jface.text.tests.rules.RuleBasedScannerTest;
 import org.eclipse.jface.text.tests.rules.ScannerColumnTest;
 import org.eclipse.jface.text.tests.rules.WordRuleTest;
+import org.eclipse.jface.text.tests.source.AnnotationPainterTest;
 import org.eclipse.jface.text.tests.source.AnnotationRulerColumnTest;
 import org.eclipse.jface.text.tests.source.LineNumberRulerColumnTest;
+import org.eclipse.jface.text.tests.source.OverviewRulerTest;
 import org.eclipse.jface.text.tests.source.inlined.AnnotationOnTabTest;
 import org.eclipse.jface.text.tests.source.inlined.LineContentBoundsDrawingTest;
 import org.eclipse.jface.text.tests.templates.persistence.TemplatePersistenceDataTest;
@@ -44,10 +47,13 @@ import org.eclipse.jface.text.tests.templates.persistence.TemplatePersistenceDat
 @Suite
 @SelectClasses({
 		AnnotationRulerColumnTest.class,
+		AnnotationPainterTest.class,
+		OverviewRulerTest.class,
 		LineNumberRulerColumnTest.class,
 		HTML2TextReaderTest.class,
 		TextHoverPopupTest.class,
 		TextPresentationTest.class,
+		PresentationReconcilerTest.class,
 		DefaultUndoManagerTest.class,
 		TextViewerTest.class,
 		TextViewerUndoManagerTest.class,
@@ -66,6 +72,7 @@ import org.eclipse.jface.text.tests.templates.persistence.TemplatePersistenceDat
 		FastPartitionerTest.class,
 		ScannerColumnTest.class,
 		WordRuleTest.class,
+		RuleBasedScannerTest.class,
 
 		TemplatePersistenceDataTest.class,
 		LineContentBoundsDrawingTest.class,
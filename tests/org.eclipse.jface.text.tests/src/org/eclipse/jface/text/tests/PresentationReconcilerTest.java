@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.TextAttribute;
+import org.eclipse.jface.text.TextViewer;
+import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.eclipse.jface.text.rules.DefaultDamagerRepairer;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.Token;
+
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+
+/**
+ * Tests for {@link PresentationReconciler}.
+ */
+public class PresentationReconcilerTest {
+
+	private Shell fShell;
+
+	private TextViewer fViewer;
+
+	private Color fColor;
+
+	@Before
+	public void before() {
+		fShell= new Shell();
+		fShell.setSize(500, 200);
+		fViewer= new TextViewer(fShell, SWT.V_SCROLL);
+		fViewer.getTextWidget().setSize(500, 200);
+		fColor= fShell.getDisplay().getSystemColor(SWT.COLOR_RED);
+
+		RuleBasedScanner scanner= new RuleBasedScanner();
+		scanner.setDefaultReturnToken(new Token(new TextAttribute(fColor)));
+		DefaultDamagerRepairer damagerRepairer= new DefaultDamagerRepairer(scanner);
+		PresentationReconciler reconciler= new PresentationReconciler();
+		reconciler.setDamager(damagerRepairer, IDocument.DEFAULT_CONTENT_TYPE);
+		reconciler.setRepairer(damagerRepairer, IDocument.DEFAULT_CONTENT_TYPE);
+		reconciler.install(fViewer);
+	}
+
+	@After
+	public void after() {
+		fShell.dispose();
+	}
+
+	@Test
+	public void testSmallDocumentIsRepairedAtOnce() {
+		IDocument document= new Document(createText(100));
+		fViewer.setDocument(document);
+
+		assertColored(0);
+		assertColored(document.getLength() - 1);
+	}
+
+	@Test
+	public void testLargeDocumentIsRepairedViewportFirst() {
+		IDocument document= new Document(createText(20000));
+		fViewer.setDocument(document);
+
+		StyledText widget= fViewer.getTextWidget();
+		assertColored(0);
+		assertNull(widget.getStyleRangeAtOffset(document.getLength() - 1));
+
+		assertTrue(DisplayHelper.waitForCondition(widget.getDisplay(), 10000,
+				() -> widget.getStyleRangeAtOffset(document.getLength() - 1) != null));
+		assertColored(document.getLength() / 2);
+	}
+
+	@Test
+	public void testLargeDocumentIsRepairedWhenScrolled() {
+		IDocument document= new Document(createText(20000));
+		fViewer.setDocument(document);
+
+		fViewer.setTopIndex(15000);
+		assertColored(fViewer.getTopIndexStartOffset());
+	}
+
+	private void assertColored(int offset) {
+		StyleRange range= fViewer.getTextWidget().getStyleRangeAtOffset(offset);
+		assertNotNull(range);
+		assertEquals(fColor, range.foreground);
+	}
+
+	private static String createText(int lines) {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < lines; i++) {
+			text.append("line ").append(i).append('\n');
+		}
+		return text.toString();
+	}
+}
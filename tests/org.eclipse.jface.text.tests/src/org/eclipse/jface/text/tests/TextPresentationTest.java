@@ -1252,6 +1252,23 @@ public class TextPresentationTest {
 		}
 	}
 
+	@Test
+	public void testApplyTextPresentationWithResultWindow() {
+		Shell shell= new Shell(fDisplay);
+		try {
+			fTextPresentation.setResultWindow(new Region(10, 90));
+			ArrayList<StyleRange> expected= new ArrayList<>();
+			fTextPresentation.getAllStyleRangeIterator().forEachRemaining(expected::add);
+
+			StyledText text= new StyledText(shell, SWT.NONE);
+			text.setText(String.join("", Collections.nCopies(90, ".")));
+			TextPresentation.applyTextPresentation(fTextPresentation, text);
+			assertArrayEquals(expected.toArray(), text.getStyleRanges());
+		} finally {
+			shell.dispose();
+		}
+	}
+
 	@Test
 	public void testIterator() {
 		// Test read over iterator end
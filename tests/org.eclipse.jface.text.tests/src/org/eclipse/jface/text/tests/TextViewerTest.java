@@ -17,6 +17,7 @@
 package org.eclipse.jface.text.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeNotNull;
@@ -35,11 +36,13 @@ import org.eclipse.test.Screenshots;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.custom.StyledTextContent;
 import org.eclipse.swt.dnd.Clipboard;
 import org.eclipse.swt.dnd.DND;
 import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.dnd.Transfer;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
@@ -59,13 +62,16 @@ import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentAdapter;
 import org.eclipse.jface.text.IDocumentExtension3;
+import org.eclipse.jface.text.IFindReplaceTargetExtension5;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextOperationTarget;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.TextPresentation;
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.jface.text.TextViewer;
+import org.eclipse.jface.text.TextViewerUndoManager;
 import org.eclipse.jface.text.hyperlink.IHyperlink;
 import org.eclipse.jface.text.hyperlink.URLHyperlink;
 import org.eclipse.jface.text.hyperlink.URLHyperlinkDetector;
@@ -108,6 +114,37 @@ public class TextViewerTest {
 		assertEquals(0, textViewer.getTextWidget().getCaretOffset());
 	}
 
+	@Test
+	public void testReplaceAll() throws Exception {
+		TextViewer textViewer= new TextViewer(fShell, SWT.NONE);
+		TextViewerUndoManager undoManager= new TextViewerUndoManager(10);
+		textViewer.setUndoManager(undoManager);
+		undoManager.connect(textViewer);
+		try {
+			String original= "foo bar foo\nbaz foo";
+			Document document= new Document(original);
+			textViewer.setDocument(document);
+			IFindReplaceTargetExtension5 target= (IFindReplaceTargetExtension5) textViewer.getFindReplaceTarget();
+
+			assertEquals(3, target.replaceAll("foo", "quux", true, false, false));
+			assertEquals("quux bar quux\nbaz quux", document.get());
+			Point selection= textViewer.getSelectedRange();
+			assertEquals(document.getLength() - 4, selection.x);
+			assertEquals(4, selection.y);
+
+			assertEquals(3, target.replaceAll("q(u+)x", "x$1", true, false, true));
+			assertEquals("xuu bar xuu\nbaz xuu", document.get());
+
+			undoManager.undo();
+			assertEquals("quux bar quux\nbaz quux", document.get());
+			undoManager.undo();
+			assertEquals(original, document.get());
+			assertFalse(undoManager.undoable());
+		} finally {
+			undoManager.disconnect();
+		}
+	}
+
 	@Test
 	public void testCaretMoveChangesSelection() throws Exception {
 		TextViewer textViewer= new TextViewer(fShell, SWT.NONE);
@@ -473,4 +510,24 @@ public class TextViewerTest {
 		assertEquals("Test sample to [surround] the selected text with brackets", text.getText());
 		assertEquals(24, text.getCaretOffset());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testPresentationUsesStyleRangeTranslationOverride() {
+		TextViewer textViewer= new TextViewer(fShell, SWT.NONE) {
+			@Override
+			protected StyleRange modelStyleRange2WidgetStyleRange(StyleRange range) {
+				StyleRange result= super.modelStyleRange2WidgetStyleRange(range);
+				if (result != null) {
+					result.fontStyle= SWT.BOLD;
+				}
+				return result;
+			}
+		};
+		textViewer.setDocument(new Document("plain bold plain"));
+		TextPresentation presentation= new TextPresentation(new Region(0, 16), 1);
+		presentation.addStyleRange(new StyleRange(6, 4, null, null));
+		textViewer.changeTextPresentation(presentation, true);
+		StyleRange range= textViewer.getTextWidget().getStyleRangeAtOffset(7);
+		assertEquals(SWT.BOLD, range.fontStyle);
+	}
+}
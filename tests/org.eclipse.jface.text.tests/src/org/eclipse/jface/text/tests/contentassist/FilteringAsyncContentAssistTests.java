@@ -46,6 +46,7 @@ import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.text.contentassist.ICompletionProposalExtension;
 import org.eclipse.jface.text.contentassist.ICompletionProposalExtension2;
 import org.eclipse.jface.text.contentassist.ICompletionProposalExtension3;
+import org.eclipse.jface.text.contentassist.ICompletionProposalExtension8;
 import org.eclipse.jface.text.contentassist.IContentAssistProcessor;
 import org.eclipse.jface.text.contentassist.IContextInformation;
 import org.eclipse.jface.text.contentassist.IContextInformationValidator;
@@ -361,6 +362,94 @@ public class FilteringAsyncContentAssistTests {
 
 	}
 
+	/**
+	 * CA with enough thread safe proposals to be filtered in the background. Invoke CA, type 'y',
+	 * verify only the matching proposal remains and can be applied
+	 *
+	 * @throws Exception exception
+	 */
+	@Test
+	public void testBackgroundFilteredCa() throws Exception {
+		IDocument document= viewer.getDocument();
+
+		List<String> templates= new ArrayList<>();
+		for (int i= 0; i < 5000; i++) {
+			templates.add("x" + i);
+		}
+		templates.add("yy");
+		ca.addContentAssistProcessor(new ThreadSafeContentAssistProcessor(templates), IDocument.DEFAULT_CONTENT_TYPE);
+
+		ca.install(viewer);
+
+		viewer.setSelectedRange(0, 0);
+
+		ca.showPossibleCompletions();
+
+		assertTrue(waitForFilteredProposals(5001));
+		assertEquals(5001, getComputedProposals(ca).size());
+
+		new InsertEdit(0, "y").apply(document);
+		viewer.setSelectedRange(1, 0);
+
+		assertTrue(waitForFilteredProposals(1));
+
+		List<ICompletionProposal> filteredProposals= getFilteredProposals(ca);
+
+		((ICompletionProposalExtension) filteredProposals.get(0)).apply(document, (char) 0, viewer.getSelectedRange().x);
+		assertEquals("yy", document.get());
+	}
+
+	/**
+	 * CA with enough thread safe proposals to be filtered in the background. Invoke CA, type 'x'
+	 * and then '1', verify the proposals are filtered against the document after both changes.
+	 *
+	 * @throws Exception exception
+	 */
+	@Test
+	public void testBackgroundFilteredCaTwice() throws Exception {
+		IDocument document= viewer.getDocument();
+
+		List<String> templates= new ArrayList<>();
+		for (int i= 0; i < 5000; i++) {
+			templates.add("x" + i);
+		}
+		templates.add("yy");
+		ca.addContentAssistProcessor(new ThreadSafeContentAssistProcessor(templates), IDocument.DEFAULT_CONTENT_TYPE);
+
+		ca.install(viewer);
+
+		viewer.setSelectedRange(0, 0);
+
+		ca.showPossibleCompletions();
+
+		assertTrue(waitForFilteredProposals(5001));
+
+		new InsertEdit(0, "x").apply(document);
+		viewer.setSelectedRange(1, 0);
+
+		assertTrue(waitForFilteredProposals(5000));
+
+		new InsertEdit(1, "1").apply(document);
+		viewer.setSelectedRange(2, 0);
+
+		int expected= (int) templates.stream().filter(t -> t.startsWith("x") && t.indexOf('1') > 0).count();
+		assertTrue(waitForFilteredProposals(expected));
+		for (ICompletionProposal proposal : getFilteredProposals(ca)) {
+			assertTrue(proposal.getDisplayString().indexOf('1') > 0, proposal.getDisplayString());
+		}
+	}
+
+	private boolean waitForFilteredProposals(int count) {
+		return DisplayHelper.waitForCondition(shell.getDisplay(), 3000, () -> {
+			try {
+				List<ICompletionProposal> filtered= getFilteredProposals(ca);
+				return filtered != null && filtered.size() == count;
+			} catch (Exception e) {
+				return false;
+			}
+		});
+	}
+
 	static class ImmediateContentAssistProcessor implements IContentAssistProcessor {
 
 		final private List<String> templates;
@@ -444,6 +533,23 @@ public class FilteringAsyncContentAssistTests {
 		}
 	}
 
+	static class ThreadSafeContentAssistProcessor extends ImmediateContentAssistProcessor {
+
+		ThreadSafeContentAssistProcessor(List<String> templates) {
+			super(templates, false);
+		}
+
+		@Override
+		public ICompletionProposal[] computeCompletionProposals(ITextViewer textViewer, int offset) {
+			ICompletionProposal[] proposals= super.computeCompletionProposals(textViewer, offset);
+			for (int i= 0; i < proposals.length; i++) {
+				String template= proposals[i].getDisplayString();
+				proposals[i]= new ThreadSafeCompletionProposal(template, offset, 0, offset, template);
+			}
+			return proposals;
+		}
+	}
+
 	private class LongInitialContentAssistProcessor extends DelayedContentAssistProcessor {
 
 		LongInitialContentAssistProcessor(List<String> templates, long delay, boolean incomplete) {
@@ -653,6 +759,19 @@ public class FilteringAsyncContentAssistTests {
 		}
 	}
 
+	static class ThreadSafeCompletionProposal extends CompletionProposal implements ICompletionProposalExtension8 {
+
+		public ThreadSafeCompletionProposal(String replacementString, int replacementOffset, int replacementLength,
+				int cursorPosition, String displayString) {
+			super(replacementString, replacementOffset, replacementLength, cursorPosition, displayString);
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return true;
+		}
+	}
+
 	private static boolean isSubstringFoundOrderedInString(String subString, String string) {
 		int lastIndex = 0;
 		subString = subString.toLowerCase();
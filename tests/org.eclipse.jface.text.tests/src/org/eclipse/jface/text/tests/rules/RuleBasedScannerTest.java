@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.rules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.EndOfLineRule;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.IWordDetector;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.NumberRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.rules.WhitespaceRule;
+import org.eclipse.jface.text.rules.WordPatternRule;
+import org.eclipse.jface.text.rules.WordRule;
+
+/**
+ * Tests that skipping the rules that can't match the next character doesn't change the tokens.
+ */
+public class RuleBasedScannerTest {
+
+	private static final String TEXT= """
+			#include <stdio.h>
+			/* a comment
+			   on two lines */
+			@Override int main(int argc, char** argv) { // start
+				printf("hello \\"world\\" %d\\n", 42);
+				return argc > 1 ? 0x1F : 007;
+			}
+			  #not a directive
+			café = "naïve" + $var + ü;
+			""";
+
+	private static final IWordDetector WORD_DETECTOR= new IWordDetector() {
+		@Override
+		public boolean isWordStart(char c) {
+			return Character.isJavaIdentifierStart(c);
+		}
+
+		@Override
+		public boolean isWordPart(char c) {
+			return Character.isJavaIdentifierPart(c);
+		}
+	};
+
+	/**
+	 * Evaluates all rules, in order, for every token.
+	 */
+	private static class SequentialScanner extends RuleBasedScanner {
+		@Override
+		public IToken nextToken() {
+			fTokenOffset= fOffset;
+			fColumn= UNDEFINED;
+			for (IRule rule : fRules) {
+				IToken token= rule.evaluate(this);
+				if (!token.isUndefined()) {
+					return token;
+				}
+			}
+			return read() == EOF ? Token.EOF : fDefaultReturnToken;
+		}
+	}
+
+	private static class ChangingScanner extends RuleBasedScanner {
+		void setRule(int index, IRule rule) {
+			fRules[index]= rule;
+		}
+	}
+
+	private static IRule[] createRules() {
+		WordRule keywords= new WordRule(WORD_DETECTOR, new Token("identifier"));
+		for (String keyword : new String[] { "int", "char", "return" }) {
+			keywords.addWord(keyword, new Token("keyword"));
+		}
+		EndOfLineRule directive= new EndOfLineRule("#", new Token("directive"));
+		directive.setColumnConstraint(0);
+		IRule annotation= scanner -> {
+			if (scanner.read() == '@') {
+				return new Token("annotation");
+			}
+			scanner.unread();
+			return Token.UNDEFINED;
+		};
+		return new IRule[] {
+				directive,
+				new MultiLineRule("/*", "*/", new Token("comment")),
+				new EndOfLineRule("//", new Token("comment")),
+				new SingleLineRule("\"", "\"", new Token("string"), '\\'),
+				new WordPatternRule(WORD_DETECTOR, "$", null, new Token("variable")),
+				annotation,
+				new NumberRule(new Token("number")),
+				keywords,
+				new WhitespaceRule(Character::isWhitespace, new Token("whitespace")) };
+	}
+
+	private static List<String> scan(RuleBasedScanner scanner, IDocument document) {
+		scanner.setDefaultReturnToken(new Token("other"));
+		scanner.setRange(document, 0, document.getLength());
+		List<String> tokens= new ArrayList<>();
+		for (IToken token= scanner.nextToken(); !token.isEOF(); token= scanner.nextToken()) {
+			tokens.add(token.getData() + "@" + scanner.getTokenOffset() + ":" + scanner.getTokenLength());
+		}
+		return tokens;
+	}
+
+	@Test
+	public void testSameTokensAsSequentialScan() {
+		IDocument document= new Document(TEXT);
+		RuleBasedScanner expectedScanner= new SequentialScanner();
+		expectedScanner.setRules(createRules());
+		RuleBasedScanner scanner= new RuleBasedScanner();
+		scanner.setRules(createRules());
+
+		assertEquals(scan(expectedScanner, document), scan(scanner, document));
+	}
+
+	@Test
+	public void testRulesChangedBySubclass() {
+		IDocument document= new Document("a 1");
+		ChangingScanner scanner= new ChangingScanner();
+		scanner.setRules(new NumberRule(new Token("number")), new WhitespaceRule(Character::isWhitespace, new Token("whitespace")));
+		assertEquals(List.of("other@0:1", "whitespace@1:1", "number@2:1"), scan(scanner, document));
+
+		scanner.setRule(0, new WordRule(WORD_DETECTOR, new Token("word")));
+		assertEquals(List.of("word@0:1", "whitespace@1:1", "other@2:1"), scan(scanner, document));
+	}
+
+	@Test
+	public void testSameTokensAsSequentialPartitionScan() {
+		IDocument document= new Document(TEXT);
+		List<IPredicateRule> rules= new ArrayList<>();
+		for (IRule rule : createRules()) {
+			if (rule instanceof IPredicateRule predicateRule) {
+				rules.add(predicateRule);
+			}
+		}
+		RuleBasedScanner expectedScanner= new SequentialScanner();
+		expectedScanner.setRules(rules.toArray(new IRule[rules.size()]));
+		RuleBasedPartitionScanner scanner= new RuleBasedPartitionScanner();
+		scanner.setPredicateRules(rules.toArray(new IPredicateRule[rules.size()]));
+
+		assertEquals(scan(expectedScanner, document), scan(scanner, document));
+	}
+}
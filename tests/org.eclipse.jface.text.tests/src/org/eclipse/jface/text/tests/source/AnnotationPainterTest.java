@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.source;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewerExtension2;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.AnnotationModelEvent;
+import org.eclipse.jface.text.source.AnnotationPainter;
+import org.eclipse.jface.text.source.SourceViewer;
+import org.eclipse.jface.text.tests.source.inlined.LineContentBoundsDrawingTest.AccessAllAnnoations;
+
+/**
+ * Tests that the decorations the {@link AnnotationPainter} updates from the delta of each
+ * annotation model event are the same as the ones computed from the whole annotation model.
+ */
+public class AnnotationPainterTest {
+
+	private static final String[] TYPES= { "squiggles", "box", "highlight", "unknown" };
+
+	private final Random fRandom= new Random(3);
+
+	private Shell fShell;
+
+	private IDocument fDocument;
+
+	private AnnotationModel fModel;
+
+	private AnnotationPainter fPainter;
+
+	private final List<Annotation> fAnnotations= new ArrayList<>();
+
+	private int fNextText;
+
+	@BeforeEach
+	public void setUp() {
+		fShell= new Shell();
+		SourceViewer viewer= new SourceViewer(fShell, null, SWT.V_SCROLL | SWT.BORDER);
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 50; i++) {
+			text.append("line ").append(i).append(" of the annotated document\n");
+		}
+		fDocument= new Document(text.toString());
+		fModel= new AnnotationModel();
+		viewer.setDocument(fDocument, fModel);
+
+		fPainter= new AnnotationPainter(viewer, new AccessAllAnnoations());
+		fPainter.addAnnotationType(TYPES[0]);
+		fPainter.addTextStyleStrategy(TYPES[1], new AnnotationPainter.BoxStrategy(SWT.BORDER_SOLID));
+		fPainter.addAnnotationType(TYPES[1], TYPES[1]);
+		fPainter.addHighlightAnnotationType(TYPES[2]);
+		fPainter.setAnnotationTypeColor(TYPES[0], fShell.getDisplay().getSystemColor(SWT.COLOR_RED));
+		fPainter.setAnnotationTypeColor(TYPES[1], fShell.getDisplay().getSystemColor(SWT.COLOR_BLUE));
+		fPainter.setAnnotationTypeColor(TYPES[2], fShell.getDisplay().getSystemColor(SWT.COLOR_YELLOW));
+		((ITextViewerExtension2) viewer).addPainter(fPainter);
+		runEventLoop();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		fShell.dispose();
+		fShell= null;
+	}
+
+	@Test
+	public void testAddedAnnotations() {
+		for (int i= 0; i < 20; i++) {
+			addAnnotation(TYPES[i % TYPES.length]);
+		}
+		runEventLoop();
+		assertFalse(getDecorations().isEmpty());
+		assertSameAsFullUpdate("added");
+	}
+
+	@Test
+	public void testRemovedAnnotations() {
+		for (int i= 0; i < 20; i++) {
+			addAnnotation(TYPES[i % TYPES.length]);
+		}
+		runEventLoop();
+		for (int i= 0; i < 10; i++) {
+			fModel.removeAnnotation(fAnnotations.remove(fRandom.nextInt(fAnnotations.size())));
+		}
+		runEventLoop();
+		assertSameAsFullUpdate("removed");
+	}
+
+	@Test
+	public void testChangedAnnotations() throws BadLocationException {
+		for (int i= 0; i < 20; i++) {
+			addAnnotation(TYPES[i % TYPES.length]);
+		}
+		runEventLoop();
+		for (int i= 0; i < 5; i++) {
+			fModel.modifyAnnotationPosition(fAnnotations.get(i), randomPosition());
+		}
+		runEventLoop();
+		assertSameAsFullUpdate("moved");
+
+		// edits moving and deleting the annotated ranges
+		fDocument.replace(0, 40, "");
+		fDocument.replace(100, 0, "inserted text");
+		runEventLoop();
+		assertSameAsFullUpdate("edited");
+	}
+
+	@Test
+	public void testRandomChanges() throws BadLocationException {
+		for (int step= 0; step < 300; step++) {
+			int action= fRandom.nextInt(100);
+			if (action < 35 || fAnnotations.isEmpty()) {
+				addAnnotation(TYPES[fRandom.nextInt(TYPES.length)]);
+			} else if (action < 50) {
+				fModel.removeAnnotation(fAnnotations.remove(fRandom.nextInt(fAnnotations.size())));
+			} else if (action < 70) {
+				Annotation annotation= fAnnotations.get(fRandom.nextInt(fAnnotations.size()));
+				fModel.modifyAnnotationPosition(annotation, randomPosition());
+			} else if (action < 80) {
+				Annotation removed= fAnnotations.remove(fRandom.nextInt(fAnnotations.size()));
+				Annotation added= createAnnotation(TYPES[fRandom.nextInt(TYPES.length)]);
+				fModel.replaceAnnotations(new Annotation[] { removed }, Map.of(added, randomPosition()));
+			} else {
+				int offset= fRandom.nextInt(fDocument.getLength());
+				int length= Math.min(fRandom.nextInt(20), fDocument.getLength() - offset);
+				fDocument.replace(offset, length, fRandom.nextBoolean() ? "" : "text" + step);
+			}
+			runEventLoop();
+			assertSameAsFullUpdate("step " + step);
+		}
+	}
+
+	private Annotation createAnnotation(String type) {
+		Annotation annotation= new Annotation(type, false, "annotation " + fNextText++);
+		fAnnotations.add(annotation);
+		return annotation;
+	}
+
+	private void addAnnotation(String type) {
+		fModel.addAnnotation(createAnnotation(type), randomPosition());
+	}
+
+	private Position randomPosition() {
+		int offset= fRandom.nextInt(fDocument.getLength());
+		return new Position(offset, Math.min(1 + fRandom.nextInt(30), fDocument.getLength() - offset));
+	}
+
+	private void runEventLoop() {
+		Display display= fShell.getDisplay();
+		while (display.readAndDispatch()) {
+			// the model events are posted to the display
+		}
+	}
+
+	/**
+	 * Checks that recomputing all decorations from the annotation model doesn't change them.
+	 *
+	 * @param message the message of a failure
+	 */
+	private void assertSameAsFullUpdate(String message) {
+		Map<String, String> decorations= getDecorations();
+		new Accessor(fPainter, AnnotationPainter.class).invoke("catchupWithModel", new Class<?>[] { AnnotationModelEvent.class }, (Object) null);
+		assertEquals(getDecorations(), decorations, message);
+	}
+
+	/**
+	 * Returns the decorations of the painter by the text of their annotations.
+	 *
+	 * @return the decorations of the painter
+	 */
+	private Map<String, String> getDecorations() {
+		Accessor painter= new Accessor(fPainter, AnnotationPainter.class);
+		Map<String, String> decorations= new TreeMap<>();
+		addDecorations(decorations, "drawn ", painter.get("fDecorationsMap"));
+		addDecorations(decorations, "highlighted ", painter.get("fHighlightedDecorationsMap"));
+		return decorations;
+	}
+
+	private static void addDecorations(Map<String, String> decorations, String prefix, Object map) {
+		for (Entry<?, ?> entry : ((Map<?, ?>) map).entrySet()) {
+			Annotation annotation= (Annotation) entry.getKey();
+			Accessor decoration= new Accessor(entry.getValue(), entry.getValue().getClass());
+			Position position= (Position) decoration.get("fPosition");
+			String value= position.getOffset() + "/" + position.getLength() + (position.isDeleted() ? " deleted" : "")
+					+ " " + decoration.get("fPaintingStrategy").getClass().getName()
+					+ " " + decoration.get("fColor")
+					+ " " + decoration.getInt("fLayer");
+			decorations.put(prefix + annotation.getText(), value);
+		}
+	}
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.source;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.OverviewRuler;
+import org.eclipse.jface.text.source.SourceViewer;
+import org.eclipse.jface.text.tests.source.inlined.LineContentBoundsDrawingTest.AccessAllAnnoations;
+
+/**
+ * Tests that the annotation rectangles cached by the {@link OverviewRuler} follow the changes of
+ * the annotation model and of the visible region.
+ */
+public class OverviewRulerTest {
+
+	private static final String ERROR= "error";
+
+	private static final String WARNING= "warning";
+
+	private Shell fShell;
+
+	private SourceViewer fViewer;
+
+	private IDocument fDocument;
+
+	private AnnotationModel fModel;
+
+	private OverviewRuler fRuler;
+
+	@BeforeEach
+	public void setUp() {
+		fShell= new Shell();
+		fShell.setSize(400, 600);
+		Display display= fShell.getDisplay();
+		fRuler= new OverviewRuler(new AccessAllAnnoations(), 12, rgb -> display.getSystemColor(SWT.COLOR_BLACK));
+		fRuler.addAnnotationType(ERROR);
+		fRuler.addAnnotationType(WARNING);
+		fRuler.setAnnotationTypeColor(ERROR, display.getSystemColor(SWT.COLOR_RED));
+		fRuler.setAnnotationTypeColor(WARNING, display.getSystemColor(SWT.COLOR_YELLOW));
+		fViewer= new SourceViewer(fShell, null, fRuler, true, SWT.V_SCROLL | SWT.BORDER);
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 100; i++) {
+			text.append("line ").append(i).append('\n');
+		}
+		fDocument= new Document(text.toString());
+		fModel= new AnnotationModel();
+		fViewer.setDocument(fDocument, fModel);
+		fShell.layout(true, true);
+		fShell.open();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		fShell.dispose();
+		fShell= null;
+	}
+
+	@Test
+	public void testAddedAndRemovedAnnotations() throws BadLocationException {
+		Annotation error= addAnnotation(ERROR, 10);
+		Annotation warning= addAnnotation(WARNING, 90);
+		paint();
+		assertTrue(getAnnotations().containsAll(Set.of(error, warning)));
+		assertEquals(1, getRectangles(ERROR).size());
+		assertEquals(1, getRectangles(WARNING).size());
+		assertSameAsRecomputed();
+
+		fModel.removeAnnotation(error);
+		paint();
+		assertFalse(getAnnotations().contains(error));
+		assertTrue(getRectangles(ERROR).isEmpty());
+		assertSameAsRecomputed();
+	}
+
+	@Test
+	public void testChangedAnnotations() throws BadLocationException {
+		Annotation error= addAnnotation(ERROR, 10);
+		addAnnotation(ERROR, 10);
+		paint();
+		// both annotations share one rectangle
+		assertEquals(List.of(Integer.valueOf(2)), List.copyOf(getRectangles(ERROR).values()));
+
+		fModel.modifyAnnotationPosition(error, new Position(fDocument.getLineOffset(95), 1));
+		paint();
+		assertEquals(2, getRectangles(ERROR).size());
+		assertSameAsRecomputed();
+
+		// an edit moving the annotations to other lines
+		fDocument.replace(0, 0, "inserted\n\n\n\n\n\n\n\n\n\n");
+		paint();
+		assertSameAsRecomputed();
+	}
+
+	@Test
+	public void testAnnotationModelChange() throws BadLocationException {
+		addAnnotation(ERROR, 10);
+		paint();
+
+		AnnotationModel model= new AnnotationModel();
+		model.addAnnotation(new Annotation(WARNING, false, WARNING), new Position(fDocument.getLineOffset(50), 1));
+		fViewer.setDocument(fDocument, model);
+		paint();
+		assertTrue(getRectangles(ERROR).isEmpty());
+		assertEquals(1, getRectangles(WARNING).size());
+		assertSameAsRecomputed();
+	}
+
+	@Test
+	public void testVisibleRegionChange() throws BadLocationException {
+		Annotation hidden= addAnnotation(ERROR, 30);
+		fViewer.setVisibleRegion(0, fDocument.getLineOffset(20));
+		paint();
+		assertTrue(getRectangles(ERROR).isEmpty());
+
+		// a visible region with the same number of lines, showing the annotation
+		int offset= fDocument.getLineOffset(25);
+		fViewer.setVisibleRegion(offset, fDocument.getLineOffset(45) - offset);
+		paint();
+		assertTrue(getAnnotations().contains(hidden));
+		assertEquals(1, getRectangles(ERROR).size());
+		assertSameAsRecomputed();
+
+		fViewer.resetVisibleRegion();
+		paint();
+		assertSameAsRecomputed();
+	}
+
+	private Annotation addAnnotation(String type, int line) throws BadLocationException {
+		Annotation annotation= new Annotation(type, false, type + " " + line);
+		fModel.addAnnotation(annotation, new Position(fDocument.getLineOffset(line), 1));
+		return annotation;
+	}
+
+	/**
+	 * Paints the ruler, which brings the cached rectangles up to date.
+	 */
+	private void paint() {
+		Display display= fShell.getDisplay();
+		while (display.readAndDispatch()) {
+			// run the posted updates
+		}
+		Image image= new Image(display, 20, 600);
+		GC gc= new GC(image);
+		try {
+			new Accessor(fRuler, OverviewRuler.class).invoke("doPaint", new Class<?>[] { GC.class }, gc);
+		} finally {
+			gc.dispose();
+			image.dispose();
+		}
+	}
+
+	private Accessor getAnnotationRows() {
+		Object rows= new Accessor(fRuler, OverviewRuler.class).get("fAnnotationRows");
+		return new Accessor(rows, rows.getClass());
+	}
+
+	private Set<Annotation> getAnnotations() {
+		Collection<?> annotations= (Collection<?>) getAnnotationRows().invoke("getAnnotations", new Class<?>[0]);
+		Set<Annotation> result= new HashSet<>();
+		for (Object annotation : annotations) {
+			result.add((Annotation) annotation);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the cached rectangles of the persistent annotations of the given type.
+	 *
+	 * @param type the annotation type
+	 * @return the rectangles mapped to their count
+	 */
+	private Map<Long, Integer> getRectangles(String type) {
+		Map<?, ?> rectangles= (Map<?, ?>) getAnnotationRows().invoke("getRectangles", new Class<?>[] { Object.class, boolean.class }, type, Boolean.FALSE);
+		Map<Long, Integer> result= new TreeMap<>();
+		for (Map.Entry<?, ?> entry : rectangles.entrySet()) {
+			result.put((Long) entry.getKey(), Integer.valueOf(((int[]) entry.getValue())[0]));
+		}
+		return result;
+	}
+
+	/**
+	 * Checks that recomputing the rectangles of all annotations doesn't change the cache.
+	 */
+	private void assertSameAsRecomputed() {
+		Set<Annotation> annotations= getAnnotations();
+		Map<Long, Integer> errors= getRectangles(ERROR);
+		Map<Long, Integer> warnings= getRectangles(WARNING);
+		getAnnotationRows().invoke("invalidate", new Class<?>[0]);
+		paint();
+		assertEquals(getAnnotations(), annotations);
+		assertEquals(getRectangles(ERROR), errors);
+		assertEquals(getRectangles(WARNING), warnings);
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.projection.ProjectionDocument;
+import org.eclipse.jface.text.projection.ProjectionDocumentManager;
+import org.eclipse.jface.text.projection.ProjectionMapping;
+
+/**
+ * Tests that the projection mapping of a projection document, which is kept up to date across
+ * content changes, answers like a mapping created afresh after each change.
+ */
+public class ProjectionMappingUpdateTest {
+
+	private static final String SEGMENTS_CATEGORY= "__segmentsCategory";
+
+	private final Random fRandom= new Random(11);
+
+	private IDocument fMasterDocument;
+
+	private ProjectionDocumentManager fManager;
+
+	private ProjectionDocument fSlaveDocument;
+
+	@BeforeEach
+	public void setUp() throws BadLocationException {
+		StringBuilder content= new StringBuilder();
+		for (int i= 0; i < 20; i++) {
+			content.append(i).append(" the quick brown fox\n");
+		}
+		fMasterDocument= new Document(content.toString());
+		fManager= new ProjectionDocumentManager();
+		fSlaveDocument= (ProjectionDocument) fManager.createSlaveDocument(fMasterDocument);
+		// lines 2-4, 8 and 12-15
+		addLines(2, 5);
+		addLines(8, 9);
+		addLines(12, 16);
+		assertSameAsCreated("initial");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		fManager.freeSlaveDocument(fSlaveDocument);
+	}
+
+	private void addLines(int firstLine, int endLine) throws BadLocationException {
+		int offset= fMasterDocument.getLineOffset(firstLine);
+		fSlaveDocument.addMasterDocumentRange(offset, fMasterDocument.getLineOffset(endLine) - offset);
+	}
+
+	@Test
+	public void testMasterEditInsideFragment() throws BadLocationException {
+		int offset= fMasterDocument.getLineOffset(3) + 2;
+		fMasterDocument.replace(offset, 0, "inserted");
+		assertSameAsCreated("insert");
+		fMasterDocument.replace(offset, 12, "");
+		assertSameAsCreated("delete");
+		fMasterDocument.replace(offset, 5, "new\nlines\n");
+		assertSameAsCreated("replace");
+	}
+
+	@Test
+	public void testMasterEditOutsideFragments() throws BadLocationException {
+		fMasterDocument.replace(fMasterDocument.getLineOffset(6), 0, "hidden\n");
+		assertSameAsCreated("insert");
+		fMasterDocument.replace(fMasterDocument.getLineOffset(0), 10, "");
+		assertSameAsCreated("delete");
+		fMasterDocument.replace(fMasterDocument.getLength() - 3, 3, "end");
+		assertSameAsCreated("replace at end");
+	}
+
+	@Test
+	public void testMasterEditAcrossFragments() throws BadLocationException {
+		// from inside the first fragment into the hidden lines
+		int offset= fMasterDocument.getLineOffset(4) + 5;
+		fMasterDocument.replace(offset, fMasterDocument.getLineOffset(6) - offset, "x");
+		assertSameAsCreated("into hidden");
+
+		// from the hidden lines into the second fragment
+		offset= fMasterDocument.getLineOffset(6);
+		fMasterDocument.replace(offset, fMasterDocument.getLineOffset(7) + 3 - offset, "");
+		assertSameAsCreated("from hidden");
+
+		// covering a whole fragment
+		IRegion line= fMasterDocument.getLineInformation(7);
+		offset= line.getOffset() - 2;
+		fMasterDocument.replace(offset, fMasterDocument.getLineOffset(10) - offset, "gone");
+		assertSameAsCreated("covering");
+	}
+
+	@Test
+	public void testSlaveEdits() throws BadLocationException {
+		fSlaveDocument.replace(0, 0, "start ");
+		assertSameAsCreated("insert at start");
+		fSlaveDocument.replace(fSlaveDocument.getLength(), 0, " end");
+		assertSameAsCreated("insert at end");
+		int offset= fSlaveDocument.getLineOffset(3);
+		fSlaveDocument.replace(offset - 3, 6, "");
+		assertSameAsCreated("delete across fragments");
+	}
+
+	@Test
+	public void testRandomEdits() throws BadLocationException {
+		for (int step= 0; step < 500; step++) {
+			boolean slave= fRandom.nextInt(3) == 0 && fSlaveDocument.getLength() > 0;
+			IDocument document= slave ? fSlaveDocument : fMasterDocument;
+			int offset= fRandom.nextInt(document.getLength() + 1);
+			int length= Math.min(fRandom.nextInt(8), document.getLength() - offset);
+			String text= switch (fRandom.nextInt(4)) {
+				case 0 -> "";
+				case 1 -> "\n";
+				case 2 -> "ab\ncd";
+				default -> "text";
+			};
+			document.replace(offset, length, text);
+			assertSameAsCreated("step " + step);
+		}
+	}
+
+	@Test
+	public void testEditsAfterProjectionChanges() throws BadLocationException {
+		addLines(5, 8);
+		assertSameAsCreated("joined");
+		fMasterDocument.replace(fMasterDocument.getLineOffset(6), 0, "inside\n");
+		assertSameAsCreated("edit in joined");
+
+		IRegion line= fMasterDocument.getLineInformation(13);
+		fSlaveDocument.removeMasterDocumentRange(line.getOffset(), line.getLength() + 1);
+		assertSameAsCreated("split");
+		fMasterDocument.replace(line.getOffset(), 0, "hidden");
+		assertSameAsCreated("edit in split");
+		fSlaveDocument.replace(fSlaveDocument.getLength() - 2, 1, "x");
+		assertSameAsCreated("slave edit after split");
+
+		fSlaveDocument.replaceMasterDocumentRanges(fMasterDocument.getLineOffset(1), 40);
+		assertSameAsCreated("replaced");
+		fMasterDocument.replace(fMasterDocument.getLineOffset(1) + 5, 10, "");
+		assertSameAsCreated("edit in replaced");
+	}
+
+	/**
+	 * Checks that the mapping of the projection document and a mapping created for the current
+	 * fragments and segments translate all offsets, lines and regions alike.
+	 *
+	 * @param message the message of a failure
+	 * @throws BadLocationException if the mappings disagree about valid locations
+	 */
+	private void assertSameAsCreated(String message) throws BadLocationException {
+		ProjectionMapping mapping= fSlaveDocument.getProjectionMapping();
+		ProjectionMapping created= new ProjectionMapping(fMasterDocument, getFragmentsCategory(), fSlaveDocument, SEGMENTS_CATEGORY);
+
+		assertEquals(created.getImageLength(), mapping.getImageLength(), message);
+		assertEquals(created.getImageLength(), fSlaveDocument.getLength(), message);
+		assertEquals(toString(created.getCoverage()), toString(mapping.getCoverage()), message);
+
+		Position[] fragments= getPositions(fMasterDocument, getFragmentsCategory());
+		Position[] segments= getPositions(fSlaveDocument, SEGMENTS_CATEGORY);
+		assertEquals(fragments.length, segments.length, message);
+		StringBuilder expected= new StringBuilder();
+		for (int i= 0; i < fragments.length; i++) {
+			assertEquals(fragments[i].getLength(), segments[i].getLength(), message + ", fragment " + i);
+			assertEquals(expected.length(), segments[i].getOffset(), message + ", segment " + i);
+			expected.append(fMasterDocument.get(fragments[i].getOffset(), fragments[i].getLength()));
+		}
+		assertEquals(expected.toString(), fSlaveDocument.get(), message);
+
+		for (int offset= 0; offset <= fMasterDocument.getLength(); offset++) {
+			assertEquals(created.toImageOffset(offset), mapping.toImageOffset(offset), message + ", origin offset " + offset);
+		}
+		for (int offset= 0; offset <= created.getImageLength(); offset++) {
+			assertEquals(created.toOriginOffset(offset), mapping.toOriginOffset(offset), message + ", image offset " + offset);
+		}
+		for (int line= 0; line < fMasterDocument.getNumberOfLines(); line++) {
+			int originLine= line;
+			assertEquals(translate(() -> created.toImageLine(originLine)), translate(() -> mapping.toImageLine(originLine)), message + ", origin line " + line);
+		}
+		for (int line= 0; line < fSlaveDocument.getNumberOfLines(); line++) {
+			int imageLine= line;
+			assertEquals(translate(() -> created.toOriginLine(imageLine)), translate(() -> mapping.toOriginLine(imageLine)), message + ", image line " + line);
+		}
+		for (int offset= 0; offset < fMasterDocument.getLength(); offset+= 7) {
+			Region region= new Region(offset, Math.min(25, fMasterDocument.getLength() - offset));
+			assertEquals(toString(created.toImageRegion(region)), toString(mapping.toImageRegion(region)), message + ", origin region " + offset);
+		}
+	}
+
+	/** A translation of a line number. */
+	private interface LineTranslation {
+		int translate() throws BadLocationException;
+	}
+
+	/**
+	 * Returns the result of the given translation, or the type of the exception if the line is
+	 * not mapped to exactly one line.
+	 *
+	 * @param translation the translation
+	 * @return the translated line or the exception type
+	 */
+	private static String translate(LineTranslation translation) {
+		try {
+			return String.valueOf(translation.translate());
+		} catch (BadLocationException | IllegalStateException e) {
+			return e.getClass().getName();
+		}
+	}
+
+	private static Position[] getPositions(IDocument document, String category) {
+		try {
+			return document.getPositions(category);
+		} catch (BadPositionCategoryException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private String getFragmentsCategory() {
+		return "__fragmentsCategory" + fSlaveDocument.hashCode();
+	}
+
+	private static String toString(IRegion region) {
+		return region == null ? "null" : region.getOffset() + "/" + region.getLength();
+	}
+}
@@ -24,7 +24,8 @@ import org.junit.platform.suite.api.Suite;
 @Suite
 @SelectClasses({
 		ProjectionDocumentTest.class,
-		ProjectionMappingTest.class
+		ProjectionMappingTest.class,
+		ProjectionMappingUpdateTest.class
 })
 public class ProjectionTestSuite {
 	// see @SelectClasses
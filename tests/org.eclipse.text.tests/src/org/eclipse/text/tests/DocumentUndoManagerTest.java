@@ -357,6 +357,64 @@ public class DocumentUndoManagerTest {
 		assertEquals(INITIAL_DOCUMENT_CONTENT, reverted);
 	}
 
+	/**
+	 * Tests undo and redo of changes with texts large enough to get compacted.
+	 *
+	 * @throws ExecutionException   if undo fails
+	 * @throws BadLocationException if document change fails
+	 */
+	@Test
+	public void testLargeChanges() throws ExecutionException, BadLocationException {
+		final String original = createRandomString(100000);
+		final IDocument document = new Document(original);
+		createUndoManager(document);
+
+		// includes an unpaired surrogate, which must survive the compaction
+		final String replacement = createRandomString(50000) + "\ud800é€" + createRandomString(50000);
+		document.replace(0, document.getLength(), replacement);
+		document.replace(10, 0, "x");
+		document.replace(20, 0, createRandomString(30000));
+		final String modified = document.get();
+
+		while (fUndoManager.undoable())
+			fUndoManager.undo();
+		assertEquals(original, document.get());
+
+		while (fUndoManager.redoable())
+			fUndoManager.redo();
+		assertEquals(modified, document.get());
+	}
+
+	/**
+	 * Tests undo and redo of a compound change whose texts are large enough to
+	 * get compacted.
+	 *
+	 * @throws ExecutionException   if undo fails
+	 * @throws BadLocationException if document change fails
+	 */
+	@Test
+	public void testLargeCompoundChange() throws ExecutionException, BadLocationException {
+		final String original = createRandomString(100000);
+		final IDocument document = new Document(original);
+		createUndoManager(document);
+
+		fUndoManager.beginCompoundChange();
+		for (int i = 0; i < 1000; i++)
+			document.replace(i * 90, 50, createRandomString(i % 100));
+		fUndoManager.endCompoundChange();
+		final String modified = document.get();
+
+		fUndoManager.undo();
+		assertFalse(fUndoManager.undoable());
+		assertEquals(original, document.get());
+
+		fUndoManager.redo();
+		assertEquals(modified, document.get());
+
+		fUndoManager.undo();
+		assertEquals(original, document.get());
+	}
+
 	@Test
 	public void testDocumentStamp() throws ExecutionException, BadLocationException {
 		final Document document = new Document(INITIAL_DOCUMENT_CONTENT);
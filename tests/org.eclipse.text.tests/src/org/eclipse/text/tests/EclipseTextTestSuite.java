@@ -44,6 +44,8 @@ import org.eclipse.text.tests.templates.TemplatesTestSuite;
 		ProjectionTestSuite.class,
 		LinkTestSuite.class,
 		CopyOnWriteTextStoreTest.class,
+		UndoTextStoreTest.class,
+		KeystrokeTraceTest.class,
 		TextUtilitiesTest.class,
 		AnnotationModelStressTest.class,
 		AnnotationModelExtension2Test.class,
@@ -498,6 +498,52 @@ public class FindReplaceDocumentAdapterTest {
 		}
 	}
 
+	@Test
+	public void testFindAll() throws Exception {
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+
+		IRegion[] result= adapter.findAll(0, fDocument.getLength(), "comment", false, false, false);
+		assertEquals(3, result.length);
+		assertEquals(new Region(fDocument.get().indexOf("comment"), 7), result[0]);
+		assertEquals(new Region(fDocument.get().indexOf("comment2"), 7), result[2]);
+
+		result= adapter.findAll(0, fDocument.getLength(), "comment", false, true, false);
+		assertEquals(1, result.length);
+
+		int rangeOffset= fDocument.get().indexOf("comment1");
+		result= adapter.findAll(rangeOffset, 7, "comment\\d?", false, false, true);
+		assertEquals(1, result.length);
+		assertEquals(new Region(rangeOffset, 7), result[0]);
+
+		result= adapter.findAll(0, fDocument.getLength(), "x*", false, false, true);
+		assertEquals(0, result.length);
+
+		assertThrows(BadLocationException.class, () -> adapter.findAll(1, fDocument.getLength(), "comment", false, false, false));
+	}
+
+	@Test
+	public void testReplaceAll() throws Exception {
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+
+		fDocument.set("aaaa");
+		IRegion[] result= adapter.replaceAll(0, fDocument.getLength(), "a", "bb", false, false, false);
+		assertEquals("bbbbbbbb", fDocument.get());
+		assertEquals(4, result.length);
+		assertEquals(new Region(6, 2), result[3]);
+
+		fDocument.set("foo1 foo2 foo3");
+		result= adapter.replaceAll(5, 9, "foo(\\d)", "$1bar", false, false, true);
+		assertEquals("foo1 2bar 3bar", fDocument.get());
+		assertEquals(2, result.length);
+		assertEquals(new Region(10, 4), result[1]);
+
+		result= adapter.replaceAll(0, fDocument.getLength(), "xyz", "", false, false, false);
+		assertEquals(0, result.length);
+
+		assertThrows(PatternSyntaxException.class, () -> adapter.replaceAll(0, fDocument.getLength(), "bar", "bar\\", false, false, true));
+		assertEquals("foo1 2bar 3bar", fDocument.get());
+	}
+
 	@Test
 	public void testRegexFindStackOverflow_fail() throws Exception {
 		// test for https://bugs.eclipse.org/bugs/show_bug.cgi?id=102699
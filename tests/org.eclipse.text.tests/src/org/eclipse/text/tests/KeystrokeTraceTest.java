@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import org.eclipse.text.internal.KeystrokeTrace;
+import org.eclipse.text.internal.KeystrokeTrace.Keystroke;
+import org.eclipse.text.internal.KeystrokeTrace.Phase;
+
+/**
+ * Tests the recording of keystrokes by the {@link KeystrokeTrace}, driven by a clock under the
+ * control of the test.
+ */
+public class KeystrokeTraceTest {
+
+	private static final long MILLIS= TimeUnit.MILLISECONDS.toNanos(1);
+
+	/** The current time of the trace in nanoseconds. */
+	private long fNow= 1000;
+
+	private KeystrokeTrace fTrace;
+
+	private Accessor fAccessor;
+
+	private void createTrace(int capacity) throws Exception {
+		Constructor<KeystrokeTrace> constructor= KeystrokeTrace.class.getDeclaredConstructor(int.class, long.class, LongSupplier.class);
+		constructor.setAccessible(true);
+		LongSupplier clock= () -> fNow;
+		fTrace= constructor.newInstance(Integer.valueOf(capacity), Long.valueOf(0), clock);
+		fAccessor= new Accessor(fTrace, KeystrokeTrace.class);
+	}
+
+	private void begin(int keyCode) {
+		fAccessor.invoke("begin", new Class<?>[] { int.class, char.class }, Integer.valueOf(keyCode), Character.valueOf('a'));
+	}
+
+	private void end() {
+		fAccessor.invoke("end", new Class<?>[0]);
+	}
+
+	private long start() {
+		return ((Long) fAccessor.invoke("startPhase", new Class<?>[0])).longValue();
+	}
+
+	private void record(Phase phase, Object contributor, long start) {
+		fAccessor.invoke("recordPhase", new Class<?>[] { Phase.class, Object.class, long.class }, phase, contributor, Long.valueOf(start));
+	}
+
+	private void keystroke(int keyCode, long nanos) {
+		begin(keyCode);
+		fNow+= nanos;
+		end();
+	}
+
+	@Test
+	public void testWrapAround() throws Exception {
+		createTrace(3);
+		for (int i= 1; i <= 5; i++) {
+			keystroke(i, i * MILLIS);
+		}
+		assertEquals(5, fTrace.getKeystrokeCount());
+		List<Integer> keyCodes= new ArrayList<>();
+		for (Keystroke keystroke : fTrace.getKeystrokes()) {
+			keyCodes.add(Integer.valueOf(keystroke.getKeyCode()));
+		}
+		assertEquals(List.of(Integer.valueOf(3), Integer.valueOf(4), Integer.valueOf(5)), keyCodes);
+		assertEquals(3 * MILLIS, fTrace.getPercentileNanos(Phase.TOTAL, 0));
+
+		fTrace.reset();
+		assertEquals(0, fTrace.getKeystrokeCount());
+		assertTrue(fTrace.getKeystrokes().isEmpty());
+	}
+
+	@Test
+	public void testPercentiles() throws Exception {
+		createTrace(1000);
+		assertEquals(0, fTrace.getPercentileNanos(Phase.TOTAL, 50));
+		// recorded in an order other than by time
+		for (int i= 0; i < 100; i++) {
+			int millis= 1 + (i * 37) % 100;
+			keystroke(i, millis * MILLIS);
+		}
+		assertEquals(MILLIS, fTrace.getPercentileNanos(Phase.TOTAL, 0));
+		assertEquals(50 * MILLIS, fTrace.getPercentileNanos(Phase.TOTAL, 50));
+		assertEquals(90 * MILLIS, fTrace.getPercentileNanos(Phase.TOTAL, 90));
+		assertEquals(99 * MILLIS, fTrace.getPercentileNanos(Phase.TOTAL, 99));
+		assertEquals(100 * MILLIS, fTrace.getPercentileNanos(Phase.TOTAL, 100));
+		assertEquals(0, fTrace.getPercentileNanos(Phase.PAINTERS, 100));
+	}
+
+	@Test
+	public void testNestedPhasesAreSubtracted() throws Exception {
+		createTrace(10);
+		Object listener= "listener";
+		Object repairer= Integer.valueOf(0);
+		begin(1);
+		long outer= start();
+		fNow+= 2 * MILLIS;
+		long inner= start();
+		fNow+= 5 * MILLIS;
+		record(Phase.PRESENTATION, repairer, inner);
+		fNow+= 3 * MILLIS;
+		record(Phase.DOCUMENT_LISTENERS, listener, outer);
+		long painter= start();
+		fNow+= 4 * MILLIS;
+		record(Phase.PAINTERS, listener, painter);
+		fNow+= MILLIS;
+		end();
+
+		Keystroke keystroke= fTrace.getKeystrokes().get(0);
+		assertEquals(5 * MILLIS, keystroke.getNanos(Phase.DOCUMENT_LISTENERS));
+		assertEquals(5 * MILLIS, keystroke.getNanos(Phase.PRESENTATION));
+		assertEquals(4 * MILLIS, keystroke.getNanos(Phase.PAINTERS));
+		assertEquals(15 * MILLIS, keystroke.getNanos(Phase.TOTAL));
+		List<Map.Entry<String, Long>> contributors= keystroke.getContributors();
+		assertEquals(3, contributors.size());
+		assertEquals("PAINTERS java.lang.String", contributors.get(2).getKey());
+		assertEquals(Long.valueOf(4 * MILLIS), contributors.get(2).getValue());
+	}
+
+	@Test
+	public void testUnfinishedKeystrokeEndsWithItsLastPhase() throws Exception {
+		createTrace(10);
+		begin(1);
+		long start= start();
+		fNow+= 2 * MILLIS;
+		record(Phase.AUTO_EDIT, this, start);
+		fNow+= 100 * MILLIS;
+		begin(2);
+		fNow+= MILLIS;
+		end();
+
+		List<Keystroke> keystrokes= fTrace.getKeystrokes();
+		assertEquals(2, keystrokes.size());
+		assertEquals(2 * MILLIS, keystrokes.get(0).getNanos(Phase.TOTAL));
+		assertEquals(MILLIS, keystrokes.get(1).getNanos(Phase.TOTAL));
+	}
+
+	@Test
+	public void testOtherThreadIsNotTraced() throws Exception {
+		createTrace(10);
+		begin(1);
+		long[] start= new long[1];
+		Thread thread= new Thread(() -> start[0]= start());
+		thread.start();
+		thread.join();
+		assertEquals(0, start[0]);
+		record(Phase.PAINTERS, this, start[0]);
+		end();
+		assertEquals(0, fTrace.getKeystrokes().get(0).getNanos(Phase.PAINTERS));
+	}
+
+	@Test
+	public void testDumpSlowKeystrokes() throws Exception {
+		createTrace(10);
+		keystroke(1, 5 * MILLIS);
+		begin(2);
+		long start= start();
+		fNow+= 20 * MILLIS;
+		record(Phase.PRESENTATION, this, start);
+		end();
+		keystroke(3, 10 * MILLIS);
+
+		String dump= fTrace.dumpSlowKeystrokes(10);
+		assertFalse(dump.contains("key code 1)"), dump);
+		assertTrue(dump.contains("key code 2)"), dump);
+		assertTrue(dump.contains("key code 3)"), dump);
+		assertTrue(dump.contains("PRESENTATION " + getClass().getName()), dump);
+		assertTrue(dump.indexOf("key code 2)") < dump.indexOf("key code 3)"), dump);
+		assertEquals("", fTrace.dumpSlowKeystrokes(21));
+	}
+}
@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the spilling of the undo texts to disk by <code>org.eclipse.text.undo.UndoTextStore</code>.
+ */
+public class UndoTextStoreTest {
+
+	private static final String STORE_CLASS= "org.eclipse.text.undo.UndoTextStore";
+
+	private final Random fRandom= new Random(7);
+
+	/** The writing tasks of the store, if not run right away. */
+	private final List<Runnable> fTasks= new ArrayList<>();
+
+	/** The stores created by the test. */
+	private final List<Accessor> fStores= new ArrayList<>();
+
+	@AfterEach
+	public void tearDown() {
+		for (Accessor store : fStores) {
+			store.invoke("dispose");
+		}
+	}
+
+	private Accessor createStore(long memoryBudget, Executor executor) {
+		Accessor store= new Accessor(STORE_CLASS, getClass().getClassLoader(), new Class<?>[] { long.class, Executor.class },
+				new Object[] { Long.valueOf(memoryBudget), executor });
+		fStores.add(store);
+		return store;
+	}
+
+	private Accessor store(Accessor store, String... texts) {
+		Object chunk= store.invoke("store", new Class<?>[] { Iterable.class }, List.of(texts));
+		return new Accessor(chunk, chunk.getClass());
+	}
+
+	private String createText(int length) {
+		StringBuilder text= new StringBuilder(length);
+		for (int i= 0; i < length; i++) {
+			switch (fRandom.nextInt(4)) {
+				case 0 -> text.append((char) ('a' + fRandom.nextInt(26)));
+				case 1 -> text.append((char) (0x80 + fRandom.nextInt(0x780)));
+				case 2 -> text.append((char) (0x800 + fRandom.nextInt(0xF000)));
+				default -> text.append('\uD800');
+			}
+		}
+		return text.toString();
+	}
+
+	private static long getMemoryUsed(Accessor store) {
+		return ((Long) store.invoke("getMemoryUsed")).longValue();
+	}
+
+	private static int getSpilledChunkCount(Accessor store) {
+		return ((Integer) store.invoke("getSpilledChunkCount")).intValue();
+	}
+
+	private static Path getSpillFile(Accessor store) {
+		return (Path) store.invoke("getSpillFile");
+	}
+
+	private static long getSpillFileLength(Accessor store) {
+		return ((Long) store.invoke("getSpillFileLength")).longValue();
+	}
+
+	@Test
+	public void testKeptInMemoryWithinBudget() {
+		Accessor store= createStore(1024 * 1024, Runnable::run);
+		String text= createText(1000);
+		Accessor chunk= store(store, text, "x");
+		assertEquals(0, getSpilledChunkCount(store));
+		assertEquals(chunk.getInt("fSize"), getMemoryUsed(store));
+		assertEquals(text + "x", chunk.invoke("getContent"));
+	}
+
+	@Test
+	public void testSpillAndReadBack() {
+		Accessor store= createStore(0, Runnable::run);
+		List<String> texts= new ArrayList<>();
+		List<Accessor> chunks= new ArrayList<>();
+		long size= 0;
+		for (int i= 0; i < 5; i++) {
+			String text= createText(500 + i);
+			texts.add(text);
+			Accessor chunk= store(store, text);
+			chunks.add(chunk);
+			size+= chunk.getInt("fSize");
+		}
+		assertEquals(0, getMemoryUsed(store));
+		assertEquals(5, getSpilledChunkCount(store));
+		assertEquals(size, getSpillFileLength(store));
+		for (int i= chunks.size() - 1; i >= 0; i--) {
+			assertEquals(texts.get(i), chunks.get(i).invoke("getContent"));
+		}
+	}
+
+	@Test
+	public void testOldestChunksAreSpilled() {
+		String firstText= createText(300);
+		String secondText= createText(300);
+		// a budget fitting either chunk but not both
+		Accessor probe= createStore(-1, Runnable::run);
+		long budget= Math.max(store(probe, firstText).getInt("fSize"), store(probe, secondText).getInt("fSize"));
+		Accessor store= createStore(budget, Runnable::run);
+		Accessor first= store(store, firstText);
+		Accessor second= store(store, secondText);
+		assertEquals(1, getSpilledChunkCount(store));
+		assertEquals(second.getInt("fSize"), getMemoryUsed(store));
+		assertNull(first.get("fData"));
+		assertEquals(firstText, first.invoke("getContent"));
+		assertEquals(secondText, second.invoke("getContent"));
+	}
+
+	@Test
+	public void testSpillingRunsInBackground() {
+		Accessor store= createStore(0, fTasks::add);
+		String text= createText(400);
+		Accessor chunk= store(store, text);
+		store(store, createText(400));
+		// one task writes both chunks
+		assertEquals(1, fTasks.size());
+		assertEquals(0, getSpilledChunkCount(store));
+		assertEquals(text, chunk.invoke("getContent"));
+
+		fTasks.remove(0).run();
+		assertEquals(2, getSpilledChunkCount(store));
+		assertEquals(0, getMemoryUsed(store));
+		assertEquals(text, chunk.invoke("getContent"));
+	}
+
+	@Test
+	public void testReleasedWhileSpillingIsNotSpilled() {
+		Accessor store= createStore(0, fTasks::add);
+		Accessor released= store(store, createText(400));
+		String text= createText(400);
+		Accessor kept= store(store, text);
+		released.invoke("release");
+
+		fTasks.remove(0).run();
+		assertEquals(1, getSpilledChunkCount(store));
+		assertEquals(kept.getInt("fSize"), getSpillFileLength(store));
+		assertEquals(text, kept.invoke("getContent"));
+		assertNull(released.invoke("getContent"));
+	}
+
+	@Test
+	public void testTruncatedWhenAllReleased() {
+		Accessor store= createStore(0, Runnable::run);
+		Accessor first= store(store, createText(400));
+		Accessor second= store(store, createText(400));
+		assertTrue(getSpillFileLength(store) > 0);
+		Path file= getSpillFile(store);
+
+		first.invoke("release");
+		second.invoke("release");
+		assertEquals(0, getSpilledChunkCount(store));
+		assertEquals(0, getSpillFileLength(store));
+
+		String text= createText(400);
+		Accessor third= store(store, text);
+		assertEquals(third.getInt("fSize"), getSpillFileLength(store));
+		assertEquals(file, getSpillFile(store));
+		assertEquals(text, third.invoke("getContent"));
+	}
+
+	@Test
+	public void testCompactedWhenMostlyReleased() {
+		Accessor store= createStore(0, Runnable::run);
+		List<Accessor> chunks= new ArrayList<>();
+		long size= 0;
+		int maxChunkSize= 0;
+		for (int i= 0; i < 10; i++) {
+			Accessor chunk= store(store, createText(400));
+			chunks.add(chunk);
+			size+= chunk.getInt("fSize");
+			maxChunkSize= Math.max(maxChunkSize, chunk.getInt("fSize"));
+		}
+		String keptText= createText(400);
+		Accessor kept= store(store, keptText);
+		size+= kept.getInt("fSize");
+		maxChunkSize= Math.max(maxChunkSize, kept.getInt("fSize"));
+		assertEquals(size, getSpillFileLength(store));
+		Path oldFile= getSpillFile(store);
+		for (Accessor chunk : chunks) {
+			chunk.invoke("release");
+		}
+		assertEquals(1, getSpilledChunkCount(store));
+		// the released chunks never take more room than the others
+		assertTrue(getSpillFileLength(store) <= 2 * maxChunkSize, "spill file not compacted: " + getSpillFileLength(store));
+		assertNotEquals(oldFile, getSpillFile(store));
+		assertFalse(Files.exists(oldFile), "old spill file not deleted");
+		assertEquals(keptText, kept.invoke("getContent"));
+	}
+
+	@Test
+	public void testSpillFileOnlyReadableByOwner() throws IOException {
+		Accessor store= createStore(0, Runnable::run);
+		store(store, createText(400));
+		Path file= getSpillFile(store);
+		assertNotNull(file);
+		if (Files.getFileStore(file).supportsFileAttributeView("posix")) {
+			Set<PosixFilePermission> permissions= Files.getPosixFilePermissions(file);
+			assertEquals(PosixFilePermissions.fromString("rw-------"), permissions);
+		}
+	}
+
+	@Test
+	public void testSpillFileDeletedOnDispose() {
+		Accessor store= createStore(0, Runnable::run);
+		Accessor spilled= store(store, createText(400));
+		Path file= getSpillFile(store);
+		assertTrue(Files.exists(file));
+
+		store.invoke("dispose");
+		assertFalse(Files.exists(file), "spill file not deleted");
+		assertNull(spilled.invoke("getContent"));
+		// nothing is spilled any more
+		String text= createText(400);
+		Accessor kept= store(store, text);
+		assertEquals(kept.getInt("fSize"), getMemoryUsed(store));
+		assertNull(getSpillFile(store));
+		assertEquals(text, kept.invoke("getContent"));
+	}
+
+	@Test
+	public void testNoSpillingWithNegativeBudget() {
+		Accessor store= createStore(-1, fTasks::add);
+		Accessor chunk= store(store, createText(400));
+		assertTrue(fTasks.isEmpty());
+		assertEquals(chunk.getInt("fSize"), getMemoryUsed(store));
+	}
+}
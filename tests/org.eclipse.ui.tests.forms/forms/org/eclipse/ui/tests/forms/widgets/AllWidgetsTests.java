@@ -20,7 +20,7 @@ import org.junit.platform.suite.api.Suite;
  * Tests forms widgets (automated).
  */
 @Suite
-@SelectClasses({ ExpandableCompositeTest.class, FormTextModelTest.class, ScrolledFormTest.class })
+@SelectClasses({ ExpandableCompositeTest.class, FormTextModelTest.class, ParagraphTest.class, ScrolledFormTest.class })
 public class AllWidgetsTests {
 
 }
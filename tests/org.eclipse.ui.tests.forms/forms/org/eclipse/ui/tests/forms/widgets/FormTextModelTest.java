@@ -15,6 +15,7 @@ package org.eclipse.ui.tests.forms.widgets;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 
 import org.eclipse.ui.internal.forms.widgets.FormTextModel;
 import org.junit.jupiter.api.Test;
@@ -43,6 +44,27 @@ public class FormTextModelTest {
 				"FormTextModel does not preserve whitespace correctly according to the rules");
 	}
 
+	@Test
+	public void testSameTextInSeveralModels() {
+		String text = "<form><p>   line with      <b>  whitespace </b> Test </p><!-- c --><p>a<![CDATA[b]]>c</p></form>";
+		FormTextModel normalized = new FormTextModel();
+		normalized.parseTaggedText(text, false);
+		FormTextModel notNormalized = new FormTextModel();
+		notNormalized.setWhitespaceNormalized(false);
+		notNormalized.parseTaggedText(text, false);
+		FormTextModel normalizedAgain = new FormTextModel();
+		normalizedAgain.parseTaggedText(text, false);
+
+		String lineSeparator = System.lineSeparator();
+		assertEquals("line with whitespace Test" + lineSeparator + "ac" + lineSeparator,
+				normalized.getAccessibleText());
+		assertEquals("   line with        whitespace  Test " + lineSeparator + "ac" + lineSeparator,
+				notNormalized.getAccessibleText());
+		assertEquals(normalized.getAccessibleText(), normalizedAgain.getAccessibleText());
+		assertNotSame(normalized.getParagraphs()[0], normalizedAgain.getParagraphs()[0],
+				"Paragraphs keep the layout of their widget and must not be shared");
+	}
+
 	@Test
 	public void testTextWithAmpersand() {
 		FormTextModel formTextModel = new FormTextModel();
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.forms.widgets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Hashtable;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.internal.forms.widgets.Locator;
+import org.eclipse.ui.internal.forms.widgets.Paragraph;
+import org.eclipse.ui.internal.forms.widgets.TextSegment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the sizes of text paragraphs cached by
+ * {@link Paragraph#computeSize(GC, int, Locator, Hashtable)}.
+ */
+public class ParagraphTest {
+
+	private static final String TEXT = "The quick brown fox jumps over the lazy dog";
+
+	/** A text segment counting its measurements. */
+	private static final class CountingSegment extends TextSegment {
+		int measured;
+
+		CountingSegment(String text) {
+			super(text, null);
+		}
+
+		@Override
+		public boolean advanceLocator(GC gc, int wHint, Locator locator, Hashtable<String, Object> objectTable,
+				boolean computeHeightOnly) {
+			measured++;
+			return super.advanceLocator(gc, wHint, locator, objectTable, computeHeightOnly);
+		}
+	}
+
+	private final Hashtable<String, Object> resourceTable = new Hashtable<>();
+
+	private Shell shell;
+
+	private GC gc;
+
+	private Font font;
+
+	private Paragraph paragraph;
+
+	private CountingSegment segment;
+
+	@BeforeEach
+	public void setUp() {
+		shell = new Shell(Display.getDefault());
+		gc = new GC(shell);
+		paragraph = new Paragraph(true);
+		segment = new CountingSegment(TEXT);
+		paragraph.addSegment(segment);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		gc.dispose();
+		shell.dispose();
+		if (font != null) {
+			font.dispose();
+		}
+	}
+
+	/**
+	 * Computes the size of the paragraph.
+	 *
+	 * @return the width and the height of the paragraph
+	 */
+	private int[] computeSize(int wHint) {
+		Locator loc = new Locator();
+		int width = paragraph.computeSize(gc, wHint, loc, resourceTable);
+		return new int[] { width, loc.y };
+	}
+
+	@Test
+	public void testSameWidthIsCached() {
+		int[] size = computeSize(SWT.DEFAULT);
+		assertEquals(1, segment.measured);
+		assertTrue(size[0] > 0 && size[1] > 0);
+
+		int[] cached = computeSize(SWT.DEFAULT);
+		assertEquals(1, segment.measured);
+		assertEquals(size[0], cached[0]);
+		assertEquals(size[1], cached[1]);
+	}
+
+	@Test
+	public void testChangedWidthIsMeasured() {
+		int[] unwrapped = computeSize(SWT.DEFAULT);
+		int[] wrapped = computeSize(unwrapped[0] / 3);
+		assertEquals(2, segment.measured);
+		assertTrue(wrapped[0] < unwrapped[0]);
+		assertTrue(wrapped[1] > unwrapped[1]);
+
+		// both widths are cached
+		assertEquals(unwrapped[1], computeSize(SWT.DEFAULT)[1]);
+		assertEquals(wrapped[1], computeSize(unwrapped[0] / 3)[1]);
+		assertEquals(2, segment.measured);
+	}
+
+	@Test
+	public void testChangedTextInvalidates() {
+		int[] size = computeSize(SWT.DEFAULT);
+		paragraph.addSegment(new TextSegment(" and runs away", null));
+
+		int[] changed = computeSize(SWT.DEFAULT);
+		assertEquals(2, segment.measured);
+		assertTrue(changed[0] > size[0]);
+	}
+
+	@Test
+	public void testChangedFontInvalidates() {
+		int[] size = computeSize(SWT.DEFAULT);
+		font = new Font(shell.getDisplay(), gc.getFont().getFontData()[0].getName(),
+				gc.getFont().getFontData()[0].getHeight() * 2, SWT.NORMAL);
+		gc.setFont(font);
+		computeSize(SWT.DEFAULT);
+		assertEquals(2, segment.measured);
+
+		// the form text clears the caches when its font changes
+		paragraph.clearCache(null);
+		int[] larger = computeSize(SWT.DEFAULT);
+		assertEquals(3, segment.measured);
+		assertTrue(larger[0] > size[0]);
+		assertTrue(larger[1] > size[1]);
+	}
+}
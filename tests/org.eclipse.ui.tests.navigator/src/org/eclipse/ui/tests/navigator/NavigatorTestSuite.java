@@ -24,6 +24,7 @@ import org.eclipse.ui.tests.navigator.jst.JstPipelineTest;
 import org.eclipse.ui.tests.navigator.resources.FoldersAsProjectsContributionTest;
 import org.eclipse.ui.tests.navigator.resources.NestedResourcesTests;
 import org.eclipse.ui.tests.navigator.resources.PathComparatorTest;
+import org.eclipse.ui.tests.navigator.resources.ResourceDeltaCoalescingTest;
 import org.eclipse.ui.tests.navigator.resources.ResourceMgmtActionProviderTests;
 
 import org.junit.platform.suite.api.Suite;
@@ -37,7 +38,7 @@ import org.junit.platform.suite.api.SelectClasses;
 		FirstClassM1Tests.class, LinkHelperTest.class, ShowInTest.class, ResourceTransferTest.class,
 		EvaluationCacheTest.class, ResourceMgmtActionProviderTests.class,
 		NestedResourcesTests.class, PathComparatorTest.class, FoldersAsProjectsContributionTest.class,
-		GoBackForwardsTest.class
+		GoBackForwardsTest.class, ResourceDeltaCoalescingTest.class
 		// DnDTest.class, // DnDTest.testSetDragOperation() fails
 		// PerformanceTest.class // Does not pass on all platforms see bug 264449
 })
@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.navigator.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.ui.internal.navigator.resources.workbench.ResourceExtensionContentProvider;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests how the {@link ResourceExtensionContentProvider} merges the resource
+ * deltas notified from another thread before it updates the viewer.
+ */
+public class ResourceDeltaCoalescingTest {
+
+	private static final long TIMEOUT = 5000;
+
+	/** Records the updates of the viewer. */
+	private static final class RecordingTreeViewer extends TreeViewer {
+		final List<String> updates = new ArrayList<>();
+
+		RecordingTreeViewer(Composite parent) {
+			super(parent);
+		}
+
+		@Override
+		public void add(Object parentElementOrTreePath, Object... childElements) {
+			updates.add("add " + parentElementOrTreePath + " " + Arrays.toString(childElements));
+			super.add(parentElementOrTreePath, childElements);
+		}
+
+		@Override
+		public void remove(Object... elementsOrTreePaths) {
+			updates.add("remove " + Arrays.toString(elementsOrTreePaths));
+			super.remove(elementsOrTreePaths);
+		}
+
+		@Override
+		public void refresh(Object element) {
+			updates.add("refresh " + element);
+			super.refresh(element);
+		}
+	}
+
+	private static final class TestContentProvider extends ResourceExtensionContentProvider {
+		void deliver(IResourceDelta delta) {
+			processDelta(delta);
+		}
+	}
+
+	private final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+
+	/** The project refreshed last, to tell when the viewer has been updated. */
+	private final IProject sentinel = root.getProject("coalescingSentinel");
+
+	private Display display;
+
+	private Shell shell;
+
+	private RecordingTreeViewer viewer;
+
+	private TestContentProvider contentProvider;
+
+	private IProject project;
+
+	private IFolder folder;
+
+	private IFolder subFolder;
+
+	private IFile file;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		project = root.getProject("coalescing");
+		project.create(null);
+		project.open(null);
+		folder = project.getFolder("f");
+		folder.create(true, true, null);
+		subFolder = folder.getFolder("g");
+		subFolder.create(true, true, null);
+		file = folder.getFile("b.txt");
+		file.create(new byte[0], true, null);
+
+		display = Display.getDefault();
+		shell = new Shell(display, SWT.SHELL_TRIM);
+		viewer = new RecordingTreeViewer(shell);
+		contentProvider = new TestContentProvider();
+		viewer.setUseHashlookup(true);
+		viewer.setContentProvider(contentProvider);
+		viewer.setLabelProvider(new LabelProvider());
+		viewer.setInput(root);
+		shell.open();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		if (shell != null) {
+			shell.dispose();
+		}
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testAddedThenRemovedIsDropped() throws Exception {
+		viewer.setExpandedState(project, true);
+		viewer.setExpandedState(folder, true);
+		IFile added = folder.getFile("a.txt");
+
+		deliverInBackground(changed(folder, added(added)), changed(folder, removed(added)));
+
+		assertEquals(List.of(), viewer.updates);
+		assertChildren(folder, file, subFolder);
+	}
+
+	@Test
+	public void testRemovedThenAddedIsRefreshed() throws Exception {
+		viewer.setExpandedState(project, true);
+		viewer.setExpandedState(folder, true);
+
+		deliverInBackground(changed(folder, removed(file)), changed(folder, added(file)));
+
+		assertEquals(List.of("refresh " + file), viewer.updates);
+		assertChildren(folder, file, subFolder);
+	}
+
+	@Test
+	public void testChangesBelowCollapsedNodeAreCoalesced() throws Exception {
+		viewer.setExpandedState(project, true);
+		viewer.setExpandedState(folder, true);
+		viewer.setExpandedState(subFolder, true);
+		viewer.setExpandedState(folder, false);
+		IFile inFolder = folder.getFile("c.txt");
+		IFile inSubFolder = subFolder.getFile("d.txt");
+		inFolder.create(new byte[0], true, null);
+		inSubFolder.create(new byte[0], true, null);
+		viewer.updates.clear();
+
+		deliverInBackground(changed(folder, added(inFolder)), changed(subFolder, added(inSubFolder)));
+
+		assertEquals(List.of("refresh " + folder), viewer.updates);
+		viewer.setExpandedState(folder, true);
+		viewer.setExpandedState(subFolder, true);
+		assertChildren(folder, file, inFolder, subFolder);
+		assertChildren(subFolder, inSubFolder);
+	}
+
+	@Test
+	public void testChangesOfContainerNotShownAreApplied() throws Exception {
+		// The folder has no item since the project was never expanded
+		IFile added = folder.getFile("a.txt");
+
+		deliverInBackground(changed(folder, added(added)));
+
+		assertEquals(List.of("add " + folder + " " + Arrays.toString(new Object[] { added })), viewer.updates);
+	}
+
+	/**
+	 * Delivers the deltas from another thread, so that they are merged, and
+	 * waits until the viewer has been updated.
+	 */
+	private void deliverInBackground(IResourceDelta... deltas) throws InterruptedException {
+		viewer.updates.clear();
+		Thread thread = new Thread(() -> {
+			for (IResourceDelta delta : deltas) {
+				contentProvider.deliver(delta);
+			}
+			contentProvider.deliver(delta(root, IResourceDelta.CHANGED, 0, delta(sentinel, IResourceDelta.CHANGED,
+					IResourceDelta.REPLACED)));
+		});
+		thread.start();
+		thread.join();
+		String sentinelRefresh = "refresh " + sentinel;
+		assertTrue(DisplayHelper.waitForCondition(display, TIMEOUT, () -> viewer.updates.contains(sentinelRefresh)),
+				"The viewer has not been updated");
+		viewer.updates.remove(sentinelRefresh);
+	}
+
+	private void assertChildren(IResource container, IResource... expected) {
+		TreeItem item = (TreeItem) viewer.testFindItem(container);
+		Set<Object> children = Arrays.stream(item.getItems()).map(TreeItem::getData).collect(Collectors.toSet());
+		assertEquals(Set.of(expected), children);
+	}
+
+	/**
+	 * Returns the delta of the given changes of the container, and of its
+	 * ancestors up to the workspace root.
+	 */
+	private IResourceDelta changed(IResource container, IResourceDelta... children) {
+		IResourceDelta delta = delta(container, IResourceDelta.CHANGED, 0, children);
+		for (IResource parent = container.getParent(); parent != null; parent = parent.getParent()) {
+			delta = delta(parent, IResourceDelta.CHANGED, 0, delta);
+		}
+		return delta;
+	}
+
+	private static IResourceDelta added(IResource resource) {
+		return delta(resource, IResourceDelta.ADDED, 0);
+	}
+
+	private static IResourceDelta removed(IResource resource) {
+		return delta(resource, IResourceDelta.REMOVED, 0);
+	}
+
+	private static IResourceDelta delta(IResource resource, int kind, int flags, IResourceDelta... children) {
+		return (IResourceDelta) Proxy.newProxyInstance(ResourceDeltaCoalescingTest.class.getClassLoader(),
+				new Class<?>[] { IResourceDelta.class }, (proxy, method, args) -> switch (method.getName()) {
+				case "getResource" -> resource;
+				case "getKind" -> Integer.valueOf(kind);
+				case "getFlags" -> Integer.valueOf(flags);
+				case "getFullPath" -> resource.getFullPath();
+				case "getAffectedChildren" -> {
+					int kindMask = args == null ? IResourceDelta.ADDED | IResourceDelta.REMOVED | IResourceDelta.CHANGED
+							: ((Integer) args[0]).intValue();
+					yield Arrays.stream(children).filter(child -> (child.getKind() & kindMask) != 0)
+							.toArray(IResourceDelta[]::new);
+				}
+				case "hashCode" -> Integer.valueOf(System.identityHashCode(proxy));
+				case "equals" -> Boolean.valueOf(proxy == args[0]);
+				case "toString" -> kind + " " + resource;
+				default -> throw new UnsupportedOperationException(method.getName());
+				});
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.core.commands.operations.AbstractOperation;
+import org.eclipse.core.commands.operations.DefaultOperationHistory;
+import org.eclipse.core.commands.operations.IOperationHistory;
+import org.eclipse.core.commands.operations.IUndoContext;
+import org.eclipse.core.commands.operations.ObjectUndoContext;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.test.performance.PerformanceTestCaseJunit4;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/**
+ * Measures the operation history with many editors each having a full undo
+ * history, as it is used by the document undo managers while typing: every
+ * keystroke adds an operation and queries the undo state of its editor.
+ */
+public final class OperationHistoryPerformanceTest extends PerformanceTestCaseJunit4 {
+
+	@ClassRule
+	public static final UIPerformanceTestRule uiPerformanceTestRule = new UIPerformanceTestRule();
+
+	/**
+	 * The number of editors, each with its own undo context.
+	 */
+	private static final int EDITORS = 100;
+
+	/**
+	 * The undo limit of each editor, the history is filled up to it.
+	 */
+	private static final int UNDO_LEVELS = 500;
+
+	/**
+	 * The number of keystrokes per measurement.
+	 */
+	private static final int KEYSTROKES = 10000;
+
+	private static final class TypingOperation extends AbstractOperation {
+
+		TypingOperation(IUndoContext context) {
+			super("Typing");
+			addContext(context);
+		}
+
+		@Override
+		public IStatus execute(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus undo(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus redo(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+	}
+
+	private IOperationHistory history;
+
+	private IUndoContext[] contexts;
+
+	@Before
+	public void setUpHistory() {
+		history = new DefaultOperationHistory();
+		contexts = new IUndoContext[EDITORS];
+		for (int i = 0; i < EDITORS; i++) {
+			contexts[i] = new ObjectUndoContext("editor" + i);
+			history.setLimit(contexts[i], UNDO_LEVELS);
+		}
+		for (int level = 0; level < UNDO_LEVELS; level++) {
+			for (IUndoContext context : contexts) {
+				history.add(new TypingOperation(context));
+			}
+		}
+	}
+
+	@After
+	public void disposeHistory() {
+		for (IUndoContext context : contexts) {
+			history.dispose(context, true, true, true);
+		}
+		history = null;
+		contexts = null;
+	}
+
+	/**
+	 * Types in the editors one after the other, which evicts the oldest
+	 * operation of the editor and queries its undo and redo state on every
+	 * keystroke.
+	 */
+	@Test
+	public void testTypingWithFullHistories() {
+		for (int run = 0; run < 5; run++) {
+			startMeasuring();
+			for (int i = 0; i < KEYSTROKES; i++) {
+				IUndoContext context = contexts[i % EDITORS];
+				history.add(new TypingOperation(context));
+				history.canUndo(context);
+				history.canRedo(context);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Undoes and redoes in one editor while all others keep their histories.
+	 */
+	@Test
+	public void testUndoRedoWithFullHistories() throws Exception {
+		IUndoContext context = contexts[EDITORS / 2];
+		for (int run = 0; run < 5; run++) {
+			startMeasuring();
+			for (int i = 0; i < UNDO_LEVELS; i++) {
+				history.undo(context, null, null);
+			}
+			for (int i = 0; i < UNDO_LEVELS; i++) {
+				history.redo(context, null, null);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -31,6 +31,7 @@ import org.junit.platform.suite.api.SelectClasses;
 		OpenMultipleEditorTest.class, //
 		EditorSwitchTest.class, //
 		CommandsPerformanceTest.class, //
+		OperationHistoryPerformanceTest.class, //
 		LabelProviderTest.class, //
 		ProgressReportingTest.class, //
 		OpenProjectExplorerFolderTest.class, //
@@ -16,6 +16,7 @@ package org.eclipse.ui.tests.views.properties.tabbed;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.eclipse.jface.viewers.IContentProvider;
@@ -334,6 +335,37 @@ public class TabbedPropertySheetPageTest
 		assertEquals(1, TabDescriptors.length);
 	}
 
+	/**
+	 * When an Information node is selected again after a File node, the tab
+	 * created for the first selection is reused with its sections.
+	 */
+	@Test
+	public void test_recycleTabs() {
+		/**
+		 * select Information node
+		 */
+		setSelection(new TreeNode[] {treeNodes[0]});
+		TabContents nameTab = testsView.getTabbedPropertySheetPage().getCurrentTab();
+		assertEquals(NameSection.class, nameTab.getSections()[0].getClass());
+
+		/**
+		 * select File node, only the Resource tab displays
+		 */
+		setSelection(new TreeNode[] {treeNodes[5]});
+		ITabDescriptor[] tabDescriptors = testsView.getTabbedPropertySheetPage().getActiveTabs();
+		assertEquals(1, tabDescriptors.length);
+		assertEquals("Resource", tabDescriptors[0].getLabel());//$NON-NLS-1$
+
+		/**
+		 * select Information node again
+		 */
+		setSelection(new TreeNode[] {treeNodes[0]});
+		tabDescriptors = testsView.getTabbedPropertySheetPage().getActiveTabs();
+		assertEquals(3, tabDescriptors.length);
+		assertEquals("Name", tabDescriptors[0].getLabel());//$NON-NLS-1$
+		assertSame(nameTab, testsView.getTabbedPropertySheetPage().getCurrentTab());
+	}
+
 	/**
 	 * When the view first comes up, there is no properties so the "Properties
 	 * are not available." banner is displayed. Tests null selection in a
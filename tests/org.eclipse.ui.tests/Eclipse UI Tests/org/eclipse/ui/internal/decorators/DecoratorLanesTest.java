@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jface.viewers.DecorationContext;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the assignment of lightweight decorators to the fast and the slow lane
+ * of the parallel decoration, and the merging of their results. The test
+ * plug-in does not share the class loader of the workbench, so the package
+ * visible members are called reflectively.
+ */
+public class DecoratorLanesTest {
+
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+	private DecoratorDefinition[] decorators;
+
+	private Object tracker;
+
+	@Before
+	public void setUp() throws Exception {
+		List<DecoratorDefinition> lightweight = new ArrayList<>();
+		for (DecoratorDefinition definition : WorkbenchPlugin.getDefault().getDecoratorManager()
+				.getAllDecoratorDefinitions()) {
+			if (!definition.isFull()) {
+				lightweight.add(definition);
+			}
+		}
+		assertTrue("The test plug-in contributes lightweight decorators", lightweight.size() >= 3);
+		decorators = lightweight.subList(0, 3).toArray(new DecoratorDefinition[3]);
+		Constructor<?> constructor = Class.forName("org.eclipse.ui.internal.decorators.DecoratorLatencyTracker")
+				.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		tracker = constructor.newInstance();
+	}
+
+	private static Object invoke(Object target, String name, Class<?>[] types, Object... args) throws Exception {
+		Method method = target.getClass().getDeclaredMethod(name, types);
+		method.setAccessible(true);
+		return method.invoke(target, args);
+	}
+
+	private void record(DecoratorDefinition decorator, long nanos) throws Exception {
+		invoke(tracker, "record", new Class<?>[] { DecoratorDefinition.class, long.class }, decorator,
+				Long.valueOf(nanos));
+	}
+
+	private boolean isSlow(DecoratorDefinition decorator) throws Exception {
+		return ((Boolean) invoke(tracker, "isSlow", new Class<?>[] { DecoratorDefinition.class }, decorator))
+				.booleanValue();
+	}
+
+	private void assertLanes(List<DecoratorDefinition> expectedFast, List<DecoratorDefinition> expectedSlow)
+			throws Exception {
+		List<DecoratorDefinition> fast = new ArrayList<>();
+		List<DecoratorDefinition> slow = new ArrayList<>();
+		invoke(tracker, "assignLanes",
+				new Class<?>[] { DecoratorDefinition[].class, Collection.class, Collection.class }, decorators, fast,
+				slow);
+		assertEquals(expectedFast, fast);
+		assertEquals(expectedSlow, slow);
+	}
+
+	private static DecorationResult createResult(DecorationBuilder builder) throws Exception {
+		return (DecorationResult) invoke(builder, "createResult", new Class<?>[0]);
+	}
+
+	private static void mergeResult(DecorationBuilder builder, DecorationResult result) throws Exception {
+		invoke(builder, "mergeResult", new Class<?>[] { DecorationResult.class }, result);
+	}
+
+	@Test
+	public void testUnmeasuredDecoratorsAreFast() throws Exception {
+		assertLanes(Arrays.asList(decorators), List.of());
+	}
+
+	@Test
+	public void testSlowDecoratorIsDemoted() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			record(decorators[0], 0);
+			record(decorators[1], SLOW);
+			record(decorators[2], 0);
+		}
+		assertTrue(isSlow(decorators[1]));
+		assertLanes(List.of(decorators[0], decorators[2]), List.of(decorators[1]));
+	}
+
+	@Test
+	public void testFewSamplesDoNotDemote() throws Exception {
+		for (int i = 0; i < 9; i++) {
+			record(decorators[1], SLOW);
+		}
+		assertFalse(isSlow(decorators[1]));
+		assertLanes(Arrays.asList(decorators), List.of());
+	}
+
+	@Test
+	public void testFastDecoratorIsPromotedBack() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			record(decorators[2], SLOW);
+		}
+		assertLanes(List.of(decorators[0], decorators[1]), List.of(decorators[2]));
+		for (int i = 0; i < 100; i++) {
+			record(decorators[2], 0);
+		}
+		assertLanes(Arrays.asList(decorators), List.of());
+	}
+
+	@Test
+	public void testSlowResultIsMergedInDefinitionOrder() throws Exception {
+		DecorationBuilder slowBuilder = new DecorationBuilder(DecorationContext.DEFAULT_CONTEXT);
+		slowBuilder.addPrefix("second> ");
+		slowBuilder.addSuffix(" [second]");
+		DecorationResult slowResult = createResult(slowBuilder);
+
+		// the result of the slow decorator is merged between the fast ones
+		// defined before and after it
+		DecorationBuilder builder = new DecorationBuilder(DecorationContext.DEFAULT_CONTEXT);
+		builder.addPrefix("first> ");
+		builder.addSuffix(" [first]");
+		mergeResult(builder, slowResult);
+		builder.addPrefix("third> ");
+		builder.addSuffix(" [third]");
+
+		assertEquals("first> second> third> label [first] [second] [third]",
+				createResult(builder).decorateWithText("label"));
+	}
+
+	@Test
+	public void testSlowResultIsKeptWithoutFastResult() throws Exception {
+		DecorationBuilder slowBuilder = new DecorationBuilder(DecorationContext.DEFAULT_CONTEXT);
+		slowBuilder.addSuffix(" [slow]");
+		DecorationResult slowResult = createResult(slowBuilder);
+
+		DecorationBuilder builder = new DecorationBuilder(DecorationContext.DEFAULT_CONTEXT);
+		mergeResult(builder, slowResult);
+
+		assertEquals("label [slow]", createResult(builder).decorateWithText("label"));
+		// The cached slow result is not modified by the merge
+		assertEquals("label [slow]", slowResult.decorateWithText("label"));
+	}
+}
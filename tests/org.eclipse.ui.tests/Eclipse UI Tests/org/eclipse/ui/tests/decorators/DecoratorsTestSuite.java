@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.ui.tests.decorators;
 
+import org.eclipse.ui.internal.decorators.DecoratorLanesTest;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
@@ -27,6 +28,7 @@ import org.junit.platform.suite.api.Suite;
 	DecoratorTableTest.class,
 	DecoratorAdaptableTests.class,
 	DecoratorCacheTest.class,
+	DecoratorLanesTest.class,
 })
 public class DecoratorsTestSuite {
 }
@@ -69,6 +69,35 @@ public class ResourceSelectionFilteringDialogTest {
 		}
 	}
 
+	@Test
+	public void testMatchAddedResource() throws CoreException {
+		IFile file = project.getFile("first.txt");
+		file.create(new ByteArrayInputStream(new byte[0]), true, null);
+		assertSelected("first.txt", file);
+
+		// the resource name index is built by now, it must pick up changes
+		IFile added = project.getFile("second.txt");
+		added.create(new ByteArrayInputStream(new byte[0]), true, null);
+		assertSelected("second.txt", added);
+
+		IFile moved = project.getFile("third.txt");
+		added.move(moved.getFullPath(), true, null);
+		assertSelected("third.txt", moved);
+	}
+
+	private static void assertSelected(String pattern, IFile file) {
+		SeeThroughFilteredResourcesSelectionDialog dialog = createDialog();
+		try {
+			dialog.setInitialPattern(pattern);
+			dialog.open();
+			dialog.refresh();
+			Assert.assertTrue(DisplayHelper.waitForCondition(dialog.getShell().getDisplay(), 3000,
+					() -> file.equals(dialog.getSelectedItems().getFirstElement())));
+		} finally {
+			dialog.close();
+		}
+	}
+
 	@After
 	public void doTearDown() throws Exception {
 		project.delete(true, null);
@@ -25,6 +25,7 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.dialogs.FilteredTree;
 import org.eclipse.ui.dialogs.PatternFilter;
@@ -132,6 +133,28 @@ public class FilteredTreeTests {
 		dialog.close();
 	}
 
+	@Test
+	public void testIndexedPattern() {
+		Dialog dialog = createFilteredTreeDialog();
+		fTreeViewer.getPatternFilter().setUseIndex(true);
+
+		typePattern("0-1");
+		// "0-1" and "0-10" to "0-19"
+		waitForTopLevelItems(11);
+
+		// narrowed down from the previous matches
+		typePattern("0-1-2");
+		waitForTopLevelItems(1);
+
+		typePattern("0-1-2 unknownWord");
+		waitForTopLevelItems(0);
+
+		typePattern("");
+		waitForTopLevelItems(NUM_ITEMS);
+
+		dialog.close();
+	}
+
 	private void runFilteredTreeTest(final int treeStyle){
 		Dialog dialog = createFilteredTreeDialog(treeStyle);
 
@@ -198,6 +221,22 @@ public class FilteredTreeTests {
 		fTreeViewer.getViewer().refresh();
 	}
 
+	private void typePattern(String pattern) {
+		fTreeViewer.getFilterControl().setText(pattern);
+	}
+
+	private void waitForTopLevelItems(int expectedCount) {
+		Display display = fTreeViewer.getDisplay();
+		long end = System.currentTimeMillis() + 10000;
+		while (fTreeViewer.getViewer().getTree().getItemCount() != expectedCount
+				&& System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				Thread.yield();
+			}
+		}
+		assertNumberOfTopLevelItems(expectedCount);
+	}
+
 	private void setInput() {
 		fTreeViewer.getViewer().setInput(fRootElement);
 	}
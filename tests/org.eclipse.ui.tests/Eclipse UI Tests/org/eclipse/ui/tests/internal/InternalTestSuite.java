@@ -18,6 +18,7 @@ import org.eclipse.ui.tests.largefile.LargeFileLimitsPreferenceHandlerTest;
 import org.eclipse.ui.tests.markers.Bug75909Test;
 import org.eclipse.ui.tests.markers.DeclarativeFilterActivityTest;
 import org.eclipse.ui.tests.markers.DeclarativeFilterDeclarationTest;
+import org.eclipse.ui.tests.markers.MarkerDeltaTest;
 import org.eclipse.ui.tests.markers.MarkerHelpRegistryReaderTest;
 import org.eclipse.ui.tests.markers.MarkerHelpRegistryTest;
 import org.eclipse.ui.tests.markers.MarkerQueryTest;
@@ -48,6 +49,7 @@ import org.junit.platform.suite.api.Suite;
 	MarkerSupportRegistryTests.class,
 	MarkerSupportViewTest.class,
 	MarkerSortUtilTest.class,
+	MarkerDeltaTest.class,
 	MarkerViewTests.class,
 	MarkerViewUtilTest.class,
 	MarkerHelpRegistryTest.class,
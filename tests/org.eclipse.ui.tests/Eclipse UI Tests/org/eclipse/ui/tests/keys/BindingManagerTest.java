@@ -932,4 +932,72 @@ public final class BindingManagerTest {
 				.getBestActiveBindingFor(console);
 		assertEquals(b3.getTriggerSequence(), bestBinding2);
 	}
+
+	/**
+	 * Tests that switching the active contexts back and forth yields the same
+	 * solution as a binding manager which computes the bindings for the final
+	 * contexts from scratch. Covers bindings which appear, disappear, win a
+	 * conflict through a child context and become partial matches.
+	 */
+	@Test
+	public void testContextSwitchesMatchFullComputation() throws NotDefinedException, ParseException {
+		final Binding[] bindings = defineContextSwitchBindings(contextManager, bindingManager);
+		final String[][] contextSwitches = { { "parent" }, { "child" }, { "parent", "other" }, { "other" },
+				{ "child", "other" }, {}, { "parent" } };
+		for (String[] contextIds : contextSwitches) {
+			contextManager.setActiveContextIds(new HashSet<>(Set.of(contextIds)));
+
+			final ContextManager referenceContextManager = new ContextManager();
+			final BindingManager referenceManager = new BindingManager(referenceContextManager,
+					new CommandManager());
+			defineContextSwitchBindings(referenceContextManager, referenceManager);
+			referenceContextManager.setActiveContextIds(new HashSet<>(Set.of(contextIds)));
+
+			for (Binding binding : bindings) {
+				final TriggerSequence trigger = binding.getTriggerSequence();
+				assertEquals(referenceManager.getPerfectMatch(trigger), bindingManager.getPerfectMatch(trigger),
+						"Perfect match differs for " + Set.of(contextIds));
+				assertEquals(referenceManager.getPartialMatches(trigger), bindingManager.getPartialMatches(trigger),
+						"Partial matches differ for " + Set.of(contextIds));
+				assertEquals(Set.of(referenceManager.getActiveBindingsFor(binding.getParameterizedCommand())),
+						Set.of(bindingManager.getActiveBindingsFor(binding.getParameterizedCommand())),
+						"Active bindings differ for " + Set.of(contextIds));
+			}
+			assertEquals(referenceManager.getCurrentConflicts(), bindingManager.getCurrentConflicts(),
+					"Conflicts differ for " + Set.of(contextIds));
+		}
+	}
+
+	private static Binding[] defineContextSwitchBindings(ContextManager contexts, BindingManager manager)
+			throws NotDefinedException, ParseException {
+		contexts.getContext("parent").define("parent", "parent", null);
+		contexts.getContext("child").define("child", "child", "parent");
+		contexts.getContext("other").define("other", "other", null);
+		final Scheme scheme = manager.getScheme("na");
+		scheme.define("name", "description", null);
+		manager.setActiveScheme(scheme);
+
+		final CommandManager commands = new CommandManager();
+		final Binding[] bindings = new Binding[] {
+				new KeyBinding(KeySequence.getInstance("CTRL+F"),
+						new ParameterizedCommand(commands.getCommand("parentFind"), null), "na", "parent", null, null,
+						null, Binding.SYSTEM),
+				new KeyBinding(KeySequence.getInstance("CTRL+F"),
+						new ParameterizedCommand(commands.getCommand("childFind"), null), "na", "child", null, null,
+						null, Binding.SYSTEM),
+				new KeyBinding(KeySequence.getInstance("CTRL+G"),
+						new ParameterizedCommand(commands.getCommand("otherGo"), null), "na", "other", null, null,
+						null, Binding.SYSTEM),
+				new KeyBinding(KeySequence.getInstance("CTRL+G"),
+						new ParameterizedCommand(commands.getCommand("parentGo"), null), "na", "parent", null, null,
+						null, Binding.SYSTEM),
+				new KeyBinding(KeySequence.getInstance("CTRL+F CTRL+G"),
+						new ParameterizedCommand(commands.getCommand("otherFindGo"), null), "na", "other", null,
+						null, null, Binding.SYSTEM),
+				new KeyBinding(KeySequence.getInstance("CTRL+F CTRL+H"),
+						new ParameterizedCommand(commands.getCommand("childFindH"), null), "na", "child", null, null,
+						null, Binding.SYSTEM) };
+		manager.setBindings(bindings);
+		return bindings;
+	}
 }
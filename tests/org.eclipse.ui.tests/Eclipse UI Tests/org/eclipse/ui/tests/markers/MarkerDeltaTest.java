@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.markers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.ui.internal.views.markers.MarkerSortUtil;
+import org.eclipse.ui.internal.views.markers.MockMarkerEntry;
+import org.eclipse.ui.views.markers.MarkerItem;
+import org.junit.Test;
+
+/**
+ * Tests that applying removed, added and changed entries to sorted entries
+ * gives the same order as sorting all entries again.
+ */
+public class MarkerDeltaTest {
+
+	private static final int SIZE = 2000;
+
+	/** An entry identified by its name and sorted by its rank. */
+	private static final class RankedEntry extends MockMarkerEntry {
+		final int rank;
+
+		RankedEntry(String name, int rank) {
+			super(name);
+			this.rank = rank;
+		}
+
+		@Override
+		public String toString() {
+			return name + ":" + rank;
+		}
+	}
+
+	private static final Comparator<MarkerItem> COMPARATOR = Comparator
+			.comparingInt((MarkerItem item) -> ((RankedEntry) item).rank)
+			.thenComparing(item -> ((RankedEntry) item).name);
+
+	private final Random random = new Random(42);
+
+	private int nextName;
+
+	@Test
+	public void testInsert() {
+		checkDeltas(Integer.MAX_VALUE, 0, 20, 0);
+	}
+
+	@Test
+	public void testRemove() {
+		checkDeltas(Integer.MAX_VALUE, 20, 0, 0);
+	}
+
+	@Test
+	public void testChange() {
+		checkDeltas(Integer.MAX_VALUE, 0, 0, 20);
+	}
+
+	@Test
+	public void testMixed() {
+		checkDeltas(Integer.MAX_VALUE, 10, 10, 10);
+	}
+
+	@Test
+	public void testInsertWithLimit() {
+		checkDeltas(100, 0, 20, 0);
+	}
+
+	@Test
+	public void testRemoveWithLimit() {
+		checkDeltas(100, 20, 0, 0);
+	}
+
+	@Test
+	public void testChangeWithLimit() {
+		checkDeltas(100, 0, 0, 20);
+	}
+
+	@Test
+	public void testMixedWithLimit() {
+		checkDeltas(100, 10, 10, 10);
+	}
+
+	@Test
+	public void testBulkInsertWithLimit() {
+		checkDeltas(100, 0, 1500, 0);
+	}
+
+	@Test
+	public void testRemoveAllWithLimit() {
+		MockMarkerEntry[] entries = createEntries(50);
+		MarkerSortUtil.sortStartingKElement(entries, COMPARATOR, 0, entries.length - 1, 10);
+		Set<String> names = new HashSet<>();
+		for (MockMarkerEntry entry : entries) {
+			names.add(entry.name);
+		}
+		MarkerItem[] result = MarkerSortUtil.applyChanges(entries, 10, names, List.of(), COMPARATOR, 10);
+		assertEquals(0, result.length);
+	}
+
+	/**
+	 * Apply random deltas to sorted entries and compare them with the entries
+	 * sorted again after each delta.
+	 */
+	private void checkDeltas(int limit, int removeCount, int insertCount, int changeCount) {
+		MockMarkerEntry[] entries = createEntries(SIZE);
+		int sortedLength = Math.min(limit, entries.length);
+		MarkerSortUtil.sortStartingKElement(entries, COMPARATOR, 0, entries.length - 1, sortedLength);
+		Map<String, RankedEntry> expected = new LinkedHashMap<>();
+		for (MockMarkerEntry entry : entries) {
+			expected.put(entry.name, (RankedEntry) entry);
+		}
+		for (int round = 0; round < 20; round++) {
+			List<String> names = new ArrayList<>(expected.keySet());
+			Set<String> removed = new HashSet<>();
+			List<MockMarkerEntry> inserted = new ArrayList<>();
+			for (int i = 0; i < removeCount && !names.isEmpty(); i++) {
+				String name = names.remove(random.nextInt(names.size()));
+				removed.add(name);
+				expected.remove(name);
+			}
+			for (int i = 0; i < changeCount && !names.isEmpty(); i++) {
+				String name = names.remove(random.nextInt(names.size()));
+				RankedEntry changed = new RankedEntry(name, random.nextInt(SIZE));
+				removed.add(name);
+				inserted.add(changed);
+				expected.put(name, changed);
+			}
+			for (int i = 0; i < insertCount; i++) {
+				RankedEntry added = createEntry();
+				inserted.add(added);
+				expected.put(added.name, added);
+			}
+
+			MarkerItem[] result = MarkerSortUtil.applyChanges(entries, sortedLength, removed, inserted,
+					COMPARATOR, limit);
+			entries = Arrays.copyOf(result, result.length, MockMarkerEntry[].class);
+			sortedLength = Math.min(limit, entries.length);
+			assertSorted(expected, entries, sortedLength);
+		}
+	}
+
+	private static void assertSorted(Map<String, RankedEntry> expected, MockMarkerEntry[] entries,
+			int sortedLength) {
+		MockMarkerEntry[] resorted = expected.values().toArray(new MockMarkerEntry[0]);
+		Arrays.sort(resorted, COMPARATOR);
+		assertEquals(resorted.length, entries.length);
+		assertEquals(Arrays.asList(resorted).subList(0, sortedLength).toString(),
+				Arrays.asList(entries).subList(0, sortedLength).toString());
+		Set<String> all = new TreeSet<>();
+		for (MockMarkerEntry entry : entries) {
+			all.add(entry.toString());
+		}
+		Set<String> expectedAll = new TreeSet<>();
+		for (MockMarkerEntry entry : resorted) {
+			expectedAll.add(entry.toString());
+		}
+		assertEquals(expectedAll, all);
+	}
+
+	private MockMarkerEntry[] createEntries(int size) {
+		MockMarkerEntry[] entries = new MockMarkerEntry[size];
+		for (int i = 0; i < size; i++) {
+			entries[i] = createEntry();
+		}
+		return entries;
+	}
+
+	private RankedEntry createEntry() {
+		return new RankedEntry("e" + nextName++, random.nextInt(SIZE));
+	}
+}
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.operations;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.operations.AbstractOperation;
+import org.eclipse.core.commands.operations.DefaultOperationHistory;
+import org.eclipse.core.commands.operations.IOperationHistory;
+import org.eclipse.core.commands.operations.IUndoContext;
+import org.eclipse.core.commands.operations.IUndoableOperation;
+import org.eclipse.core.commands.operations.ObjectUndoContext;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.junit.Test;
+
+/**
+ * Applies the same random sequences of changes to the indexed
+ * {@link DefaultOperationHistory} and to the list based
+ * {@link ListOperationHistory}, and checks that both answer all queries alike.
+ * Each history gets its own copy of every operation since the histories change
+ * the contexts of the operations, the copies are compared by their labels and
+ * contexts.
+ */
+public class OperationHistoryDifferentialTest {
+
+	private static final int STEPS = 3000;
+
+	/** An operation that can always be undone and redone. */
+	private static final class Operation extends AbstractOperation {
+		Operation(String label) {
+			super(label);
+		}
+
+		@Override
+		public IStatus execute(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus redo(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus undo(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+	}
+
+	/** An operation that doesn't tell the history about context changes. */
+	private static final class PlainOperation implements IUndoableOperation {
+		private final String label;
+
+		private final List<IUndoContext> contexts = new ArrayList<>();
+
+		PlainOperation(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public void addContext(IUndoContext context) {
+			if (!contexts.contains(context)) {
+				contexts.add(context);
+			}
+		}
+
+		@Override
+		public void removeContext(IUndoContext context) {
+			contexts.remove(context);
+		}
+
+		@Override
+		public IUndoContext[] getContexts() {
+			return contexts.toArray(new IUndoContext[contexts.size()]);
+		}
+
+		@Override
+		public boolean hasContext(IUndoContext context) {
+			for (IUndoContext each : contexts) {
+				if (each.matches(context) || context.matches(each)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public boolean canExecute() {
+			return true;
+		}
+
+		@Override
+		public boolean canUndo() {
+			return true;
+		}
+
+		@Override
+		public boolean canRedo() {
+			return true;
+		}
+
+		@Override
+		public IStatus execute(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus undo(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus redo(IProgressMonitor monitor, IAdaptable info) {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public String getLabel() {
+			return label;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String toString() {
+			return label + contexts;
+		}
+	}
+
+	private final Random random = new Random(1);
+
+	private final IOperationHistory indexed = new DefaultOperationHistory();
+
+	private final IOperationHistory reference = new ListOperationHistory();
+
+	private final List<ObjectUndoContext> contexts = new ArrayList<>();
+
+	/*
+	 * the operations of the indexed history and their copies in the reference
+	 * history
+	 */
+	private final List<IUndoableOperation[]> operations = new ArrayList<>();
+
+	private int nextLabel;
+
+	@Test
+	public void testIndexedOperations() throws ExecutionException {
+		run(false);
+	}
+
+	@Test
+	public void testWithUnindexedOperations() throws ExecutionException {
+		run(true);
+	}
+
+	private void run(boolean plainOperations) throws ExecutionException {
+		for (int i = 0; i < 6; i++) {
+			contexts.add(new ObjectUndoContext("context" + i));
+		}
+		// a context matching two others
+		contexts.get(5).addMatch(contexts.get(0));
+		contexts.get(5).addMatch(contexts.get(1));
+		for (ObjectUndoContext context : contexts) {
+			int limit = 5 + random.nextInt(20);
+			indexed.setLimit(context, limit);
+			reference.setLimit(context, limit);
+		}
+
+		for (int step = 0; step < STEPS; step++) {
+			int action = random.nextInt(100);
+			if (action < 30 || operations.isEmpty()) {
+				IUndoableOperation[] operation = createOperation(plainOperations && random.nextInt(4) == 0);
+				indexed.add(operation[0]);
+				reference.add(operation[1]);
+			} else if (action < 35) {
+				// add an operation of the history again
+				IUndoableOperation[] operation = randomOperation();
+				indexed.add(operation[0]);
+				reference.add(operation[1]);
+			} else if (action < 55) {
+				IUndoContext context = randomContext();
+				assertEquals(reference.undo(context, null, null).getSeverity(),
+						indexed.undo(context, null, null).getSeverity());
+			} else if (action < 70) {
+				IUndoContext context = randomContext();
+				assertEquals(reference.redo(context, null, null).getSeverity(),
+						indexed.redo(context, null, null).getSeverity());
+			} else if (action < 78) {
+				IUndoableOperation[] operation = randomOperation();
+				int count = random.nextInt(3);
+				IUndoableOperation[] indexedReplacements = new IUndoableOperation[count];
+				IUndoableOperation[] referenceReplacements = new IUndoableOperation[count];
+				for (int i = 0; i < count; i++) {
+					IUndoableOperation[] replacement = createOperation(false);
+					indexedReplacements[i] = replacement[0];
+					referenceReplacements[i] = replacement[1];
+				}
+				indexed.replaceOperation(operation[0], indexedReplacements);
+				reference.replaceOperation(operation[1], referenceReplacements);
+			} else if (action < 88) {
+				IUndoableOperation[] operation = randomOperation();
+				IUndoContext context = contexts.get(random.nextInt(contexts.size()));
+				boolean add = random.nextBoolean();
+				for (IUndoableOperation copy : operation) {
+					if (add) {
+						copy.addContext(context);
+					} else {
+						copy.removeContext(context);
+					}
+				}
+				indexed.operationChanged(operation[0]);
+				reference.operationChanged(operation[1]);
+			} else if (action < 93) {
+				IUndoContext context = randomContext();
+				boolean undo = random.nextBoolean();
+				boolean redo = random.nextBoolean();
+				indexed.dispose(context, undo, redo, false);
+				reference.dispose(context, undo, redo, false);
+			} else {
+				ObjectUndoContext context = contexts.get(random.nextInt(contexts.size()));
+				int limit = random.nextInt(25);
+				indexed.setLimit(context, limit);
+				reference.setLimit(context, limit);
+			}
+			assertSameHistory("step " + step);
+		}
+	}
+
+	private void assertSameHistory(String message) {
+		List<IUndoContext> queried = new ArrayList<>(contexts);
+		queried.add(IOperationHistory.GLOBAL_UNDO_CONTEXT);
+		for (IUndoContext context : queried) {
+			String where = message + ", " + context.getLabel();
+			assertEquals(where, Arrays.toString(reference.getUndoHistory(context)),
+					Arrays.toString(indexed.getUndoHistory(context)));
+			assertEquals(where, Arrays.toString(reference.getRedoHistory(context)),
+					Arrays.toString(indexed.getRedoHistory(context)));
+			assertEquals(where, String.valueOf(reference.getUndoOperation(context)),
+					String.valueOf(indexed.getUndoOperation(context)));
+			assertEquals(where, String.valueOf(reference.getRedoOperation(context)),
+					String.valueOf(indexed.getRedoOperation(context)));
+		}
+	}
+
+	private IUndoableOperation[] createOperation(boolean plain) {
+		String label = "op" + nextLabel++;
+		IUndoableOperation[] operation = plain
+				? new IUndoableOperation[] { new PlainOperation(label), new PlainOperation(label) }
+				: new IUndoableOperation[] { new Operation(label), new Operation(label) };
+		int count = 1 + random.nextInt(2);
+		for (int i = 0; i < count; i++) {
+			IUndoContext context = contexts.get(random.nextInt(contexts.size()));
+			operation[0].addContext(context);
+			operation[1].addContext(context);
+		}
+		operations.add(operation);
+		return operation;
+	}
+
+	private IUndoableOperation[] randomOperation() {
+		return operations.get(random.nextInt(operations.size()));
+	}
+
+	private IUndoContext randomContext() {
+		if (random.nextInt(10) == 0) {
+			return IOperationHistory.GLOBAL_UNDO_CONTEXT;
+		}
+		return contexts.get(random.nextInt(contexts.size()));
+	}
+}
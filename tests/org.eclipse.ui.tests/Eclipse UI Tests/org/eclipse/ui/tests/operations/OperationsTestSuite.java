@@ -24,6 +24,7 @@ import org.junit.platform.suite.api.Suite;
 @Suite
 @SelectClasses({
 	OperationsAPITest.class,
+	OperationHistoryDifferentialTest.class,
 	WorkbenchOperationHistoryTests.class,
 	MultiThreadedOperationsTests.class,
 	WorkbenchOperationStressTests.class,
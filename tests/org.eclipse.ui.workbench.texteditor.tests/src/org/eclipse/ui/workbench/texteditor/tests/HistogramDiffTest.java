@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.workbench.texteditor.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.source.LineRange;
+
+import org.eclipse.ui.internal.texteditor.quickdiff.HistogramDiff;
+import org.eclipse.ui.internal.texteditor.quickdiff.QuickDiffRangeDifference;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocumentEquivalenceClass;
+
+import org.eclipse.compare.rangedifferencer.RangeDifference;
+
+/**
+ * Tests for the {@link HistogramDiff}.
+ */
+public class HistogramDiffTest {
+
+	private static List<QuickDiffRangeDifference> diff(String reference, String actual) {
+		return HistogramDiff.findRanges(null, new DocumentEquivalenceClass(new Document(reference)), null, new DocumentEquivalenceClass(new Document(actual)), null);
+	}
+
+	private static String toString(List<QuickDiffRangeDifference> differences) {
+		StringBuilder buffer= new StringBuilder();
+		for (QuickDiffRangeDifference difference : differences) {
+			buffer.append(difference.kind() == RangeDifference.NOCHANGE ? 'U' : 'C');
+			buffer.append(difference.leftStart()).append('+').append(difference.leftLength());
+			buffer.append('/').append(difference.rightStart()).append('+').append(difference.rightLength());
+			buffer.append(' ');
+		}
+		return buffer.toString().trim();
+	}
+
+	private static String line(IDocument document, int line) throws BadLocationException {
+		IRegion region= document.getLineInformation(line);
+		return document.get(region.getOffset(), region.getLength());
+	}
+
+	@Test
+	public void testEqualDocuments() {
+		assertEquals("U0+3/0+3", toString(diff("a\nb\nc", "a\nb\nc")));
+	}
+
+	@Test
+	public void testInsertion() {
+		assertEquals("U0+2/0+2 C2+0/2+2 U2+2/4+2", toString(diff("a\nb\nc\nd", "a\nb\nx\ny\nc\nd")));
+	}
+
+	@Test
+	public void testDeletion() {
+		assertEquals("U0+1/0+1 C1+2/1+0 U3+1/1+1", toString(diff("a\nb\nc\nd", "a\nd")));
+	}
+
+	@Test
+	public void testChangeAtEnd() {
+		assertEquals("U0+2/0+2 C2+1/2+2", toString(diff("a\nb\nc", "a\nb\nx\ny")));
+	}
+
+	@Test
+	public void testAnchorsOnUniqueLines() {
+		// the braces occur several times, the unique lines anchor the diff
+		String reference= "int a() {\n}\nint b() {\n}\n";
+		String actual= "int b() {\n}\nint c() {\n}\n";
+		assertEquals("C0+2/0+0 U2+1/0+1 C3+0/1+2 U3+2/3+2", toString(diff(reference, actual)));
+	}
+
+	@Test
+	public void testRange() {
+		DocumentEquivalenceClass reference= new DocumentEquivalenceClass(new Document("a\nb\nc\nd\ne"));
+		DocumentEquivalenceClass actual= new DocumentEquivalenceClass(new Document("a\nb\nx\nd\ne"));
+		List<QuickDiffRangeDifference> differences= HistogramDiff.findRanges(null, reference, new LineRange(1, 3), actual, new LineRange(1, 3));
+		assertEquals("U0+1/0+1 C1+1/1+1 U2+1/2+1", toString(differences));
+	}
+
+	@Test
+	public void testRangesCoverDocuments() throws Exception {
+		Random random= new Random(4711);
+		for (int run= 0; run < 100; run++) {
+			IDocument reference= createDocument(random);
+			IDocument actual= createDocument(random);
+			List<QuickDiffRangeDifference> differences= diff(reference.get(), actual.get());
+
+			int left= 0, right= 0;
+			boolean lastChanged= false;
+			for (QuickDiffRangeDifference difference : differences) {
+				assertEquals(left, difference.leftStart());
+				assertEquals(right, difference.rightStart());
+				boolean changed= difference.kind() != RangeDifference.NOCHANGE;
+				assertTrue("changes must not be adjacent", !changed || !lastChanged);
+				if (!changed) {
+					assertEquals(difference.leftLength(), difference.rightLength());
+					for (int i= 0; i < difference.leftLength(); i++) {
+						assertEquals(line(reference, left + i), line(actual, right + i));
+					}
+				}
+				left= difference.leftEnd();
+				right= difference.rightEnd();
+				lastChanged= changed;
+			}
+			assertEquals(reference.getNumberOfLines(), left);
+			assertEquals(actual.getNumberOfLines(), right);
+		}
+	}
+
+	private static IDocument createDocument(Random random) {
+		StringBuilder buffer= new StringBuilder();
+		int lines= random.nextInt(200);
+		for (int i= 0; i < lines; i++) {
+			// few distinct lines to get repeated lines
+			buffer.append(random.nextInt(random.nextBoolean() ? 5 : 100)).append('\n');
+		}
+		return new Document(buffer.toString());
+	}
+}